@@ -30,6 +30,12 @@ dependencies {
     implementation("net.logstash.logback:logstash-logback-encoder:8.0")
 
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
+    // Migraciones versionadas del esquema (Hibernate solo valida)
+    implementation("org.flywaydb:flyway-core")
+    implementation("org.flywaydb:flyway-mysql")
+    // Cache de segundo nivel de Hibernate (JCache) con Caffeine como proveedor en proceso
+    implementation("org.hibernate.orm:hibernate-jcache")
+    implementation("com.github.ben-manes.caffeine:jcache")
     implementation("org.springframework.boot:spring-boot-starter-validation") // Para validar DTOs y otros objetos con anotaciones.
     implementation("org.springframework.boot:spring-boot-starter-oauth2-client")
 
@@ -53,6 +59,10 @@ dependencies {
     testImplementation("io.projectreactor:reactor-test")
     testImplementation("org.springframework.modulith:spring-modulith-starter-test")
     testImplementation("org.springframework.security:spring-security-test")
+    // MySQL real para validar las migraciones de Flyway contra las entidades (FlywayMigrationsTest)
+    testImplementation("org.springframework.boot:spring-boot-testcontainers")
+    testImplementation("org.testcontainers:junit-jupiter")
+    testImplementation("org.testcontainers:mysql")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
@@ -66,3 +76,27 @@ dependencyManagement {
 tasks.withType<Test> {
     useJUnitPlatform()
 }
+
+tasks.test {
+    useJUnitPlatform {
+        excludeTags("load")
+    }
+}
+
+// Ingesta de punta a punta contra el servidor simulado de GitHub/Datadog (UpstreamStubServer).
+// El escenario se ajusta con -Pstub.repositories=50 -Pstub.commits=5000 -Pstub.latency=50ms -Pstub.error-rate=0.02 ...
+// Incluye el benchmark de lotes JDBC por ruta de ingesta (-Pbenchmark.rows=20000).
+tasks.register<Test>("loadTest") {
+    description = "Runs the sync throughput load tests against the local GitHub/Datadog stand-in."
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("load")
+    }
+    systemProperties(project.properties.filterKeys { it.startsWith("stub.") || it.startsWith("benchmark.") })
+    testLogging {
+        showStandardStreams = true
+    }
+    shouldRunAfter(tasks.test)
+}
@@ -0,0 +1,58 @@
+package org.grubhart.pucp.tesis.module_api;
+
+import org.grubhart.pucp.tesis.module_collector.IncidentNotificationReceiver;
+import org.grubhart.pucp.tesis.module_collector.IncidentNotificationResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Receptor de notificaciones de incidentes de Datadog. Datadog no firma los webhooks, así que la integración
+ * se configura con una cabecera personalizada {@code X-Webhook-Token} que debe coincidir con el secreto.
+ */
+@RestController
+@RequestMapping("/api/v1/webhooks")
+public class DatadogWebhookController {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatadogWebhookController.class);
+
+    private final IncidentNotificationReceiver incidentNotificationReceiver;
+    private final String webhookToken;
+
+    public DatadogWebhookController(IncidentNotificationReceiver incidentNotificationReceiver,
+                                    @Value("${datadog.webhook-token:}") String webhookToken) {
+        this.incidentNotificationReceiver = incidentNotificationReceiver;
+        this.webhookToken = webhookToken;
+    }
+
+    @PostMapping("/datadog/incidents")
+    public ResponseEntity<Map<String, Object>> receiveIncident(
+            @RequestHeader(value = "X-Webhook-Token", required = false) String token,
+            @RequestBody byte[] payload) {
+
+        if (webhookToken == null || webhookToken.isBlank() || !WebhookSignatures.constantTimeEquals(webhookToken, token)) {
+            logger.warn("Webhook de incidentes de Datadog rechazado: token ausente o inválido.");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid token."));
+        }
+
+        try {
+            IncidentNotificationResult result = incidentNotificationReceiver.receive(payload);
+            return ResponseEntity.ok(Map.of(
+                    "incidentId", result.incidentId(),
+                    "status", result.status().name(),
+                    "failedDeployments", result.failedDeployments()));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Webhook de incidentes de Datadog con payload inválido: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.grubhart.pucp.tesis.module_api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.grubhart.pucp.tesis.module_collector.IngestionKind;
+import org.grubhart.pucp.tesis.module_collector.RepositoryIngestionTrigger;
+import org.grubhart.pucp.tesis.module_domain.GitHubWorkflowRunDto;
+import org.grubhart.pucp.tesis.module_domain.GithubPullRequestDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Receptor de webhooks de GitHub. Valida la firma HMAC del cuerpo y encola el guardado de lo que traen los
+ * eventos push, pull_request y workflow_run del repositorio afectado. Si el payload no se puede mapear a los
+ * DTOs se encola en su lugar la sincronización incremental. Los jobs programados siguen ejecutándose con baja
+ * frecuencia como reconciliación.
+ */
+@RestController
+@RequestMapping("/api/v1/webhooks")
+public class GithubWebhookController {
+
+    private static final Logger logger = LoggerFactory.getLogger(GithubWebhookController.class);
+
+    private final RepositoryIngestionTrigger ingestionTrigger;
+    private final ObjectMapper objectMapper;
+    private final String webhookSecret;
+    private final String commitBranch;
+
+    public GithubWebhookController(RepositoryIngestionTrigger ingestionTrigger,
+                                   ObjectMapper objectMapper,
+                                   @Value("${dora.github.webhook-secret:}") String webhookSecret,
+                                   @Value("${dora.sync.commits.branch:}") String commitBranch) {
+        this.ingestionTrigger = ingestionTrigger;
+        this.objectMapper = objectMapper;
+        this.webhookSecret = webhookSecret;
+        this.commitBranch = commitBranch;
+    }
+
+    @PostMapping("/github")
+    public ResponseEntity<Map<String, String>> receiveGithubEvent(
+            @RequestHeader(value = "X-GitHub-Event", required = false) String event,
+            @RequestHeader(value = "X-Hub-Signature-256", required = false) String signature,
+            @RequestBody byte[] payload) {
+
+        if (!WebhookSignatures.isValidGithubSignature(webhookSecret, payload, signature)) {
+            logger.warn("Webhook de GitHub rechazado: firma ausente o inválida (evento: {}).", event);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid signature."));
+        }
+
+        if ("ping".equals(event)) {
+            return ResponseEntity.ok(Map.of("message", "pong"));
+        }
+
+        try {
+            JsonNode root = objectMapper.readTree(payload);
+            JsonNode repository = root.path("repository");
+            String owner = repository.path("owner").path("login").asText(null);
+            String repo = repository.path("name").asText(null);
+            Boolean configured = switch (event == null ? "" : event) {
+                case "push" -> onPush(root, owner, repo);
+                case "pull_request" -> onPullRequest(root, owner, repo);
+                case "workflow_run" -> onWorkflowRun(root, owner, repo);
+                default -> null;
+            };
+            if (configured == null) {
+                return ResponseEntity.ok(Map.of("message", "Event ignored."));
+            }
+            if (!configured) {
+                return ResponseEntity.ok(Map.of("message", "Repository not configured."));
+            }
+
+            logger.info("Webhook de GitHub '{}' aceptado para {}/{}.", event, owner, repo);
+            return ResponseEntity.accepted().body(Map.of("message", "Synchronization enqueued."));
+
+        } catch (IOException e) {
+            // readTree declara IOException; sobre un arreglo de bytes solo puede ser JSON inválido
+            logger.warn("Webhook de GitHub '{}' con payload inválido: {}", event, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid payload."));
+        }
+    }
+
+    /**
+     * Solo los push a la rama que se sincroniza ({@code dora.sync.commits.branch}, o la rama por defecto si no se
+     * configura) afectan a los commits guardados.
+     *
+     * @return {@code null} si el evento no aplica; si no, si el repositorio está configurado
+     */
+    private Boolean onPush(JsonNode root, String owner, String repo) {
+        String syncedBranch = StringUtils.hasText(commitBranch)
+                ? commitBranch
+                : root.path("repository").path("default_branch").asText("");
+        boolean toSyncedBranch = ("refs/heads/" + syncedBranch).equals(root.path("ref").asText());
+        boolean deleted = root.path("deleted").asBoolean(false);
+        if (!toSyncedBranch || deleted) {
+            return null;
+        }
+        String before = root.path("before").asText(null);
+        String after = root.path("after").asText(null);
+        if (before == null || after == null) {
+            return resync(owner, repo, IngestionKind.COMMITS, "push sin before/after");
+        }
+        return ingestionTrigger.ingestPush(owner, repo, before, after);
+    }
+
+    private Boolean onPullRequest(JsonNode root, String owner, String repo) {
+        GithubPullRequestDto pullRequest = read(root.path("pull_request"), GithubPullRequestDto.class);
+        if (pullRequest == null || pullRequest.getId() == null) {
+            return resync(owner, repo, IngestionKind.PULL_REQUESTS, "pull_request sin id");
+        }
+        return ingestionTrigger.ingestPullRequest(owner, repo, pullRequest);
+    }
+
+    /**
+     * Solo las ejecuciones completadas con éxito se registran como deployments.
+     */
+    private Boolean onWorkflowRun(JsonNode root, String owner, String repo) {
+        JsonNode node = root.path("workflow_run");
+        boolean completed = "completed".equals(root.path("action").asText());
+        if (!completed || !"success".equals(node.path("conclusion").asText())) {
+            return null;
+        }
+        GitHubWorkflowRunDto run = read(node, GitHubWorkflowRunDto.class);
+        if (run == null || run.getId() == null) {
+            return resync(owner, repo, IngestionKind.DEPLOYMENTS, "workflow_run sin id");
+        }
+        return ingestionTrigger.ingestWorkflowRun(owner, repo, run);
+    }
+
+    private <T> T read(JsonNode node, Class<T> type) {
+        try {
+            return objectMapper.treeToValue(node, type);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            logger.warn("No se pudo mapear el payload a {}: {}", type.getSimpleName(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Si el evento no se puede interpretar, se vuelve a pedir a GitHub lo nuevo del repositorio.
+     */
+    private boolean resync(String owner, String repo, IngestionKind kind, String reason) {
+        logger.warn("Webhook de GitHub para {}/{} no interpretable ({}); se encola la sincronización de {}.",
+                owner, repo, reason, kind);
+        return ingestionTrigger.enqueue(owner, repo, kind);
+    }
+}
@@ -0,0 +1,39 @@
+package org.grubhart.pucp.tesis.module_api;
+
+import org.grubhart.pucp.tesis.module_domain.KeysetPage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+
+/**
+ * Respuestas de los listados paginados por cursor (ver {@link KeysetPage}). El cuerpo sigue siendo el arreglo de
+ * elementos; la página siguiente se anuncia como en la API de GitHub, en la cabecera {@code Link} con
+ * {@code rel="next"}, y su cursor además en {@value #NEXT_CURSOR_HEADER}. Sin esas cabeceras no hay más páginas.
+ */
+final class KeysetResponses {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private KeysetResponses() {
+    }
+
+    /**
+     * @param size tamaño efectivo de la página, ya acotado con {@link KeysetPage#size(Long, Integer)}; es el límite del
+     *             enlace a la página siguiente
+     */
+    static <T> ResponseEntity<List<T>> ok(String path, KeysetPage<T> page, int size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextAfter() != null) {
+            String next = UriComponentsBuilder.fromPath(path)
+                    .queryParam("after", page.nextAfter())
+                    .queryParam("limit", size)
+                    .build()
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.nextAfter()));
+        }
+        return response.body(page.items());
+    }
+}
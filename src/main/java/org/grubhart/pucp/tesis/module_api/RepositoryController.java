@@ -10,6 +10,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.grubhart.pucp.tesis.module_api.dto.RepositoryDto;
 import org.grubhart.pucp.tesis.module_api.dto.RepositorySyncResultDto;
 import org.grubhart.pucp.tesis.module_api.dto.UpdateRepositoryRequest;
+import org.grubhart.pucp.tesis.module_domain.KeysetPage;
+import org.grubhart.pucp.tesis.module_domain.ReferenceDataCache;
 import org.grubhart.pucp.tesis.module_domain.RepositoryConfig;
 import org.grubhart.pucp.tesis.module_domain.RepositoryConfigRepository;
 import org.grubhart.pucp.tesis.module_domain.RepositorySyncResult;
@@ -22,7 +24,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Controlador REST para gestionar repositorios de GitHub y su configuración con Datadog.
@@ -37,31 +38,41 @@ public class RepositoryController {
 
     private final RepositoryConfigRepository repositoryConfigRepository;
     private final RepositorySyncService repositorySyncService;
+    private final ReferenceDataCache referenceDataCache;
 
     public RepositoryController(
             RepositoryConfigRepository repositoryConfigRepository,
-            RepositorySyncService repositorySyncService) {
+            RepositorySyncService repositorySyncService,
+            ReferenceDataCache referenceDataCache) {
         this.repositoryConfigRepository = repositoryConfigRepository;
         this.repositorySyncService = repositorySyncService;
+        this.referenceDataCache = referenceDataCache;
     }
 
     @GetMapping
     @Operation(
-            summary = "Listar todos los repositorios",
-            description = "Obtiene una lista de todos los repositorios configurados en el sistema, incluyendo su asociación con servicios de Datadog. Disponible para todos los usuarios autenticados.",
+            summary = "Listar los repositorios",
+            description = "Obtiene una página de los repositorios configurados en el sistema, ordenados por ID, incluyendo su asociación con servicios de Datadog. Si hay más repositorios, la respuesta incluye la cabecera Link con rel=\"next\" y el cursor en X-Next-Cursor. Disponible para todos los usuarios autenticados.",
+            parameters = {
+                    @Parameter(name = "after", description = "Cursor: ID del último repositorio de la página anterior (omitir para la primera)", example = "100"),
+                    @Parameter(name = "limit", description = "Tamaño de página (1 a 500). Si se omite, 500 en la primera página y 100 al seguir un cursor", example = "100")
+            },
             responses = {
                     @ApiResponse(
                             responseCode = "200",
-                            description = "Lista de repositorios obtenida exitosamente",
+                            description = "Página de repositorios obtenida exitosamente",
                             content = @Content(schema = @Schema(implementation = RepositoryDto.class))
                     )
             }
     )
-    public List<RepositoryDto> getAllRepositories() {
-        logger.debug("Fetching all repositories");
-        return repositoryConfigRepository.findAll().stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+    public ResponseEntity<List<RepositoryDto>> getAllRepositories(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        logger.debug("Fetching repositories after {} (limit {})", after, limit);
+        KeysetPage<RepositoryDto> page = KeysetPage.read(after, limit,
+                        repositoryConfigRepository::findByIdGreaterThanOrderByIdAsc, RepositoryConfig::getId)
+                .map(this::mapToDto);
+        return KeysetResponses.ok("/api/v1/repositories", page, KeysetPage.size(after, limit));
     }
 
     @PostMapping("/sync")
@@ -148,6 +159,7 @@ public class RepositoryController {
                         repo.setDatadogServiceName(request.datadogServiceName());
                         repo.setDeploymentWorkflowFileName(request.deploymentWorkflowFileName());
                         RepositoryConfig updated = repositoryConfigRepository.save(repo);
+                        referenceDataCache.evictRepositories();
                         logger.info("Repository {} updated with datadogServiceName: {}, deploymentWorkflowFileName: {}",
                                 id, request.datadogServiceName(), request.deploymentWorkflowFileName());
                         return ResponseEntity.ok(mapToDto(updated));
@@ -0,0 +1,62 @@
+package org.grubhart.pucp.tesis.module_api;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.grubhart.pucp.tesis.module_domain.SqlActivity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Cuenta las sentencias SQL y el tiempo en JDBC de cada request, etiquetados con la plantilla del endpoint
+ * ({@code GET /api/teams/{teamId}}) para no crear una serie por URL. Una request que supera
+ * {@code dora.sql.request-statement-warn-threshold} sentencias se registra en el log: suele ser una carga lazy N+1.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlActivityFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlActivityFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final long statementWarnThreshold;
+
+    public SqlActivityFilter(MeterRegistry meterRegistry,
+                             @Value("${dora.sql.request-statement-warn-threshold:100}") long statementWarnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.statementWarnThreshold = statementWarnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlActivity.Scope scope = SqlActivity.open(meterRegistry, SqlActivity.KIND_ENDPOINT, request.getMethod() + " UNKNOWN");
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // El patrón del endpoint solo se conoce después de que el DispatcherServlet eligió el handler
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String endpoint = request.getMethod() + " " + (pattern != null ? pattern : "UNKNOWN");
+            scope.rename(endpoint);
+            if (scope.statements() >= statementWarnThreshold) {
+                logger.warn("La request {} ejecutó {} sentencias SQL ({} ms en JDBC), posible carga N+1",
+                        endpoint, scope.statements(), scope.jdbcTime().toMillis(),
+                        kv("sql_endpoint", endpoint), kv("sql_statements", scope.statements()),
+                        kv("sql_jdbc_time_ms", scope.jdbcTime().toMillis()));
+            }
+            scope.close();
+        }
+    }
+}
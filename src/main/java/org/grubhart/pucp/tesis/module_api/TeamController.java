@@ -8,6 +8,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.grubhart.pucp.tesis.module_domain.KeysetPage;
 import org.grubhart.pucp.tesis.module_domain.RepositoryConfig;
 import org.grubhart.pucp.tesis.module_processor.*;
 import org.springframework.http.HttpStatus;
@@ -58,19 +59,25 @@ public class TeamController {
 
     @GetMapping
     @Operation(
-            summary = "Listar todos los equipos",
-            description = "Obtiene una lista de todos los equipos configurados en el sistema, incluyendo estadísticas de miembros, tech leads y repositorios asignados.",
+            summary = "Listar los equipos",
+            description = "Obtiene una página de los equipos configurados en el sistema, ordenados por ID, incluyendo estadísticas de miembros, tech leads y repositorios asignados. Si hay más equipos, la respuesta incluye la cabecera Link con rel=\"next\" y el cursor en X-Next-Cursor.",
+            parameters = {
+                    @Parameter(name = "after", description = "Cursor: ID del último equipo de la página anterior (omitir para la primera)", example = "100"),
+                    @Parameter(name = "limit", description = "Tamaño de página (1 a 500). Si se omite, 500 en la primera página y 100 al seguir un cursor", example = "100")
+            },
             responses = {
                     @ApiResponse(
                             responseCode = "200",
-                            description = "Lista de equipos obtenida exitosamente",
+                            description = "Página de equipos obtenida exitosamente",
                             content = @Content(schema = @Schema(implementation = TeamResponse.class))
                     )
             }
     )
-    public ResponseEntity<List<TeamResponse>> getAllTeams() {
-        List<TeamResponse> teams = teamManagementService.getAllTeams();
-        return ResponseEntity.ok(teams);
+    public ResponseEntity<List<TeamResponse>> getAllTeams(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        KeysetPage<TeamResponse> page = teamManagementService.getTeams(after, limit);
+        return KeysetResponses.ok("/api/v1/teams", page, KeysetPage.size(after, limit));
     }
 
     @GetMapping("/{id}")
@@ -34,10 +34,13 @@ public class UserController {
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
+    private final ReferenceDataCache referenceDataCache;
 
-    public UserController(UserRepository userRepository, RoleRepository roleRepository) {
+    public UserController(UserRepository userRepository, RoleRepository roleRepository,
+                          ReferenceDataCache referenceDataCache) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
+        this.referenceDataCache = referenceDataCache;
     }
 
     @GetMapping("/me")
@@ -82,19 +85,26 @@ public class UserController {
     @GetMapping
     @Operation(
             summary = "Obtener usuarios activos con sus roles",
-            description = "Retorna una lista de todos los usuarios activos de la organización, incluyendo sus roles asignados. Cada usuario tiene al menos el rol 'DEVELOPER' por defecto.",
+            description = "Retorna una página de los usuarios activos de la organización, ordenados por ID, incluyendo sus roles asignados. Cada usuario tiene al menos el rol 'DEVELOPER' por defecto. Si hay más usuarios, la respuesta incluye la cabecera Link con rel=\"next\" y el cursor en X-Next-Cursor.",
+            parameters = {
+                    @Parameter(name = "after", description = "Cursor: ID del último usuario de la página anterior (omitir para la primera)", example = "100"),
+                    @Parameter(name = "limit", description = "Tamaño de página (1 a 500). Si se omite, 500 en la primera página y 100 al seguir un cursor", example = "100")
+            },
             responses = {
                     @ApiResponse(
                             responseCode = "200",
-                            description = "Lista de usuarios obtenida exitosamente",
+                            description = "Página de usuarios obtenida exitosamente",
                             content = @Content(schema = @Schema(implementation = UserSummaryDto.class))
                     )
             }
     )
-    public List<UserSummaryDto> getActiveUsers() {
-        return userRepository.findAllByActiveTrue().stream()
-                .map(this::mapToUserSummaryDto)
-                .collect(Collectors.toList());
+    public ResponseEntity<List<UserSummaryDto>> getActiveUsers(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        KeysetPage<UserSummaryDto> page = KeysetPage.read(after, limit,
+                        userRepository::findByActiveTrueAndIdGreaterThanOrderByIdAsc, User::getId)
+                .map(this::mapToUserSummaryDto);
+        return KeysetResponses.ok("/api/v1/users", page, KeysetPage.size(after, limit));
     }
 
     @PutMapping("/{userId}/roles")
@@ -162,6 +172,7 @@ public class UserController {
         user.getRoles().clear();
         user.getRoles().addAll(newRoles);
         userRepository.save(user);
+        referenceDataCache.evictUsers();
 
         logger.info("Roles asignados exitosamente al usuario ID {}: {}", userId, request.roles());
         return ResponseEntity.ok(mapToUserSummaryDto(user));
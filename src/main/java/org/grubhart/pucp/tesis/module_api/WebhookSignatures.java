@@ -0,0 +1,50 @@
+package org.grubhart.pucp.tesis.module_api;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * Verificación de firmas de webhooks entrantes. Las comparaciones son de tiempo constante.
+ */
+final class WebhookSignatures {
+
+    private static final String HMAC_SHA256 = "HmacSHA256";
+    private static final String GITHUB_SIGNATURE_PREFIX = "sha256=";
+
+    private WebhookSignatures() {
+    }
+
+    /**
+     * Valida la cabecera {@code X-Hub-Signature-256} de GitHub: {@code sha256=} seguido del HMAC-SHA256
+     * en hexadecimal del cuerpo crudo, usando el secreto configurado en el webhook.
+     */
+    static boolean isValidGithubSignature(String secret, byte[] payload, String signatureHeader) {
+        if (secret == null || secret.isBlank() || signatureHeader == null
+                || !signatureHeader.startsWith(GITHUB_SIGNATURE_PREFIX)) {
+            return false;
+        }
+        String expected = GITHUB_SIGNATURE_PREFIX + HexFormat.of().formatHex(hmacSha256(secret, payload));
+        return constantTimeEquals(expected, signatureHeader);
+    }
+
+    static boolean constantTimeEquals(String expected, String actual) {
+        if (expected == null || actual == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), actual.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] hmacSha256(String secret, byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_SHA256);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_SHA256));
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 no está disponible en esta JVM", e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.grubhart.pucp.tesis.module_collector;
+
+/**
+ * Recibe notificaciones de incidentes de Datadog (webhook) y las persiste sin esperar al ciclo de polling.
+ */
+public interface IncidentNotificationReceiver {
+
+    /**
+     * Inserta o actualiza el incidente descrito en el payload y marca los deployments correlacionados.
+     *
+     * @param payload cuerpo JSON de la notificación
+     * @throws IllegalArgumentException si el payload no es válido
+     */
+    IncidentNotificationResult receive(byte[] payload);
+}
@@ -0,0 +1,19 @@
+package org.grubhart.pucp.tesis.module_collector;
+
+/**
+ * Resultado de procesar una notificación de incidente.
+ *
+ * @param incidentId         id del incidente en Datadog
+ * @param status             qué se hizo con el incidente
+ * @param failedDeployments  deployments marcados como fallidos por este incidente
+ */
+public record IncidentNotificationResult(String incidentId, Status status, int failedDeployments) {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        UNCHANGED,
+        /** El servicio del incidente no corresponde a ningún repositorio configurado. */
+        IGNORED
+    }
+}
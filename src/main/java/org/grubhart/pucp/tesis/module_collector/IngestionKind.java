@@ -0,0 +1,10 @@
+package org.grubhart.pucp.tesis.module_collector;
+
+/**
+ * Tipo de datos de GitHub que debe re-sincronizarse para un repositorio.
+ */
+public enum IngestionKind {
+    COMMITS,
+    PULL_REQUESTS,
+    DEPLOYMENTS
+}
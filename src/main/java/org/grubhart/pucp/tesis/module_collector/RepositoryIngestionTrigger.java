@@ -0,0 +1,45 @@
+package org.grubhart.pucp.tesis.module_collector;
+
+import org.grubhart.pucp.tesis.module_domain.GitHubWorkflowRunDto;
+import org.grubhart.pucp.tesis.module_domain.GithubPullRequestDto;
+
+/**
+ * Permite solicitar la sincronización incremental de un único repositorio sin esperar al siguiente
+ * ciclo programado (por ejemplo, al recibir un webhook de GitHub).
+ *
+ * Los métodos {@code ingest*} guardan los datos que ya trae el evento; {@link #enqueue} queda para cuando el
+ * evento no se pudo interpretar y hay que volver a pedirle a GitHub lo nuevo del repositorio.
+ */
+public interface RepositoryIngestionTrigger {
+
+    /**
+     * Encola la sincronización de {@code kind} para el repositorio {@code owner/repo}.
+     * Las solicitudes repetidas que llegan mientras otra igual sigue pendiente se combinan en una sola.
+     *
+     * @return {@code false} si el repositorio no está configurado y la solicitud se descartó
+     */
+    boolean enqueue(String owner, String repo, IngestionKind kind);
+
+    /**
+     * Encola el guardado de los commits de un push que movió la rama sincronizada de {@code before} a
+     * {@code after}.
+     *
+     * @return {@code false} si el repositorio no está configurado y la solicitud se descartó
+     */
+    boolean ingestPush(String owner, String repo, String before, String after);
+
+    /**
+     * Encola el guardado del Pull Request recibido en el evento, nuevo o ya conocido.
+     *
+     * @return {@code false} si el repositorio no está configurado y la solicitud se descartó
+     */
+    boolean ingestPullRequest(String owner, String repo, GithubPullRequestDto pullRequest);
+
+    /**
+     * Encola el registro como deployment de la ejecución recibida en el evento, si corresponde al workflow de
+     * deployment del repositorio.
+     *
+     * @return {@code false} si el repositorio no está configurado y la solicitud se descartó
+     */
+    boolean ingestWorkflowRun(String owner, String repo, GitHubWorkflowRunDto run);
+}
@@ -0,0 +1,16 @@
+package org.grubhart.pucp.tesis.module_collector;
+
+import java.time.LocalDateTime;
+
+/**
+ * Publicado al terminar cada ciclo del pipeline de sincronización, después del cálculo de lead time.
+ * Es la etapa de rollups: los agregados derivados se recalculan escuchando este evento.
+ *
+ * @param repositories    repositorios procesados en el ciclo
+ * @param newDeployments  deployments nuevos guardados en el ciclo
+ * @param startedAt       inicio del ciclo
+ * @param finishedAt      fin del ciclo (antes de notificar a los listeners)
+ */
+public record SyncCycleCompletedEvent(int repositories, int newDeployments,
+                                      LocalDateTime startedAt, LocalDateTime finishedAt) {
+}
@@ -0,0 +1,15 @@
+package org.grubhart.pucp.tesis.module_collector.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita los jobs programados (pipeline de sincronización e incidentes).
+ * Se desactiva con {@code dora.sync.scheduling.enabled=false}, por ejemplo en las pruebas.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "dora.sync.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
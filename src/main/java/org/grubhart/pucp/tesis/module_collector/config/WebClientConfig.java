@@ -1,14 +1,91 @@
 package org.grubhart.pucp.tesis.module_collector.config;
 
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.time.Duration;
+
+/**
+ * Capa HTTP saliente del collector: un pool de conexiones con nombre por cada API externa, compartido por todos
+ * los clientes de esa API, de modo que las sincronizaciones concurrentes reutilizan conexiones ya abiertas en
+ * lugar de repetir el handshake TLS.
+ *
+ * Cada pool se configura con {@code dora.http.<upstream>.*} (conexiones máximas, tiempos de espera, vida de las
+ * conexiones ociosas, compresión y HTTP/2). Las métricas del pool se publican como
+ * {@code reactor.netty.connection.provider.*} con la etiqueta {@code name=<upstream>}.
+ *
+ * Los clientes reciben el builder de su API y deben hacer {@code clone()} antes de agregar headers o filtros.
+ */
 @Configuration
 public class WebClientConfig {
 
-    @Bean
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+    public static final String GITHUB_WEB_CLIENT_BUILDER = "githubWebClientBuilder";
+    public static final String DATADOG_WEB_CLIENT_BUILDER = "datadogWebClientBuilder";
+
+    private final Environment environment;
+
+    public WebClientConfig(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider githubConnectionProvider() {
+        return connectionProvider("github");
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider datadogConnectionProvider() {
+        return connectionProvider("datadog");
+    }
+
+    @Bean(name = GITHUB_WEB_CLIENT_BUILDER)
+    public WebClient.Builder githubWebClientBuilder(
+            @Qualifier("githubConnectionProvider") ConnectionProvider connectionProvider) {
+        return WebClient.builder().clientConnector(connector("github", connectionProvider));
+    }
+
+    @Bean(name = DATADOG_WEB_CLIENT_BUILDER)
+    public WebClient.Builder datadogWebClientBuilder(
+            @Qualifier("datadogConnectionProvider") ConnectionProvider connectionProvider) {
+        return WebClient.builder().clientConnector(connector("datadog", connectionProvider));
+    }
+
+    private ConnectionProvider connectionProvider(String upstream) {
+        return ConnectionProvider.builder(upstream)
+                .maxConnections(property(upstream, "max-connections", Integer.class, 16))
+                .pendingAcquireTimeout(property(upstream, "pending-acquire-timeout", Duration.class, Duration.ofSeconds(30)))
+                // Por debajo del timeout de inactividad de los balanceadores, para no reutilizar conexiones ya cerradas
+                .maxIdleTime(property(upstream, "max-idle-time", Duration.class, Duration.ofSeconds(30)))
+                .maxLifeTime(property(upstream, "max-life-time", Duration.class, Duration.ofMinutes(5)))
+                .evictInBackground(property(upstream, "evict-interval", Duration.class, Duration.ofSeconds(30)))
+                .metrics(true)
+                .build();
+    }
+
+    private ReactorClientHttpConnector connector(String upstream, ConnectionProvider connectionProvider) {
+        Duration connectTimeout = property(upstream, "connect-timeout", Duration.class, Duration.ofSeconds(5));
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(property(upstream, "response-timeout", Duration.class, Duration.ofSeconds(30)))
+                // Envía Accept-Encoding: gzip y descomprime la respuesta antes de los codecs
+                .compress(property(upstream, "compression", Boolean.class, true));
+        if (property(upstream, "http2", Boolean.class, false)) {
+            // HTTP/2 se negocia por ALPN; si el servidor no lo ofrece se sigue con HTTP/1.1
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
+    private <T> T property(String upstream, String name, Class<T> type, T defaultValue) {
+        return environment.getProperty("dora.http." + upstream + "." + name, type, defaultValue);
     }
-}
\ No newline at end of file
+}
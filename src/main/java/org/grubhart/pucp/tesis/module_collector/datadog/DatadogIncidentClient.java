@@ -1,9 +1,12 @@
 package org.grubhart.pucp.tesis.module_collector.datadog;
 
+import org.grubhart.pucp.tesis.module_collector.config.WebClientConfig;
 import org.grubhart.pucp.tesis.module_collector.datadog.dto.DatadogIncidentResponse;
+import org.grubhart.pucp.tesis.module_collector.metrics.CollectorMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -11,6 +14,7 @@ import org.springframework.web.util.UriComponentsBuilder;
 
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
+import java.util.function.UnaryOperator;
 
 /**
  * Client for interacting with the Datadog Incidents API.
@@ -20,33 +24,39 @@ import java.time.format.DateTimeFormatter;
 public class DatadogIncidentClient {
 
     private static final Logger logger = LoggerFactory.getLogger(DatadogIncidentClient.class);
+    static final String METRICS_CLIENT = "datadog";
     private final WebClient webClient;
+    private final CollectorMetrics metrics;
 
     @Autowired
     public DatadogIncidentClient(
-            WebClient.Builder webClientBuilder,
+            @Qualifier(WebClientConfig.DATADOG_WEB_CLIENT_BUILDER) WebClient.Builder webClientBuilder,
             @Value("${datadog.base-url:https://us5.datadoghq.com}") String baseUrl,
             @Value("${datadog.api-key}") String apiKey,
-            @Value("${datadog.application-key}") String applicationKey) {
+            @Value("${datadog.application-key}") String applicationKey,
+            CollectorMetrics metrics) {
 
-        this(buildWebClient(webClientBuilder, baseUrl, apiKey, applicationKey));
+        this(buildWebClient(webClientBuilder, baseUrl, apiKey, applicationKey, metrics), metrics);
         logger.info("DatadogIncidentClient initialized with base URL: {}", baseUrl);
     }
 
     // Package-private constructor for testing
-    DatadogIncidentClient(WebClient webClient) {
+    DatadogIncidentClient(WebClient webClient, CollectorMetrics metrics) {
         this.webClient = webClient;
+        this.metrics = metrics;
     }
 
     private static WebClient buildWebClient(
             WebClient.Builder webClientBuilder,
             String baseUrl,
             String apiKey,
-            String applicationKey) {
-        return webClientBuilder
+            String applicationKey,
+            CollectorMetrics metrics) {
+        return webClientBuilder.clone()
                 .baseUrl(baseUrl)
                 .defaultHeader("DD-API-KEY", apiKey)
                 .defaultHeader("DD-APPLICATION-KEY", applicationKey)
+                .filter(metrics.httpClientTimer(METRICS_CLIENT, UnaryOperator.identity()))
                 .build();
     }
 
@@ -119,6 +129,7 @@ public class DatadogIncidentClient {
 
                 if (response != null && response.data() != null && !response.data().isEmpty()) {
                     allIncidents.addAll(response.data());
+                    metrics.recordPage(METRICS_CLIENT, "incidents", response.data().size());
                     logger.debug("Fetched {} incidents from page {}", response.data().size(), currentPage);
 
                     // Check if there are more pages
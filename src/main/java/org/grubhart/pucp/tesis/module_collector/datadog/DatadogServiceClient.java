@@ -1,42 +1,87 @@
 package org.grubhart.pucp.tesis.module_collector.datadog;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import org.grubhart.pucp.tesis.module_collector.config.WebClientConfig;
+import org.grubhart.pucp.tesis.module_collector.metrics.CollectorMetrics;
 import org.grubhart.pucp.tesis.module_domain.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.UnaryOperator;
 
 /**
  * Client for interacting with the Datadog APM Service Dependencies API.
  * Uses WebClient to fetch services from Datadog APM.
+ *
+ * The service list is kept in an in-memory cache: within the TTL it is served as is, and once it
+ * goes stale the previous list keeps being served while a single background request refreshes it.
+ * Only the very first call waits on Datadog.
  */
 @Component
 public class DatadogServiceClient implements DatadogServiceCollector {
 
     private static final Logger logger = LoggerFactory.getLogger(DatadogServiceClient.class);
+    private static final String ENDPOINT = "/api/v1/service_dependencies";
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
     private final WebClient webClient;
     private final String environment;
+    private final Duration cacheTtl;
+    private final Clock clock;
+    private final CollectorMetrics metrics;
+
+    private final Object initialLoadLock = new Object();
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+    private volatile CachedServices cached;
 
+    @Autowired
     public DatadogServiceClient(
-            WebClient.Builder webClientBuilder,
+            @Qualifier(WebClientConfig.DATADOG_WEB_CLIENT_BUILDER) WebClient.Builder webClientBuilder,
             @Value("${datadog.base-url:https://us5.datadoghq.com}") String baseUrl,
             @Value("${datadog.api-key}") String apiKey,
             @Value("${datadog.application-key}") String applicationKey,
-            @Value("${datadog.environment:prod}") String environment) {
+            @Value("${datadog.environment:prod}") String environment,
+            @Value("${datadog.services-cache-ttl:5m}") Duration cacheTtl,
+            CollectorMetrics metrics) {
+
+        this(webClientBuilder.clone()
+                        .baseUrl(baseUrl)
+                        .defaultHeader("DD-API-KEY", apiKey)
+                        .defaultHeader("DD-APPLICATION-KEY", applicationKey)
+                        .filter(metrics.httpClientTimer(DatadogIncidentClient.METRICS_CLIENT, UnaryOperator.identity()))
+                        .build(),
+                environment, cacheTtl, Clock.systemUTC(), metrics);
+        logger.info("DatadogServiceClient initialized with base URL: {}, environment: {} and cache TTL: {}",
+                baseUrl, environment, cacheTtl);
+    }
 
-        this.webClient = webClientBuilder
-                .baseUrl(baseUrl)
-                .defaultHeader("DD-API-KEY", apiKey)
-                .defaultHeader("DD-APPLICATION-KEY", applicationKey)
-                .build();
+    // Package-private constructor for testing
+    DatadogServiceClient(WebClient webClient, String environment, Duration cacheTtl, Clock clock,
+                         CollectorMetrics metrics) {
+        this.webClient = webClient;
         this.environment = environment;
-        logger.info("DatadogServiceClient initialized with base URL: {} and environment: {}", baseUrl, environment);
+        this.cacheTtl = cacheTtl;
+        this.clock = clock;
+        this.metrics = metrics;
     }
 
     /**
@@ -44,94 +89,169 @@ public class DatadogServiceClient implements DatadogServiceCollector {
      *
      * This endpoint retrieves services that have active APM traces in the specified environment.
      * Unlike Service Catalog, this automatically includes all services with APM instrumentation.
+     * Results are cached; a stale entry is returned immediately while it is refreshed in the background.
      *
      * @return DatadogServicesResponse containing the list of services
      */
     @Override
     public DatadogServicesResponse getServices() {
-        String endpoint = "/api/v1/service_dependencies";
-        logger.info("Fetching services from Datadog APM for environment: {}", environment);
-
-        try {
-            // Log the raw response as String first for debugging
-            String rawResponse = webClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path(endpoint)
-                            .queryParam("env", environment)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .doOnError(error -> logger.error("Error fetching services from Datadog APM", error))
-                    .block();
-
-            logger.info("Raw Datadog APM API response length: {} bytes",
-                    rawResponse != null ? rawResponse.length() : 0);
-            logger.debug("Raw Datadog APM API response: {}", rawResponse);
-
-            if (rawResponse == null || rawResponse.isEmpty()) {
-                logger.warn("Received null or empty response from Datadog APM");
-                return new DatadogServicesResponse(null);
-            }
+        CachedServices current = cached;
+        if (current == null) {
+            return loadInitial();
+        }
 
-            // Parse the APM response which returns a map of service dependencies
-            Map<String, Object> apmResponse = webClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path(endpoint)
-                            .queryParam("env", environment)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .block();
-
-            // Convert APM response to our standard DatadogServicesResponse format
-            List<DatadogServiceData> serviceDataList = convertApmResponseToServiceData(apmResponse);
-
-            int serviceCount = serviceDataList.size();
-            logger.info("Successfully fetched {} services from Datadog APM (environment: {})", serviceCount, environment);
-
-            if (serviceCount == 0) {
-                logger.warn("No services found in Datadog APM for environment '{}'. " +
-                        "Verify that services are instrumented with APM and sending traces to this environment.",
-                        environment);
+        if (current.isStale(clock.instant(), cacheTtl)) {
+            refreshInBackground();
+        }
+        return current.response();
+    }
+
+    private DatadogServicesResponse loadInitial() {
+        synchronized (initialLoadLock) {
+            if (cached == null) {
+                logger.info("Fetching services from Datadog APM for environment: {}", environment);
+                try {
+                    store(fetchServiceNames().block());
+                } catch (Exception e) {
+                    logger.error("Failed to fetch services from Datadog APM API. " +
+                            "Verify your API key, Application key permissions, and that the environment '{}' exists.",
+                            environment, e);
+                    throw e;
+                }
             }
+            return cached.response();
+        }
+    }
 
-            return new DatadogServicesResponse(serviceDataList);
-        } catch (Exception e) {
-            logger.error("Failed to fetch services from Datadog APM API. " +
-                    "Verify your API key, Application key permissions, and that the environment '{}' exists.",
-                    environment, e);
-            throw e;
+    private void refreshInBackground() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
         }
+        logger.debug("Datadog services cache is stale, refreshing in background (environment: {})", environment);
+        fetchServiceNames()
+                .doFinally(signal -> refreshing.set(false))
+                .subscribe(
+                        this::store,
+                        error -> logger.warn("Background refresh of Datadog services failed, serving cached list: {}",
+                                error.getMessage()));
     }
 
     /**
-     * Converts the APM service dependencies response to our standard DatadogServiceData format.
-     * The APM API returns a map where keys are service names.
-     *
-     * @param apmResponse the raw APM response map
-     * @return list of DatadogServiceData objects
+     * Issues a single request and decodes the body incrementally: only the top-level keys of the
+     * response (the service names) are kept, the dependency lists under each key are skipped.
      */
-    private List<DatadogServiceData> convertApmResponseToServiceData(Map<String, Object> apmResponse) {
-        if (apmResponse == null || apmResponse.isEmpty()) {
-            return Collections.emptyList();
+    private Mono<List<String>> fetchServiceNames() {
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path(ENDPOINT)
+                        .queryParam("env", environment)
+                        .build())
+                .retrieve()
+                .bodyToFlux(DataBuffer.class)
+                .collect(ServiceNameExtractor::new, ServiceNameExtractor::feed)
+                .map(ServiceNameExtractor::finish)
+                .defaultIfEmpty(List.of())
+                .doOnError(error -> logger.error("Error fetching services from Datadog APM", error));
+    }
+
+    private void store(List<String> serviceNames) {
+        List<String> names = serviceNames != null ? serviceNames : List.of();
+        metrics.recordPage(DatadogIncidentClient.METRICS_CLIENT, "services", names.size());
+        logger.info("Successfully fetched {} services from Datadog APM (environment: {})", names.size(), environment);
+
+        if (names.isEmpty()) {
+            logger.warn("No services found in Datadog APM for environment '{}'. " +
+                    "Verify that services are instrumented with APM and sending traces to this environment.",
+                    environment);
         }
 
-        List<DatadogServiceData> services = new ArrayList<>();
+        cached = new CachedServices(new DatadogServicesResponse(toServiceData(names)), clock.instant());
+    }
 
-        for (Map.Entry<String, Object> entry : apmResponse.entrySet()) {
-            String serviceName = entry.getKey();
+    /**
+     * Converts the APM service names to our standard DatadogServiceData format.
+     *
+     * @param serviceNames the top-level keys of the APM response
+     * @return list of DatadogServiceData objects
+     */
+    private List<DatadogServiceData> toServiceData(List<String> serviceNames) {
+        List<DatadogServiceData> services = new ArrayList<>(serviceNames.size());
 
-            // Create a DatadogServiceData object for each service
+        for (String serviceName : serviceNames) {
             DatadogServiceAttributes attributes = new DatadogServiceAttributes(serviceName, "apm-v1");
-            DatadogServiceData serviceData = new DatadogServiceData(
-                    serviceName,
-                    "service",
-                    attributes
-            );
-            services.add(serviceData);
+            services.add(new DatadogServiceData(serviceName, "service", attributes));
         }
 
         logger.debug("Converted {} APM services to DatadogServiceData format", services.size());
         return services;
     }
+
+    private record CachedServices(DatadogServicesResponse response, Instant fetchedAt) {
+        boolean isStale(Instant now, Duration ttl) {
+            return !now.isBefore(fetchedAt.plus(ttl));
+        }
+    }
+
+    /**
+     * Non-blocking JSON parser fed chunk by chunk as the body arrives. The APM response is a map
+     * keyed by service name, so only FIELD_NAME tokens at depth 1 are collected.
+     */
+    private static final class ServiceNameExtractor {
+
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+        private final List<String> names = new ArrayList<>();
+        private int depth;
+
+        ServiceNameExtractor() {
+            try {
+                this.parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        void feed(DataBuffer buffer) {
+            try {
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                feeder.feedInput(bytes, 0, bytes.length);
+                drain();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        List<String> finish() {
+            try {
+                feeder.endOfInput();
+                drain();
+                parser.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return names;
+        }
+
+        private void drain() throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                switch (token) {
+                    case START_OBJECT, START_ARRAY -> depth++;
+                    case END_OBJECT, END_ARRAY -> depth--;
+                    case FIELD_NAME -> {
+                        if (depth == 1) {
+                            names.add(parser.currentName());
+                        }
+                    }
+                    default -> {
+                        // scalar values carry no service names
+                    }
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,14 @@
+package org.grubhart.pucp.tesis.module_collector.datadog.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Payload del webhook de incidentes configurado en Datadog: el nombre del servicio afectado y el incidente
+ * con la misma forma que devuelve la API v2 de incidentes.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record DatadogIncidentNotification(
+        String service,
+        DatadogIncidentData data
+) {
+}
@@ -1,6 +1,10 @@
 package org.grubhart.pucp.tesis.module_collector.github;
 
+import org.grubhart.pucp.tesis.module_collector.config.WebClientConfig;
+import org.grubhart.pucp.tesis.module_collector.github.dto.GithubCompareResponse;
 import org.grubhart.pucp.tesis.module_collector.github.dto.GithubMemberDto;
+import org.grubhart.pucp.tesis.module_collector.metrics.CollectorMetrics;
+import org.grubhart.pucp.tesis.module_domain.CommitComparison;
 import org.grubhart.pucp.tesis.module_domain.GitHubWorkflowRunDto;
 import org.grubhart.pucp.tesis.module_domain.GitHubWorkflowRunsResponse;
 import org.grubhart.pucp.tesis.module_domain.GithubCommitCollector;
@@ -13,9 +17,11 @@ import org.grubhart.pucp.tesis.module_domain.GithubRepositoryDto;
 import org.grubhart.pucp.tesis.module_domain.GithubUserAuthenticator;
 import org.grubhart.pucp.tesis.module_domain.GithubUserCollector;
 import org.grubhart.pucp.tesis.module_domain.OrganizationMember;
+import org.grubhart.pucp.tesis.module_domain.WorkflowRunQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -23,13 +29,21 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -43,21 +57,34 @@ import java.util.stream.Stream;
 public class GithubClientImpl implements GithubUserAuthenticator, GithubCommitCollector, GithubPullRequestCollector, GithubDeploymentCollector, GithubUserCollector, GithubRepositoryCollector {
 
     private static final Logger logger = LoggerFactory.getLogger(GithubClientImpl.class);
+    private static final int COMMITS_PER_PAGE = 100;
+    private static final String METRICS_CLIENT = "github";
+    private static final int WORKFLOW_RUNS_RESULT_LIMIT = 1000;
+    // GitHub Actions no existe antes de 2018: cota inferior al partir el rango de la primera sincronización
+    private static final LocalDateTime WORKFLOW_RUNS_EPOCH = LocalDateTime.of(2018, 1, 1, 0, 0);
     private final WebClient webClient;
+    private final CollectorMetrics metrics;
 
     @Autowired
-    public GithubClientImpl(WebClient.Builder webClientBuilder,
+    public GithubClientImpl(@Qualifier(WebClientConfig.GITHUB_WEB_CLIENT_BUILDER) WebClient.Builder webClientBuilder,
                             @Value("${dora.github.api-url:https://api.github.com}") String githubApiUrl,
-                            @Value("${dora.github.api-token}") String githubApiToken){
-        this.webClient = webClientBuilder
+                            @Value("${dora.github.api-token}") String githubApiToken,
+                            CollectorMetrics metrics){
+        // clone(): el builder es compartido y los filtros/headers de un cliente no deben filtrarse a otro
+        this.webClient = webClientBuilder.clone()
                 .baseUrl(githubApiUrl)
+                .filter(metrics.httpClientTimer(METRICS_CLIENT, GithubClientImpl::endpointTemplate))
                 .defaultHeader("Authorization", "token " + githubApiToken)
+                // Los commits se decodifican en streaming (el límite aplica por elemento); el resto de
+                // endpoints todavía materializa páginas completas y necesita este margen.
                 .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
                 .build();
+        this.metrics = metrics;
     }
 
-    GithubClientImpl(WebClient webClient) {
+    GithubClientImpl(WebClient webClient, CollectorMetrics metrics) {
         this.webClient = webClient;
+        this.metrics = metrics;
     }
 
     @Override
@@ -76,61 +103,193 @@ public class GithubClientImpl implements GithubUserAuthenticator, GithubCommitCo
 
     @Override
     public List<GithubCommitDto> getCommits(String owner, String repo, LocalDateTime since) {
-        logger.info("Iniciando recolección de commits de main para {}/{} desde {}",
-                owner, repo, since.format(DateTimeFormatter.ISO_DATE_TIME));
+        List<GithubCommitDto> allCommits = new ArrayList<>();
+        streamCommits(owner, repo, since, COMMITS_PER_PAGE, allCommits::addAll);
+
+        // NOTA: Retornamos TODOS los commits (incluidos merge) para mantener el grafo parent-child completo.
+        // El filtrado de merge commits se hace en DeveloperDashboardService/TechLeadDashboardService
+        // al calcular métricas, NO aquí.
+        // La autoría real se extrae del campo dto.commit.author.email (no dto.author.login)
+        // en el constructor de la entidad Commit.
+        return allCommits;
+    }
+
+    /**
+     * Recolecta los commits página por página decodificando cada elemento del arreglo JSON a medida
+     * que llega ({@code toEntityFlux}), en lugar de materializar la página completa en memoria.
+     * Cada lote se entrega al consumidor en el hilo que invoca este método, con backpressure,
+     * de modo que el consumo de memoria queda acotado por {@code batchSize}.
+     */
+    @Override
+    public int streamCommits(String owner, String repo, LocalDateTime since, int batchSize,
+                             Consumer<List<GithubCommitDto>> batchConsumer) {
+        return streamCommitPages(owner, repo, null, since, null, batchSize, batchConsumer, true);
+    }
+
+    @Override
+    public int streamCommits(String owner, String repo, String branch, LocalDateTime since, LocalDateTime until,
+                             int batchSize, Consumer<List<GithubCommitDto>> batchConsumer) {
+        return streamCommitPages(owner, repo, branch, since, until, batchSize, batchConsumer, false);
+    }
+
+    private int streamCommitPages(String owner, String repo, String branch, LocalDateTime since, LocalDateTime until,
+                                  int batchSize, Consumer<List<GithubCommitDto>> batchConsumer,
+                                  boolean allowPartialResults) {
+        logger.info("Iniciando recolección de commits de {} para {}/{} desde {}",
+                branch != null ? branch : "la rama por defecto", owner, repo,
+                since.format(DateTimeFormatter.ISO_DATE_TIME));
 
         String formattedSince = since.format(DateTimeFormatter.ISO_DATE_TIME);
-        String initialUrl = UriComponentsBuilder.fromPath("/repos/{owner}/{repo}/commits")
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromPath("/repos/{owner}/{repo}/commits")
                 .queryParam("since", formattedSince)
-                .queryParam("per_page", 100)
-                .buildAndExpand(owner, repo)
-                .toString();
+                .queryParam("per_page", COMMITS_PER_PAGE);
+        if (until != null) {
+            uriBuilder.queryParam("until", until.format(DateTimeFormatter.ISO_DATE_TIME));
+        }
+        if (branch != null && !branch.isBlank()) {
+            uriBuilder.queryParam("sha", branch);
+        }
+        String initialUrl = uriBuilder.buildAndExpand(owner, repo).toString();
 
-        List<GithubCommitDto> allCommits = new ArrayList<>();
+        int delivered = 0;
         String nextPageUrl = initialUrl;
 
         try {
             while (nextPageUrl != null) {
                 final String currentUrl = nextPageUrl;
                 try {
-                    ResponseEntity<List<GithubCommitDto>> responseEntity = webClient.get()
+                    ResponseEntity<Flux<GithubCommitDto>> responseEntity = webClient.get()
                             .uri(currentUrl)
                             .retrieve()
-                            .toEntityList(GithubCommitDto.class)
+                            .toEntityFlux(GithubCommitDto.class)
                             .block();
 
-                    if (responseEntity != null) {
-                        if (responseEntity.getBody() != null) {
-                            allCommits.addAll(responseEntity.getBody());
-                        }
-                        nextPageUrl = parseNextPageUrl(responseEntity.getHeaders().get("Link"));
-                    } else {
-                        nextPageUrl = null;
+                    if (responseEntity == null || responseEntity.getBody() == null) {
+                        break;
                     }
+
+                    nextPageUrl = parseNextPageUrl(responseEntity.getHeaders().get("Link"));
+
+                    int pageItems = 0;
+                    for (List<GithubCommitDto> batch : responseEntity.getBody().buffer(batchSize).toIterable(1)) {
+                        batchConsumer.accept(batch);
+                        delivered += batch.size();
+                        pageItems += batch.size();
+                    }
+                    metrics.recordPage(METRICS_CLIENT, "commits", pageItems);
                 } catch (WebClientResponseException e) {
                     logger.error("Error fetching commits from {}: {} {}", currentUrl,
                             e.getStatusCode().value(), e.getStatusText(), e);
-                    if (e.getStatusCode().is5xxServerError()) {
-                        throw new RuntimeException("Failed to fetch commits from GitHub: " + e.getMessage(), e);
+                    // Solo un 404 (el repositorio ya no existe) termina la paginación; con cualquier otro error
+                    // una ventana no puede darse por completa
+                    if (!isNotFound(e)) {
+                        throw pageFailure("Failed to fetch commits from GitHub", e);
                     }
                     nextPageUrl = null;
                 }
             }
         } catch (RuntimeException e) {
-            if (allCommits.isEmpty()) {
+            if (delivered == 0 || !allowPartialResults) {
                 throw e;
             }
             logger.warn("Error during commits collection. Returning partial results. Error: {}", e.getMessage());
         }
 
-        logger.info("Recolección finalizada. Total de commits obtenidos: {}", allCommits.size());
+        logger.info("Recolección finalizada. Total de commits obtenidos: {}", delivered);
+        return delivered;
+    }
 
-        // NOTA: Retornamos TODOS los commits (incluidos merge) para mantener el grafo parent-child completo.
-        // El filtrado de merge commits se hace en DeveloperDashboardService/TechLeadDashboardService
-        // al calcular métricas, NO aquí.
-        // La autoría real se extrae del campo dto.commit.author.email (no dto.author.login)
-        // en el constructor de la entidad Commit.
-        return allCommits;
+    @Override
+    public Optional<String> getHeadSha(String owner, String repo, String branch) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromPath("/repos/{owner}/{repo}/commits")
+                .queryParam("per_page", 1);
+        if (branch != null && !branch.isBlank()) {
+            uriBuilder.queryParam("sha", branch);
+        }
+        String url = uriBuilder.buildAndExpand(owner, repo).toString();
+
+        try {
+            List<GithubCommitDto> page = webClient.get()
+                    .uri(url)
+                    .retrieve()
+                    .bodyToFlux(GithubCommitDto.class)
+                    .take(1)
+                    .collectList()
+                    .block();
+            return page == null ? Optional.empty() : page.stream().findFirst().map(GithubCommitDto::getSha);
+        } catch (WebClientResponseException e) {
+            if (e.getStatusCode().is4xxClientError()) {
+                // 409: repositorio vacío; 404: la rama no existe
+                logger.warn("No se pudo obtener el head de {}/{} (rama: {}): {} {}", owner, repo,
+                        branch != null ? branch : "por defecto", e.getStatusCode().value(), e.getStatusText());
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Recorre las páginas de {@code /compare/{base}...{head}}. GitHub devuelve los commits del más antiguo al más
+     * nuevo, así que el padre de cada commit ya fue entregado (o es la base, que ya está sincronizada).
+     */
+    @Override
+    public CommitComparison streamCommitsBetween(String owner, String repo, String baseSha, String headSha,
+                                                 int batchSize, Consumer<List<GithubCommitDto>> batchConsumer) {
+        logger.info("Comparando {}/{} desde {} hasta {}", owner, repo, baseSha, headSha);
+        String nextPageUrl = UriComponentsBuilder.fromPath("/repos/{owner}/{repo}/compare/{basehead}")
+                .queryParam("per_page", COMMITS_PER_PAGE)
+                .buildAndExpand(owner, repo, baseSha + "..." + headSha)
+                .toString();
+
+        int delivered = 0;
+        while (nextPageUrl != null) {
+            ResponseEntity<GithubCompareResponse> responseEntity;
+            try {
+                responseEntity = webClient.get()
+                        .uri(nextPageUrl)
+                        .retrieve()
+                        .toEntity(GithubCompareResponse.class)
+                        .block();
+            } catch (WebClientResponseException e) {
+                if (delivered == 0 && e.getStatusCode().value() == HttpStatus.NOT_FOUND.value()) {
+                    // La base ya no existe (force push seguido de garbage collection)
+                    return new CommitComparison(CommitComparison.Status.BASE_NOT_FOUND, 0);
+                }
+                throw pageFailure("Failed to compare commits on GitHub", e);
+            }
+
+            if (responseEntity == null || responseEntity.getBody() == null) {
+                break;
+            }
+            GithubCompareResponse comparison = responseEntity.getBody();
+            CommitComparison.Status status = comparisonStatus(comparison.status());
+            if (status != CommitComparison.Status.AHEAD) {
+                return new CommitComparison(status, delivered);
+            }
+
+            nextPageUrl = parseNextPageUrl(responseEntity.getHeaders().get("Link"));
+            List<GithubCommitDto> commits = comparison.commits() != null ? comparison.commits() : List.of();
+            metrics.recordPage(METRICS_CLIENT, "compare", commits.size());
+            for (int from = 0; from < commits.size(); from += batchSize) {
+                batchConsumer.accept(commits.subList(from, Math.min(from + batchSize, commits.size())));
+            }
+            delivered += commits.size();
+        }
+
+        logger.info("Comparación finalizada. Total de commits nuevos: {}", delivered);
+        return new CommitComparison(CommitComparison.Status.AHEAD, delivered);
+    }
+
+    private static CommitComparison.Status comparisonStatus(String status) {
+        if (status == null) {
+            return CommitComparison.Status.DIVERGED;
+        }
+        return switch (status) {
+            case "ahead" -> CommitComparison.Status.AHEAD;
+            case "identical" -> CommitComparison.Status.IDENTICAL;
+            case "behind" -> CommitComparison.Status.BEHIND;
+            default -> CommitComparison.Status.DIVERGED;
+        };
     }
 
     @Override
@@ -165,6 +324,7 @@ public class GithubClientImpl implements GithubUserAuthenticator, GithubCommitCo
 
                     List<GithubPullRequestDto> pagePRs = responseEntity.getBody();
                     nextPageUrl = parseNextPageUrl(responseEntity.getHeaders().get("Link"));
+                    metrics.recordPage(METRICS_CLIENT, "pull_requests", pagePRs.size());
 
                     for (GithubPullRequestDto pr : pagePRs) {
                         if (pr.getUpdatedAt() != null && pr.getUpdatedAt().isBefore(since)) {
@@ -183,17 +343,18 @@ public class GithubClientImpl implements GithubUserAuthenticator, GithubCommitCo
 
                 } catch (WebClientResponseException e) {
                     logger.error("Error fetching pull requests from {}: {} {}", currentUrl, e.getStatusCode().value(), e.getStatusText(), e);
-                    if (e.getStatusCode().is5xxServerError()) {
-                        throw new RuntimeException("Failed to fetch pull requests from GitHub due to a server error: " + e.getMessage(), e);
+                    if (!isNotFound(e)) {
+                        throw pageFailure("Failed to fetch pull requests from GitHub", e);
                     }
-                    nextPageUrl = null; // Stop pagination on client or non-5xx server errors
+                    nextPageUrl = null; // The repository no longer exists
                 }
             }
         } catch (RuntimeException e) {
-            if (allPullRequests.isEmpty()) {
-                throw e;
-            }
-            logger.warn("Error during paginated pull request collection. Returning partial results. Error: {}", e.getMessage());
+            // No partial results: the caller advances its 'since' after a successful listing, so the pages that
+            // were not read would never be requested again
+            logger.warn("Error during paginated pull request collection after {} pull requests. Error: {}",
+                    allPullRequests.size(), e.getMessage());
+            throw e;
         }
 
         logger.info("Recolección paginada finalizada. Total de Pull Requests obtenidos: {}", allPullRequests.size());
@@ -225,6 +386,7 @@ public class GithubClientImpl implements GithubUserAuthenticator, GithubCommitCo
         }
     }
 
+    @Override
     public String getFirstCommitShaForPr(String owner, String repo, int prNumber) {
         logger.debug("Fetching first commit for PR #{} in {}/{}", prNumber, owner, repo);
 
@@ -240,63 +402,112 @@ public class GithubClientImpl implements GithubUserAuthenticator, GithubCommitCo
         }
     }
 
+    /**
+     * Los filtros (rama, estado, evento y fecha de creación) los aplica GitHub, así que solo viajan las
+     * ejecuciones que pueden convertirse en deployments.
+     *
+     * Un listado filtrado de GitHub no devuelve más de {@value #WORKFLOW_RUNS_RESULT_LIMIT} resultados: si el
+     * {@code total_count} de la primera página lo supera, el rango de {@code created} se parte en dos mitades que
+     * se recorren por separado (la más reciente primero), hasta que cada una quepa en el límite.
+     */
     @Override
-    public List<GitHubWorkflowRunDto> getWorkflowRuns(String owner, String repo, String workflowFileName, LocalDateTime since) {
-        String initialUrl = UriComponentsBuilder.fromPath("/repos/{owner}/{repo}/actions/workflows/{workflowFileName}/runs")
-                .queryParam("per_page", 100)
-                .buildAndExpand(owner, repo, workflowFileName)
-                .toString();
+    public int streamWorkflowRuns(String owner, String repo, WorkflowRunQuery query,
+                                  Consumer<List<GitHubWorkflowRunDto>> pageConsumer) {
+        logger.info("Iniciando recolección paginada de Workflow Runs para {}/{} y workflow '{}' (rama: {}, estado: {}, desde: {})",
+                owner, repo, query.workflowFileName(), query.branch(), query.status(), query.createdSince());
 
-        if (since == null) {
-            logger.info("Iniciando recolección paginada de Workflow Runs para {}/{} y workflow '{}' (primera sincronización)", owner, repo, workflowFileName);
-        } else {
-            logger.info("Iniciando recolección paginada de Workflow Runs para {}/{} y workflow '{}' desde {}", owner, repo, workflowFileName, since);
-        }
-
-        List<GitHubWorkflowRunDto> allWorkflowRuns = new ArrayList<>();
-        String nextPageUrl = initialUrl;
-        boolean shouldStop = false;
+        int delivered = streamWorkflowRunRange(owner, repo, query, query.createdSince(), null, pageConsumer);
 
-        try {
-            while (nextPageUrl != null && !shouldStop) {
-                final String currentUrl = nextPageUrl;
-                try {
-                    ResponseEntity<GitHubWorkflowRunsResponse> responseEntity = webClient.get()
-                            .uri(currentUrl)
-                            .retrieve()
-                            .toEntity(GitHubWorkflowRunsResponse.class)
-                            .block();
+        logger.info("Recolección paginada finalizada. Total de Workflow Runs obtenidos: {}", delivered);
+        return delivered;
+    }
 
-                    if (responseEntity == null || !responseEntity.hasBody() || responseEntity.getBody().getWorkflowRuns() == null) {
-                        break;
-                    }
+    /**
+     * Recorre las ejecuciones creadas en [{@code from}, {@code to}]; un extremo {@code null} queda abierto.
+     */
+    private int streamWorkflowRunRange(String owner, String repo, WorkflowRunQuery query, LocalDateTime from,
+                                       LocalDateTime to, Consumer<List<GitHubWorkflowRunDto>> pageConsumer) {
+        String initialUrl = workflowRunsUrl(owner, repo, query, from, to);
+        ResponseEntity<GitHubWorkflowRunsResponse> responseEntity = fetchWorkflowRunsPage(initialUrl, null);
+        if (!hasWorkflowRuns(responseEntity)) {
+            return 0;
+        }
 
-                    nextPageUrl = parseNextPageUrl(responseEntity.getHeaders().get("Link"));
+        int totalCount = responseEntity.getBody().getTotalCount();
+        if (totalCount > WORKFLOW_RUNS_RESULT_LIMIT) {
+            LocalDateTime lower = from != null ? from.truncatedTo(ChronoUnit.SECONDS) : WORKFLOW_RUNS_EPOCH;
+            // Margen por diferencias de reloj con GitHub
+            LocalDateTime upper = to != null ? to : LocalDateTime.now(ZoneOffset.UTC).plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+            long seconds = Duration.between(lower, upper).toSeconds();
+            if (seconds > 1) {
+                LocalDateTime middle = lower.plusSeconds(seconds / 2);
+                logger.debug("{}/{} tiene {} Workflow Runs entre {} y {}; se divide el rango en {}",
+                        owner, repo, totalCount, lower, upper, middle);
+                return streamWorkflowRunRange(owner, repo, query, middle, upper, pageConsumer)
+                        + streamWorkflowRunRange(owner, repo, query, lower, middle.minusSeconds(1), pageConsumer);
+            }
+            logger.warn("{}/{} tiene {} Workflow Runs creados en {}; GitHub solo devuelve los primeros {}",
+                    owner, repo, totalCount, lower, WORKFLOW_RUNS_RESULT_LIMIT);
+        }
 
-                    for (GitHubWorkflowRunDto run : responseEntity.getBody().getWorkflowRuns()) {
-                        if (since != null && run.getCreatedAt() != null && run.getCreatedAt().isBefore(since)) {
-                            shouldStop = true;
-                            continue;
-                        }
-                        allWorkflowRuns.add(run);
-                    }
-                } catch (WebClientResponseException e) {
-                    logger.error("Error fetching workflow runs from {}: {} {}", currentUrl, e.getStatusCode().value(), e.getStatusText(), e);
-                    if (e.getStatusCode().is5xxServerError()) {
-                        throw new RuntimeException("Failed to fetch workflow runs from GitHub due to a server error: " + e.getMessage(), e);
-                    }
-                    nextPageUrl = null; // Stop pagination on client or non-5xx server errors
-                }
+        int delivered = 0;
+        while (hasWorkflowRuns(responseEntity)) {
+            List<GitHubWorkflowRunDto> page = responseEntity.getBody().getWorkflowRuns();
+            metrics.recordPage(METRICS_CLIENT, "workflow_runs", page.size());
+            if (!page.isEmpty()) {
+                pageConsumer.accept(page);
+                delivered += page.size();
             }
-        } catch (RuntimeException e) {
-            if (allWorkflowRuns.isEmpty()) {
-                throw e;
+            String nextPageUrl = parseNextPageUrl(responseEntity.getHeaders().get("Link"));
+            if (nextPageUrl == null) {
+                break;
             }
-            logger.warn("Error during paginated workflow run collection. Returning partial results. Error: {}", e.getMessage());
+            responseEntity = fetchWorkflowRunsPage(initialUrl, nextPageUrl);
+        }
+        return delivered;
+    }
+
+    private String workflowRunsUrl(String owner, String repo, WorkflowRunQuery query, LocalDateTime from, LocalDateTime to) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromPath("/repos/{owner}/{repo}/actions/workflows/{workflowFileName}/runs")
+                .queryParam("per_page", 100)
+                .queryParam("exclude_pull_requests", true);
+        if (query.branch() != null && !query.branch().isBlank()) {
+            uriBuilder.queryParam("branch", query.branch());
+        }
+        if (query.status() != null && !query.status().isBlank()) {
+            uriBuilder.queryParam("status", query.status());
+        }
+        if (query.event() != null && !query.event().isBlank()) {
+            uriBuilder.queryParam("event", query.event());
+        }
+        if (to != null) {
+            uriBuilder.queryParam("created", from.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+                    + ".." + to.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        } else if (from != null) {
+            uriBuilder.queryParam("created", ">=" + from.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
         }
+        return uriBuilder.buildAndExpand(owner, repo, query.workflowFileName()).toString();
+    }
+
+    private ResponseEntity<GitHubWorkflowRunsResponse> fetchWorkflowRunsPage(String initialUrl, String nextPageUrl) {
+        // Las URLs de la cabecera Link ya vienen codificadas y no deben volver a codificarse
+        WebClient.RequestHeadersSpec<?> request = nextPageUrl == null
+                ? webClient.get().uri(initialUrl)
+                : webClient.get().uri(URI.create(nextPageUrl));
+        try {
+            return request
+                    .retrieve()
+                    .toEntity(GitHubWorkflowRunsResponse.class)
+                    .block();
+        } catch (WebClientResponseException e) {
+            logger.error("Error fetching workflow runs from {}: {} {}", nextPageUrl != null ? nextPageUrl : initialUrl,
+                    e.getStatusCode().value(), e.getStatusText(), e);
+            throw pageFailure("Failed to fetch workflow runs from GitHub", e);
+        }
+    }
 
-        logger.info("Recolección paginada finalizada. Total de Workflow Runs obtenidos: {}", allWorkflowRuns.size());
-        return allWorkflowRuns;
+    private static boolean hasWorkflowRuns(ResponseEntity<GitHubWorkflowRunsResponse> responseEntity) {
+        return responseEntity != null && responseEntity.hasBody() && responseEntity.getBody().getWorkflowRuns() != null;
     }
 
     @Override
@@ -324,6 +535,7 @@ public class GithubClientImpl implements GithubUserAuthenticator, GithubCommitCo
                     if (responseEntity != null) {
                         if (responseEntity.getBody() != null) {
                             allMembers.addAll(responseEntity.getBody());
+                            metrics.recordPage(METRICS_CLIENT, "members", responseEntity.getBody().size());
                         }
                         nextPageUrl = parseNextPageUrl(responseEntity.getHeaders().get("Link"));
                     } else {
@@ -331,10 +543,10 @@ public class GithubClientImpl implements GithubUserAuthenticator, GithubCommitCo
                     }
                 } catch (WebClientResponseException e) {
                     logger.error("Error fetching members from {}: {} {}", currentUrl, e.getStatusCode().value(), e.getStatusText(), e);
-                    if (e.getStatusCode().is5xxServerError()) {
-                        throw new RuntimeException("Failed to fetch members from GitHub due to a server error: " + e.getMessage(), e);
+                    if (!isNotFound(e)) {
+                        throw pageFailure("Failed to fetch members from GitHub", e);
                     }
-                    nextPageUrl = null; // Stop pagination on client or non-5xx server errors
+                    nextPageUrl = null; // The organization no longer exists
                 }
             }
         } catch (RuntimeException e) {
@@ -378,6 +590,7 @@ public class GithubClientImpl implements GithubUserAuthenticator, GithubCommitCo
                     if (responseEntity != null) {
                         if (responseEntity.getBody() != null) {
                             allRepositories.addAll(responseEntity.getBody());
+                            metrics.recordPage(METRICS_CLIENT, "repositories", responseEntity.getBody().size());
                         }
                         nextPageUrl = parseNextPageUrl(responseEntity.getHeaders().get("Link"));
                     } else {
@@ -385,10 +598,10 @@ public class GithubClientImpl implements GithubUserAuthenticator, GithubCommitCo
                     }
                 } catch (WebClientResponseException e) {
                     logger.error("Error fetching repositories from {}: {} {}", currentUrl, e.getStatusCode().value(), e.getStatusText(), e);
-                    if (e.getStatusCode().is5xxServerError()) {
-                        throw new RuntimeException("Failed to fetch repositories from GitHub due to a server error: " + e.getMessage(), e);
+                    if (!isNotFound(e)) {
+                        throw pageFailure("Failed to fetch repositories from GitHub", e);
                     }
-                    nextPageUrl = null; // Stop pagination on client or non-5xx server errors
+                    nextPageUrl = null; // The organization no longer exists
                 }
             }
         } catch (RuntimeException e) {
@@ -402,6 +615,58 @@ public class GithubClientImpl implements GithubUserAuthenticator, GithubCommitCo
         return allRepositories;
     }
 
+    private static boolean isNotFound(WebClientResponseException e) {
+        return e.getStatusCode().value() == HttpStatus.NOT_FOUND.value();
+    }
+
+    /**
+     * Error de una página de un listado. Un límite de tasa se informa como {@link GithubRateLimitException} para
+     * que se reintente cuando GitHub lo permita; cualquier otro error corta la recolección.
+     */
+    private static RuntimeException pageFailure(String message, WebClientResponseException e) {
+        String detail = message + ": " + e.getMessage();
+        return GithubRateLimitException.from(detail, e, Clock.systemUTC())
+                .<RuntimeException>map(rateLimit -> rateLimit)
+                .orElseGet(() -> new RuntimeException(detail, e));
+    }
+
+    /**
+     * Plantilla del endpoint para las métricas: reemplaza owner, repo, organización, usuario, workflow y números
+     * por variables, por ejemplo {@code /repos/acme/api/pulls/42/commits -> /repos/{owner}/{repo}/pulls/{number}/commits}.
+     */
+    static String endpointTemplate(String path) {
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        String[] segments = path.split("/");
+        String root = segments.length > 1 ? segments[1] : "";
+        StringBuilder template = new StringBuilder();
+        for (int i = 1; i < segments.length; i++) {
+            String segment = segments[i];
+            String previous = segments[i - 1];
+            String value;
+            if ("repos".equals(root) && i == 2) {
+                value = "{owner}";
+            } else if ("repos".equals(root) && i == 3) {
+                value = "{repo}";
+            } else if ("orgs".equals(root) && i == 2) {
+                value = "{org}";
+            } else if (("users".equals(root) && i == 2) || "members".equals(previous)) {
+                value = "{username}";
+            } else if ("workflows".equals(previous)) {
+                value = "{workflow}";
+            } else if ("compare".equals(previous)) {
+                value = "{basehead}";
+            } else if (!segment.isEmpty() && segment.chars().allMatch(Character::isDigit)) {
+                value = "{number}";
+            } else {
+                value = segment;
+            }
+            template.append('/').append(value);
+        }
+        return template.toString();
+    }
+
     String parseNextPageUrl(List<String> linkHeaders) {
         if (linkHeaders == null || linkHeaders.isEmpty()) {
             return null;
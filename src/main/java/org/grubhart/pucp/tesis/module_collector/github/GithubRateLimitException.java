@@ -0,0 +1,73 @@
+package org.grubhart.pucp.tesis.module_collector.github;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * GitHub rechazó la request por límite de tasa (429, o 403 con la cuota agotada o con {@code Retry-After}). A
+ * diferencia de otros 4xx se resuelve solo: quien la recibe debe reintentar después de {@link #getRetryAfter()}.
+ */
+public class GithubRateLimitException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public GithubRateLimitException(String message, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return espera indicada por GitHub, o {@code null} si la respuesta no la informa
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * @return la excepción si {@code e} es un límite de tasa; vacío si es otro error (un 403 sin cuota agotada
+     * ni {@code Retry-After} es un problema de permisos)
+     */
+    static Optional<GithubRateLimitException> from(String message, WebClientResponseException e, Clock clock) {
+        int status = e.getStatusCode().value();
+        if (status != 403 && status != 429) {
+            return Optional.empty();
+        }
+        HttpHeaders headers = e.getHeaders();
+        boolean quotaExhausted = "0".equals(headers.getFirst("X-RateLimit-Remaining"));
+        Duration retryAfter = retryAfterHeader(headers);
+        if (retryAfter == null && quotaExhausted) {
+            retryAfter = untilReset(headers.getFirst("X-RateLimit-Reset"), clock);
+        }
+        if (status == 403 && !quotaExhausted && retryAfter == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new GithubRateLimitException(message, retryAfter, e));
+    }
+
+    private static Duration retryAfterHeader(HttpHeaders headers) {
+        String seconds = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        try {
+            return seconds == null ? null : Duration.ofSeconds(Long.parseLong(seconds.trim()));
+        } catch (NumberFormatException ignored) {
+            return null;
+        }
+    }
+
+    // X-RateLimit-Reset: segundos epoch UTC en que se renueva la cuota
+    private static Duration untilReset(String reset, Clock clock) {
+        if (reset == null) {
+            return null;
+        }
+        try {
+            Duration wait = Duration.between(clock.instant(), Instant.ofEpochSecond(Long.parseLong(reset.trim())));
+            return wait.isNegative() ? Duration.ZERO : wait;
+        } catch (NumberFormatException ignored) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.grubhart.pucp.tesis.module_collector.github.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.grubhart.pucp.tesis.module_domain.GithubCommitDto;
+
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record GithubCompareResponse(
+        String status,
+        @JsonProperty("ahead_by") int aheadBy,
+        @JsonProperty("behind_by") int behindBy,
+        List<GithubCommitDto> commits
+) {
+}
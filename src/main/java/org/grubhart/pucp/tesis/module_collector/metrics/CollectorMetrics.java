@@ -0,0 +1,149 @@
+package org.grubhart.pucp.tesis.module_collector.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.grubhart.pucp.tesis.module_domain.SqlActivity;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Métricas del collector: latencia de las APIs externas, páginas e ítems recolectados, escrituras por lote,
+ * autores de commits resueltos y duración de cada etapa y de cada repositorio dentro del ciclo.
+ *
+ * Los medidores se registran en el {@link MeterRegistry} de Spring y se consultan en
+ * {@code /actuator/metrics/<nombre>}.
+ */
+@Component
+public class CollectorMetrics {
+
+    public static final String HTTP_CLIENT_REQUESTS = "dora.collector.http.client.requests";
+    public static final String PAGES = "dora.collector.pages";
+    public static final String ITEMS = "dora.collector.items";
+    public static final String DB_BATCH_SIZE = "dora.sync.db.batch.size";
+    public static final String DB_BATCH_DURATION = "dora.sync.db.batch.duration";
+    public static final String STAGE_DURATION = "dora.sync.stage.duration";
+    public static final String REPOSITORY_DURATION = "dora.sync.repository.duration";
+    public static final String AUTHOR_RESOLUTIONS = "dora.sync.author.resolutions";
+
+    private final MeterRegistry registry;
+
+    public CollectorMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Filtro de WebClient que mide cada request hasta recibir la respuesta, etiquetado por plantilla de endpoint
+     * (por ejemplo {@code /repos/{owner}/{repo}/commits}) para no crear una serie por URL.
+     *
+     * @param client      nombre del cliente externo ({@code github}, {@code datadog})
+     * @param uriTemplate convierte el path de la request en su plantilla
+     */
+    public ExchangeFilterFunction httpClientTimer(String client, UnaryOperator<String> uriTemplate) {
+        return (request, next) -> {
+            Timer.Sample sample = Timer.start(registry);
+            String method = request.method().name();
+            String uri = uriTemplate.apply(request.url().getPath());
+            return next.exchange(request)
+                    .doOnSuccess(response -> sample.stop(httpTimer(client, method, uri,
+                            String.valueOf(response.statusCode().value()), outcome(response.statusCode()))))
+                    .doOnError(error -> sample.stop(httpTimer(client, method, uri, "IO_ERROR", "UNKNOWN")));
+        };
+    }
+
+    private Timer httpTimer(String client, String method, String uri, String status, String outcome) {
+        return Timer.builder(HTTP_CLIENT_REQUESTS)
+                .description("Latencia de las llamadas a APIs externas del collector")
+                .tags("client", client, "method", method, "uri", uri, "status", status, "outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static String outcome(HttpStatusCode status) {
+        if (status.is2xxSuccessful()) {
+            return "SUCCESS";
+        }
+        if (status.is4xxClientError()) {
+            return "CLIENT_ERROR";
+        }
+        if (status.is5xxServerError()) {
+            return "SERVER_ERROR";
+        }
+        return "OTHER";
+    }
+
+    /**
+     * Registra una página recibida de una API paginada y la cantidad de ítems decodificados en ella.
+     */
+    public void recordPage(String client, String resource, int items) {
+        registry.counter(PAGES, "client", client, "resource", resource).increment();
+        registry.counter(ITEMS, "client", client, "resource", resource).increment(items);
+    }
+
+    /**
+     * Ejecuta una escritura por lote registrando su tamaño y duración.
+     */
+    public <T> T recordBatchWrite(String entity, int size, Supplier<T> write) {
+        DistributionSummary.builder(DB_BATCH_SIZE)
+                .description("Filas por escritura en lote")
+                .tag("entity", entity)
+                .register(registry)
+                .record(size);
+        return Timer.builder(DB_BATCH_DURATION)
+                .description("Duración de las escrituras en lote")
+                .tag("entity", entity)
+                .register(registry)
+                .record(write);
+    }
+
+    /**
+     * Cuenta una búsqueda de autor de commit en el índice de identidades, etiquetada {@code resolved} si encontró
+     * un usuario registrado y {@code unresolved} si no.
+     */
+    public void recordAuthorResolution(boolean resolved) {
+        registry.counter(AUTHOR_RESOLUTIONS, "outcome", resolved ? "resolved" : "unresolved").increment();
+    }
+
+    /**
+     * Mide una etapa del ciclo de sincronización; las que terminan con excepción se etiquetan como {@code error}.
+     * Las sentencias SQL de la etapa se cuentan como el job {@code stage} (ver {@link SqlActivity}).
+     */
+    public <T> T timeStage(String stage, Supplier<T> action) {
+        return time(STAGE_DURATION, "stage", stage, true,
+                () -> SqlActivity.track(registry, SqlActivity.KIND_JOB, stage, action));
+    }
+
+    public void timeStage(String stage, Runnable action) {
+        timeStage(stage, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Mide de punta a punta la sincronización de un repositorio dentro del ciclo. Sin histograma de percentiles:
+     * la etiqueta {@code repository} ya crea una serie por repositorio.
+     */
+    public <T> T timeRepository(String repository, Supplier<T> action) {
+        return time(REPOSITORY_DURATION, "repository", repository, false, action);
+    }
+
+    private <T> T time(String name, String tagKey, String tagValue, boolean percentileHistogram, Supplier<T> action) {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "error";
+        try {
+            T result = action.get();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(Timer.builder(name)
+                    .tags(tagKey, tagValue, "outcome", outcome)
+                    .publishPercentileHistogram(percentileHistogram)
+                    .register(registry));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.grubhart.pucp.tesis.module_collector.service;
+
+import org.grubhart.pucp.tesis.module_collector.metrics.CollectorMetrics;
+import org.grubhart.pucp.tesis.module_domain.User;
+import org.grubhart.pucp.tesis.module_domain.UserIdentityLookup;
+import org.grubhart.pucp.tesis.module_domain.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Índice en memoria de las identidades de usuario usado para resolver el autor de los commits durante la ingesta.
+ * Carga la tabla de usuarios al inicio de cada ciclo de sincronización (ver {@link SyncPipelineOrchestrator}), o
+ * cuando {@link UserSyncService} la modifica, en mapas por githubId, githubUsername y email, de modo que cada
+ * resolución es una búsqueda en un hash en lugar de una consulta a la BD por commit. Los aciertos y los autores sin
+ * resolver se cuentan en {@link CollectorMetrics#AUTHOR_RESOLUTIONS}.
+ */
+@Component
+public class AuthorIdentityResolver implements UserIdentityLookup {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthorIdentityResolver.class);
+
+    private final UserRepository userRepository;
+    private final CollectorMetrics metrics;
+    private volatile Snapshot snapshot;
+
+    public AuthorIdentityResolver(UserRepository userRepository, CollectorMetrics metrics) {
+        this.userRepository = userRepository;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Recarga los usuarios desde la BD. Las búsquedas en curso siguen usando el índice anterior
+     * hasta que el nuevo queda completo.
+     */
+    public void refresh() {
+        List<User> users = userRepository.findAll();
+        Map<Long, String> byGithubId = new HashMap<>();
+        Map<String, String> byGithubUsername = new HashMap<>();
+        Map<String, String> byEmail = new HashMap<>();
+
+        for (User user : users) {
+            String username = user.getGithubUsername();
+            if (username == null) {
+                continue;
+            }
+            if (user.getGithubId() != null) {
+                byGithubId.putIfAbsent(user.getGithubId(), username);
+            }
+            byGithubUsername.putIfAbsent(normalize(username), username);
+            if (user.getEmail() != null && !user.getEmail().isBlank()) {
+                byEmail.putIfAbsent(normalize(user.getEmail()), username);
+            }
+        }
+
+        snapshot = new Snapshot(byGithubId, byGithubUsername, byEmail);
+        log.debug("Índice de identidades recargado con {} usuarios.", users.size());
+    }
+
+    @Override
+    public Optional<String> findUsernameByGithubId(Long githubId) {
+        return record(githubId == null ? null : currentSnapshot().byGithubId().get(githubId));
+    }
+
+    @Override
+    public Optional<String> findUsernameByGithubUsername(String githubUsername) {
+        return record(githubUsername == null ? null : currentSnapshot().byGithubUsername().get(normalize(githubUsername)));
+    }
+
+    @Override
+    public Optional<String> findUsernameByEmail(String email) {
+        return record(email == null ? null : currentSnapshot().byEmail().get(normalize(email)));
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            refresh();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private Optional<String> record(String username) {
+        metrics.recordAuthorResolution(username != null);
+        return Optional.ofNullable(username);
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Snapshot(Map<Long, String> byGithubId,
+                            Map<String, String> byGithubUsername,
+                            Map<String, String> byEmail) {
+    }
+}
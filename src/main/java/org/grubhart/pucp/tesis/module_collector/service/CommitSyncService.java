@@ -1,61 +1,94 @@
 package org.grubhart.pucp.tesis.module_collector.service;
 
+import org.grubhart.pucp.tesis.module_collector.metrics.CollectorMetrics;
 import org.grubhart.pucp.tesis.module_domain.Commit;
+import org.grubhart.pucp.tesis.module_domain.CommitComparison;
+import org.grubhart.pucp.tesis.module_domain.CommitEdge;
 import org.grubhart.pucp.tesis.module_domain.CommitParent;
 import org.grubhart.pucp.tesis.module_domain.CommitParentRepository;
 import org.grubhart.pucp.tesis.module_domain.CommitRepository;
+import org.grubhart.pucp.tesis.module_domain.CommitSyncCursor;
+import org.grubhart.pucp.tesis.module_domain.CommitSyncCursorRepository;
 import org.grubhart.pucp.tesis.module_domain.GithubCommitCollector;
 import org.grubhart.pucp.tesis.module_domain.RepositoryConfig;
 import org.grubhart.pucp.tesis.module_domain.RepositoryConfigRepository;
+import org.grubhart.pucp.tesis.module_domain.SyncStage;
 import org.grubhart.pucp.tesis.module_domain.SyncStatus;
 import org.grubhart.pucp.tesis.module_domain.SyncStatusRepository;
+import org.grubhart.pucp.tesis.module_domain.SyncTask;
 import org.grubhart.pucp.tesis.module_domain.GithubCommitDto;
-import org.grubhart.pucp.tesis.module_domain.UserRepository;
+import org.grubhart.pucp.tesis.module_domain.PendingCommitParent;
+import org.grubhart.pucp.tesis.module_domain.PendingCommitParentRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 public class CommitSyncService {
 
     private static final Logger log = LoggerFactory.getLogger(CommitSyncService.class);
     public static final String SYNC_ID_PREFIX = "COMMIT_SYNC_";
+    static final int COMMIT_BATCH_SIZE = 100;
+    /** Rama del cursor cuando no se configura ninguna: la rama por defecto del repositorio. */
+    static final String DEFAULT_BRANCH = "HEAD";
 
     private final CommitRepository commitRepository;
     private final CommitParentRepository commitParentRepository;
+    private final PendingCommitParentRepository pendingCommitParentRepository;
     private final SyncStatusRepository syncStatusRepository;
     private final RepositoryConfigRepository repositoryConfigRepository;
     private final GithubCommitCollector githubCommitCollector;
-    private final UserRepository userRepository;
+    private final AuthorIdentityResolver authorIdentityResolver;
+    private final SyncTaskService syncTaskService;
+    private final CollectorMetrics metrics;
+    private final Duration commitWindow;
+    private final CommitSyncCursorRepository commitSyncCursorRepository;
+    private final String branch;
 
     public CommitSyncService(CommitRepository commitRepository,
                              CommitParentRepository commitParentRepository,
+                             PendingCommitParentRepository pendingCommitParentRepository,
                              SyncStatusRepository syncStatusRepository,
                              RepositoryConfigRepository repositoryConfigRepository,
                              GithubCommitCollector githubCommitCollector,
-                             UserRepository userRepository) {
+                             AuthorIdentityResolver authorIdentityResolver,
+                             SyncTaskService syncTaskService,
+                             CollectorMetrics metrics,
+                             @Value("${dora.sync.commits.window:30d}") Duration commitWindow,
+                             CommitSyncCursorRepository commitSyncCursorRepository,
+                             @Value("${dora.sync.commits.branch:}") String branch) {
         this.commitRepository = commitRepository;
         this.commitParentRepository = commitParentRepository;
+        this.pendingCommitParentRepository = pendingCommitParentRepository;
         this.syncStatusRepository = syncStatusRepository;
         this.repositoryConfigRepository = repositoryConfigRepository;
         this.githubCommitCollector = githubCommitCollector;
-        this.userRepository = userRepository;
+        this.authorIdentityResolver = authorIdentityResolver;
+        this.syncTaskService = syncTaskService;
+        this.metrics = metrics;
+        this.commitWindow = commitWindow;
+        this.commitSyncCursorRepository = commitSyncCursorRepository;
+        this.branch = StringUtils.hasText(branch) ? branch : null;
     }
 
     /**
-     * Tarea programada para sincronizar commits desde los repositorios configurados.
-     * Se ejecuta 10 segundos después de que la aplicación arranca y luego cada hora.
+     * Sincroniza commits de todos los repositorios configurados.
+     * El ciclo programado corre por repositorio dentro de {@link SyncPipelineOrchestrator}.
      */
-    @Scheduled(initialDelay = 10000, fixedRate = 300000)
     public void syncCommits() {
         List<RepositoryConfig> configs = repositoryConfigRepository.findAll();
         if (configs.isEmpty()) {
@@ -64,90 +97,288 @@ public class CommitSyncService {
         }
 
         log.info("Iniciando ciclo de sincronización para {} repositorios configurados.", configs.size());
+        // Los usuarios se cargan una sola vez por ciclo para resolver autores en memoria.
+        authorIdentityResolver.refresh();
+
         for (RepositoryConfig config : configs) {
             syncRepository(config);
         }
         log.info("Ciclo de sincronización de commits finalizado.");
     }
 
-    private void syncRepository(RepositoryConfig config) {
+    /**
+     * @return {@code false} si no se pudo sincronizar el repositorio (configuración inválida o error al traer el
+     * head o planificar las ventanas); las ventanas que fallen después quedan en la cola de reintentos y no cuentan
+     * como fallo
+     */
+    boolean syncRepository(RepositoryConfig config) {
         String owner = config.getOwner();
         String repoName = config.getRepoName();
 
         if (!StringUtils.hasText(owner) || !StringUtils.hasText(repoName)) {
             log.warn("Configuración de repositorio inválida. Se omite la sincronización. Owner: '{}', Repo: '{}'", owner, repoName);
-            return;
+            return false;
         }
 
         String syncId = SYNC_ID_PREFIX + owner + "/" + repoName;
         Optional<SyncStatus> syncStatus = syncStatusRepository.findById(syncId);
+        LocalDateTime now = LocalDateTime.now();
         LocalDateTime lastSync = syncStatus.map(SyncStatus::getLastSuccessfulRun)
                 // Si nunca se ha sincronizado, trae los commits de hace un año.
-                .orElse(LocalDateTime.now().minusYears(1));
+                .orElse(now.minusYears(1));
 
         try {
             log.info("Iniciando sincronización de commits para {}/{}", owner, repoName);
-            List<GithubCommitDto> commitDtos = githubCommitCollector.getCommits(owner, repoName, lastSync);
+            Optional<String> head = githubCommitCollector.getHeadSha(owner, repoName, branch);
+            Optional<CommitSyncCursor> cursor = commitSyncCursorRepository
+                    .findByRepositoryUrlAndBranch(config.getRepositoryUrl(), cursorBranch());
 
-            // First pass: Save all commits that don't exist yet
-            List<Commit> newCommitsToSave = commitDtos.stream()
-                    .filter(dto -> !commitRepository.existsById(dto.getSha()))
-                    .map(dto -> new Commit(dto, config, userRepository))
-                    .collect(Collectors.toList());
+            if (head.isPresent() && cursor.isPresent()) {
+                CommitComparison.Status status = syncFromCursor(config, cursor.get(), head.get());
+                if (status.isFastForward()) {
+                    advanceCursor(config, cursor, head.get(), now);
+                    syncStatusRepository.save(new SyncStatus(syncId, now));
+                    runPendingWindows(config);
+                    return true;
+                }
+                // Historia reescrita: no hay forma de saber qué commits del head ya están guardados
+                log.warn("La historia de {}/{} fue reescrita ({}); se recurre al escaneo por ventanas desde {}.",
+                        owner, repoName, status, lastSync);
+            }
+
+            // El rango pendiente se registra como ventanas durables: una ventana que falla se reintenta
+            // sola con backoff, sin volver a pedir el resto del año. Por eso el SyncStatus avanza aunque
+            // alguna ventana no termine: lo que falta queda en la cola de tareas, no en el rango. El cursor
+            // también avanza: las ventanas cubren hasta ahora y, con él, el head actual.
+            syncTaskService.planWindows(config.getRepositoryUrl(), SyncStage.COMMITS, lastSync, now, commitWindow);
+            syncStatusRepository.save(new SyncStatus(syncId, now));
+            head.ifPresent(sha -> advanceCursor(config, cursor, sha, now));
+        } catch (Exception e) {
+            log.error("Error en la sincronización de commits para {}/{}: {}", owner, repoName, e.getMessage(), e);
+            return false;
+        }
+
+        runPendingWindows(config);
+        return true;
+    }
+
+    /**
+     * Guarda los commits de un push recibido por webhook. El payload del push no trae los padres de cada commit,
+     * que el grafo necesita, así que los commits se piden a GitHub con la comparación {@code before...after} del
+     * propio evento (una request por página, con los padres) y pasan por el mismo {@link CommitGraphWriter}; no
+     * hace falta consultar el head ni mirar las ventanas pendientes. Si el cursor no está en {@code before}
+     * (rama nueva, push forzado o eventos perdidos) se sincroniza el repositorio como en el ciclo programado.
+     *
+     * @return {@code false} si no se pudo sincronizar el repositorio
+     */
+    boolean ingestPush(RepositoryConfig config, String before, String after) {
+        Optional<CommitSyncCursor> cursor = commitSyncCursorRepository
+                .findByRepositoryUrlAndBranch(config.getRepositoryUrl(), cursorBranch());
+        if (cursor.isEmpty() || !cursor.get().getHeadSha().equals(before)) {
+            log.info("El cursor de {}/{} no está en {}; el push hasta {} se sincroniza desde GitHub.",
+                    config.getOwner(), config.getRepoName(), before, after);
+            return syncRepository(config);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            CommitComparison.Status status = syncFromCursor(config, cursor.get(), after);
+            if (!status.isFastForward()) {
+                return syncRepository(config);
+            }
+            advanceCursor(config, cursor, after, now);
+            syncStatusRepository.save(new SyncStatus(SYNC_ID_PREFIX + config.getOwner() + "/" + config.getRepoName(),
+                    now));
+            return true;
+        } catch (Exception e) {
+            log.error("Error al guardar el push de {}/{} hasta {}: {}", config.getOwner(), config.getRepoName(), after,
+                    e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Trae solo los commits alcanzables desde el head que no lo son desde el cursor. Si el head no cambió no
+     * se hace ninguna request más.
+     */
+    private CommitComparison.Status syncFromCursor(RepositoryConfig config, CommitSyncCursor cursor, String headSha) {
+        if (headSha.equals(cursor.getHeadSha())) {
+            log.info("Sin commits nuevos en {}/{}: el head sigue en {}.", config.getOwner(), config.getRepoName(), headSha);
+            return CommitComparison.Status.IDENTICAL;
+        }
+
+        CommitGraphWriter writer = new CommitGraphWriter(config);
+        CommitComparison comparison = githubCommitCollector.streamCommitsBetween(config.getOwner(),
+                config.getRepoName(), cursor.getHeadSha(), headSha, COMMIT_BATCH_SIZE, writer::write);
+        if (comparison.status().isFastForward()) {
+            log.info("Sincronización incremental de {}/{}: {} commits entre {} y {} ({} nuevos).", config.getOwner(),
+                    config.getRepoName(), comparison.delivered(), cursor.getHeadSha(), headSha, writer.savedCommits);
+        }
+        return comparison.status();
+    }
+
+    private void advanceCursor(RepositoryConfig config, Optional<CommitSyncCursor> cursor, String headSha,
+                               LocalDateTime now) {
+        CommitSyncCursor current = cursor.orElseGet(() ->
+                new CommitSyncCursor(config.getRepositoryUrl(), cursorBranch(), headSha, now));
+        current.advanceTo(headSha, now);
+        commitSyncCursorRepository.save(current);
+    }
+
+    private String cursorBranch() {
+        return branch != null ? branch : DEFAULT_BRANCH;
+    }
+
+    private void runPendingWindows(RepositoryConfig config) {
+        int completed = syncTaskService.runDueTasks(config.getRepositoryUrl(), SyncStage.COMMITS,
+                task -> syncWindow(config, task));
+        log.info("Sincronización de commits para {}/{} finalizada: {} ventanas completadas.",
+                config.getOwner(), config.getRepoName(), completed);
+    }
+
+    /**
+     * Sincroniza los commits de una ventana. Es idempotente (los commits y relaciones ya guardados se omiten),
+     * así que una ventana que falló a mitad de camino se puede repetir completa. Los errores se propagan para
+     * que {@link SyncTaskService} programe el reintento.
+     */
+    void syncWindow(RepositoryConfig config, SyncTask task) {
+        String owner = config.getOwner();
+        String repoName = config.getRepoName();
+
+        // Commits are streamed from GitHub in batches; each batch is persisted with a few bulk queries.
+        CommitGraphWriter writer = new CommitGraphWriter(config);
+        githubCommitCollector.streamCommits(owner, repoName, branch, task.getWindowStart(), task.getWindowEnd(),
+                COMMIT_BATCH_SIZE, writer::write);
+
+        if (writer.savedCommits == 0 && writer.savedParents == 0) {
+            log.info("No se encontraron nuevos commits ni relaciones de parentesco para {}/{} entre {} y {}.",
+                    owner, repoName, task.getWindowStart(), task.getWindowEnd());
+        }
+    }
+
+    private static List<String> parentShasOf(GithubCommitDto dto) {
+        if (dto.getParents() == null) {
+            return List.of();
+        }
+        return dto.getParents().stream()
+                .map(GithubCommitDto.ParentDto::getSha)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Persiste los lotes de commits de un repositorio resolviendo la existencia de commits y de relaciones
+     * de parentesco con consultas masivas (IN) por lote, y enlazando padres desde un mapa SHA → entidad.
+     * El listado de commits de GitHub va del más nuevo al más antiguo, así que el padre de un commit suele
+     * llegar en un lote posterior: esas aristas se guardan como {@link PendingCommitParent} y cada lote pasa a
+     * {@code commit_parent} las que esperan a alguno de sus commits, también las de ventanas anteriores. Nada
+     * se acumula en memoria entre lotes. La comparación entre heads va en el orden inverso y los padres ya están
+     * guardados.
+     */
+    private final class CommitGraphWriter {
+
+        private final RepositoryConfig config;
+        private int savedCommits;
+        private int savedParents;
+
+        private CommitGraphWriter(RepositoryConfig config) {
+            this.config = config;
+        }
+
+        void write(List<GithubCommitDto> batch) {
+            // 1. Commits del lote que ya existen en la BD (una consulta)
+            Set<String> batchShas = batch.stream()
+                    .map(GithubCommitDto::getSha)
+                    .collect(Collectors.toSet());
+            Map<String, Commit> commitsBySha = new HashMap<>();
+            commitRepository.findAllById(batchShas).forEach(commit -> commitsBySha.put(commit.getSha(), commit));
+            Set<String> existingChildShas = new HashSet<>(commitsBySha.keySet());
+
+            List<Commit> newCommitsToSave = new ArrayList<>();
+            for (GithubCommitDto dto : batch) {
+                if (!commitsBySha.containsKey(dto.getSha())) {
+                    Commit commit = new Commit(dto, config, authorIdentityResolver);
+                    commitsBySha.put(commit.getSha(), commit);
+                    newCommitsToSave.add(commit);
+                }
+            }
 
             if (!newCommitsToSave.isEmpty()) {
                 log.info("Se encontraron {} nuevos commits para guardar.", newCommitsToSave.size());
-                commitRepository.saveAll(newCommitsToSave);
+                metrics.recordBatchWrite("commits", newCommitsToSave.size(), () -> commitRepository.saveAll(newCommitsToSave));
+                savedCommits += newCommitsToSave.size();
             }
 
-            // Second pass: Create and save parent relationships by fetching the entities
-            List<CommitParent> newCommitParents = commitDtos.stream()
-                    .flatMap(dto -> {
-                        // Find the child commit entity we just saved
-                        Optional<Commit> childCommitOpt = commitRepository.findById(dto.getSha());
-                        if (childCommitOpt.isEmpty()) {
-                            log.warn("Commit hijo con SHA {} no encontrado en la BD, no se pueden crear sus relaciones de parentesco.", dto.getSha());
-                            return Stream.empty();
-                        }
-                        Commit childCommit = childCommitOpt.get();
-
-                        // For each parent in the DTO, find the parent entity and create the relationship
-                        return dto.getParents().stream()
-                                .map(parentDto -> {
-                                    Optional<Commit> parentCommitOpt = commitRepository.findById(parentDto.getSha());
-                                    if (parentCommitOpt.isEmpty()) {
-                                        // This can happen if the parent is older than our sync window (e.g., >1 year)
-                                        log.debug("Parent commit with SHA {} not found for child {}, skipping relationship.", parentDto.getSha(), childCommit.getSha());
-                                        return null;
-                                    }
-                                    Commit parentCommit = parentCommitOpt.get();
-
-                                    if (!commitParentRepository.existsByCommitShaAndParentSha(childCommit.getSha(), parentCommit.getSha())) {
-                                        return new CommitParent(childCommit, parentCommit);
-                                    } else {
-                                        return null; // Relationship already exists
-                                    }
-                                })
-                                .filter(Objects::nonNull); // Filter out the nulls from parents not found or already existing
-                    })
-                    .collect(Collectors.toList());
+            // 2. Padres que no vienen en el lote pero pueden existir en la BD (una consulta)
+            Set<String> missingParentShas = batch.stream()
+                    .flatMap(dto -> parentShasOf(dto).stream())
+                    .filter(parentSha -> !commitsBySha.containsKey(parentSha))
+                    .collect(Collectors.toSet());
+            if (!missingParentShas.isEmpty()) {
+                commitRepository.findAllById(missingParentShas).forEach(commit -> commitsBySha.put(commit.getSha(), commit));
+            }
 
+            // 3. Relaciones ya registradas: solo pueden existir para hijos que ya estaban en la BD (una consulta)
+            Set<CommitEdge> existingEdges = existingChildShas.isEmpty()
+                    ? Set.of()
+                    : new HashSet<>(commitParentRepository.findEdgesByCommitShaIn(existingChildShas));
 
-            if (!newCommitParents.isEmpty()) {
-                log.info("Se encontraron {} nuevas relaciones de parentesco para guardar.", newCommitParents.size());
-                commitParentRepository.saveAll(newCommitParents);
+            List<CommitParent> newCommitParents = new ArrayList<>();
+            List<CommitEdge> unresolvedEdges = new ArrayList<>();
+            for (GithubCommitDto dto : batch) {
+                Commit childCommit = commitsBySha.get(dto.getSha());
+                for (String parentSha : parentShasOf(dto)) {
+                    Commit parentCommit = commitsBySha.get(parentSha);
+                    if (parentCommit == null) {
+                        // El padre puede llegar en un lote o una ventana posterior
+                        unresolvedEdges.add(new CommitEdge(childCommit.getSha(), parentSha));
+                    } else if (!existingEdges.contains(new CommitEdge(childCommit.getSha(), parentSha))) {
+                        newCommitParents.add(new CommitParent(childCommit, parentCommit));
+                    }
+                }
             }
 
-            if (newCommitsToSave.isEmpty() && newCommitParents.isEmpty()) {
-                log.info("No se encontraron nuevos commits ni relaciones de parentesco para {}/{}.", owner, repoName);
+            // 4. Aristas pendientes cuyo padre llegó en este lote (una consulta)
+            List<CommitEdge> resolvedEdges = pendingCommitParentRepository.findEdgesByParentShaIn(batchShas);
+            for (CommitEdge edge : resolvedEdges) {
+                Commit childCommit = commitsBySha.containsKey(edge.commitSha())
+                        ? commitsBySha.get(edge.commitSha())
+                        : commitRepository.getReferenceById(edge.commitSha());
+                newCommitParents.add(new CommitParent(childCommit, commitsBySha.get(edge.parentSha())));
             }
 
-            SyncStatus newSyncStatus = new SyncStatus(syncId, LocalDateTime.now());
-            syncStatusRepository.save(newSyncStatus);
-            log.info("Sincronización de commits para {}/{} completada exitosamente.", owner, repoName);
+            if (!newCommitParents.isEmpty()) {
+                log.info("Se encontraron {} nuevas relaciones de parentesco para guardar.", newCommitParents.size());
+                metrics.recordBatchWrite("commit_parents", newCommitParents.size(),
+                        () -> commitParentRepository.saveAll(newCommitParents));
+                savedParents += newCommitParents.size();
+            }
+            if (!resolvedEdges.isEmpty()) {
+                pendingCommitParentRepository.deleteByParentShaIn(
+                        resolvedEdges.stream().map(CommitEdge::parentSha).collect(Collectors.toSet()));
+            }
+            savePending(unresolvedEdges);
+        }
 
-        } catch (Exception e) {
-            log.error("Error durante la sincronización de commits para {}/{}: {}", owner, repoName, e.getMessage(), e);
+        /**
+         * Guarda las aristas sin padre que no estén ya pendientes (una ventana repetida las vuelve a encontrar).
+         */
+        private void savePending(List<CommitEdge> unresolvedEdges) {
+            if (unresolvedEdges.isEmpty()) {
+                return;
+            }
+            Set<String> childShas = unresolvedEdges.stream().map(CommitEdge::commitSha).collect(Collectors.toSet());
+            Set<CommitEdge> alreadyPending = new HashSet<>(
+                    pendingCommitParentRepository.findEdgesByCommitShaIn(childShas));
+            List<PendingCommitParent> newPending = unresolvedEdges.stream()
+                    .filter(edge -> !alreadyPending.contains(edge))
+                    .map(edge -> new PendingCommitParent(edge.commitSha(), edge.parentSha()))
+                    .collect(Collectors.toList());
+            if (!newPending.isEmpty()) {
+                log.debug("{} relaciones de parentesco quedan pendientes hasta que llegue el commit padre.",
+                        newPending.size());
+                pendingCommitParentRepository.saveAll(newPending);
+            }
         }
     }
 }
@@ -0,0 +1,119 @@
+package org.grubhart.pucp.tesis.module_collector.service;
+
+import org.grubhart.pucp.tesis.module_domain.Deployment;
+import org.grubhart.pucp.tesis.module_domain.DeploymentRepository;
+import org.grubhart.pucp.tesis.module_domain.Incident;
+import org.grubhart.pucp.tesis.module_domain.IncidentRepository;
+import org.grubhart.pucp.tesis.module_domain.LeadTimeFactRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Marca como fallidos los deployments a los que se atribuye un incidente, al guardar el incidente o, si el
+ * incidente llegó primero, al guardar el deployment. Los dashboards leen solo este flag (copiado en
+ * {@code lead_time_fact.failed}).
+ *
+ * Regla: el incidente empieza dentro de las 48 horas posteriores al deployment y ambos comparten el nombre de
+ * servicio de Datadog (o, si alguno no lo tiene, el repositorio).
+ */
+@Component
+public class DeploymentFailureCorrelator {
+
+    private static final Logger log = LoggerFactory.getLogger(DeploymentFailureCorrelator.class);
+    static final long INCIDENT_CORRELATION_WINDOW_HOURS = 48;
+
+    private final DeploymentRepository deploymentRepository;
+    private final LeadTimeFactRepository leadTimeFactRepository;
+    private final IncidentRepository incidentRepository;
+
+    public DeploymentFailureCorrelator(DeploymentRepository deploymentRepository,
+                                       LeadTimeFactRepository leadTimeFactRepository,
+                                       IncidentRepository incidentRepository) {
+        this.deploymentRepository = deploymentRepository;
+        this.leadTimeFactRepository = leadTimeFactRepository;
+        this.incidentRepository = incidentRepository;
+    }
+
+    /**
+     * @return cantidad de deployments que quedaron marcados por este incidente
+     */
+    public int markFailedDeployments(Incident incident) {
+        LocalDateTime startTime = incident.getStartTime();
+        if (startTime == null) {
+            return 0;
+        }
+        Long repositoryId = incident.getRepository() != null ? incident.getRepository().getId() : null;
+
+        List<Deployment> marked = deploymentRepository.findIncidentCorrelationCandidates(
+                        startTime.minusHours(INCIDENT_CORRELATION_WINDOW_HOURS), startTime,
+                        incident.getServiceName(), repositoryId).stream()
+                .filter(deployment -> !deployment.isChangeFailure())
+                .filter(deployment -> correlates(deployment, incident))
+                .toList();
+
+        if (marked.isEmpty()) {
+            return 0;
+        }
+        marked.forEach(deployment -> deployment.setChangeFailure(true));
+        deploymentRepository.saveAll(marked);
+        // Los lead times desnormalizados llevan su propia copia del flag
+        leadTimeFactRepository.markFailed(marked.stream().map(Deployment::getId).toList());
+        log.info("Incidente {} marcó {} deployment(s) como fallidos.", incident.getDatadogIncidentId(), marked.size());
+        return marked.size();
+    }
+
+    /**
+     * Marca, sin guardarlos, los deployments nuevos a los que se atribuye un incidente ya guardado: si el incidente
+     * se sincronizó antes que el deployment, {@link #markFailedDeployments} no lo encontró. Los lead times de estos
+     * deployments todavía no existen y copiarán el flag al calcularse.
+     *
+     * @return cantidad de deployments marcados
+     */
+    public int markIfCausedIncident(List<Deployment> deployments) {
+        List<Deployment> dated = deployments.stream()
+                .filter(deployment -> deployment.getCreatedAt() != null && !deployment.isChangeFailure())
+                .toList();
+        if (dated.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime from = dated.stream().map(Deployment::getCreatedAt).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = dated.stream().map(Deployment::getCreatedAt).max(Comparator.naturalOrder()).orElseThrow()
+                .plusHours(INCIDENT_CORRELATION_WINDOW_HOURS);
+        List<Incident> incidents = incidentRepository.findByStartTimeGreaterThanEqualAndStartTimeLessThan(from, to);
+        if (incidents.isEmpty()) {
+            return 0;
+        }
+
+        int marked = 0;
+        for (Deployment deployment : dated) {
+            boolean caused = incidents.stream().anyMatch(incident -> withinWindow(deployment, incident)
+                    && correlates(deployment, incident));
+            if (caused) {
+                deployment.setChangeFailure(true);
+                marked++;
+            }
+        }
+        return marked;
+    }
+
+    // Misma ventana que findIncidentCorrelationCandidates: deployment creado en (inicio - 48h, inicio]
+    private static boolean withinWindow(Deployment deployment, Incident incident) {
+        LocalDateTime start = incident.getStartTime();
+        return start != null && !start.isBefore(deployment.getCreatedAt())
+                && start.isBefore(deployment.getCreatedAt().plusHours(INCIDENT_CORRELATION_WINDOW_HOURS));
+    }
+
+    static boolean correlates(Deployment deployment, Incident incident) {
+        if (deployment.getServiceName() != null && incident.getServiceName() != null) {
+            return deployment.getServiceName().equals(incident.getServiceName());
+        }
+        return deployment.getRepository() != null && incident.getRepository() != null
+                && Objects.equals(deployment.getRepository().getId(), incident.getRepository().getId());
+    }
+}
@@ -2,44 +2,69 @@ package org.grubhart.pucp.tesis.module_collector.service;
 
 import org.grubhart.pucp.tesis.module_collector.DeploymentSyncTrigger;
 import org.grubhart.pucp.tesis.module_collector.github.GithubClientImpl;
+import org.grubhart.pucp.tesis.module_collector.metrics.CollectorMetrics;
 import org.grubhart.pucp.tesis.module_domain.*;
 import org.grubhart.pucp.tesis.module_processor.LeadTimeCalculationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class DeploymentSyncService implements DeploymentSyncTrigger {
 
     private static final Logger log = LoggerFactory.getLogger(DeploymentSyncService.class);
     private static final String JOB_NAME = "DEPLOYMENT_SYNC";
+    private static final String SUCCESS = "success";
+    private static final String PRODUCTION_BRANCH = "main";
 
     private final GithubClientImpl gitHubClient;
     private final DeploymentRepository deploymentRepository;
     private final SyncStatusRepository syncStatusRepository;
     private final RepositoryConfigRepository repositoryConfigRepository;
     private final LeadTimeCalculationService leadTimeCalculationService;
+    private final DeploymentFailureCorrelator deploymentFailureCorrelator;
+    private final CollectorMetrics metrics;
+    private final String branch;
+    private final String event;
+    private final Duration createdOverlap;
 
     public DeploymentSyncService(GithubClientImpl gitHubClient,
                                  DeploymentRepository deploymentRepository,
                                  SyncStatusRepository syncStatusRepository,
                                  RepositoryConfigRepository repositoryConfigRepository,
-                                 LeadTimeCalculationService leadTimeCalculationService) {
+                                 LeadTimeCalculationService leadTimeCalculationService,
+                                 DeploymentFailureCorrelator deploymentFailureCorrelator,
+                                 CollectorMetrics metrics,
+                                 @Value("${dora.sync.deployments.branch:main}") String branch,
+                                 @Value("${dora.sync.deployments.event:}") String event,
+                                 @Value("${dora.sync.deployments.created-overlap:6h}") Duration createdOverlap) {
         this.gitHubClient = gitHubClient;
         this.deploymentRepository = deploymentRepository;
         this.syncStatusRepository = syncStatusRepository;
         this.repositoryConfigRepository = repositoryConfigRepository;
         this.leadTimeCalculationService = leadTimeCalculationService;
+        this.deploymentFailureCorrelator = deploymentFailureCorrelator;
+        this.metrics = metrics;
+        this.branch = branch;
+        this.event = event;
+        this.createdOverlap = createdOverlap;
     }
 
+    /**
+     * Sincroniza todos los repositorios y recalcula el lead time una sola vez al final.
+     * El ciclo programado lo ejecuta {@link SyncPipelineOrchestrator}; este método queda para el disparo manual.
+     */
     @Override
-    @Scheduled(fixedRate = 300000)
     public void syncDeployments() {
         log.info("Iniciando la sincronización de deployments para todos los repositorios configurados.");
 
@@ -49,54 +74,59 @@ public class DeploymentSyncService implements DeploymentSyncTrigger {
             return;
         }
 
+        int newDeployments = 0;
         for (RepositoryConfig repoConfig : repositories) {
-            try {
-                String owner = repoConfig.getOwner();
-                String repoName = repoConfig.getRepoName();
-                String workflowFileName = repoConfig.getDeploymentWorkflowFileName();
+            newDeployments += syncRepository(repoConfig);
+        }
+        if (newDeployments > 0) {
+            leadTimeCalculationService.calculate();
+        }
+        log.info("Sincronización de deployments completada para todos los repositorios.");
+    }
 
-                if (owner == null || repoName == null || workflowFileName == null || workflowFileName.isBlank()) {
-                    log.warn("Omitiendo repositorio {} - configuración inválida (owner, repo o nombre de archivo de workflow faltante)", repoConfig.getRepositoryUrl());
-                    continue;
-                }
+    /**
+     * @return cantidad de deployments nuevos guardados; el cálculo de lead time queda a cargo del llamador
+     */
+    int syncRepository(RepositoryConfig repoConfig) {
+        try {
+            String owner = repoConfig.getOwner();
+            String repoName = repoConfig.getRepoName();
+            String workflowFileName = repoConfig.getDeploymentWorkflowFileName();
+
+            if (owner == null || repoName == null || workflowFileName == null || workflowFileName.isBlank()) {
+                log.warn("Omitiendo repositorio {} - configuración inválida (owner, repo o nombre de archivo de workflow faltante)", repoConfig.getRepositoryUrl());
+                return 0;
+            }
 
-                log.info("Sincronizando deployments para el repositorio: {}/{} usando el workflow '{}'", owner, repoName, workflowFileName);
-                syncDeploymentsForRepository(owner, repoName, workflowFileName, repoConfig);
+            log.info("Sincronizando deployments para el repositorio: {}/{} usando el workflow '{}'", owner, repoName, workflowFileName);
+            return syncDeploymentsForRepository(owner, repoName, workflowFileName, repoConfig);
 
-            } catch (IllegalArgumentException e) {
-                log.error("URL de repositorio no válida en la configuración: '{}'. Saltando este repositorio.", repoConfig.getRepositoryUrl(), e);
-            } catch (Exception e) {
-                log.error("Error inesperado durante la sincronización del repositorio {}: {}", repoConfig.getRepositoryUrl(), e.getMessage(), e);
-            }
+        } catch (IllegalArgumentException e) {
+            log.error("URL de repositorio no válida en la configuración: '{}'. Saltando este repositorio.", repoConfig.getRepositoryUrl(), e);
+        } catch (Exception e) {
+            log.error("Error inesperado durante la sincronización del repositorio {}: {}", repoConfig.getRepositoryUrl(), e.getMessage(), e);
         }
-        log.info("Sincronización de deployments completada para todos los repositorios.");
+        return 0;
     }
 
-    private void syncDeploymentsForRepository(String owner, String repoName, String workflowFileName, RepositoryConfig repositoryConfig) {
+    private int syncDeploymentsForRepository(String owner, String repoName, String workflowFileName, RepositoryConfig repositoryConfig) {
         Optional<SyncStatus> syncStatus = syncStatusRepository.findById(JOB_NAME + "_" + repoName);
-        LocalDateTime lastRun = syncStatus.map(SyncStatus::getLastSuccessfulRun).orElse(null);
-
-        List<GitHubWorkflowRunDto> workflowRuns = gitHubClient.getWorkflowRuns(owner, repoName, workflowFileName, lastRun);
+        // El filtro es por fecha de creación: una ejecución creada antes de la última sincronización pudo
+        // terminar después, así que se vuelve a mirar un margen hacia atrás (las ya guardadas se descartan).
+        LocalDateTime createdSince = syncStatus.map(SyncStatus::getLastSuccessfulRun)
+                .map(lastRun -> lastRun.minus(createdOverlap))
+                .orElse(null);
+        WorkflowRunQuery query = new WorkflowRunQuery(workflowFileName, branch, SUCCESS, event, createdSince);
 
         List<Deployment> newDeployments = new ArrayList<>();
-        for (GitHubWorkflowRunDto run : workflowRuns) {
-            if (!"success".equals(run.getConclusion())) {
-                continue;
-            }
-            try {
-                Deployment deployment = convertToDeployment(run, repositoryConfig);
-                if (!deploymentRepository.existsById(deployment.getGithubId())) {
-                    newDeployments.add(deployment);
-                }
-            } catch (IllegalArgumentException e) {
-                log.warn("Omitiendo despliegue con ID de workflow {} por no tener un SHA de commit válido.", run.getId());
-            }
-        }
+        // Una misma ejecución puede repetirse entre páginas si se crean ejecuciones durante la paginación
+        Set<Long> seenIds = new HashSet<>();
+        gitHubClient.streamWorkflowRuns(owner, repoName, query,
+                page -> newDeployments.addAll(newDeploymentsIn(page, repositoryConfig, seenIds)));
 
         if (!newDeployments.isEmpty()) {
-            deploymentRepository.saveAll(newDeployments);
+            save(newDeployments);
             log.info("Se guardaron {} nuevos deployments para {}/{}.", newDeployments.size(), owner, repoName);
-            leadTimeCalculationService.calculate();
             updateSyncStatus(repoName);
         } else {
             log.info("No se encontraron nuevos deployments para {}/{}.", owner, repoName);
@@ -104,6 +134,76 @@ public class DeploymentSyncService implements DeploymentSyncTrigger {
         }
 
         log.info("Sincronización de deployments para {}/{} completada exitosamente.", owner, repoName);
+        return newDeployments.size();
+    }
+
+    /**
+     * Registra una ejecución recibida por webhook. Se aplican los mismos filtros que el listado le pide a GitHub
+     * (workflow, rama, conclusión y evento) y el mismo descarte de las ya guardadas. El SyncStatus no avanza: el
+     * listado sigue cubriendo las ejecuciones cuyo evento no llegó.
+     *
+     * @return cantidad de deployments nuevos guardados; el cálculo de lead time queda a cargo del llamador
+     */
+    int ingestWorkflowRun(RepositoryConfig repoConfig, GitHubWorkflowRunDto run) {
+        if (!isDeploymentRun(repoConfig, run)) {
+            log.debug("La ejecución {} de {} no corresponde al workflow de deployment; se ignora.", run.getId(),
+                    repoConfig.getRepositoryUrl());
+            return 0;
+        }
+
+        List<Deployment> newDeployments = newDeploymentsIn(List.of(run), repoConfig, new HashSet<>());
+        if (!newDeployments.isEmpty()) {
+            save(newDeployments);
+            log.info("Se guardó el deployment de la ejecución {} para {}.", run.getId(), repoConfig.getRepositoryUrl());
+        }
+        return newDeployments.size();
+    }
+
+    /**
+     * Guarda los deployments nuevos ya marcados como fallidos si un incidente guardado antes se les atribuye.
+     */
+    private void save(List<Deployment> newDeployments) {
+        int failed = deploymentFailureCorrelator.markIfCausedIncident(newDeployments);
+        if (failed > 0) {
+            log.info("{} deployment(s) nuevos quedaron marcados como fallidos por incidentes ya registrados.", failed);
+        }
+        metrics.recordBatchWrite("deployments", newDeployments.size(), () -> deploymentRepository.saveAll(newDeployments));
+    }
+
+    private boolean isDeploymentRun(RepositoryConfig repoConfig, GitHubWorkflowRunDto run) {
+        String workflowFileName = repoConfig.getDeploymentWorkflowFileName();
+        if (workflowFileName == null || workflowFileName.isBlank() || run.getPath() == null) {
+            return false;
+        }
+        boolean sameWorkflow = run.getPath().equals(workflowFileName) || run.getPath().endsWith("/" + workflowFileName);
+        boolean sameBranch = branch == null || branch.isBlank() || branch.equals(run.getHeadBranch());
+        boolean sameEvent = event == null || event.isBlank() || event.equals(run.getEvent());
+        return sameWorkflow && sameBranch && sameEvent;
+    }
+
+    /**
+     * Convierte las ejecuciones de una página descartando, con una sola consulta, las que ya están guardadas.
+     */
+    private List<Deployment> newDeploymentsIn(List<GitHubWorkflowRunDto> page, RepositoryConfig repositoryConfig,
+                                              Set<Long> seenIds) {
+        Set<Long> pageIds = page.stream()
+                .map(GitHubWorkflowRunDto::getId)
+                .collect(Collectors.toSet());
+        Set<Long> knownIds = new HashSet<>(deploymentRepository.findExistingGithubIds(pageIds));
+
+        List<Deployment> deployments = new ArrayList<>();
+        for (GitHubWorkflowRunDto run : page) {
+            // GitHub ya filtra por estado; se mantiene la verificación por si el filtro se relaja
+            if (!SUCCESS.equals(run.getConclusion()) || knownIds.contains(run.getId()) || !seenIds.add(run.getId())) {
+                continue;
+            }
+            try {
+                deployments.add(convertToDeployment(run, repositoryConfig));
+            } catch (IllegalArgumentException e) {
+                log.warn("Omitiendo despliegue con ID de workflow {} por no tener un SHA de commit válido.", run.getId());
+            }
+        }
+        return deployments;
     }
 
     private Deployment convertToDeployment(GitHubWorkflowRunDto dto, RepositoryConfig repositoryConfig) {
@@ -121,7 +221,7 @@ public class DeploymentSyncService implements DeploymentSyncTrigger {
         deployment.setConclusion(dto.getConclusion());
         deployment.setCreatedAt(dto.getCreatedAt());
         deployment.setUpdatedAt(dto.getUpdatedAt());
-        if ("main".equals(dto.getHeadBranch())) {
+        if (PRODUCTION_BRANCH.equals(dto.getHeadBranch())) {
             deployment.setEnvironment("production");
         }
         return deployment;
@@ -0,0 +1,99 @@
+package org.grubhart.pucp.tesis.module_collector.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.grubhart.pucp.tesis.module_collector.IncidentNotificationReceiver;
+import org.grubhart.pucp.tesis.module_collector.IncidentNotificationResult;
+import org.grubhart.pucp.tesis.module_collector.IncidentNotificationResult.Status;
+import org.grubhart.pucp.tesis.module_collector.datadog.dto.DatadogIncidentData;
+import org.grubhart.pucp.tesis.module_collector.datadog.dto.DatadogIncidentNotification;
+import org.grubhart.pucp.tesis.module_domain.Incident;
+import org.grubhart.pucp.tesis.module_domain.IncidentRepository;
+import org.grubhart.pucp.tesis.module_domain.RepositoryConfig;
+import org.grubhart.pucp.tesis.module_domain.RepositoryConfigRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Procesa las notificaciones de incidentes que Datadog envía por webhook. Reutiliza el mapeo y la detección de
+ * cambios de {@link IncidentSyncService}, de modo que un incidente recibido por webhook queda igual que si lo
+ * hubiera traído el polling, y marca en el momento los deployments correlacionados.
+ */
+@Service
+public class IncidentNotificationService implements IncidentNotificationReceiver {
+
+    private static final Logger log = LoggerFactory.getLogger(IncidentNotificationService.class);
+
+    private final IncidentSyncService incidentSyncService;
+    private final IncidentRepository incidentRepository;
+    private final RepositoryConfigRepository repositoryConfigRepository;
+    private final DeploymentFailureCorrelator deploymentFailureCorrelator;
+    private final ObjectMapper objectMapper;
+
+    public IncidentNotificationService(IncidentSyncService incidentSyncService,
+                                       IncidentRepository incidentRepository,
+                                       RepositoryConfigRepository repositoryConfigRepository,
+                                       DeploymentFailureCorrelator deploymentFailureCorrelator,
+                                       ObjectMapper objectMapper) {
+        this.incidentSyncService = incidentSyncService;
+        this.incidentRepository = incidentRepository;
+        this.repositoryConfigRepository = repositoryConfigRepository;
+        this.deploymentFailureCorrelator = deploymentFailureCorrelator;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public IncidentNotificationResult receive(byte[] payload) {
+        DatadogIncidentNotification notification = parse(payload);
+        DatadogIncidentData data = notification.data();
+
+        Optional<RepositoryConfig> repository = repositoryConfigRepository.findFirstByDatadogServiceName(notification.service());
+        if (repository.isEmpty()) {
+            log.info("Notificación del incidente {} ignorada: el servicio '{}' no está asociado a ningún repositorio.",
+                    data.id(), notification.service());
+            return new IncidentNotificationResult(data.id(), Status.IGNORED, 0);
+        }
+
+        Incident incoming = incidentSyncService.mapToIncident(data, repository.get());
+        Optional<Incident> existing = incidentRepository.findByDatadogIncidentId(data.id());
+
+        if (existing.isEmpty()) {
+            Incident saved = incidentRepository.save(incoming);
+            int failed = deploymentFailureCorrelator.markFailedDeployments(saved != null ? saved : incoming);
+            log.info("Incidente {} creado desde webhook para el servicio '{}'.", data.id(), notification.service());
+            return new IncidentNotificationResult(data.id(), Status.CREATED, failed);
+        }
+
+        Incident current = existing.get();
+        if (incidentSyncService.isUnchanged(current, incoming)) {
+            return new IncidentNotificationResult(data.id(), Status.UNCHANGED, 0);
+        }
+
+        incidentSyncService.updateIncident(current, incoming);
+        incidentRepository.save(current);
+        log.info("Incidente {} actualizado desde webhook (estado: {}).", data.id(), current.getState());
+        return new IncidentNotificationResult(data.id(), Status.UPDATED, 0);
+    }
+
+    private DatadogIncidentNotification parse(byte[] payload) {
+        DatadogIncidentNotification notification;
+        try {
+            notification = objectMapper.readValue(payload, DatadogIncidentNotification.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Payload de incidente inválido: " + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Payload de incidente ilegible", e);
+        }
+
+        if (notification == null || notification.service() == null || notification.data() == null
+                || notification.data().id() == null || notification.data().attributes() == null
+                || notification.data().attributes().created() == null) {
+            throw new IllegalArgumentException("El payload debe incluir 'service', 'data.id' y 'data.attributes.created'");
+        }
+        return notification;
+    }
+}
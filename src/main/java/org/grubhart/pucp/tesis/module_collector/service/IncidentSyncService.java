@@ -3,6 +3,7 @@ package org.grubhart.pucp.tesis.module_collector.service;
 import org.grubhart.pucp.tesis.module_collector.datadog.DatadogIncidentClient;
 import org.grubhart.pucp.tesis.module_collector.datadog.dto.DatadogIncidentData;
 import org.grubhart.pucp.tesis.module_collector.datadog.dto.DatadogIncidentResponse;
+import org.grubhart.pucp.tesis.module_collector.metrics.CollectorMetrics;
 import org.grubhart.pucp.tesis.module_domain.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,31 +14,61 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
 @Service
 public class IncidentSyncService {
 
     private static final Logger log = LoggerFactory.getLogger(IncidentSyncService.class);
     private static final String JOB_NAME_PREFIX = "DATADOG_INCIDENT_SYNC_";
+    static final int INCIDENT_BATCH_SIZE = 100;
+    private static final int MAX_CONCURRENT_SERVICES = 4;
 
     private final DatadogIncidentClient datadogClient;
     private final IncidentRepository incidentRepository;
     private final SyncStatusRepository syncStatusRepository;
     private final RepositoryConfigRepository repositoryConfigRepository;
+    private final DeploymentFailureCorrelator deploymentFailureCorrelator;
+    private final SyncLockService syncLockService;
+    private final CollectorMetrics metrics;
 
     public IncidentSyncService(
             DatadogIncidentClient datadogClient,
             IncidentRepository incidentRepository,
             SyncStatusRepository syncStatusRepository,
-            RepositoryConfigRepository repositoryConfigRepository) {
+            RepositoryConfigRepository repositoryConfigRepository,
+            DeploymentFailureCorrelator deploymentFailureCorrelator,
+            SyncLockService syncLockService,
+            CollectorMetrics metrics) {
         this.datadogClient = datadogClient;
         this.incidentRepository = incidentRepository;
         this.syncStatusRepository = syncStatusRepository;
         this.repositoryConfigRepository = repositoryConfigRepository;
+        this.deploymentFailureCorrelator = deploymentFailureCorrelator;
+        this.syncLockService = syncLockService;
+        this.metrics = metrics;
+    }
+
+    // Initial delay: 40s, then at the reconciliation rate; Datadog's incident webhook keeps data current in between
+    @Scheduled(initialDelay = 40000, fixedRateString = "${dora.sync.reconciliation-rate-ms:3600000}")
+    public void scheduledSync() {
+        // Only one instance polls Datadog per cycle; the rest skip it
+        if (!syncLockService.runExclusively(SyncLockService.INCIDENTS_LOCK, 
+                () -> metrics.timeStage("incidents", this::syncIncidents))) {
+            log.debug("Incident synchronization is running on another instance");
+        }
     }
 
-    @Scheduled(initialDelay = 40000, fixedRate = 300000) // Initial delay: 40s, then every 60 minutes
     public void syncIncidents() {
         log.info("Starting Datadog incident synchronization for all configured repositories");
 
@@ -47,65 +78,157 @@ public class IncidentSyncService {
             return;
         }
 
-        int totalCreated = 0;
-        int totalUpdated = 0;
-
+        List<RepositoryConfig> syncable = new ArrayList<>();
         for (RepositoryConfig repository : repositories) {
             String serviceName = repository.getDatadogServiceName();
-
             if (serviceName == null || serviceName.isBlank()) {
                 log.debug("Skipping repository {} - no Datadog service name configured",
                          repository.getRepositoryUrl());
                 continue;
             }
+            syncable.add(repository);
+        }
+        if (syncable.isEmpty()) {
+            return;
+        }
+
+        // Each service has its own job and incident window, so they are synced in parallel
+        // on a small pool that lives only for this cycle.
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(syncable.size(), MAX_CONCURRENT_SERVICES));
+        try {
+            List<CompletableFuture<SyncCounts>> futures = syncable.stream()
+                    .map(repository -> CompletableFuture.supplyAsync(() -> syncService(repository), executor))
+                    .toList();
+
+            int totalCreated = 0;
+            int totalUpdated = 0;
+            for (CompletableFuture<SyncCounts> future : futures) {
+                SyncCounts counts = future.join();
+                totalCreated += counts.created();
+                totalUpdated += counts.updated();
+            }
+
+            log.info("Incident sync completed for all services: {} total created, {} total updated",
+                    totalCreated, totalUpdated);
+        } finally {
+            executor.shutdown();
+        }
+    }
 
-            String jobName = JOB_NAME_PREFIX + serviceName;
+    private SyncCounts syncService(RepositoryConfig repository) {
+        String serviceName = repository.getDatadogServiceName();
+        String jobName = JOB_NAME_PREFIX + serviceName;
 
+        try {
+            log.info("Syncing incidents for service: {} (repository: {})",
+                    serviceName, repository.getRepositoryUrl());
+
+            Instant since = getLastSyncTimestamp(jobName);
+            DatadogIncidentResponse response = datadogClient.getIncidents(since, serviceName);
+
+            SyncCounts counts = SyncCounts.EMPTY;
+            List<DatadogIncidentData> data = response.data();
+            for (int from = 0; from < data.size(); from += INCIDENT_BATCH_SIZE) {
+                List<DatadogIncidentData> batch = data.subList(from, Math.min(from + INCIDENT_BATCH_SIZE, data.size()));
+                counts = counts.plus(upsertBatch(batch, repository));
+            }
+
+            // Only update sync status if incidents were actually processed
+            if (counts.processed() > 0) {
+                updateSyncStatus(jobName);
+                log.info("Service {} sync completed: {} created, {} updated, {} unchanged",
+                        serviceName, counts.created(), counts.updated(), counts.unchanged());
+            } else {
+                log.info("Service {} sync completed: no new or updated incidents found", serviceName);
+            }
+            return counts;
+
+        } catch (Exception e) {
+            log.error("Error syncing incidents for service {}: {}", serviceName, e.getMessage(), e);
+            return SyncCounts.EMPTY;
+        }
+    }
+
+    /**
+     * Upserts a batch of incidents with a single existence lookup and a single saveAll.
+     * Incidents whose state and modification date did not change are not written again.
+     */
+    private SyncCounts upsertBatch(List<DatadogIncidentData> batch, RepositoryConfig repository) {
+        List<Incident> mapped = new ArrayList<>(batch.size());
+        for (DatadogIncidentData incidentData : batch) {
             try {
-                log.info("Syncing incidents for service: {} (repository: {})",
-                        serviceName, repository.getRepositoryUrl());
-
-                Instant since = getLastSyncTimestamp(jobName);
-                DatadogIncidentResponse response = datadogClient.getIncidents(since, serviceName);
-
-                int created = 0;
-                int updated = 0;
-
-                for (DatadogIncidentData incidentData : response.data()) {
-                    try {
-                        Incident incident = mapToIncident(incidentData, repository);
-                        Optional<Incident> existing = incidentRepository.findByDatadogIncidentId(incident.getDatadogIncidentId());
-
-                        if (existing.isPresent()) {
-                            updateIncident(existing.get(), incident);
-                            updated++;
-                        } else {
-                            incidentRepository.save(incident);
-                            created++;
-                        }
-                    } catch (Exception e) {
-                        log.error("Error processing incident {}: {}", incidentData.id(), e.getMessage(), e);
-                    }
-                }
-
-                // Only update sync status if incidents were actually processed
-                if (created > 0 || updated > 0) {
-                    updateSyncStatus(jobName);
-                    log.info("Service {} sync completed: {} created, {} updated", serviceName, created, updated);
-                } else {
-                    log.info("Service {} sync completed: no new or updated incidents found", serviceName);
-                }
-
-                totalCreated += created;
-                totalUpdated += updated;
+                mapped.add(mapToIncident(incidentData, repository));
+            } catch (Exception e) {
+                log.error("Error processing incident {}: {}", incidentData.id(), e.getMessage(), e);
+            }
+        }
+        if (mapped.isEmpty()) {
+            return SyncCounts.EMPTY;
+        }
+
+        Set<String> ids = mapped.stream().map(Incident::getDatadogIncidentId).collect(Collectors.toSet());
+        Map<String, Incident> existingById = new HashMap<>();
+        for (Incident existing : incidentRepository.findByDatadogIncidentIdIn(ids)) {
+            existingById.put(existing.getDatadogIncidentId(), existing);
+        }
+
+        List<Incident> toCreate = new ArrayList<>();
+        List<Incident> toUpdate = new ArrayList<>();
+        int unchanged = 0;
+        for (Incident incident : mapped) {
+            Incident existing = existingById.get(incident.getDatadogIncidentId());
+            if (existing == null) {
+                toCreate.add(incident);
+            } else if (isUnchanged(existing, incident)) {
+                unchanged++;
+            } else {
+                updateIncident(existing, incident);
+                toUpdate.add(existing);
+            }
+        }
+
+        if (toCreate.isEmpty() && toUpdate.isEmpty()) {
+            return new SyncCounts(0, 0, unchanged);
+        }
+
+        List<Incident> toSave = new ArrayList<>(toCreate);
+        toSave.addAll(toUpdate);
+        SyncCounts counts;
+        try {
+            metrics.recordBatchWrite("incidents", toSave.size(), () -> incidentRepository.saveAll(toSave));
+            counts = new SyncCounts(toCreate.size(), toUpdate.size(), unchanged);
+        } catch (Exception e) {
+            log.warn("Batch save of {} incidents failed ({}), retrying one by one", toSave.size(), e.getMessage());
+            // The batch was rolled back, so ids assigned during the attempt no longer exist in the database.
+            toCreate.forEach(incident -> incident.setId(null));
+            counts = new SyncCounts(saveIndividually(toCreate), saveIndividually(toUpdate), unchanged);
+        }
+
+        // The start time of an incident never changes, so only new incidents can flag deployments.
+        for (Incident incident : toCreate) {
+            if (incident.getId() != null) {
+                deploymentFailureCorrelator.markFailedDeployments(incident);
+            }
+        }
+        return counts;
+    }
 
+    private int saveIndividually(List<Incident> incidents) {
+        int saved = 0;
+        for (Incident incident : incidents) {
+            try {
+                incidentRepository.save(incident);
+                saved++;
             } catch (Exception e) {
-                log.error("Error syncing incidents for service {}: {}", serviceName, e.getMessage(), e);
+                log.error("Error processing incident {}: {}", incident.getDatadogIncidentId(), e.getMessage(), e);
             }
         }
-        
-        log.info("Incident sync completed for all services: {} total created, {} total updated",
-                totalCreated, totalUpdated);
+        return saved;
+    }
+
+    boolean isUnchanged(Incident existing, Incident incoming) {
+        return existing.getState() == incoming.getState()
+                && Objects.equals(existing.getUpdatedAt(), incoming.getUpdatedAt());
     }
 
     private Instant getLastSyncTimestamp(String jobName) {
@@ -153,14 +276,12 @@ public class IncidentSyncService {
         );
     }
 
-    private void updateIncident(Incident existing, Incident updated) {
+    void updateIncident(Incident existing, Incident updated) {
         existing.setState(updated.getState());
         existing.setSeverity(updated.getSeverity());
         existing.setResolvedTime(updated.getResolvedTime());
         existing.setDurationSeconds(updated.getDurationSeconds());
         existing.setUpdatedAt(updated.getUpdatedAt());
-
-        incidentRepository.save(existing);
     }
 
     private void updateSyncStatus(String jobName) {
@@ -197,4 +318,16 @@ public class IncidentSyncService {
             default -> IncidentSeverity.SEV5;
         };
     }
+
+    private record SyncCounts(int created, int updated, int unchanged) {
+        static final SyncCounts EMPTY = new SyncCounts(0, 0, 0);
+
+        SyncCounts plus(SyncCounts other) {
+            return new SyncCounts(created + other.created, updated + other.updated, unchanged + other.unchanged);
+        }
+
+        int processed() {
+            return created + updated + unchanged;
+        }
+    }
 }
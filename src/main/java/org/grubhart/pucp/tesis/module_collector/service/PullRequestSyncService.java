@@ -1,9 +1,9 @@
 package org.grubhart.pucp.tesis.module_collector.service;
 
+import org.grubhart.pucp.tesis.module_collector.metrics.CollectorMetrics;
 import org.grubhart.pucp.tesis.module_domain.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -22,22 +22,24 @@ public class PullRequestSyncService {
     private final SyncStatusRepository syncStatusRepository;
     private final RepositoryConfigRepository repositoryConfigRepository;
     private final GithubPullRequestCollector githubPullRequestCollector;
+    private final CollectorMetrics metrics;
 
     public PullRequestSyncService(PullRequestRepository pullRequestRepository,
                                 SyncStatusRepository syncStatusRepository,
                                 RepositoryConfigRepository repositoryConfigRepository,
-                                GithubPullRequestCollector githubPullRequestCollector) {
+                                GithubPullRequestCollector githubPullRequestCollector,
+                                CollectorMetrics metrics) {
         this.pullRequestRepository = pullRequestRepository;
         this.syncStatusRepository = syncStatusRepository;
         this.repositoryConfigRepository = repositoryConfigRepository;
         this.githubPullRequestCollector = githubPullRequestCollector;
+        this.metrics = metrics;
     }
 
     /**
-     * Tarea programada para sincronizar Pull Requests desde los repositorios configurados.
-     * Se ejecuta 20 segundos después de que la aplicación arranca y luego cada hora.
+     * Sincroniza Pull Requests de todos los repositorios configurados.
+     * El ciclo programado corre por repositorio dentro de {@link SyncPipelineOrchestrator}.
      */
-    @Scheduled(initialDelay = 20000, fixedRate = 300000)
     public void syncPullRequests() {
         List<RepositoryConfig> configs = repositoryConfigRepository.findAll();
         if (configs.isEmpty()) {
@@ -52,13 +54,16 @@ public class PullRequestSyncService {
         log.info("Ciclo de sincronización de Pull Requests finalizado.");
     }
 
-    private void syncRepository(RepositoryConfig config) {
+    /**
+     * @return {@code false} si la configuración es inválida o la sincronización falló
+     */
+    boolean syncRepository(RepositoryConfig config) {
         String owner = config.getOwner();
         String repo = config.getRepoName();
 
         if (owner == null || repo == null) {
             log.error("La URL del repositorio '{}' no tiene el formato esperado. Saltando sincronización.", config.getRepositoryUrl());
-            return;
+            return false;
         }
 
         String jobName = JOB_NAME_PREFIX + owner + "/" + repo;
@@ -74,7 +79,7 @@ public class PullRequestSyncService {
                 log.info("No se encontraron nuevos Pull Requests.");
                 updateSyncStatus(jobName);
                 log.info("Sincronización de Pull Requests para {}/{} completada exitosamente.", owner, repo);
-                return;
+                return true;
             }
 
             // Estrategia de consulta masiva para evitar N+1
@@ -88,28 +93,62 @@ public class PullRequestSyncService {
 
             List<PullRequest> newPullRequestsToSave = pullRequestDtos.stream()
                     .filter(dto -> !existingIds.contains(dto.getId()))
-                    .map(dto -> {
-                        PullRequest pr = new PullRequest(dto, config);
-                        pr.setFirstCommitSha(dto.getFirstCommitSha());
-                        return pr;
-                    })
+                    .map(dto -> toNewPullRequest(dto, config))
                     .collect(Collectors.toList());
 
             if (!newPullRequestsToSave.isEmpty()) {
                 log.info("Se encontraron {} nuevos Pull Requests para guardar.", newPullRequestsToSave.size());
-                pullRequestRepository.saveAll(newPullRequestsToSave);
+                metrics.recordBatchWrite("pull_requests", newPullRequestsToSave.size(), () -> pullRequestRepository.saveAll(newPullRequestsToSave));
             } else {
                 log.info("Todos los Pull Requests recibidos ya existían en la base de datos.");
             }
 
             updateSyncStatus(jobName);
             log.info("Sincronización de Pull Requests para {}/{} completada exitosamente.", owner, repo);
+            return true;
 
         } catch (Exception e) {
             log.error("Error durante la sincronización de Pull Requests para {}/{}: {}", owner, repo, e.getMessage(), e);
+            return false;
         }
     }
 
+    /**
+     * Guarda un Pull Request recibido por webhook. A diferencia del listado, que solo inserta los nuevos, de uno
+     * ya guardado se actualizan el estado y la fecha de merge: es justo la transición que avisa el evento.
+     */
+    void ingestPullRequest(RepositoryConfig config, GithubPullRequestDto dto) {
+        Optional<PullRequest> existing = pullRequestRepository.findById(dto.getId());
+        if (existing.isPresent()) {
+            PullRequest pullRequest = existing.get();
+            pullRequest.setState(dto.getState());
+            pullRequest.setMergedAt(dto.getMergedAt());
+            pullRequestRepository.save(pullRequest);
+            log.info("Pull Request #{} de {}/{} actualizado desde el webhook (estado: {}).", dto.getNumber(),
+                    config.getOwner(), config.getRepoName(), dto.getState());
+            return;
+        }
+
+        // El payload no trae el primer commit del PR; se pide igual que en el listado
+        try {
+            dto.setFirstCommitSha(githubPullRequestCollector.getFirstCommitShaForPr(config.getOwner(),
+                    config.getRepoName(), dto.getNumber()));
+        } catch (Exception e) {
+            log.error("No se pudo obtener el primer commit del PR #{} en {}/{}: {}", dto.getNumber(),
+                    config.getOwner(), config.getRepoName(), e.getMessage());
+        }
+        metrics.recordBatchWrite("pull_requests", 1,
+                () -> pullRequestRepository.saveAll(List.of(toNewPullRequest(dto, config))));
+        log.info("Pull Request #{} de {}/{} guardado desde el webhook.", dto.getNumber(), config.getOwner(),
+                config.getRepoName());
+    }
+
+    private static PullRequest toNewPullRequest(GithubPullRequestDto dto, RepositoryConfig config) {
+        PullRequest pr = new PullRequest(dto, config);
+        pr.setFirstCommitSha(dto.getFirstCommitSha());
+        return pr;
+    }
+
     private void updateSyncStatus(String jobName) {
         SyncStatus newSyncStatus = new SyncStatus(jobName, LocalDateTime.now());
         syncStatusRepository.save(newSyncStatus);
@@ -0,0 +1,235 @@
+package org.grubhart.pucp.tesis.module_collector.service;
+
+import jakarta.annotation.PreDestroy;
+import org.grubhart.pucp.tesis.module_collector.IngestionKind;
+import org.grubhart.pucp.tesis.module_collector.RepositoryIngestionTrigger;
+import org.grubhart.pucp.tesis.module_domain.GitHubWorkflowRunDto;
+import org.grubhart.pucp.tesis.module_domain.GithubPullRequestDto;
+import org.grubhart.pucp.tesis.module_domain.RepositoryConfig;
+import org.grubhart.pucp.tesis.module_domain.RepositoryConfigRepository;
+import org.grubhart.pucp.tesis.module_processor.LeadTimeCalculationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Cola en memoria de sincronizaciones incrementales por repositorio.
+ *
+ * Las tareas se ejecutan de a una en un hilo dedicado. Las de webhooks guardan los datos del evento con las
+ * mismas rutas de guardado que los jobs programados; las sincronizaciones ({@link #enqueue}) reutilizan el flujo
+ * incremental de los jobs (cada servicio parte de su último SyncStatus). Una solicitud idéntica que llega
+ * mientras otra sigue pendiente se descarta, de modo que una ráfaga de webhooks produce una sola tarea.
+ *
+ * Si el repositorio ya se está sincronizando (otra instancia o el ciclo programado tiene su lock), la tarea se
+ * vuelve a encolar tras {@code dora.sync.ingestion.retry-delay}: quien tiene el lock pudo haber pasado ya el punto
+ * que cubre el evento nuevo.
+ */
+@Service
+public class RepositoryIngestionQueue implements RepositoryIngestionTrigger {
+
+    private static final Logger log = LoggerFactory.getLogger(RepositoryIngestionQueue.class);
+
+    private final RepositoryConfigRepository repositoryConfigRepository;
+    private final CommitSyncService commitSyncService;
+    private final PullRequestSyncService pullRequestSyncService;
+    private final DeploymentSyncService deploymentSyncService;
+    private final LeadTimeCalculationService leadTimeCalculationService;
+    private final SyncLockService syncLockService;
+    private final Executor executor;
+    private final ScheduledExecutorService retryScheduler;
+    private final Duration retryDelay;
+    private final Set<PendingTask> pending = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public RepositoryIngestionQueue(RepositoryConfigRepository repositoryConfigRepository,
+                                    CommitSyncService commitSyncService,
+                                    PullRequestSyncService pullRequestSyncService,
+                                    DeploymentSyncService deploymentSyncService,
+                                    LeadTimeCalculationService leadTimeCalculationService,
+                                    SyncLockService syncLockService,
+                                    @Value("${dora.sync.ingestion.retry-delay:1m}") Duration retryDelay) {
+        this(repositoryConfigRepository, commitSyncService, pullRequestSyncService, deploymentSyncService,
+                leadTimeCalculationService, syncLockService, newIngestionThread(), retryDelay);
+    }
+
+    // Un solo hilo ejecuta las tareas y también los reintentos programados
+    private RepositoryIngestionQueue(RepositoryConfigRepository repositoryConfigRepository,
+                                     CommitSyncService commitSyncService,
+                                     PullRequestSyncService pullRequestSyncService,
+                                     DeploymentSyncService deploymentSyncService,
+                                     LeadTimeCalculationService leadTimeCalculationService,
+                                     SyncLockService syncLockService,
+                                     ScheduledExecutorService executor,
+                                     Duration retryDelay) {
+        this(repositoryConfigRepository, commitSyncService, pullRequestSyncService, deploymentSyncService,
+                leadTimeCalculationService, syncLockService, executor, executor, retryDelay);
+    }
+
+    // Package-private constructor for testing
+    RepositoryIngestionQueue(RepositoryConfigRepository repositoryConfigRepository,
+                             CommitSyncService commitSyncService,
+                             PullRequestSyncService pullRequestSyncService,
+                             DeploymentSyncService deploymentSyncService,
+                             LeadTimeCalculationService leadTimeCalculationService,
+                             SyncLockService syncLockService,
+                             Executor executor,
+                             ScheduledExecutorService retryScheduler,
+                             Duration retryDelay) {
+        this.repositoryConfigRepository = repositoryConfigRepository;
+        this.commitSyncService = commitSyncService;
+        this.pullRequestSyncService = pullRequestSyncService;
+        this.deploymentSyncService = deploymentSyncService;
+        this.leadTimeCalculationService = leadTimeCalculationService;
+        this.syncLockService = syncLockService;
+        this.executor = executor;
+        this.retryScheduler = retryScheduler;
+        this.retryDelay = retryDelay;
+    }
+
+    private static ScheduledExecutorService newIngestionThread() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "repository-ingestion");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public boolean enqueue(String owner, String repo, IngestionKind kind) {
+        return submitFor(owner, repo, kind.name(), config -> sync(config, kind));
+    }
+
+    @Override
+    public boolean ingestPush(String owner, String repo, String before, String after) {
+        return submitFor(owner, repo, "push " + after,
+                config -> commitSyncService.ingestPush(config, before, after));
+    }
+
+    @Override
+    public boolean ingestPullRequest(String owner, String repo, GithubPullRequestDto pullRequest) {
+        // La fecha de actualización distingue dos eventos del mismo PR (p. ej. abierto y luego mergeado)
+        return submitFor(owner, repo, "pull_request " + pullRequest.getId() + "@" + pullRequest.getUpdatedAt(),
+                config -> pullRequestSyncService.ingestPullRequest(config, pullRequest));
+    }
+
+    @Override
+    public boolean ingestWorkflowRun(String owner, String repo, GitHubWorkflowRunDto run) {
+        return submitFor(owner, repo, "workflow_run " + run.getId(), config -> {
+            if (deploymentSyncService.ingestWorkflowRun(config, run) > 0) {
+                calculateLeadTimes();
+            }
+        });
+    }
+
+    private boolean submitFor(String owner, String repo, String key, Consumer<RepositoryConfig> work) {
+        Optional<RepositoryConfig> config = findConfig(owner, repo);
+        if (config.isEmpty()) {
+            log.debug("Se ignora la tarea {} para {}/{}: el repositorio no está configurado.", key, owner, repo);
+            return false;
+        }
+
+        RepositoryConfig repository = config.get();
+        if (submit(repository, key, () -> work.accept(repository))) {
+            log.info("Tarea {} encolada para {}/{}.", key, owner, repo);
+        } else {
+            log.debug("Ya hay una tarea {} pendiente para {}/{}.", key, owner, repo);
+        }
+        return true;
+    }
+
+    /**
+     * @return {@code false} si ya había una tarea idéntica pendiente, que cubre también esta
+     */
+    private boolean submit(RepositoryConfig config, String key, Runnable work) {
+        PendingTask task = new PendingTask(config.getRepositoryUrl(), key);
+        if (!pending.add(task)) {
+            return false;
+        }
+        // Se retira de 'pending' antes de ejecutar: un evento que llegue durante la sincronización
+        // programa otra pasada en lugar de perderse.
+        executor.execute(() -> {
+            pending.remove(task);
+            run(config, key, work);
+        });
+        return true;
+    }
+
+    private void run(RepositoryConfig config, String key, Runnable work) {
+        try {
+            boolean ran = syncLockService.runExclusively(SyncLockService.repositoryLock(config), work);
+            if (!ran) {
+                // Quien tiene el lock puede haber pasado ya el punto que cubre este evento: se reintenta después
+                log.info("El repositorio {} ya se está sincronizando; la tarea {} se reintenta en {}.",
+                        config.getRepositoryUrl(), key, retryDelay);
+                retryScheduler.schedule(() -> submit(config, key, work), retryDelay.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        } catch (Exception e) {
+            log.error("Error en la tarea {} para {}: {}", key, config.getRepositoryUrl(), e.getMessage(), e);
+        }
+    }
+
+    private void sync(RepositoryConfig config, IngestionKind kind) {
+        switch (kind) {
+            case COMMITS -> commitSyncService.syncRepository(config);
+            case PULL_REQUESTS -> pullRequestSyncService.syncRepository(config);
+            case DEPLOYMENTS -> {
+                if (deploymentSyncService.syncRepository(config) > 0) {
+                    calculateLeadTimes();
+                }
+            }
+        }
+    }
+
+    /**
+     * El cálculo de lead time recorre los deployments de todos los repositorios, así que va bajo el mismo lock
+     * que en el ciclo programado. Si otra instancia lo tiene, puede haber leído los deployments pendientes antes
+     * de que se guardara el nuevo: se reintenta después en lugar de esperar al siguiente ciclo.
+     */
+    private void calculateLeadTimes() {
+        try {
+            boolean ran = syncLockService.runExclusively(SyncLockService.LEAD_TIME_LOCK,
+                    leadTimeCalculationService::calculate);
+            if (!ran) {
+                log.info("El cálculo de lead time ya está en curso; se reintenta en {}.", retryDelay);
+                retryScheduler.schedule(this::calculateLeadTimes, retryDelay.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        } catch (Exception e) {
+            log.error("Error en el cálculo de lead time: {}", e.getMessage(), e);
+        }
+    }
+
+    private Optional<RepositoryConfig> findConfig(String owner, String repo) {
+        if (owner == null || repo == null) {
+            return Optional.empty();
+        }
+        return repositoryConfigRepository.findAll().stream()
+                .filter(config -> owner.equalsIgnoreCase(config.getOwner()) && repo.equalsIgnoreCase(config.getRepoName()))
+                .findFirst();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+        if (retryScheduler != executor) {
+            retryScheduler.shutdown();
+        }
+    }
+
+    private record PendingTask(String repositoryUrl, String key) {
+    }
+}
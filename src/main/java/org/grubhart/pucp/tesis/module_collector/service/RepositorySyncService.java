@@ -1,14 +1,15 @@
 package org.grubhart.pucp.tesis.module_collector.service;
 
+import org.grubhart.pucp.tesis.module_collector.metrics.CollectorMetrics;
 import org.grubhart.pucp.tesis.module_domain.GithubRepositoryCollector;
 import org.grubhart.pucp.tesis.module_domain.GithubRepositoryDto;
+import org.grubhart.pucp.tesis.module_domain.ReferenceDataCache;
 import org.grubhart.pucp.tesis.module_domain.RepositoryConfig;
 import org.grubhart.pucp.tesis.module_domain.RepositoryConfigRepository;
 import org.grubhart.pucp.tesis.module_domain.RepositorySyncResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -28,14 +29,20 @@ public class RepositorySyncService implements org.grubhart.pucp.tesis.module_dom
 
     private final GithubRepositoryCollector githubRepositoryCollector;
     private final RepositoryConfigRepository repositoryConfigRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final CollectorMetrics metrics;
     private final String organizationName;
 
     public RepositorySyncService(
             GithubRepositoryCollector githubRepositoryCollector,
             RepositoryConfigRepository repositoryConfigRepository,
+            ReferenceDataCache referenceDataCache,
+            CollectorMetrics metrics,
             @Value("${dora.github.organization-name}") String organizationName) {
         this.githubRepositoryCollector = githubRepositoryCollector;
         this.repositoryConfigRepository = repositoryConfigRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.metrics = metrics;
         this.organizationName = organizationName;
     }
 
@@ -47,7 +54,6 @@ public class RepositorySyncService implements org.grubhart.pucp.tesis.module_dom
      *
      * @return Resultado de la sincronización con estadísticas
      */
-    @Scheduled(initialDelay = 10000, fixedRate = 300000)
     public RepositorySyncResult synchronizeRepositories() {
         logger.info("Starting repository synchronization from GitHub for organization '{}'", organizationName);
 
@@ -89,7 +95,8 @@ public class RepositorySyncService implements org.grubhart.pucp.tesis.module_dom
 
         // 4. Save only new repositories (idempotent operation)
         if (!newReposToCreate.isEmpty()) {
-            repositoryConfigRepository.saveAll(newReposToCreate);
+            metrics.recordBatchWrite("repositories", newReposToCreate.size(), () -> repositoryConfigRepository.saveAll(newReposToCreate));
+            referenceDataCache.evictRepositories();
             logger.info("Created {} new repositories", newReposToCreate.size());
         }
 
@@ -0,0 +1,28 @@
+package org.grubhart.pucp.tesis.module_collector.service;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Expone en {@code /actuator/synclocks} qué instancia tiene cada lock de sincronización.
+ */
+@Component
+@Endpoint(id = "synclocks")
+public class SyncLockEndpoint {
+
+    private final SyncLockService syncLockService;
+
+    public SyncLockEndpoint(SyncLockService syncLockService) {
+        this.syncLockService = syncLockService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> locks() {
+        return Map.of(
+                "instance", syncLockService.getInstanceId(),
+                "locks", syncLockService.describeLocks());
+    }
+}
@@ -0,0 +1,195 @@
+package org.grubhart.pucp.tesis.module_collector.service;
+
+import jakarta.annotation.PreDestroy;
+import org.grubhart.pucp.tesis.module_domain.RepositoryConfig;
+import org.grubhart.pucp.tesis.module_domain.SyncLockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Locks con lease en base de datos para que cada sincronización corra en una sola instancia a la vez.
+ *
+ * Los locks se nombran por unidad de trabajo (un repositorio, el descubrimiento global, los incidentes), así que
+ * varias instancias se reparten los repositorios en lugar de esperar a un único líder. Mientras una tarea corre,
+ * un hilo renueva el lease cada tercio de su duración; si la instancia muere, el lock vence solo y otra lo toma.
+ */
+@Service
+public class SyncLockService {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncLockService.class);
+
+    static final String DISCOVERY_LOCK = "sync:discovery";
+    static final String LEAD_TIME_LOCK = "sync:lead-time";
+    static final String INCIDENTS_LOCK = "sync:incidents";
+
+    private final SyncLockRepository syncLockRepository;
+    private final String instanceId;
+    private final Duration lease;
+    private final Clock clock;
+    private final ScheduledExecutorService renewer;
+    // Locks que esta instancia está usando: true si el lease en base de datos es suyo y debe renovarse
+    private final Map<String, Boolean> localLocks = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SyncLockService(SyncLockRepository syncLockRepository,
+                           @Value("${dora.sync.lock.lease:5m}") Duration lease) {
+        this(syncLockRepository, defaultInstanceId(), lease, Clock.systemDefaultZone(),
+                Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "sync-lock-renewer");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    // Package-private constructor for testing; with a null renewer the lease is only renewed on demand
+    SyncLockService(SyncLockRepository syncLockRepository, String instanceId, Duration lease, Clock clock,
+                    ScheduledExecutorService renewer) {
+        this.syncLockRepository = syncLockRepository;
+        this.instanceId = instanceId;
+        this.lease = lease;
+        this.clock = clock;
+        this.renewer = renewer;
+        if (renewer != null) {
+            long period = Math.max(1, lease.toMillis() / 3);
+            renewer.scheduleAtFixedRate(this::renewHeldLocks, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Ejecuta la tarea si esta instancia obtiene el lock; si otra lo tiene, no hace nada.
+     *
+     * @return {@code true} si la tarea se ejecutó aquí
+     */
+    public boolean runExclusively(String lockName, Runnable task) {
+        if (!tryAcquire(lockName)) {
+            log.debug("Lock '{}' tomado por otra instancia; se omite la tarea.", lockName);
+            return false;
+        }
+        try {
+            task.run();
+            return true;
+        } finally {
+            release(lockName);
+        }
+    }
+
+    boolean tryAcquire(String lockName) {
+        // El lock en base de datos es por instancia; dentro de la misma instancia se excluye aquí
+        if (localLocks.putIfAbsent(lockName, Boolean.FALSE) != null) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime until = now.plus(lease);
+        boolean acquired = false;
+        try {
+            acquired = syncLockRepository.acquireExpired(lockName, instanceId, now, until) == 1;
+            if (!acquired && !syncLockRepository.existsById(lockName)) {
+                acquired = syncLockRepository.insertLock(lockName, instanceId, now, until) == 1;
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Otra instancia creó el lock entre la consulta y el insert
+            log.debug("Lock '{}' creado en paralelo por otra instancia.", lockName);
+        } catch (RuntimeException e) {
+            localLocks.remove(lockName);
+            throw e;
+        }
+        if (acquired) {
+            localLocks.put(lockName, Boolean.TRUE);
+        } else {
+            localLocks.remove(lockName);
+        }
+        return acquired;
+    }
+
+    void release(String lockName) {
+        localLocks.remove(lockName);
+        try {
+            syncLockRepository.release(lockName, instanceId, LocalDateTime.now(clock));
+        } catch (Exception e) {
+            // El lease vencerá solo; no vale la pena fallar la tarea por esto
+            log.warn("No se pudo liberar el lock '{}': {}", lockName, e.getMessage());
+        }
+    }
+
+    void renewHeldLocks() {
+        for (Map.Entry<String, Boolean> entry : localLocks.entrySet()) {
+            if (!entry.getValue()) {
+                continue;
+            }
+            String lockName = entry.getKey();
+            try {
+                LocalDateTime now = LocalDateTime.now(clock);
+                if (syncLockRepository.renew(lockName, instanceId, now, now.plus(lease)) == 0) {
+                    // La tarea local sigue excluyendo a las demás de esta instancia hasta terminar
+                    localLocks.replace(lockName, Boolean.TRUE, Boolean.FALSE);
+                    log.warn("Se perdió el lock '{}' antes de terminar la tarea; otra instancia puede tomarlo.", lockName);
+                }
+            } catch (Exception e) {
+                log.warn("No se pudo renovar el lock '{}': {}", lockName, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Estado de todos los locks conocidos, para el endpoint de actuator.
+     */
+    public List<LockView> describeLocks() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        return syncLockRepository.findAll().stream()
+                .map(lock -> new LockView(lock.getLockName(), lock.getLockedBy(), lock.getLockedAt(),
+                        lock.getLockedUntil(), lock.getLockedUntil() != null && lock.getLockedUntil().isAfter(now),
+                        instanceId.equals(lock.getLockedBy())))
+                .toList();
+    }
+
+    static String repositoryLock(RepositoryConfig config) {
+        return "repository:" + config.getRepositoryUrl();
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (renewer != null) {
+            renewer.shutdownNow();
+        }
+        // Libera lo que quede para que otra instancia no espere a que venza el lease
+        for (String lockName : Set.copyOf(localLocks.keySet())) {
+            release(lockName);
+        }
+    }
+
+    private static String defaultInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown-host";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public record LockView(String name, String lockedBy, LocalDateTime lockedAt, LocalDateTime lockedUntil,
+                           boolean active, boolean heldByThisInstance) {
+    }
+}
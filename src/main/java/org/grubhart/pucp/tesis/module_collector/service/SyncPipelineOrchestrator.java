@@ -0,0 +1,213 @@
+package org.grubhart.pucp.tesis.module_collector.service;
+
+import jakarta.annotation.PreDestroy;
+import org.grubhart.pucp.tesis.module_collector.SyncCycleCompletedEvent;
+import org.grubhart.pucp.tesis.module_collector.metrics.CollectorMetrics;
+import org.grubhart.pucp.tesis.module_domain.RepositoryConfig;
+import org.grubhart.pucp.tesis.module_domain.RepositoryConfigRepository;
+import org.grubhart.pucp.tesis.module_processor.LeadTimeCalculationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecuta el ciclo de sincronización respetando las dependencias entre etapas:
+ * repositorios → usuarios → (commits → pull requests → deployments, por repositorio) → lead time → rollups.
+ *
+ * Reemplaza a los jobs programados independientes, que corrían sin orden y podían procesar deployments antes de
+ * tener sus commits. Las cadenas por repositorio corren en paralelo entre sí; el lead time se calcula una sola vez
+ * por ciclo, cuando todas terminaron, y al final se publica {@link SyncCycleCompletedEvent}.
+ */
+@Service
+public class SyncPipelineOrchestrator {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncPipelineOrchestrator.class);
+
+    private final RepositorySyncService repositorySyncService;
+    private final UserSyncService userSyncService;
+    private final AuthorIdentityResolver authorIdentityResolver;
+    private final CommitSyncService commitSyncService;
+    private final PullRequestSyncService pullRequestSyncService;
+    private final DeploymentSyncService deploymentSyncService;
+    private final LeadTimeCalculationService leadTimeCalculationService;
+    private final RepositoryConfigRepository repositoryConfigRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SyncLockService syncLockService;
+    private final CollectorMetrics metrics;
+    private final Executor executor;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Autowired
+    public SyncPipelineOrchestrator(RepositorySyncService repositorySyncService,
+                                    UserSyncService userSyncService,
+                                    AuthorIdentityResolver authorIdentityResolver,
+                                    CommitSyncService commitSyncService,
+                                    PullRequestSyncService pullRequestSyncService,
+                                    DeploymentSyncService deploymentSyncService,
+                                    LeadTimeCalculationService leadTimeCalculationService,
+                                    RepositoryConfigRepository repositoryConfigRepository,
+                                    ApplicationEventPublisher eventPublisher,
+                                    SyncLockService syncLockService,
+                                    CollectorMetrics metrics,
+                                    @Value("${dora.sync.pipeline.parallelism:4}") int parallelism) {
+        this(repositorySyncService, userSyncService, authorIdentityResolver, commitSyncService, pullRequestSyncService,
+                deploymentSyncService, leadTimeCalculationService, repositoryConfigRepository, eventPublisher,
+                syncLockService, metrics, Executors.newFixedThreadPool(Math.max(1, parallelism), pipelineThreadFactory()));
+    }
+
+    // Package-private constructor for testing
+    SyncPipelineOrchestrator(RepositorySyncService repositorySyncService,
+                             UserSyncService userSyncService,
+                             AuthorIdentityResolver authorIdentityResolver,
+                             CommitSyncService commitSyncService,
+                             PullRequestSyncService pullRequestSyncService,
+                             DeploymentSyncService deploymentSyncService,
+                             LeadTimeCalculationService leadTimeCalculationService,
+                             RepositoryConfigRepository repositoryConfigRepository,
+                             ApplicationEventPublisher eventPublisher,
+                             SyncLockService syncLockService,
+                             CollectorMetrics metrics,
+                             Executor executor) {
+        this.repositorySyncService = repositorySyncService;
+        this.userSyncService = userSyncService;
+        this.authorIdentityResolver = authorIdentityResolver;
+        this.commitSyncService = commitSyncService;
+        this.pullRequestSyncService = pullRequestSyncService;
+        this.deploymentSyncService = deploymentSyncService;
+        this.leadTimeCalculationService = leadTimeCalculationService;
+        this.repositoryConfigRepository = repositoryConfigRepository;
+        this.eventPublisher = eventPublisher;
+        this.syncLockService = syncLockService;
+        this.metrics = metrics;
+        this.executor = executor;
+    }
+
+    @Scheduled(initialDelay = 10000, fixedRateString = "${dora.sync.reconciliation-rate-ms:3600000}")
+    public void runCycle() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("El ciclo de sincronización anterior sigue en curso; se omite esta ejecución.");
+            return;
+        }
+        try {
+            executeCycle();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void executeCycle() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        log.info("Iniciando ciclo de sincronización.");
+        // Los autores de los commits se resuelven contra un índice en memoria de los usuarios. Se recarga en cada
+        // ciclo porque las instancias que no descubren usuarios no ven de otro modo los que agregó otra instancia.
+        runStage("identities", authorIdentityResolver::refresh);
+
+        // Etapas globales: todo lo demás depende de que existan los repositorios y los usuarios.
+        // Con varias instancias solo una las ejecuta; las demás siguen con los repositorios ya conocidos.
+        boolean discovered = syncLockService.runExclusively(SyncLockService.DISCOVERY_LOCK, () -> {
+            runStage("repositories", repositorySyncService::synchronizeRepositories);
+            runStage("users", userSyncService::scheduledSync);
+        });
+        if (!discovered) {
+            log.info("Otra instancia está descubriendo repositorios y usuarios; se continúa con los existentes.");
+        }
+
+        List<RepositoryConfig> repositories = repositoryConfigRepository.findAll();
+        AtomicInteger newDeployments = new AtomicInteger();
+        CompletableFuture<?>[] chains = repositories.stream()
+                .map(config -> syncRepositoryChain(config).thenAccept(newDeployments::addAndGet))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(chains).join();
+
+        if (newDeployments.get() > 0) {
+            // Si otra instancia ya lo está calculando, sus pendientes incluyen los deployments de este ciclo
+            // o quedan para el siguiente cálculo (se procesan todos los que tienen leadTimeProcessed = false).
+            syncLockService.runExclusively(SyncLockService.LEAD_TIME_LOCK,
+                    () -> runStage("lead_time", leadTimeCalculationService::calculate));
+        } else {
+            log.info("Sin deployments nuevos en el ciclo; se omite el cálculo de lead time.");
+        }
+
+        SyncCycleCompletedEvent event = new SyncCycleCompletedEvent(
+                repositories.size(), newDeployments.get(), startedAt, LocalDateTime.now());
+        eventPublisher.publishEvent(event);
+        log.info("Ciclo de sincronización completado: {} repositorios, {} deployments nuevos.",
+                event.repositories(), event.newDeployments());
+    }
+
+    /**
+     * Commits → pull requests → deployments para un repositorio. Si una etapa falla (lanza o informa que no pudo
+     * sincronizar) no se ejecutan las siguientes, porque los deployments quedarían sin sus commits; el resto de los
+     * repositorios sigue. La cadena corre bajo el lock del
+     * repositorio, así que con varias instancias cada repositorio lo sincroniza la primera que lo toma.
+     */
+    private CompletableFuture<Integer> syncRepositoryChain(RepositoryConfig config) {
+        return CompletableFuture.supplyAsync(() -> {
+                    AtomicInteger saved = new AtomicInteger();
+                    boolean ran = syncLockService.runExclusively(SyncLockService.repositoryLock(config), () -> {
+                        metrics.timeRepository(config.getOwner() + "/" + config.getRepoName(), () -> {
+                            if (!metrics.timeStage("commits", () -> commitSyncService.syncRepository(config))) {
+                                log.warn("Falló la etapa de commits de {}; se omiten sus PRs y deployments.",
+                                        config.getRepositoryUrl());
+                                return null;
+                            }
+                            if (!metrics.timeStage("pull_requests",
+                                    () -> pullRequestSyncService.syncRepository(config))) {
+                                log.warn("Falló la etapa de pull requests de {}; se omiten sus deployments.",
+                                        config.getRepositoryUrl());
+                                return null;
+                            }
+                            saved.set(metrics.timeStage("deployments",
+                                    () -> deploymentSyncService.syncRepository(config)));
+                            return null;
+                        });
+                    });
+                    if (!ran) {
+                        log.debug("El repositorio {} lo está sincronizando otra instancia.", config.getRepositoryUrl());
+                    }
+                    return saved.get();
+                }, executor)
+                .exceptionally(e -> {
+                    log.error("Falló la sincronización del repositorio {}: {}", config.getRepositoryUrl(), e.getMessage(), e);
+                    return 0;
+                });
+    }
+
+    private void runStage(String stage, Runnable action) {
+        try {
+            metrics.timeStage(stage, action);
+        } catch (Exception e) {
+            log.error("Falló la etapa {} del ciclo de sincronización: {}", stage, e.getMessage(), e);
+        }
+    }
+
+    private static ThreadFactory pipelineThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "sync-pipeline-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+}
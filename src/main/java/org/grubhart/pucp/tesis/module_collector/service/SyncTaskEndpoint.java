@@ -0,0 +1,47 @@
+package org.grubhart.pucp.tesis.module_collector.service;
+
+import org.grubhart.pucp.tesis.module_domain.SyncTask;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Expone en {@code /actuator/synctasks} el estado de la cola de sincronización y las tareas en cuarentena.
+ * Un POST con {@code taskId} devuelve una tarea en cuarentena a la cola.
+ */
+@Component
+@Endpoint(id = "synctasks")
+public class SyncTaskEndpoint {
+
+    private final SyncTaskService syncTaskService;
+
+    public SyncTaskEndpoint(SyncTaskService syncTaskService) {
+        this.syncTaskService = syncTaskService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> tasks() {
+        return Map.of(
+                "counts", syncTaskService.countByStatus(),
+                "quarantined", syncTaskService.findQuarantined().stream().map(QuarantinedTask::of).toList());
+    }
+
+    @WriteOperation
+    public Map<String, Object> requeue(Long taskId) {
+        return Map.of("taskId", taskId, "requeued", syncTaskService.requeue(taskId));
+    }
+
+    record QuarantinedTask(Long id, String repositoryUrl, String stage, LocalDateTime windowStart,
+                           LocalDateTime windowEnd, int attempts, LocalDateTime finishedAt, String lastError) {
+
+        static QuarantinedTask of(SyncTask task) {
+            return new QuarantinedTask(task.getId(), task.getRepositoryUrl(), task.getStage().name(),
+                    task.getWindowStart(), task.getWindowEnd(), task.getAttempts(), task.getFinishedAt(),
+                    task.getLastError());
+        }
+    }
+}
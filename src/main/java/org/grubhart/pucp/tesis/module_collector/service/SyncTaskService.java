@@ -0,0 +1,231 @@
+package org.grubhart.pucp.tesis.module_collector.service;
+
+import org.grubhart.pucp.tesis.module_collector.github.GithubRateLimitException;
+import org.grubhart.pucp.tesis.module_domain.SyncStage;
+import org.grubhart.pucp.tesis.module_domain.SyncTask;
+import org.grubhart.pucp.tesis.module_domain.SyncTaskRepository;
+import org.grubhart.pucp.tesis.module_domain.SyncTaskStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Cola durable de tareas de sincronización (una por repositorio, etapa y ventana de tiempo).
+ *
+ * Una ventana que falla se reintenta con backoff exponencial sin volver a pedir las demás; después de
+ * {@code maxAttempts} intentos queda en cuarentena para no seguir gastando cuota de GitHub. Un límite de tasa de
+ * GitHub no cuenta como fallo definitivo: la tarea se reintenta cuando se renueva la cuota. Los handlers deben
+ * ser idempotentes: una ventana puede ejecutarse de nuevo tras un fallo a mitad de camino o una caída del nodo.
+ */
+@Service
+public class SyncTaskService {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncTaskService.class);
+
+    private final SyncTaskRepository syncTaskRepository;
+    private final Duration backoffBase;
+    private final Duration backoffMax;
+    private final int maxAttempts;
+    private final Duration staleAfter;
+    private final Clock clock;
+
+    @Autowired
+    public SyncTaskService(SyncTaskRepository syncTaskRepository,
+                           @Value("${dora.sync.tasks.backoff-base:1m}") Duration backoffBase,
+                           @Value("${dora.sync.tasks.backoff-max:6h}") Duration backoffMax,
+                           @Value("${dora.sync.tasks.max-attempts:6}") int maxAttempts,
+                           @Value("${dora.sync.tasks.stale-after:30m}") Duration staleAfter) {
+        this(syncTaskRepository, backoffBase, backoffMax, maxAttempts, staleAfter, Clock.systemDefaultZone());
+    }
+
+    // Package-private constructor for testing
+    SyncTaskService(SyncTaskRepository syncTaskRepository, Duration backoffBase, Duration backoffMax,
+                    int maxAttempts, Duration staleAfter, Clock clock) {
+        this.syncTaskRepository = syncTaskRepository;
+        this.backoffBase = backoffBase;
+        this.backoffMax = backoffMax;
+        this.maxAttempts = maxAttempts;
+        this.staleAfter = staleAfter;
+        this.clock = clock;
+    }
+
+    /**
+     * Divide {@code [from, to)} en ventanas consecutivas de a lo sumo {@code windowSize} y registra una tarea por
+     * ventana. Registrar dos veces la misma ventana no crea duplicados.
+     *
+     * @return cantidad de tareas nuevas
+     */
+    public int planWindows(String repositoryUrl, SyncStage stage, LocalDateTime from, LocalDateTime to,
+                           Duration windowSize) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        int planned = 0;
+        LocalDateTime windowStart = from;
+        while (windowStart.isBefore(to)) {
+            LocalDateTime windowEnd = windowStart.plus(windowSize);
+            if (windowEnd.isAfter(to)) {
+                windowEnd = to;
+            }
+            if (register(new SyncTask(repositoryUrl, stage, windowStart, windowEnd, now))) {
+                planned++;
+            }
+            windowStart = windowEnd;
+        }
+        return planned;
+    }
+
+    private boolean register(SyncTask task) {
+        if (syncTaskRepository.existsByRepositoryUrlAndStageAndWindowStartAndWindowEnd(
+                task.getRepositoryUrl(), task.getStage(), task.getWindowStart(), task.getWindowEnd())) {
+            return false;
+        }
+        try {
+            syncTaskRepository.save(task);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Otra instancia registró la misma ventana en paralelo
+            return false;
+        }
+    }
+
+    /**
+     * Ejecuta en orden, de la más antigua a la más nueva, las ventanas abiertas de un repositorio y etapa.
+     * Se detiene en la primera que falla o que todavía espera su backoff: las ventanas más nuevas dependen de
+     * que los commits padre de las anteriores ya estén guardados.
+     *
+     * @return cantidad de tareas que terminaron con éxito
+     */
+    public int runDueTasks(String repositoryUrl, SyncStage stage, Consumer<SyncTask> handler) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        int succeeded = 0;
+        for (SyncTask task : syncTaskRepository.findOpenForRepository(repositoryUrl, stage)) {
+            if (!isDue(task, now)) {
+                break;
+            }
+            if (!execute(task, handler)) {
+                break;
+            }
+            succeeded++;
+        }
+        return succeeded;
+    }
+
+    private boolean isDue(SyncTask task, LocalDateTime now) {
+        if (task.getStatus() == SyncTaskStatus.RUNNING) {
+            // Quedó en curso en un nodo que murió
+            return task.getStartedAt() == null || task.getStartedAt().isBefore(now.minus(staleAfter));
+        }
+        return !task.getNextAttemptAt().isAfter(now);
+    }
+
+    /**
+     * Próximo lote de tareas listas en cualquier repositorio, incluidas las que quedaron en curso en un nodo caído.
+     */
+    public List<SyncTask> findDueTasks(int batchSize) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        return syncTaskRepository.findDue(now, now.minus(staleAfter), Limit.of(batchSize));
+    }
+
+    /**
+     * Ejecuta una tarea y registra el resultado: éxito, reintento con backoff o cuarentena.
+     *
+     * @return {@code true} si el handler terminó sin errores
+     */
+    public boolean execute(SyncTask task, Consumer<SyncTask> handler) {
+        task.start(LocalDateTime.now(clock));
+        syncTaskRepository.save(task);
+        try {
+            handler.accept(task);
+            task.succeed(LocalDateTime.now(clock));
+            syncTaskRepository.save(task);
+            return true;
+        } catch (Exception e) {
+            recordFailure(task, e);
+            return false;
+        }
+    }
+
+    private void recordFailure(SyncTask task, Exception e) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        Optional<GithubRateLimitException> rateLimit = rateLimitOf(e);
+        if (rateLimit.isPresent()) {
+            // La cuota se renueva sola: se espera lo que indica GitHub y la tarea nunca pasa a cuarentena
+            Duration retryAfter = rateLimit.get().getRetryAfter();
+            LocalDateTime nextAttempt = now.plus(retryAfter != null ? retryAfter : backoffFor(task.getAttempts()));
+            task.retryAt(nextAttempt, error);
+            log.warn("Tarea {} de {} ({} a {}) limitada por GitHub; se reintenta a las {}.", task.getStage(),
+                    task.getRepositoryUrl(), task.getWindowStart(), task.getWindowEnd(), nextAttempt);
+        } else if (task.getAttempts() >= maxAttempts) {
+            task.quarantine(now, error);
+            log.error("Tarea {} de {} ({} a {}) en cuarentena tras {} intentos: {}", task.getStage(),
+                    task.getRepositoryUrl(), task.getWindowStart(), task.getWindowEnd(), task.getAttempts(), error, e);
+        } else {
+            LocalDateTime nextAttempt = now.plus(backoffFor(task.getAttempts()));
+            task.retryAt(nextAttempt, error);
+            log.warn("Tarea {} de {} ({} a {}) falló en el intento {}; se reintenta a las {}: {}", task.getStage(),
+                    task.getRepositoryUrl(), task.getWindowStart(), task.getWindowEnd(), task.getAttempts(),
+                    nextAttempt, error);
+        }
+        syncTaskRepository.save(task);
+    }
+
+    private static Optional<GithubRateLimitException> rateLimitOf(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof GithubRateLimitException rateLimit) {
+                return Optional.of(rateLimit);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * backoffBase * 2^(intento - 1), acotado por backoffMax.
+     */
+    Duration backoffFor(int attempt) {
+        int exponent = Math.min(Math.max(attempt - 1, 0), 30);
+        Duration delay = backoffBase.multipliedBy(1L << exponent);
+        return delay.compareTo(backoffMax) > 0 ? backoffMax : delay;
+    }
+
+    /**
+     * Devuelve a la cola una tarea en cuarentena, por ejemplo tras corregir la configuración del repositorio.
+     *
+     * @return {@code false} si la tarea no existe o no está en cuarentena
+     */
+    public boolean requeue(Long taskId) {
+        return syncTaskRepository.findById(taskId)
+                .filter(task -> task.getStatus() == SyncTaskStatus.QUARANTINED)
+                .map(task -> {
+                    task.requeue(LocalDateTime.now(clock));
+                    syncTaskRepository.save(task);
+                    log.info("Tarea {} reencolada desde cuarentena.", taskId);
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    public Map<SyncTaskStatus, Long> countByStatus() {
+        Map<SyncTaskStatus, Long> counts = new EnumMap<>(SyncTaskStatus.class);
+        for (SyncTaskStatus status : SyncTaskStatus.values()) {
+            counts.put(status, syncTaskRepository.countByStatus(status));
+        }
+        return counts;
+    }
+
+    public List<SyncTask> findQuarantined() {
+        return syncTaskRepository.findByStatusOrderByFinishedAtDesc(SyncTaskStatus.QUARANTINED);
+    }
+}
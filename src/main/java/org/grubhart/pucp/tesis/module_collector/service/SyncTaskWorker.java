@@ -0,0 +1,88 @@
+package org.grubhart.pucp.tesis.module_collector.service;
+
+import org.grubhart.pucp.tesis.module_domain.RepositoryConfig;
+import org.grubhart.pucp.tesis.module_domain.RepositoryConfigRepository;
+import org.grubhart.pucp.tesis.module_domain.SyncStage;
+import org.grubhart.pucp.tesis.module_domain.SyncTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Procesa entre ciclos las tareas de sincronización cuyo backoff venció. Toma un lote de tareas listas,
+ * las agrupa por repositorio y etapa, y ejecuta cada grupo en orden bajo el lock del repositorio.
+ */
+@Component
+public class SyncTaskWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncTaskWorker.class);
+
+    private final SyncTaskService syncTaskService;
+    private final SyncLockService syncLockService;
+    private final RepositoryConfigRepository repositoryConfigRepository;
+    private final CommitSyncService commitSyncService;
+    private final int batchSize;
+
+    public SyncTaskWorker(SyncTaskService syncTaskService,
+                          SyncLockService syncLockService,
+                          RepositoryConfigRepository repositoryConfigRepository,
+                          CommitSyncService commitSyncService,
+                          @Value("${dora.sync.tasks.batch-size:50}") int batchSize) {
+        this.syncTaskService = syncTaskService;
+        this.syncLockService = syncLockService;
+        this.repositoryConfigRepository = repositoryConfigRepository;
+        this.commitSyncService = commitSyncService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelay = 60000, fixedDelayString = "${dora.sync.tasks.poll-ms:60000}")
+    public void processDueTasks() {
+        List<SyncTask> due = syncTaskService.findDueTasks(batchSize);
+        if (due.isEmpty()) {
+            return;
+        }
+
+        Set<TaskGroup> groups = new LinkedHashSet<>();
+        due.forEach(task -> groups.add(new TaskGroup(task.getRepositoryUrl(), task.getStage())));
+        Map<String, RepositoryConfig> configsByUrl = repositoryConfigRepository.findAll().stream()
+                .collect(Collectors.toMap(RepositoryConfig::getRepositoryUrl, Function.identity(), (a, b) -> a));
+
+        log.info("Procesando {} tareas de sincronización pendientes en {} grupos.", due.size(), groups.size());
+        for (TaskGroup group : groups) {
+            RepositoryConfig config = configsByUrl.get(group.repositoryUrl());
+            try {
+                if (config == null) {
+                    // El repositorio se eliminó de la configuración: sus tareas terminan en cuarentena
+                    syncTaskService.runDueTasks(group.repositoryUrl(), group.stage(), task -> {
+                        throw new IllegalStateException("El repositorio ya no está configurado");
+                    });
+                    continue;
+                }
+                syncLockService.runExclusively(SyncLockService.repositoryLock(config),
+                        () -> syncTaskService.runDueTasks(group.repositoryUrl(), group.stage(),
+                                task -> handle(config, task)));
+            } catch (Exception e) {
+                log.error("Error procesando las tareas de {} para {}: {}", group.stage(), group.repositoryUrl(),
+                        e.getMessage(), e);
+            }
+        }
+    }
+
+    private void handle(RepositoryConfig config, SyncTask task) {
+        switch (task.getStage()) {
+            case COMMITS -> commitSyncService.syncWindow(config, task);
+        }
+    }
+
+    private record TaskGroup(String repositoryUrl, SyncStage stage) {
+    }
+}
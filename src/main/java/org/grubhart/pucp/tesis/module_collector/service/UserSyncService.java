@@ -1,5 +1,6 @@
 package org.grubhart.pucp.tesis.module_collector.service;
 
+import org.grubhart.pucp.tesis.module_collector.metrics.CollectorMetrics;
 import org.grubhart.pucp.tesis.module_domain.OrganizationMember;
 import org.grubhart.pucp.tesis.module_domain.Role;
 import org.grubhart.pucp.tesis.module_domain.RoleName;
@@ -8,7 +9,6 @@ import org.grubhart.pucp.tesis.module_domain.User;
 import org.grubhart.pucp.tesis.module_domain.UserRepository;
 import org.grubhart.pucp.tesis.module_domain.GithubUserCollector;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -23,15 +23,21 @@ public class UserSyncService {
     private final GithubUserCollector githubUserCollector;
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
+    private final AuthorIdentityResolver authorIdentityResolver;
+    private final CollectorMetrics metrics;
     private final String organizationName;
 
     public UserSyncService(GithubUserCollector githubUserCollector,
                            UserRepository userRepository,
                            RoleRepository roleRepository,
+                           AuthorIdentityResolver authorIdentityResolver,
+                           CollectorMetrics metrics,
                            @Value("${dora.github.organization-name}") String organizationName) {
         this.githubUserCollector = githubUserCollector;
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
+        this.authorIdentityResolver = authorIdentityResolver;
+        this.metrics = metrics;
         this.organizationName = organizationName;
     }
 
@@ -80,11 +86,13 @@ public class UserSyncService {
 
         // 5. Save all changes in a single transaction
         if (!usersToSave.isEmpty()) {
-            userRepository.saveAll(usersToSave);
+            metrics.recordBatchWrite("users", usersToSave.size(), () -> userRepository.saveAll(usersToSave));
+            // 6. Keep the in-memory author index used by commit ingestion in sync
+            authorIdentityResolver.refresh();
         }
     }
 
-    @Scheduled(initialDelay = 20000, fixedRate = 300000) // Executes at 2 AM every day
+    // Invoked by SyncPipelineOrchestrator as the stage that follows repository discovery
     public void scheduledSync() {
         synchronizeUsers(organizationName);
     }
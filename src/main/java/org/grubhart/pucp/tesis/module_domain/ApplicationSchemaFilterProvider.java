@@ -0,0 +1,68 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import org.hibernate.boot.model.relational.Namespace;
+import org.hibernate.boot.model.relational.Sequence;
+import org.hibernate.mapping.Table;
+import org.hibernate.tool.schema.spi.SchemaFilter;
+import org.hibernate.tool.schema.spi.SchemaFilterProvider;
+
+import java.util.Set;
+
+/**
+ * El esquema lo crean las migraciones de Flyway ({@code db/migration}) y Hibernate solo lo valida
+ * ({@code ddl-auto=validate}). Se validan las tablas de la aplicación; las del registro de eventos de
+ * Spring Modulith también las crea una migración, pero su mapeo pertenece a la librería y puede cambiar
+ * entre versiones, así que no se comparan contra él.
+ *
+ * Se registra con {@code spring.jpa.properties.hibernate.hbm2ddl.schema_filter_provider}.
+ */
+public class ApplicationSchemaFilterProvider implements SchemaFilterProvider {
+
+    static final Set<String> FRAMEWORK_TABLES = Set.of("event_publication", "event_publication_archive");
+
+    private static final SchemaFilter ALL = new TableFilter(Set.of());
+    private static final SchemaFilter APPLICATION_TABLES = new TableFilter(FRAMEWORK_TABLES);
+
+    @Override
+    public SchemaFilter getCreateFilter() {
+        return ALL;
+    }
+
+    @Override
+    public SchemaFilter getDropFilter() {
+        return ALL;
+    }
+
+    @Override
+    public SchemaFilter getTruncatorFilter() {
+        return ALL;
+    }
+
+    @Override
+    public SchemaFilter getMigrateFilter() {
+        return ALL;
+    }
+
+    @Override
+    public SchemaFilter getValidateFilter() {
+        return APPLICATION_TABLES;
+    }
+
+    private record TableFilter(Set<String> excludedTables) implements SchemaFilter {
+
+        @Override
+        public boolean includeNamespace(Namespace namespace) {
+            return true;
+        }
+
+        @Override
+        public boolean includeTable(Table table) {
+            return !excludedTables.contains(table.getName().toLowerCase());
+        }
+
+        @Override
+        public boolean includeSequence(Sequence sequence) {
+            return true;
+        }
+    }
+}
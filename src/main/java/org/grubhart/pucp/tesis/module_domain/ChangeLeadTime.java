@@ -8,7 +8,9 @@ import java.util.Objects;
 public class ChangeLeadTime {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia (tabla change_lead_time_seq en MySQL) en lugar de IDENTITY para que los INSERT se agrupen en lotes JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "change_lead_time_seq")
+    @SequenceGenerator(name = "change_lead_time_seq", sequenceName = "change_lead_time_seq", allocationSize = 100)
     private Long id;
 
     @ManyToOne
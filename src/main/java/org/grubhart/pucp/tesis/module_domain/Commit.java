@@ -1,6 +1,7 @@
 package org.grubhart.pucp.tesis.module_domain;
 
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -9,15 +10,30 @@ import java.util.List;
 import java.util.Optional;
 
 @Entity
-public class Commit {
+// Además, idx_commit_author_key sobre lower(author) (V9): es funcional y no se puede declarar aquí
+@Table(name = "commit",
+        indexes = @Index(name = "idx_commit_repository_author_date", columnList = "repository_id, author, date"))
+public class Commit implements Persistable<String> {
 
     @Id
+    @Convert(converter = ShaConverter.class)
+    @Column(length = ShaConverter.BINARY_LENGTH)
     private String sha;
     private String author;
-    @Lob // Usamos @Lob para textos largos, que se mapea a TEXT o CLOB
-    private String message;
     private LocalDateTime date;
 
+    /**
+     * El mensaje vive en {@code commit_message}, comprimido, y se carga recién al leerlo: los dashboards recorren
+     * miles de commits y solo necesitan saber si el mensaje es de merge, que queda precalculado en
+     * {@link #mergeMessage}. Sin FK: {@code commit_message} se guarda y se borra en cascada con el commit.
+     */
+    @OneToOne(fetch = FetchType.LAZY, optional = false, cascade = CascadeType.ALL)
+    @PrimaryKeyJoinColumn(foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private CommitMessage messageBody;
+
+    @Column(name = "merge_message", nullable = false)
+    private boolean mergeMessage;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "repository_id", nullable = false)
     private RepositoryConfig repository;
@@ -30,12 +46,16 @@ public class Commit {
     )
     private List<Commit> parents;
 
+    /** Verdadero solo para los commits recién llegados de GitHub, hasta que se insertan; ver {@link #isNew()}. */
+    @Transient
+    private boolean newEntity;
+
 
 
     public Commit(String sha, String author, String message, LocalDateTime date, RepositoryConfig repository) {
         this.sha = sha;
         this.author = author;
-        this.message = message;
+        setMessage(message);
         this.date = date;
         this.repository = repository;
     }
@@ -51,15 +71,28 @@ public class Commit {
      * @param userRepository Repositorio para buscar usuarios por email o ID de GitHub.
      */
     public Commit(GithubCommitDto dto, RepositoryConfig repository, UserRepository userRepository) {
+        this(dto, repository, UserIdentityLookup.from(userRepository));
+    }
+
+    /**
+     * Igual que {@link #Commit(GithubCommitDto, RepositoryConfig, UserRepository)}, pero resolviendo
+     * la identidad del autor con el {@link UserIdentityLookup} recibido (p. ej. un índice en memoria).
+     *
+     * @param dto El objeto de transferencia de datos de la API de GitHub.
+     * @param repository El repositorio al que pertenece este commit.
+     * @param identities Consulta de usuarios por email, ID o username de GitHub.
+     */
+    public Commit(GithubCommitDto dto, RepositoryConfig repository, UserIdentityLookup identities) {
         this.sha = dto.getSha();
+        this.newEntity = true;
         this.repository = repository;
 
         // Extraer el autor REAL del commit GIT (no el usuario asociado en GitHub que puede ser el merger)
-        this.author = extractRealAuthor(dto, userRepository);
+        this.author = extractRealAuthor(dto, identities);
 
-        this.message = Optional.ofNullable(dto.getCommit())
+        setMessage(Optional.ofNullable(dto.getCommit())
                 .map(GithubCommitDto.Commit::getMessage)
-                .orElse("");
+                .orElse(""));
         this.date = Optional.ofNullable(dto.getCommit())
                 .map(GithubCommitDto.Commit::getAuthor)
                 .map(GithubCommitDto.CommitAuthor::getDate)
@@ -77,7 +110,7 @@ public class Commit {
      * 3. Buscar en BD por email, github_id o github_username
      * 4. Fallback al nombre del autor o "N/A"
      */
-    private String extractRealAuthor(GithubCommitDto dto, UserRepository userRepository) {
+    private String extractRealAuthor(GithubCommitDto dto, UserIdentityLookup identities) {
         // Obtener email del commit GIT
         String commitEmail = Optional.ofNullable(dto.getCommit())
                 .map(GithubCommitDto.Commit::getAuthor)
@@ -95,8 +128,7 @@ public class Commit {
                     String[] parts = localPart.split("\\+", 2);
                     try {
                         Long githubId = Long.parseLong(parts[0]);
-                        return userRepository.findByGithubId(githubId)
-                                .map(User::getGithubUsername)
+                        return identities.findUsernameByGithubId(githubId)
                                 .orElse(parts[1]); // Usar el username del email como fallback
                     } catch (NumberFormatException e) {
                         // Si no es un número, usar el username del email
@@ -104,17 +136,16 @@ public class Commit {
                     }
                 } else {
                     // Formato: username (sin github_id)
-                    return userRepository.findByGithubUsernameIgnoreCase(localPart)
-                            .map(User::getGithubUsername)
+                    return identities.findUsernameByGithubUsername(localPart)
                             .orElse(localPart);
                 }
             }
 
             // Caso 2: Email real (público)
             // Buscar usuario por email en la BD
-            User user = userRepository.findByEmailIgnoreCase(commitEmail).orElse(null);
-            if (user != null) {
-                return user.getGithubUsername();
+            Optional<String> username = identities.findUsernameByEmail(commitEmail);
+            if (username.isPresent()) {
+                return username.get();
             }
         }
 
@@ -140,6 +171,50 @@ public class Commit {
         this.sha = sha;
     }
 
+    @Override
+    public String getId() {
+        return sha;
+    }
+
+    /**
+     * Los commits construidos desde GitHub ya se filtraron contra la BD, así que {@code saveAll} los inserta
+     * con persist (y los INSERT se agrupan en lotes JDBC) en lugar de hacer un SELECT por fila para decidir
+     * entre insert y update. Cualquier otra instancia conserva el comportamiento de merge.
+     */
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
+
+    /** La fila de {@code commit_message} comparte la clave del commit, aunque el sha se haya asignado después. */
+    @PrePersist
+    void attachMessageBody() {
+        if (messageBody == null) {
+            messageBody = new CommitMessage(sha, null);
+        }
+        messageBody.setSha(sha);
+    }
+
+    /**
+     * Indica si el mensaje empieza como los que generan GitHub o git al mergear ("Merge pull request",
+     * "Merge branch", "Merge remote-tracking branch"). Se calcula al asignar el mensaje.
+     */
+    public static boolean looksLikeMergeMessage(String message) {
+        if (message == null || message.isEmpty()) {
+            return false;
+        }
+        String messageLower = message.toLowerCase();
+        return messageLower.startsWith("merge pull request") ||
+                messageLower.startsWith("merge branch") ||
+                messageLower.startsWith("merge remote-tracking branch");
+    }
+
     public String getAuthor() {
         return author;
     }
@@ -148,12 +223,22 @@ public class Commit {
         this.author = author;
     }
 
+    /** Carga el mensaje desde {@code commit_message} si todavía no se leyó. */
     public String getMessage() {
-        return message;
+        return messageBody == null ? null : messageBody.getText();
     }
 
     public void setMessage(String message) {
-        this.message = message;
+        if (messageBody == null) {
+            messageBody = new CommitMessage(sha, message);
+        } else {
+            messageBody.setText(message);
+        }
+        this.mergeMessage = looksLikeMergeMessage(message);
+    }
+
+    public boolean hasMergeMessage() {
+        return mergeMessage;
     }
 
     public LocalDateTime getDate() {
@@ -0,0 +1,31 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+/**
+ * Result of comparing a previously synchronized head against the current one.
+ *
+ * @param status    How the current head relates to the base.
+ * @param delivered The number of commits handed to the consumer; only non-zero when {@code status} is
+ *                  {@link Status#AHEAD}.
+ */
+public record CommitComparison(Status status, int delivered) {
+
+    public enum Status {
+        /** The head descends from the base; the commits in between were delivered. */
+        AHEAD,
+        /** Base and head are the same commit. */
+        IDENTICAL,
+        /** The head is an ancestor of the base (the branch was reset backwards). */
+        BEHIND,
+        /** The history was rewritten (force push); the base is no longer an ancestor of the head. */
+        DIVERGED,
+        /** The base commit no longer exists in the repository. */
+        BASE_NOT_FOUND;
+
+        /**
+         * Whether everything reachable from the head is either delivered or already reachable from the base.
+         */
+        public boolean isFastForward() {
+            return this == AHEAD || this == IDENTICAL;
+        }
+    }
+}
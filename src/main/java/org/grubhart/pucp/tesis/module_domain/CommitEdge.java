@@ -0,0 +1,8 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+/**
+ * Proyección liviana de una relación de parentesco entre commits (hijo → padre),
+ * identificada únicamente por los SHAs, sin cargar las entidades {@link Commit}.
+ */
+public record CommitEdge(String commitSha, String parentSha) {
+}
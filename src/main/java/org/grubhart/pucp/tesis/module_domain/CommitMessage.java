@@ -0,0 +1,111 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import jakarta.persistence.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Mensaje de un commit, fuera de la tabla {@code commit} para que esta quede angosta: ninguna métrica lo usa y
+ * solo se carga cuando alguien llama a {@link Commit#getMessage()}.
+ *
+ * El texto se guarda comprimido con zlib en el mismo formato que {@code COMPRESS()} de MySQL (largo original en
+ * 4 bytes little-endian seguido del stream zlib; vacío para un texto vacío), así la migración puede copiar los
+ * mensajes existentes en SQL y {@code UNCOMPRESS()} sirve para leerlos desde una consola.
+ */
+@Entity
+@Table(name = "commit_message")
+public class CommitMessage {
+
+    private static final int LENGTH_PREFIX_BYTES = 4;
+
+    @Id
+    @Convert(converter = ShaConverter.class)
+    @Column(length = ShaConverter.BINARY_LENGTH)
+    private String sha;
+
+    @Lob
+    private byte[] body;
+
+    protected CommitMessage() {
+    }
+
+    public CommitMessage(String sha, String text) {
+        this.sha = sha;
+        setText(text);
+    }
+
+    public String getSha() {
+        return sha;
+    }
+
+    void setSha(String sha) {
+        this.sha = sha;
+    }
+
+    public String getText() {
+        return decompress(body);
+    }
+
+    public void setText(String text) {
+        this.body = compress(text);
+    }
+
+    static byte[] compress(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        if (raw.length == 0) {
+            return new byte[0];
+        }
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + LENGTH_PREFIX_BYTES);
+            out.writeBytes(ByteBuffer.allocate(LENGTH_PREFIX_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                    .putInt(raw.length).array());
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static String decompress(byte[] body) {
+        if (body == null) {
+            return null;
+        }
+        if (body.length < LENGTH_PREFIX_BYTES) {
+            return "";
+        }
+        int length = ByteBuffer.wrap(body, 0, LENGTH_PREFIX_BYTES).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(body, LENGTH_PREFIX_BYTES, body.length - LENGTH_PREFIX_BYTES);
+            byte[] raw = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, read, length - read);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Mensaje de commit comprimido truncado");
+                }
+                read += inflated;
+            }
+            return new String(raw, 0, read, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Mensaje de commit con formato de compresión inválido", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CommitMessageRepository extends JpaRepository<CommitMessage, String> {
+}
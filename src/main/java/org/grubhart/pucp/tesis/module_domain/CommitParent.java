@@ -3,11 +3,14 @@ package org.grubhart.pucp.tesis.module_domain;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "commit_parent", uniqueConstraints = @UniqueConstraint(columnNames = {"commit_sha", "parent_sha"}))
+@Table(name = "commit_parent",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"commit_sha", "parent_sha"}),
+        indexes = @Index(name = "idx_commit_parent_parent_sha", columnList = "parent_sha"))
 public class CommitParent {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "commit_parent_seq")
+    @SequenceGenerator(name = "commit_parent_seq", sequenceName = "commit_parent_seq", allocationSize = 100)
     private Long id;
 
     @ManyToOne
@@ -1,7 +1,19 @@
 package org.grubhart.pucp.tesis.module_domain;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface CommitParentRepository extends JpaRepository<CommitParent, Long> {
     boolean existsByCommitShaAndParentSha(String commitSha, String parentSha);
+
+    /**
+     * Devuelve, en una sola consulta, las relaciones de parentesco ya registradas para un conjunto de commits hijos.
+     */
+    @Query("SELECT new org.grubhart.pucp.tesis.module_domain.CommitEdge(cp.commit.sha, cp.parent.sha) " +
+            "FROM CommitParent cp WHERE cp.commit.sha IN :commitShas")
+    List<CommitEdge> findEdgesByCommitShaIn(@Param("commitShas") Collection<String> commitShas);
 }
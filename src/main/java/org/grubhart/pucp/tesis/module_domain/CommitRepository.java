@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,26 +18,34 @@ public interface CommitRepository extends JpaRepository<Commit, String> {
 
     Optional<Commit> findFirstByOrderByDateDesc();
 
+    // Los SHA se guardan en binario (ver ShaConverter): los parámetros llegan en hex y se convierten con unhex()
     @Query(value = "WITH RECURSIVE commit_graph AS ( " +
-            "    SELECT :endSha as sha " +
+            "    SELECT unhex(:endSha) as sha " +
             "    UNION " +
             "    SELECT cp.parent_sha " +
             "    FROM commit_parent cp " +
             "    JOIN commit_graph cg ON cp.commit_sha = cg.sha " +
-            "    WHERE cp.parent_sha IS NOT NULL AND cp.parent_sha != :startSha " +
+            "    WHERE cp.parent_sha IS NOT NULL AND cp.parent_sha != unhex(:startSha) " +
             ") " +
-            "SELECT c.sha, c.author, c.message, c.date FROM commit c WHERE c.sha IN (SELECT sha FROM commit_graph) AND c.sha != :startSha", nativeQuery = true)
+            "SELECT c.sha, c.author, c.date, c.merge_message, c.repository_id FROM commit c WHERE c.sha IN (SELECT sha FROM commit_graph) AND c.sha != unhex(:startSha)", nativeQuery = true)
     List<Commit> findCommitsBetween(@Param("startSha") String startSha, @Param("endSha") String endSha);
 
     @Query(value = "WITH RECURSIVE commit_graph AS ( " +
-            "    SELECT :sha as sha " +
+            "    SELECT unhex(:sha) as sha " +
             "    UNION " +
             "    SELECT cp.parent_sha " +
             "    FROM commit_parent cp " +
             "    JOIN commit_graph cg ON cp.commit_sha = cg.sha " +
             "    WHERE cp.parent_sha IS NOT NULL " +
             ") " +
-            "SELECT c.sha, c.author, c.message, c.date FROM commit c WHERE c.sha IN (SELECT sha FROM commit_graph)", nativeQuery = true)
+            "SELECT c.sha, c.author, c.date, c.merge_message, c.repository_id FROM commit c WHERE c.sha IN (SELECT sha FROM commit_graph)", nativeQuery = true)
     List<Commit> findAllParentsOf(@Param("sha") String sha);
 
+    /**
+     * Commits de los autores indicados (en minúsculas) que no son de merge: ni mensaje de merge ni dos o más padres.
+     * Recorre el índice funcional idx_commit_author_key (V9).
+     */
+    @Query("SELECT c FROM Commit c WHERE lower(c.author) IN :authorKeys AND c.mergeMessage = false " +
+            "AND (SELECT COUNT(cp) FROM CommitParent cp WHERE cp.commit = c) < 2")
+    List<Commit> findNonMergeByAuthorKeys(@Param("authorKeys") Collection<String> authorKeys);
 }
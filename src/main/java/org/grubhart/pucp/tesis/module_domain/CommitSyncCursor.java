@@ -0,0 +1,66 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Último head sincronizado de una rama de un repositorio. La siguiente sincronización pide a GitHub solo los
+ * commits alcanzables desde el head actual que no lo son desde {@code headSha} (API de comparación).
+ */
+@Entity
+@Table(name = "commit_sync_cursors",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"repository_url", "branch"}))
+public class CommitSyncCursor {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "repository_url", nullable = false)
+    private String repositoryUrl;
+
+    @Column(name = "branch", nullable = false)
+    private String branch;
+
+    @Column(name = "head_sha", nullable = false, length = 40)
+    private String headSha;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    protected CommitSyncCursor() {
+    }
+
+    public CommitSyncCursor(String repositoryUrl, String branch, String headSha, LocalDateTime updatedAt) {
+        this.repositoryUrl = repositoryUrl;
+        this.branch = branch;
+        this.headSha = headSha;
+        this.updatedAt = updatedAt;
+    }
+
+    public void advanceTo(String headSha, LocalDateTime now) {
+        this.headSha = headSha;
+        this.updatedAt = now;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getRepositoryUrl() {
+        return repositoryUrl;
+    }
+
+    public String getBranch() {
+        return branch;
+    }
+
+    public String getHeadSha() {
+        return headSha;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,10 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface CommitSyncCursorRepository extends JpaRepository<CommitSyncCursor, Long> {
+
+    Optional<CommitSyncCursor> findByRepositoryUrlAndBranch(String repositoryUrl, String branch);
+}
@@ -5,11 +5,17 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
-@Table(name = "deployment")
+@Table(name = "deployment", indexes = {
+        @Index(name = "idx_deployment_repository_environment_created", columnList = "repository_id, environment, created_at"),
+        @Index(name = "idx_deployment_environment_created", columnList = "environment, created_at"),
+        @Index(name = "idx_deployment_lead_time_pending", columnList = "lead_time_processed, environment, created_at")
+})
 public class Deployment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia (tabla deployment_seq en MySQL) en lugar de IDENTITY para que los INSERT se agrupen en lotes JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "deployment_seq")
+    @SequenceGenerator(name = "deployment_seq", sequenceName = "deployment_seq", allocationSize = 100)
     private Long id;
 
     @Column(unique = true)
@@ -38,6 +44,12 @@ public class Deployment {
 
     private boolean leadTimeProcessed = false;
 
+    /**
+     * Marked when an incident starts within the correlation window after this deployment.
+     * Set at write time when the incident is stored, so CFR does not have to re-correlate on every read.
+     */
+    private boolean changeFailure = false;
+
     public Deployment() {
         // JPA constructor
     }
@@ -167,6 +179,14 @@ public class Deployment {
         this.leadTimeProcessed = leadTimeProcessed;
     }
 
+    public boolean isChangeFailure() {
+        return changeFailure;
+    }
+
+    public void setChangeFailure(boolean changeFailure) {
+        this.changeFailure = changeFailure;
+    }
+
     public RepositoryConfig getRepository() {
         return repository;
     }
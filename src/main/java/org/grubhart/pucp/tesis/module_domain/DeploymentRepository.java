@@ -2,10 +2,13 @@ package org.grubhart.pucp.tesis.module_domain;
 
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +17,12 @@ public interface DeploymentRepository extends JpaRepository<Deployment, Long> {
 
     Optional<Deployment> findByGithubId(Long githubId);
 
+    /**
+     * The subset of {@code githubIds} that is already stored, resolved with a single query per page of runs.
+     */
+    @Query("SELECT d.githubId FROM Deployment d WHERE d.githubId IN :githubIds")
+    List<Long> findExistingGithubIds(@Param("githubIds") Collection<Long> githubIds);
+
     List<Deployment> findByLeadTimeProcessedFalse(Sort sort);
 
     List<Deployment> findByLeadTimeProcessedFalseAndEnvironment(String environment, Sort sort);
@@ -27,4 +36,15 @@ public interface DeploymentRepository extends JpaRepository<Deployment, Long> {
     List<Deployment> findByRepositoryIdAndEnvironmentAndCreatedAtBetween(Long repositoryId, String environment, LocalDate startDate, LocalDate endDate);
 
     long countByEnvironmentAndCreatedAtBetween(String environment, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Deployments created in (from, to] that share the service name or the repository of an incident.
+     * The caller applies the exact correlation rule over this reduced candidate set.
+     */
+    @Query("SELECT d FROM Deployment d WHERE d.createdAt > :from AND d.createdAt <= :to " +
+            "AND (d.serviceName = :serviceName OR d.repository.id = :repositoryId)")
+    List<Deployment> findIncidentCorrelationCandidates(@Param("from") LocalDateTime from,
+                                                       @Param("to") LocalDateTime to,
+                                                       @Param("serviceName") String serviceName,
+                                                       @Param("repositoryId") Long repositoryId);
 }
@@ -15,6 +15,9 @@ public class GitHubWorkflowRunDto {
     private String headSha;
     private String status;
     private String conclusion;
+    private String event;
+    // Ruta del archivo del workflow, p. ej. .github/workflows/deploy.yml
+    private String path;
     @JsonProperty("created_at")
     private LocalDateTime createdAt;
     @JsonProperty("updated_at")
@@ -73,6 +76,22 @@ public class GitHubWorkflowRunDto {
         this.conclusion = conclusion;
     }
 
+    public String getEvent() {
+        return event;
+    }
+
+    public void setEvent(String event) {
+        this.event = event;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -2,6 +2,8 @@ package org.grubhart.pucp.tesis.module_domain;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Defines the contract for collecting commits from GitHub.
@@ -12,6 +14,7 @@ public interface GithubCommitCollector {
 
     /**
      * Retrieves a list of commits from a repository since a given point in time.
+     * The whole result is held in memory, so this is only suitable for small windows.
      *
      * @param owner The owner of the repository.
      * @param repo The name of the repository.
@@ -19,4 +22,64 @@ public interface GithubCommitCollector {
      * @return A list of {@link GithubCommitDto} objects representing the commits.
      */
     List<GithubCommitDto> getCommits(String owner, String repo, LocalDateTime since);
+
+    /**
+     * Streams the commits of a repository since a given point in time, handing them to the
+     * consumer in batches of at most {@code batchSize} elements as they are decoded.
+     * Peak memory is bounded by the batch size, independently of the repository size.
+     *
+     * @param owner The owner of the repository.
+     * @param repo The name of the repository.
+     * @param since The date and time from which to fetch commits.
+     * @param batchSize The maximum number of commits per batch.
+     * @param batchConsumer Receives each batch, in the order returned by GitHub (newest first).
+     * @return The total number of commits delivered to the consumer.
+     */
+    int streamCommits(String owner, String repo, LocalDateTime since, int batchSize,
+                      Consumer<List<GithubCommitDto>> batchConsumer);
+
+    /**
+     * Streams the commits of a branch inside the window {@code [since, until]}.
+     * Unlike {@link #streamCommits(String, String, LocalDateTime, int, Consumer)}, a page that fails
+     * after others were delivered is not reported as a partial success: the exception is propagated,
+     * so the caller can retry the window. Batches already delivered must be safe to receive again.
+     *
+     * @param owner The owner of the repository.
+     * @param repo The name of the repository.
+     * @param branch The branch name, or {@code null} for the repository's default branch.
+     * @param since The start of the window.
+     * @param until The end of the window.
+     * @param batchSize The maximum number of commits per batch.
+     * @param batchConsumer Receives each batch, in the order returned by GitHub (newest first).
+     * @return The total number of commits delivered to the consumer.
+     */
+    int streamCommits(String owner, String repo, String branch, LocalDateTime since, LocalDateTime until,
+                      int batchSize, Consumer<List<GithubCommitDto>> batchConsumer);
+
+    /**
+     * Returns the SHA of the newest commit of a branch.
+     *
+     * @param owner The owner of the repository.
+     * @param repo The name of the repository.
+     * @param branch The branch name, or {@code null} for the repository's default branch.
+     * @return The head SHA, or empty if the branch has no commits or does not exist.
+     */
+    Optional<String> getHeadSha(String owner, String repo, String branch);
+
+    /**
+     * Streams the commits reachable from {@code headSha} that are not reachable from {@code baseSha}, oldest
+     * first, using the compare API. Commits are only delivered when the head descends from the base; for
+     * any other relation the status is returned without delivering anything, so the caller can fall back
+     * to a windowed scan. Failures are propagated; batches already delivered must be safe to receive again.
+     *
+     * @param owner The owner of the repository.
+     * @param repo The name of the repository.
+     * @param baseSha The last head that was fully synchronized.
+     * @param headSha The current head.
+     * @param batchSize The maximum number of commits per batch.
+     * @param batchConsumer Receives each batch, oldest commits first.
+     * @return How the head relates to the base and how many commits were delivered.
+     */
+    CommitComparison streamCommitsBetween(String owner, String repo, String baseSha, String headSha, int batchSize,
+                                          Consumer<List<GithubCommitDto>> batchConsumer);
 }
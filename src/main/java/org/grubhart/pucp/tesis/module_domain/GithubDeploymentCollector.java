@@ -1,8 +1,15 @@
 package org.grubhart.pucp.tesis.module_domain;
 
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface GithubDeploymentCollector {
-    List<GitHubWorkflowRunDto> getWorkflowRuns(String owner, String repo, String workflowFileName, LocalDateTime since);
+    /**
+     * Streams the runs of a workflow that match the query, one page at a time, newest first.
+     * Filtering happens on GitHub's side, and a failing page is propagated instead of returning partial results.
+     *
+     * @return The total number of runs delivered to the consumer.
+     */
+    int streamWorkflowRuns(String owner, String repo, WorkflowRunQuery query,
+                           Consumer<List<GitHubWorkflowRunDto>> pageConsumer);
 }
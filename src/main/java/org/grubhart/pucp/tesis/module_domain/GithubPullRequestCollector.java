@@ -17,4 +17,14 @@ public interface GithubPullRequestCollector {
      * @return Una lista de DTOs que representan los Pull Requests encontrados.
      */
     List<GithubPullRequestDto> getPullRequests(String owner, String repo, LocalDateTime since);
+
+    /**
+     * Obtiene el SHA del primer commit de un Pull Request.
+     *
+     * @param owner El propietario del repositorio.
+     * @param repo El nombre del repositorio.
+     * @param prNumber El número del Pull Request.
+     * @return El SHA del primer commit.
+     */
+    String getFirstCommitShaForPr(String owner, String repo, int prNumber);
 }
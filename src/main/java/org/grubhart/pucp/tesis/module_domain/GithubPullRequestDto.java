@@ -1,5 +1,6 @@
 package org.grubhart.pucp.tesis.module_domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.time.LocalDateTime;
@@ -8,6 +9,7 @@ import java.util.Objects;
 /**
  * DTO para deserializar la respuesta de la API de GitHub para un Pull Request.
  */
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class GithubPullRequestDto {
 
     private Long id;
@@ -5,11 +5,17 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
-@Table(name = "incidents")
+@Table(name = "incidents",
+        indexes = {
+                @Index(name = "idx_incidents_service_state_start", columnList = "service_name, state, start_time"),
+                @Index(name = "idx_incidents_repository_state_start", columnList = "repository_id, state, start_time")
+        })
 public class Incident {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia (tabla incidents_seq en MySQL) en lugar de IDENTITY para que los INSERT se agrupen en lotes JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "incidents_seq")
+    @SequenceGenerator(name = "incidents_seq", sequenceName = "incidents_seq", allocationSize = 100)
     private Long id;
 
     @Column(nullable = false, unique = true)
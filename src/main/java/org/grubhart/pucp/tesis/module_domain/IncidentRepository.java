@@ -1,9 +1,12 @@
 package org.grubhart.pucp.tesis.module_domain;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +15,8 @@ public interface IncidentRepository extends JpaRepository<Incident, Long> {
 
     Optional<Incident> findByDatadogIncidentId(String datadogIncidentId);
 
+    List<Incident> findByDatadogIncidentIdIn(Collection<String> datadogIncidentIds);
+
     List<Incident> findByServiceNameAndStateAndStartTimeBetween(
             String serviceName,
             IncidentState state,
@@ -24,4 +29,17 @@ public interface IncidentRepository extends JpaRepository<Incident, Long> {
             LocalDateTime start,
             LocalDateTime end
     );
+
+    List<Incident> findByStartTimeGreaterThanEqualAndStartTimeLessThan(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Incidentes resueltos y con duración de los repositorios indicados que empezaron en [from, to), para el MTTR
+     * de los dashboards. Recorre el índice (repository_id, state, start_time).
+     */
+    @Query("SELECT i FROM Incident i WHERE i.repository.id IN :repositoryIds " +
+            "AND i.state = org.grubhart.pucp.tesis.module_domain.IncidentState.RESOLVED " +
+            "AND i.durationSeconds IS NOT NULL AND i.startTime >= :from AND i.startTime < :to")
+    List<Incident> findResolvedInRepositoriesStartedBetween(@Param("repositoryIds") Collection<Long> repositoryIds,
+                                                           @Param("from") LocalDateTime from,
+                                                           @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,57 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Página de un listado recorrido por id ascendente. El cursor es el id del último elemento entregado: la página
+ * siguiente pide los ids mayores ({@code WHERE id > :after ORDER BY id LIMIT n}), así que su costo no depende de
+ * cuántas páginas hubo antes y las altas o bajas entre una página y otra no duplican ni saltan elementos.
+ *
+ * @param items     elementos de la página
+ * @param nextAfter cursor de la página siguiente, o {@code null} si esta es la última
+ */
+public record KeysetPage<T>(List<T> items, Long nextAfter) {
+
+    public static final int DEFAULT_SIZE = 100;
+    public static final int MAX_SIZE = 500;
+
+    /**
+     * Lee una página de {@link #size(Long, Integer)} elementos con {@code query(after, limit)}, una consulta
+     * {@code WHERE id > :after ORDER BY id}. Nunca lee el listado completo: una petición sin cursor ni límite
+     * recibe la primera página de {@value #MAX_SIZE} y, si hay más, el cursor de la siguiente.
+     */
+    public static <T> KeysetPage<T> read(Long after, Integer limit, BiFunction<Long, Limit, List<T>> query,
+                                         Function<T, Long> id) {
+        int size = size(after, limit);
+        return of(query.apply(after == null ? 0L : after, Limit.of(size + 1)), size, id);
+    }
+
+    /**
+     * Tamaño de página: el pedido, acotado a [1, {@value #MAX_SIZE}]. Sin límite es {@value #DEFAULT_SIZE} al
+     * seguir un cursor y {@value #MAX_SIZE} sin él, para que los clientes que no paginan sigan recibiendo listados
+     * de hasta ese tamaño completos.
+     */
+    public static int size(Long after, Integer requested) {
+        if (requested != null) {
+            return Math.clamp(requested, 1, MAX_SIZE);
+        }
+        return after == null ? MAX_SIZE : DEFAULT_SIZE;
+    }
+
+    // Las filas se leen con una más que la página, para saber si hay otra sin contar el total
+    private static <T> KeysetPage<T> of(List<T> rows, int size, Function<T, Long> id) {
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new KeysetPage<>(List.copyOf(items), id.apply(items.get(size - 1)));
+    }
+
+    public <R> KeysetPage<R> map(Function<T, R> mapper) {
+        return new KeysetPage<>(items.stream().map(mapper).toList(), nextAfter);
+    }
+}
@@ -0,0 +1,128 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila desnormalizada por cada lead time (commit, deployment), lista para los dashboards: copia del commit el autor
+ * y si es de merge, y del deployment la fecha, el repositorio, el servicio y si falló. Así las métricas DORA de
+ * los tres dashboards se leen con un rango sobre esta tabla, sin el join ChangeLeadTime → Commit → Deployment.
+ *
+ * La escribe {@code LeadTimeCalculationService} junto con cada {@link ChangeLeadTime}; {@code failed} se actualiza
+ * cuando un incidente marca el deployment como fallido. {@code teamId} es el equipo del autor al momento del
+ * cálculo, que queda fijo aunque después el autor cambie de equipo.
+ */
+@Entity
+@Table(name = "lead_time_fact",
+        uniqueConstraints = @UniqueConstraint(name = "uk_lead_time_fact_deployment_commit",
+                columnNames = {"deployment_id", "commit_sha"}),
+        indexes = {
+                @Index(name = "idx_lead_time_fact_author_deployed", columnList = "author_key, deployed_at"),
+                @Index(name = "idx_lead_time_fact_team_deployed", columnList = "team_id, deployed_at"),
+                @Index(name = "idx_lead_time_fact_repository_deployed", columnList = "repository_id, deployed_at")
+        })
+public class LeadTimeFact {
+
+    @Id
+    // Secuencia (tabla lead_time_fact_seq en MySQL) para que los INSERT se agrupen en lotes JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lead_time_fact_seq")
+    @SequenceGenerator(name = "lead_time_fact_seq", sequenceName = "lead_time_fact_seq", allocationSize = 100)
+    private Long id;
+
+    @Convert(converter = ShaConverter.class)
+    @Column(name = "commit_sha", nullable = false, length = ShaConverter.BINARY_LENGTH)
+    private String commitSha;
+
+    @Column(name = "deployment_id", nullable = false)
+    private Long deploymentId;
+
+    @Column(name = "repository_id", nullable = false)
+    private Long repositoryId;
+
+    @Column(name = "team_id")
+    private Long teamId;
+
+    /** Autor del commit en minúsculas, como se compara con el username de GitHub. */
+    @Column(name = "author_key")
+    private String authorKey;
+
+    @Column(name = "deployed_at", nullable = false)
+    private LocalDateTime deployedAt;
+
+    @Column(name = "lead_time_seconds", nullable = false)
+    private long leadTimeSeconds;
+
+    @Column(name = "service_name")
+    private String serviceName;
+
+    @Column(nullable = false)
+    private boolean failed;
+
+    @Column(name = "merge_commit", nullable = false)
+    private boolean mergeCommit;
+
+    protected LeadTimeFact() {
+        // JPA constructor
+    }
+
+    public LeadTimeFact(ChangeLeadTime changeLeadTime, Long teamId) {
+        Commit commit = changeLeadTime.getCommit();
+        Deployment deployment = changeLeadTime.getDeployment();
+        this.commitSha = commit.getSha();
+        this.deploymentId = deployment.getId();
+        this.repositoryId = deployment.getRepository() != null ? deployment.getRepository().getId() : null;
+        this.teamId = teamId;
+        this.authorKey = commit.getAuthor() != null ? commit.getAuthor().toLowerCase() : null;
+        this.deployedAt = deployment.getCreatedAt();
+        this.leadTimeSeconds = changeLeadTime.getLeadTimeInSeconds();
+        this.serviceName = deployment.getServiceName();
+        this.failed = deployment.isChangeFailure();
+        this.mergeCommit = (commit.getParents() != null && commit.getParents().size() >= 2)
+                || commit.hasMergeMessage();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getCommitSha() {
+        return commitSha;
+    }
+
+    public Long getDeploymentId() {
+        return deploymentId;
+    }
+
+    public Long getRepositoryId() {
+        return repositoryId;
+    }
+
+    public Long getTeamId() {
+        return teamId;
+    }
+
+    public String getAuthorKey() {
+        return authorKey;
+    }
+
+    public LocalDateTime getDeployedAt() {
+        return deployedAt;
+    }
+
+    public long getLeadTimeSeconds() {
+        return leadTimeSeconds;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public boolean isMergeCommit() {
+        return mergeCommit;
+    }
+}
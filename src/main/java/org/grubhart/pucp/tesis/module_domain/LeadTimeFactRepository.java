@@ -0,0 +1,39 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface LeadTimeFactRepository extends JpaRepository<LeadTimeFact, Long> {
+
+    /**
+     * Lead times de commits (sin merges) de los autores indicados, con el deployment en [from, to).
+     * Recorre el índice (author_key, deployed_at).
+     */
+    @Query("SELECT f FROM LeadTimeFact f WHERE f.authorKey IN :authorKeys AND f.mergeCommit = false " +
+            "AND f.deployedAt >= :from AND f.deployedAt < :to")
+    List<LeadTimeFact> findByAuthorsDeployedBetween(@Param("authorKeys") Collection<String> authorKeys,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to);
+
+    /**
+     * Igual que {@link #findByAuthorsDeployedBetween}, limitado a los repositorios indicados.
+     */
+    @Query("SELECT f FROM LeadTimeFact f WHERE f.authorKey IN :authorKeys AND f.mergeCommit = false " +
+            "AND f.deployedAt >= :from AND f.deployedAt < :to AND f.repositoryId IN :repositoryIds")
+    List<LeadTimeFact> findByAuthorsDeployedBetweenInRepositories(@Param("authorKeys") Collection<String> authorKeys,
+                                                                  @Param("from") LocalDateTime from,
+                                                                  @Param("to") LocalDateTime to,
+                                                                  @Param("repositoryIds") Collection<Long> repositoryIds);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE LeadTimeFact f SET f.failed = true WHERE f.deploymentId IN :deploymentIds")
+    int markFailed(@Param("deploymentIds") Collection<Long> deploymentIds);
+}
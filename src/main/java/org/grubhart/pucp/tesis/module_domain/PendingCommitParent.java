@@ -0,0 +1,51 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import jakarta.persistence.*;
+
+/**
+ * Relación de parentesco cuyo padre todavía no está guardado. El listado de commits de GitHub va del más nuevo al
+ * más antiguo, así que el padre de un commit suele llegar en un lote, o una ventana, posterior: la arista espera
+ * aquí, sin FK hacia {@code commit}, y se pasa a {@link CommitParent} cuando el padre aparece.
+ */
+@Entity
+@Table(name = "pending_commit_parent",
+        uniqueConstraints = @UniqueConstraint(name = "uk_pending_commit_parent",
+                columnNames = {"commit_sha", "parent_sha"}),
+        indexes = @Index(name = "idx_pending_commit_parent_parent_sha", columnList = "parent_sha"))
+public class PendingCommitParent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pending_commit_parent_seq")
+    @SequenceGenerator(name = "pending_commit_parent_seq", sequenceName = "pending_commit_parent_seq",
+            allocationSize = 100)
+    private Long id;
+
+    @Convert(converter = ShaConverter.class)
+    @Column(name = "commit_sha", nullable = false, length = ShaConverter.BINARY_LENGTH)
+    private String commitSha;
+
+    @Convert(converter = ShaConverter.class)
+    @Column(name = "parent_sha", nullable = false, length = ShaConverter.BINARY_LENGTH)
+    private String parentSha;
+
+    protected PendingCommitParent() {
+        // JPA constructor
+    }
+
+    public PendingCommitParent(String commitSha, String parentSha) {
+        this.commitSha = commitSha;
+        this.parentSha = parentSha;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getCommitSha() {
+        return commitSha;
+    }
+
+    public String getParentSha() {
+        return parentSha;
+    }
+}
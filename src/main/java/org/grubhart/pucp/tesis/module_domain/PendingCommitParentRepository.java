@@ -0,0 +1,32 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface PendingCommitParentRepository extends JpaRepository<PendingCommitParent, Long> {
+
+    /**
+     * Aristas pendientes que esperan a alguno de los padres indicados.
+     */
+    @Query("SELECT new org.grubhart.pucp.tesis.module_domain.CommitEdge(p.commitSha, p.parentSha) " +
+            "FROM PendingCommitParent p WHERE p.parentSha IN :parentShas")
+    List<CommitEdge> findEdgesByParentShaIn(@Param("parentShas") Collection<String> parentShas);
+
+    /**
+     * Aristas pendientes ya registradas para un conjunto de hijos, para no duplicarlas al repetir una ventana.
+     */
+    @Query("SELECT new org.grubhart.pucp.tesis.module_domain.CommitEdge(p.commitSha, p.parentSha) " +
+            "FROM PendingCommitParent p WHERE p.commitSha IN :commitShas")
+    List<CommitEdge> findEdgesByCommitShaIn(@Param("commitShas") Collection<String> commitShas);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PendingCommitParent p WHERE p.parentSha IN :parentShas")
+    int deleteByParentShaIn(@Param("parentShas") Collection<String> parentShas);
+}
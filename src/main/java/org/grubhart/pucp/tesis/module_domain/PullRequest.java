@@ -1,13 +1,15 @@
 package org.grubhart.pucp.tesis.module_domain;
 
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
-@Table(name = "PULL_REQUESTS")
-public class PullRequest {
+@Table(name = "PULL_REQUESTS",
+        indexes = @Index(name = "idx_pull_requests_first_commit_sha", columnList = "first_commit_sha"))
+public class PullRequest implements Persistable<Long> {
 
     @Id
     private Long id;
@@ -24,9 +26,14 @@ public class PullRequest {
 
     private LocalDateTime mergedAt;
 
-    @Column(name = "first_commit_sha")
+    @Convert(converter = ShaConverter.class)
+    @Column(name = "first_commit_sha", length = ShaConverter.BINARY_LENGTH)
     private String firstCommitSha;
 
+    /** Verdadero solo para los PRs recién llegados de GitHub, hasta que se insertan; ver {@link #isNew()}. */
+    @Transient
+    private boolean newEntity;
+
     public PullRequest() {
     }
 
@@ -37,16 +44,33 @@ public class PullRequest {
      */
     public PullRequest(GithubPullRequestDto dto, RepositoryConfig repository) {
         this.id = dto.getId();
+        this.newEntity = true;
         this.repository = repository;
         this.state = dto.getState();
         this.createdAt = dto.getCreatedAt();
         this.mergedAt = dto.getMergedAt();
     }
 
+    @Override
     public Long getId() {
         return id;
     }
 
+    /**
+     * Los PRs construidos desde GitHub ya se filtraron contra la BD, así que {@code saveAll} los inserta con
+     * persist en lugar de hacer un SELECT por fila (merge). Cualquier otra instancia conserva el merge.
+     */
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
@@ -1,8 +1,20 @@
 package org.grubhart.pucp.tesis.module_domain;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface PullRequestRepository extends JpaRepository<PullRequest, Long> {
+
+    /**
+     * PRs cuyo primer commit es de alguno de los autores indicados (en minúsculas).
+     */
+    @Query("SELECT pr FROM PullRequest pr WHERE pr.firstCommitSha IN " +
+            "(SELECT c.sha FROM Commit c WHERE lower(c.author) IN :authorKeys)")
+    List<PullRequest> findByFirstCommitAuthorKeys(@Param("authorKeys") Collection<String> authorKeys);
 }
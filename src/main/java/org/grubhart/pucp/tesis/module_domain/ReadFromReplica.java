@@ -0,0 +1,21 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Permite que las transacciones de solo lectura del método (o de todos los métodos de la clase) se sirvan desde la
+ * réplica de lectura, si hay una configurada y está al día. Sin esta marca toda transacción va al primario, aunque
+ * sea {@code readOnly}: las lecturas de la sincronización (¿ya existe este commit?, ¿está tomado el lock?) no
+ * toleran el retraso de la réplica.
+ *
+ * Solo tiene sentido en beans de Spring que además abran una transacción {@code @Transactional(readOnly = true)}.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadFromReplica {
+}
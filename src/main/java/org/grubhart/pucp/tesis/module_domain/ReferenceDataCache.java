@@ -0,0 +1,99 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Cache de segundo nivel de Hibernate para los datos de referencia: repositorios, equipos, usuarios (con sus roles)
+ * y roles. Cambian poco y se leen en casi cada request y cada ciclo de sincronización.
+ *
+ * Hibernate mantiene el cache al día con las escrituras que pasan por él; quienes modifican estos datos llaman
+ * además a los métodos {@code evict*} para descartar las regiones afectadas y los resultados de consultas cacheados.
+ * El descarte ocurre al terminar la transacción en curso, para que otra lectura no vuelva a cargar el estado
+ * anterior antes del commit. El cache es local a cada instancia: las regiones vencen solas (ver
+ * {@code hibernate-cache.conf}) para acotar cuánto tarda una instancia en ver lo que escribió otra.
+ */
+@Component
+public class ReferenceDataCache {
+
+    public static final String REPOSITORY_CONFIG_REGION = "repository-config";
+    public static final String TEAM_REGION = "team";
+    public static final String TEAM_REPOSITORIES_REGION = "team-repositories";
+    public static final String USER_REGION = "user";
+    public static final String USER_ROLES_REGION = "user-roles";
+    public static final String ROLE_REGION = "role";
+
+    private static final List<String> REGIONS = List.of(REPOSITORY_CONFIG_REGION, TEAM_REGION,
+            TEAM_REPOSITORIES_REGION, USER_REGION, USER_ROLES_REGION, ROLE_REGION);
+
+    private final SessionFactory sessionFactory;
+
+    public ReferenceDataCache(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    public void evictRepositories() {
+        evictAfterCompletion(REPOSITORY_CONFIG_REGION, TEAM_REPOSITORIES_REGION);
+    }
+
+    public void evictTeams() {
+        evictAfterCompletion(TEAM_REGION, TEAM_REPOSITORIES_REGION);
+    }
+
+    public void evictUsers() {
+        evictAfterCompletion(USER_REGION, USER_ROLES_REGION);
+    }
+
+    /**
+     * Aciertos, fallos y tamaño de cada región, y los del cache de consultas.
+     */
+    public CacheView describe() {
+        Statistics statistics = sessionFactory.getStatistics();
+        List<RegionView> regions = REGIONS.stream()
+                .map(name -> {
+                    CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(name);
+                    return region == null ? new RegionView(name, 0, 0, 0, 0)
+                            : new RegionView(name, region.getHitCount(), region.getMissCount(), region.getPutCount(),
+                            region.getElementCountInMemory());
+                })
+                .toList();
+        return new CacheView(statistics.isStatisticsEnabled(), regions, statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount());
+    }
+
+    private void evictAfterCompletion(String... regions) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(regions);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evict(regions);
+            }
+        });
+    }
+
+    private void evict(String... regions) {
+        Cache cache = sessionFactory.getCache();
+        for (String region : regions) {
+            cache.evictRegion(region);
+        }
+        cache.evictDefaultQueryRegion();
+    }
+
+    public record RegionView(String region, long hits, long misses, long puts, long size) {
+    }
+
+    public record CacheView(boolean statisticsEnabled, List<RegionView> regions, long queryHits, long queryMisses,
+                            long queryPuts) {
+    }
+}
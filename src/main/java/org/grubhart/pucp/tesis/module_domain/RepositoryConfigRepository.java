@@ -1,6 +1,26 @@
 package org.grubhart.pucp.tesis.module_domain;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface RepositoryConfigRepository extends JpaRepository<RepositoryConfig, Long> {
+
+    // Consultas de datos de referencia: sus resultados van al cache de consultas (ver ReferenceDataCache)
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<RepositoryConfig> findAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<RepositoryConfig> findFirstByDatadogServiceName(String datadogServiceName);
+
+    /**
+     * Página del listado de repositorios: los de id mayor que {@code afterId} (ver {@link KeysetPage}).
+     */
+    List<RepositoryConfig> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
 }
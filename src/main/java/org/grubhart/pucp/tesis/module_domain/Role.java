@@ -1,11 +1,15 @@
 package org.grubhart.pucp.tesis.module_domain;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Objects;
 
 @Entity
 @Table(name = "roles")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.ROLE_REGION)
 public class Role {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,36 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.HexFormat;
+
+/**
+ * Guarda un SHA-1 de git (40 caracteres hexadecimales) como sus 20 bytes. Las claves y FKs de commits, y sus
+ * índices, ocupan la mitad que en texto. Para el resto de la aplicación el SHA sigue siendo un {@code String};
+ * Hibernate aplica la conversión también a los parámetros de las consultas JPQL sobre estos atributos.
+ */
+@Converter
+public class ShaConverter implements AttributeConverter<String, byte[]> {
+
+    /** Largo de la columna: un SHA-1 son 20 bytes. */
+    public static final int BINARY_LENGTH = 20;
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    @Override
+    public byte[] convertToDatabaseColumn(String sha) {
+        if (sha == null) {
+            return null;
+        }
+        if (sha.length() != BINARY_LENGTH * 2 || !sha.chars().allMatch(HexFormat::isHexDigit)) {
+            throw new IllegalArgumentException("SHA de commit inválido, se esperaban 40 caracteres hexadecimales: " + sha);
+        }
+        return HEX.parseHex(sha);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] bytes) {
+        return bytes == null ? null : HEX.formatHex(bytes);
+    }
+}
@@ -0,0 +1,137 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cuenta las sentencias JDBC y el tiempo pasado en la base por unidad de trabajo: una request HTTP (etiquetada con
+ * su endpoint) o una etapa de sincronización. Al cerrar la unidad se registran {@value #STATEMENTS} y
+ * {@value #JDBC_TIME} con las etiquetas {@code kind} y {@code name} en el registro que recibió al abrirse; muchas
+ * sentencias por request delatan cargas lazy N+1, mucho tiempo en pocas sentencias delata scans pesados.
+ *
+ * El DataSource de la aplicación (ver {@code SqlObservabilityConfig}) informa cada sentencia con
+ * {@link #recordStatement(long)}; la unidad en curso vive en el hilo que la abrió. Una unidad abierta dentro de otra
+ * suma también sus sentencias a la exterior.
+ */
+public final class SqlActivity {
+
+    public static final String STATEMENTS = "dora.sql.statements";
+    public static final String JDBC_TIME = "dora.sql.jdbc.time";
+
+    public static final String KIND_ENDPOINT = "endpoint";
+    public static final String KIND_JOB = "job";
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private SqlActivity() {
+    }
+
+    /**
+     * Abre una unidad de trabajo en el hilo actual; debe cerrarse en el mismo hilo.
+     */
+    public static Scope open(MeterRegistry registry, String kind, String name) {
+        Scope scope = new Scope(registry, kind, name, CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Ejecuta {@code work} como una unidad de trabajo.
+     */
+    public static <T> T track(MeterRegistry registry, String kind, String name, Supplier<T> work) {
+        try (Scope ignored = open(registry, kind, name)) {
+            return work.get();
+        }
+    }
+
+    /**
+     * Suma una sentencia (o un lote) ejecutada en el hilo actual. Fuera de una unidad de trabajo no hace nada.
+     */
+    public static void recordStatement(long elapsedNanos) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.add(1, elapsedNanos);
+        }
+    }
+
+    /**
+     * Unidad en curso en el hilo actual, por ejemplo {@code endpoint GET /api/dashboard/developer}.
+     */
+    public static Optional<String> currentDescription() {
+        Scope scope = CURRENT.get();
+        return scope == null ? Optional.empty() : Optional.of(scope.kind + " " + scope.name);
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final MeterRegistry registry;
+        private final String kind;
+        private final Scope parent;
+        private String name;
+        private long statements;
+        private long jdbcNanos;
+        private boolean closed;
+
+        private Scope(MeterRegistry registry, String kind, String name, Scope parent) {
+            this.registry = registry;
+            this.kind = kind;
+            this.name = name;
+            this.parent = parent;
+        }
+
+        /**
+         * Cambia el nombre con el que se registra la unidad; una request solo conoce su endpoint al terminar.
+         */
+        public void rename(String name) {
+            this.name = name;
+        }
+
+        public long statements() {
+            return statements;
+        }
+
+        public Duration jdbcTime() {
+            return Duration.ofNanos(jdbcNanos);
+        }
+
+        private void add(long statements, long jdbcNanos) {
+            this.statements += statements;
+            this.jdbcNanos += jdbcNanos;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (parent != null) {
+                parent.add(statements, jdbcNanos);
+            }
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+
+            DistributionSummary.builder(STATEMENTS)
+                    .description("Sentencias JDBC por request o etapa de sincronización")
+                    .tags("kind", kind, "name", name)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(statements);
+            Timer.builder(JDBC_TIME)
+                    .description("Tiempo total en JDBC por request o etapa de sincronización")
+                    .tags("kind", kind, "name", name)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(jdbcNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lock con lease compartido entre instancias. Una fila por nombre de lock (por ejemplo, uno por repositorio);
+ * lo tiene {@code lockedBy} mientras {@code lockedUntil} no haya pasado.
+ */
+@Entity
+public class SyncLock {
+
+    @Id
+    private String lockName;
+
+    private String lockedBy;
+
+    private LocalDateTime lockedAt;
+
+    private LocalDateTime lockedUntil;
+
+    protected SyncLock() {
+    }
+
+    public SyncLock(String lockName, String lockedBy, LocalDateTime lockedAt, LocalDateTime lockedUntil) {
+        this.lockName = lockName;
+        this.lockedBy = lockedBy;
+        this.lockedAt = lockedAt;
+        this.lockedUntil = lockedUntil;
+    }
+
+    public String getLockName() {
+        return lockName;
+    }
+
+    public String getLockedBy() {
+        return lockedBy;
+    }
+
+    public LocalDateTime getLockedAt() {
+        return lockedAt;
+    }
+
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+}
@@ -0,0 +1,63 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Operaciones atómicas sobre {@link SyncLock}. Cada método es su propia transacción y devuelve la cantidad de
+ * filas afectadas: 1 significa que la instancia obtuvo, renovó o liberó el lock.
+ */
+public interface SyncLockRepository extends JpaRepository<SyncLock, String> {
+
+    /**
+     * Crea el lock si todavía no existe. Si otra instancia lo insertó primero, la clave duplicada
+     * se reporta como {@code DataIntegrityViolationException}.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO sync_lock (lock_name, locked_by, locked_at, locked_until) "
+            + "VALUES (:lockName, :lockedBy, :now, :lockedUntil)", nativeQuery = true)
+    int insertLock(@Param("lockName") String lockName,
+                   @Param("lockedBy") String lockedBy,
+                   @Param("now") LocalDateTime now,
+                   @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    /**
+     * Toma un lock existente si su lease venció (o si ya es de esta instancia).
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE SyncLock l SET l.lockedBy = :lockedBy, l.lockedAt = :now, l.lockedUntil = :lockedUntil "
+            + "WHERE l.lockName = :lockName AND (l.lockedUntil <= :now OR l.lockedBy = :lockedBy)")
+    int acquireExpired(@Param("lockName") String lockName,
+                       @Param("lockedBy") String lockedBy,
+                       @Param("now") LocalDateTime now,
+                       @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    /**
+     * Extiende el lease de un lock que esta instancia todavía tiene.
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE SyncLock l SET l.lockedUntil = :lockedUntil "
+            + "WHERE l.lockName = :lockName AND l.lockedBy = :lockedBy AND l.lockedUntil > :now")
+    int renew(@Param("lockName") String lockName,
+              @Param("lockedBy") String lockedBy,
+              @Param("now") LocalDateTime now,
+              @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    /**
+     * Libera el lock haciendo vencer su lease, sin borrar la fila.
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE SyncLock l SET l.lockedUntil = :now WHERE l.lockName = :lockName AND l.lockedBy = :lockedBy")
+    int release(@Param("lockName") String lockName,
+                @Param("lockedBy") String lockedBy,
+                @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,8 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+/**
+ * Etapa de sincronización a la que pertenece una {@link SyncTask}.
+ */
+public enum SyncStage {
+    COMMITS
+}
@@ -0,0 +1,158 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Unidad durable de trabajo de sincronización: una etapa de un repositorio sobre una ventana de tiempo
+ * {@code [windowStart, windowEnd)}. Mientras no termina con éxito se reintenta con backoff; tras demasiados
+ * intentos queda en cuarentena hasta que alguien la reencole.
+ */
+@Entity
+@Table(name = "sync_tasks",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"repository_url", "stage", "window_start", "window_end"}),
+        indexes = @Index(name = "idx_sync_tasks_status_next_attempt", columnList = "status, next_attempt_at"))
+public class SyncTask {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "repository_url", nullable = false)
+    private String repositoryUrl;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "stage", nullable = false, length = 32)
+    private SyncStage stage;
+
+    @Column(name = "window_start", nullable = false)
+    private LocalDateTime windowStart;
+
+    @Column(name = "window_end", nullable = false)
+    private LocalDateTime windowEnd;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 32)
+    private SyncTaskStatus status;
+
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    @Column(length = MAX_ERROR_LENGTH)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    protected SyncTask() {
+    }
+
+    public SyncTask(String repositoryUrl, SyncStage stage, LocalDateTime windowStart, LocalDateTime windowEnd,
+                    LocalDateTime createdAt) {
+        this.repositoryUrl = repositoryUrl;
+        this.stage = stage;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.status = SyncTaskStatus.PENDING;
+        this.nextAttemptAt = createdAt;
+        this.createdAt = createdAt;
+    }
+
+    public void start(LocalDateTime now) {
+        this.status = SyncTaskStatus.RUNNING;
+        this.attempts++;
+        this.startedAt = now;
+    }
+
+    public void succeed(LocalDateTime now) {
+        this.status = SyncTaskStatus.SUCCEEDED;
+        this.finishedAt = now;
+        this.lastError = null;
+    }
+
+    public void retryAt(LocalDateTime nextAttemptAt, String error) {
+        this.status = SyncTaskStatus.PENDING;
+        this.nextAttemptAt = nextAttemptAt;
+        this.lastError = truncate(error);
+    }
+
+    public void quarantine(LocalDateTime now, String error) {
+        this.status = SyncTaskStatus.QUARANTINED;
+        this.finishedAt = now;
+        this.lastError = truncate(error);
+    }
+
+    /**
+     * Devuelve una tarea en cuarentena a la cola con el contador de intentos en cero.
+     */
+    public void requeue(LocalDateTime now) {
+        this.status = SyncTaskStatus.PENDING;
+        this.attempts = 0;
+        this.nextAttemptAt = now;
+        this.finishedAt = null;
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getRepositoryUrl() {
+        return repositoryUrl;
+    }
+
+    public SyncStage getStage() {
+        return stage;
+    }
+
+    public LocalDateTime getWindowStart() {
+        return windowStart;
+    }
+
+    public LocalDateTime getWindowEnd() {
+        return windowEnd;
+    }
+
+    public SyncTaskStatus getStatus() {
+        return status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,36 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SyncTaskRepository extends JpaRepository<SyncTask, Long> {
+
+    boolean existsByRepositoryUrlAndStageAndWindowStartAndWindowEnd(String repositoryUrl, SyncStage stage,
+                                                                    LocalDateTime windowStart, LocalDateTime windowEnd);
+
+    /**
+     * Tareas listas para ejecutarse: pendientes cuyo backoff ya venció, o en curso desde antes de
+     * {@code staleBefore} (la instancia que las tomaba murió a mitad de camino).
+     */
+    @Query("SELECT t FROM SyncTask t WHERE (t.status = org.grubhart.pucp.tesis.module_domain.SyncTaskStatus.PENDING "
+            + "AND t.nextAttemptAt <= :now) OR (t.status = org.grubhart.pucp.tesis.module_domain.SyncTaskStatus.RUNNING "
+            + "AND t.startedAt < :staleBefore) ORDER BY t.nextAttemptAt ASC")
+    List<SyncTask> findDue(@Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore, Limit limit);
+
+    /**
+     * Tareas abiertas (pendientes o en curso) de un repositorio y etapa, de la ventana más antigua a la más nueva.
+     */
+    @Query("SELECT t FROM SyncTask t WHERE t.repositoryUrl = :repositoryUrl AND t.stage = :stage "
+            + "AND t.status IN (org.grubhart.pucp.tesis.module_domain.SyncTaskStatus.PENDING, "
+            + "org.grubhart.pucp.tesis.module_domain.SyncTaskStatus.RUNNING) ORDER BY t.windowStart ASC")
+    List<SyncTask> findOpenForRepository(@Param("repositoryUrl") String repositoryUrl, @Param("stage") SyncStage stage);
+
+    List<SyncTask> findByStatusOrderByFinishedAtDesc(SyncTaskStatus status);
+
+    long countByStatus(SyncTaskStatus status);
+}
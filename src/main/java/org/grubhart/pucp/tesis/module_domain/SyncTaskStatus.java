@@ -0,0 +1,8 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+public enum SyncTaskStatus {
+    PENDING,
+    RUNNING,
+    SUCCEEDED,
+    QUARANTINED
+}
@@ -1,6 +1,8 @@
 package org.grubhart.pucp.tesis.module_domain;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Objects;
@@ -14,6 +16,8 @@ import java.util.Set;
  */
 @Entity
 @Table(name = "teams")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.TEAM_REGION)
 public class Team {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -27,6 +31,7 @@ public class Team {
      * A team can work on multiple repositories, and a repository can have multiple teams.
      */
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.TEAM_REPOSITORIES_REGION)
     @JoinTable(
             name = "team_repositories",
             joinColumns = @JoinColumn(name = "team_id"),
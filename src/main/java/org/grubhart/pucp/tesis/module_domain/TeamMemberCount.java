@@ -0,0 +1,7 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+/**
+ * Members of a team and how many of them have the counted role (see {@link UserRepository#countMembersByTeam})
+ */
+public record TeamMemberCount(Long teamId, Long members, Long withRole) {
+}
@@ -1,8 +1,16 @@
 package org.grubhart.pucp.tesis.module_domain;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,8 +21,24 @@ public interface TeamRepository extends JpaRepository<Team, Long> {
      */
     Optional<Team> findByName(String name);
 
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Team> findAll();
+
     /**
      * Check if a team with the given name exists
      */
     boolean existsByName(String name);
+
+    /**
+     * Page of the team listing: teams with id greater than {@code afterId} (see {@link KeysetPage})
+     */
+    List<Team> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * Number of repositories of each team, in a single grouped query
+     */
+    @Query("SELECT new org.grubhart.pucp.tesis.module_domain.TeamRepositoryCount(t.id, COUNT(r)) "
+            + "FROM Team t LEFT JOIN t.repositories r WHERE t.id IN :teamIds GROUP BY t.id")
+    List<TeamRepositoryCount> countRepositoriesByTeam(@Param("teamIds") Collection<Long> teamIds);
 }
@@ -0,0 +1,7 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+/**
+ * Number of repositories assigned to a team (see {@link TeamRepository#countRepositoriesByTeam})
+ */
+public record TeamRepositoryCount(Long teamId, Long repositories) {
+}
@@ -1,6 +1,9 @@
 package org.grubhart.pucp.tesis.module_domain;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Objects;
@@ -8,6 +11,8 @@ import java.util.Set;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.USER_REGION)
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -31,7 +36,10 @@ public class User {
     @Column(nullable = false)
     private boolean active = true;
 
+    // Los listados paginados cargan los roles de toda la página en una sola consulta si no están en cache
     @ManyToMany(fetch = FetchType.EAGER)
+    @BatchSize(size = KeysetPage.DEFAULT_SIZE)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.USER_ROLES_REGION)
     @JoinTable(name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id"),
             inverseJoinColumns = @JoinColumn(name = "role_id"))
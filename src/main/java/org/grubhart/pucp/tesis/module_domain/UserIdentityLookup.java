@@ -0,0 +1,39 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import java.util.Optional;
+
+/**
+ * Define las consultas de identidad necesarias para resolver el autor real de un commit
+ * (su githubUsername) a partir de los datos que entrega la API de GitHub.
+ * Permite que la ingesta masiva use una implementación en memoria en lugar de consultar la BD por commit.
+ */
+public interface UserIdentityLookup {
+
+    Optional<String> findUsernameByGithubId(Long githubId);
+
+    Optional<String> findUsernameByGithubUsername(String githubUsername);
+
+    Optional<String> findUsernameByEmail(String email);
+
+    /**
+     * Implementación que consulta directamente el {@link UserRepository} en cada llamada.
+     */
+    static UserIdentityLookup from(UserRepository userRepository) {
+        return new UserIdentityLookup() {
+            @Override
+            public Optional<String> findUsernameByGithubId(Long githubId) {
+                return userRepository.findByGithubId(githubId).map(User::getGithubUsername);
+            }
+
+            @Override
+            public Optional<String> findUsernameByGithubUsername(String githubUsername) {
+                return userRepository.findByGithubUsernameIgnoreCase(githubUsername).map(User::getGithubUsername);
+            }
+
+            @Override
+            public Optional<String> findUsernameByEmail(String email) {
+                return userRepository.findByEmailIgnoreCase(email).map(User::getGithubUsername);
+            }
+        };
+    }
+}
@@ -1,8 +1,15 @@
 package org.grubhart.pucp.tesis.module_domain;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,6 +17,7 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByRoles_Name(RoleName roleName);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByGithubUsernameIgnoreCase(String username);
 
     Optional<User> findByGithubId(Long githubId);
@@ -18,6 +26,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     List<User> findAllByActiveTrue();
 
+    /**
+     * Page of the active user listing: users with id greater than {@code afterId} (see {@link KeysetPage})
+     */
+    List<User> findByActiveTrueAndIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
     /**
      * Find all users that belong to a specific team
      */
@@ -38,4 +51,19 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     long countByTeamIdAndRoles_Name(Long teamId, RoleName roleName);
 
+    /**
+     * Find the users of several teams that have a specific role
+     */
+    List<User> findByTeamIdInAndRoles_Name(Collection<Long> teamIds, RoleName roleName);
+
+    /**
+     * Count members and members with a specific role of several teams, in a single grouped query.
+     * Teams without members are not returned.
+     */
+    @Query("SELECT new org.grubhart.pucp.tesis.module_domain.TeamMemberCount(u.teamId, COUNT(DISTINCT u.id), "
+            + "SUM(CASE WHEN r.name = :roleName THEN 1 ELSE 0 END)) "
+            + "FROM User u LEFT JOIN u.roles r WHERE u.teamId IN :teamIds GROUP BY u.teamId")
+    List<TeamMemberCount> countMembersByTeam(@Param("teamIds") Collection<Long> teamIds,
+                                             @Param("roleName") RoleName roleName);
+
 }
@@ -0,0 +1,16 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * Server-side filters for listing the runs of a workflow. {@code null} or blank values are not sent.
+ *
+ * @param workflowFileName The workflow file, e.g. {@code deploy.yml}.
+ * @param branch Only runs for this branch.
+ * @param status Only runs with this status or conclusion, e.g. {@code success}.
+ * @param event Only runs triggered by this event, e.g. {@code workflow_dispatch}.
+ * @param createdSince Only runs created at or after this time.
+ */
+public record WorkflowRunQuery(String workflowFileName, String branch, String status, String event,
+                               LocalDateTime createdSince) {
+}
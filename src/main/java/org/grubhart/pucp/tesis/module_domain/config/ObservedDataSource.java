@@ -0,0 +1,161 @@
+package org.grubhart.pucp.tesis.module_domain.config;
+
+import org.grubhart.pucp.tesis.module_domain.SqlActivity;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * DataSource que mide cada sentencia que la aplicación ejecuta, venga de Hibernate, de un {@code JdbcTemplate} o de
+ * Flyway: la suma a la unidad de trabajo en curso ({@link SqlActivity}) y, si supera el umbral, la registra en el
+ * {@link SlowQueryLog} con el SQL y los tipos de sus parámetros.
+ *
+ * Envuelve las conexiones y sentencias con proxies dinámicos; el pool y sus métricas siguen siendo los del DataSource
+ * envuelto ({@code unwrap} llega hasta él).
+ */
+class ObservedDataSource extends DelegatingDataSource {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final SlowQueryLog slowQueryLog;
+
+    ObservedDataSource(DataSource target, SlowQueryLog slowQueryLog) {
+        super(target);
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return observe(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return observe(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection observe(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            String name = method.getName();
+            if (result instanceof CallableStatement callable && name.equals("prepareCall")) {
+                return proxy(CallableStatement.class, callable, new StatementHandler(callable, (String) args[0]));
+            }
+            if (result instanceof PreparedStatement prepared && name.equals("prepareStatement")) {
+                return proxy(PreparedStatement.class, prepared, new StatementHandler(prepared, (String) args[0]));
+            }
+            if (result instanceof Statement statement && name.equals("createStatement")) {
+                return proxy(Statement.class, statement, new StatementHandler(statement, null));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Proxy de {@code type}; {@code equals} y {@code hashCode} son los del proxy para que los pools y los mapas de
+     * conexiones lo reconozcan como la misma instancia.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(ObservedDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class && method.getName().equals("equals")) {
+                        return proxy == args[0];
+                    }
+                    if (method.getDeclaringClass() == Object.class && method.getName().equals("hashCode")) {
+                        return System.identityHashCode(proxy);
+                    }
+                    return handler.invoke(proxy, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Recuerda el SQL y el tipo de cada parámetro enlazado, y mide las ejecuciones.
+     */
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String sql;
+        private final Map<Integer, String> parameterTypes = new TreeMap<>();
+        private int batchSize;
+
+        private StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (EXECUTE_METHODS.contains(name)) {
+                return execute(method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                parameterTypes.put(index, parameterType(name, args[1]));
+            } else if (name.equals("addBatch")) {
+                batchSize++;
+            } else if (name.equals("clearParameters")) {
+                parameterTypes.clear();
+            } else if (name.equals("clearBatch")) {
+                batchSize = 0;
+            }
+            return ObservedDataSource.invoke(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            long start = System.nanoTime();
+            try {
+                return ObservedDataSource.invoke(target, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                SqlActivity.recordStatement(elapsed);
+                if (slowQueryLog.isSlow(elapsed)) {
+                    // Un Statement simple recibe el SQL en la ejecución
+                    String executed = sql != null ? sql : args != null && args.length > 0 ? (String) args[0] : null;
+                    slowQueryLog.record(executed, describeParameters(), batchSize, elapsed);
+                }
+                if (method.getName().endsWith("Batch")) {
+                    batchSize = 0;
+                }
+            }
+        }
+
+        private String describeParameters() {
+            return parameterTypes.entrySet().stream()
+                    .map(entry -> "?" + entry.getKey() + ":" + entry.getValue())
+                    .collect(Collectors.joining(", "));
+        }
+
+        private static String parameterType(String setter, Object value) {
+            if (setter.equals("setNull")) {
+                return "null";
+            }
+            if (setter.equals("setObject")) {
+                return value == null ? "null" : value.getClass().getSimpleName();
+            }
+            return setter.substring("set".length());
+        }
+    }
+}
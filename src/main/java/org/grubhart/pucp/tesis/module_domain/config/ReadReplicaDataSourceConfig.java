@@ -0,0 +1,91 @@
+package org.grubhart.pucp.tesis.module_domain.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Réplica de lectura para los dashboards. Con {@code dora.datasource.replica.url} definido la aplicación tiene dos
+ * pools: {@code primary} ({@code spring.datasource.*}), donde escriben la sincronización y todo lo que no es de solo
+ * lectura, y {@code replica} ({@code dora.datasource.replica.*}), que atiende las transacciones
+ * {@code @Transactional(readOnly = true)} mientras esté a lo sumo {@code max-lag} detrás del primario.
+ *
+ * Sin la propiedad no se registra nada y Spring Boot configura el DataSource único de siempre.
+ */
+@Configuration
+@ConditionalOnProperty(name = "dora.datasource.replica.url")
+public class ReadReplicaDataSourceConfig {
+
+    private static final String PREFIX = "dora.datasource.replica.";
+
+    private final Environment environment;
+
+    public ReadReplicaDataSourceConfig(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties primaryProperties) {
+        // Usuario y contraseña del primario salvo que la réplica defina los suyos
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(environment.getRequiredProperty(PREFIX + "url"))
+                .username(environment.getProperty(PREFIX + "username", primaryProperties.determineUsername()))
+                .password(environment.getProperty(PREFIX + "password", primaryProperties.determinePassword()))
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        Binder.get(environment).bind(PREFIX + "hikari", Bindable.ofInstance(dataSource));
+        return dataSource;
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica) {
+        return new ReplicaLagMonitor(replica,
+                environment.getProperty(PREFIX + "lag-query", "SHOW REPLICA STATUS"),
+                environment.getProperty(PREFIX + "max-lag", Duration.class, Duration.ofSeconds(30)),
+                environment.getProperty(PREFIX + "lag-check-interval", Duration.class, Duration.ofSeconds(10)));
+    }
+
+    /**
+     * Infraestructura para que lo recoja el auto-proxy de {@code @Transactional}; estático para no adelantar la
+     * creación de esta configuración.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor replicaReadAdvisor() {
+        return ReplicaReadInterceptor.advisor();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, replicaLagMonitor));
+    }
+}
@@ -0,0 +1,44 @@
+package org.grubhart.pucp.tesis.module_domain.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Envía a la réplica las transacciones de solo lectura ({@code @Transactional(readOnly = true)}) que corren dentro
+ * de un método {@link org.grubhart.pucp.tesis.module_domain.ReadFromReplica}, y todo lo demás al primario. Las
+ * lecturas de solo lectura sin la marca (los finders de Spring Data que usa la sincronización) siguen en el primario.
+ * Si la réplica no está disponible o va demasiado atrasada ({@link ReplicaLagMonitor}), las lecturas marcadas
+ * también van al primario.
+ *
+ * El flag de solo lectura se conoce recién cuando la transacción ya empezó, así que este DataSource debe usarse
+ * detrás de un {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, que pide la conexión
+ * real en la primera sentencia.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor replicaLagMonitor) {
+        this.replicaLagMonitor = replicaLagMonitor;
+        setTargetDataSources(Map.<Object, Object>of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        initialize();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (ReplicaReadInterceptor.isReplicaRequested()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && replicaLagMonitor.isReplicaUsable()) {
+            return Target.REPLICA;
+        }
+        return Target.PRIMARY;
+    }
+}
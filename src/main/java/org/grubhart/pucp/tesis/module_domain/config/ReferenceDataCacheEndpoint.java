@@ -0,0 +1,25 @@
+package org.grubhart.pucp.tesis.module_domain.config;
+
+import org.grubhart.pucp.tesis.module_domain.ReferenceDataCache;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Expone en {@code /actuator/entitycache} las estadísticas del cache de segundo nivel de esta instancia.
+ */
+@Component
+@Endpoint(id = "entitycache")
+public class ReferenceDataCacheEndpoint {
+
+    private final ReferenceDataCache referenceDataCache;
+
+    public ReferenceDataCacheEndpoint(ReferenceDataCache referenceDataCache) {
+        this.referenceDataCache = referenceDataCache;
+    }
+
+    @ReadOperation
+    public ReferenceDataCache.CacheView cache() {
+        return referenceDataCache.describe();
+    }
+}
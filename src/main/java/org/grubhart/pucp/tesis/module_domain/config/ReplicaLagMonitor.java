@@ -0,0 +1,129 @@
+package org.grubhart.pucp.tesis.module_domain.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decide si la réplica de lectura puede atender consultas: debe aceptar conexiones y, si hay una consulta de
+ * retraso configurada, estar a lo sumo {@code maxLag} detrás del primario. Un hilo propio la consulta cada
+ * {@code checkInterval} a partir de {@link #start()}; el ruteo solo lee el último resultado, así que ninguna request
+ * espera una conexión a la réplica ni la consulta de estado. Hasta el primer chequeo la réplica no se usa.
+ *
+ * La consulta por defecto es {@code SHOW REPLICA STATUS} (MySQL 8): se lee la columna
+ * {@value #SECONDS_BEHIND_COLUMN} o, si no existe, la primera. Sin filas o con retraso NULL la réplica no está
+ * replicando y no se usa. Con la consulta en blanco solo se comprueba la conexión (réplicas locales de prueba).
+ */
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    static final String SECONDS_BEHIND_COLUMN = "Seconds_Behind_Source";
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile boolean usable;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag, Duration checkInterval) {
+        this(replica, lagQuery, maxLag, checkInterval, Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    // Package-private constructor for testing
+    ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag, Duration checkInterval,
+                      ScheduledExecutorService scheduler) {
+        this.replica = replica;
+        this.lagQuery = lagQuery == null ? "" : lagQuery.trim();
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Programa los chequeos en segundo plano; el primero corre de inmediato.
+     */
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Último resultado del chequeo; no toca la réplica.
+     */
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    void refresh() {
+        boolean result;
+        try {
+            result = check();
+        } catch (RuntimeException e) {
+            // Una excepción cancelaría los chequeos siguientes
+            log.warn("Falló el chequeo de la réplica de lectura: {}", e.getMessage());
+            result = false;
+        }
+        if (result != usable) {
+            log.info(result ? "Réplica de lectura disponible: las transacciones de solo lectura vuelven a ella"
+                    : "Réplica de lectura no disponible: las transacciones de solo lectura van al primario");
+        }
+        usable = result;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private boolean check() {
+        try (Connection connection = replica.getConnection()) {
+            if (lagQuery.isEmpty()) {
+                return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                if (!resultSet.next()) {
+                    log.warn("La consulta de retraso de la réplica no devolvió filas: no está replicando");
+                    return false;
+                }
+                long lagSeconds = resultSet.getLong(lagColumn(resultSet));
+                if (resultSet.wasNull()) {
+                    log.warn("La réplica no informa retraso (replicación detenida)");
+                    return false;
+                }
+                if (lagSeconds > maxLag.toSeconds()) {
+                    log.warn("La réplica está {} s detrás del primario (tolerancia {} s)", lagSeconds, maxLag.toSeconds());
+                    return false;
+                }
+                return true;
+            }
+        } catch (SQLException e) {
+            log.warn("No se pudo comprobar la réplica de lectura: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static int lagColumn(ResultSet resultSet) {
+        try {
+            return resultSet.findColumn(SECONDS_BEHIND_COLUMN);
+        } catch (SQLException e) {
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.grubhart.pucp.tesis.module_domain.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.grubhart.pucp.tesis.module_domain.ReadFromReplica;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.core.Ordered;
+
+/**
+ * Marca el hilo mientras corre un método {@link ReadFromReplica}; {@link ReadWriteRoutingDataSource} solo envía a
+ * la réplica las transacciones de solo lectura que encuentran la marca. Se ejecuta antes que el interceptor
+ * transaccional, así que la marca ya está puesta cuando la transacción pide su conexión.
+ */
+class ReplicaReadInterceptor implements MethodInterceptor {
+
+    private static final ThreadLocal<Boolean> REPLICA_REQUESTED = ThreadLocal.withInitial(() -> false);
+
+    static boolean isReplicaRequested() {
+        return REPLICA_REQUESTED.get();
+    }
+
+    /**
+     * Aplica el interceptor a las clases anotadas y a los métodos anotados.
+     */
+    static Advisor advisor() {
+        ComposablePointcut pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(ReadFromReplica.class, true))
+                .union(AnnotationMatchingPointcut.forMethodAnnotation(ReadFromReplica.class));
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, new ReplicaReadInterceptor());
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        boolean previous = REPLICA_REQUESTED.get();
+        REPLICA_REQUESTED.set(true);
+        try {
+            return invocation.proceed();
+        } finally {
+            // Una llamada anidada no debe quitar la marca del método que la contiene
+            if (!previous) {
+                REPLICA_REQUESTED.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.grubhart.pucp.tesis.module_domain.config;
+
+import io.micrometer.core.instrument.Metrics;
+import org.grubhart.pucp.tesis.module_domain.SqlActivity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Sentencias que tardaron al menos {@code threshold}. Cada una se registra en el log (con campos propios en el JSON
+ * que recibe Datadog), en el contador {@value #SLOW_STATEMENTS} y en un historial corto que muestra
+ * {@code /actuator/sqlstats}.
+ *
+ * El SQL se guarda con sus {@code ?} y los tipos de los parámetros, nunca los valores: las listas largas de
+ * {@code IN (?, ?, ...)} se resumen para que la misma consulta con otra cantidad de ids se reconozca como la misma.
+ */
+public class SlowQueryLog {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    public static final String SLOW_STATEMENTS = "dora.sql.slow";
+
+    private static final int MAX_SQL_LENGTH = 2000;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\?(\\s*,\\s*\\?){3,}");
+
+    private final Duration threshold;
+    private final int historySize;
+    private final Deque<SlowStatement> history = new ArrayDeque<>();
+
+    public SlowQueryLog(Duration threshold, int historySize) {
+        this.threshold = threshold;
+        this.historySize = historySize;
+    }
+
+    boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= threshold.toNanos();
+    }
+
+    void record(String sql, String parameterShape, int batchSize, long elapsedNanos) {
+        String shape = shape(sql);
+        String context = SqlActivity.currentDescription().orElse("none");
+        long elapsedMillis = Duration.ofNanos(elapsedNanos).toMillis();
+
+        log.warn("Sentencia SQL lenta ({} ms, {}): {}", elapsedMillis, context, shape,
+                kv("sql_duration_ms", elapsedMillis), kv("sql_context", context), kv("sql_shape", shape),
+                kv("sql_parameters", parameterShape), kv("sql_batch_size", batchSize));
+        // Solo el tipo de unidad (endpoint, job): el nombre completo ya está en el log
+        Metrics.counter(SLOW_STATEMENTS, "kind", context.split(" ", 2)[0]).increment();
+
+        SlowStatement statement = new SlowStatement(Instant.now(), elapsedMillis, context, shape, parameterShape,
+                batchSize);
+        synchronized (history) {
+            history.addFirst(statement);
+            while (history.size() > historySize) {
+                history.removeLast();
+            }
+        }
+    }
+
+    public Duration threshold() {
+        return threshold;
+    }
+
+    /**
+     * Las últimas sentencias lentas, de la más reciente a la más antigua.
+     */
+    public List<SlowStatement> recent() {
+        synchronized (history) {
+            return new ArrayList<>(history);
+        }
+    }
+
+    static String shape(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String compact = WHITESPACE.matcher(sql).replaceAll(" ").trim();
+        compact = PLACEHOLDER_LIST.matcher(compact).replaceAll(match ->
+                "?... x" + (match.group().chars().filter(c -> c == '?').count()));
+        return compact.length() > MAX_SQL_LENGTH ? compact.substring(0, MAX_SQL_LENGTH) + "..." : compact;
+    }
+
+    public record SlowStatement(Instant at, long durationMillis, String context, String sql, String parameters,
+                                int batchSize) {
+    }
+}
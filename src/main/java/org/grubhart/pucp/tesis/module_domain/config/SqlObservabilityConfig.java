@@ -0,0 +1,46 @@
+package org.grubhart.pucp.tesis.module_domain.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Observabilidad de la base: el DataSource {@code dataSource} (el de Spring Boot o el enrutado de
+ * {@link ReadReplicaDataSourceConfig}) se envuelve en un {@link ObservedDataSource} que cuenta sentencias y registra
+ * las lentas. Las métricas de los pools ({@code hikaricp.connections.*}: activas, pendientes, tiempo de espera,
+ * timeouts y uso) las publica Spring Boot para cada HikariDataSource; {@code /actuator/sqlstats} las resume junto con
+ * el historial de sentencias lentas.
+ */
+@Configuration
+public class SqlObservabilityConfig {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    public SlowQueryLog slowQueryLog(@Value("${dora.sql.slow-query-threshold:500ms}") Duration threshold,
+                                     @Value("${dora.sql.slow-query-history:50}") int historySize) {
+        return new SlowQueryLog(threshold, historySize);
+    }
+
+    /**
+     * Estático para que se registre antes que el DataSource sin adelantar la creación de esta configuración.
+     */
+    @Bean
+    public static BeanPostProcessor observedDataSourcePostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof ObservedDataSource)) {
+                    return new ObservedDataSource(dataSource, slowQueryLog.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
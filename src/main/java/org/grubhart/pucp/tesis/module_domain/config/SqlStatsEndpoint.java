@@ -0,0 +1,63 @@
+package org.grubhart.pucp.tesis.module_domain.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Expone en {@code /actuator/sqlstats} el estado de los pools de conexiones de esta instancia y las últimas
+ * sentencias lentas. Las series históricas están en {@code /actuator/metrics} ({@code hikaricp.connections.*},
+ * {@code dora.sql.*}).
+ */
+@Component
+@Endpoint(id = "sqlstats")
+public class SqlStatsEndpoint {
+
+    private final ObjectProvider<DataSource> dataSources;
+    private final SlowQueryLog slowQueryLog;
+
+    public SqlStatsEndpoint(ObjectProvider<DataSource> dataSources, SlowQueryLog slowQueryLog) {
+        this.dataSources = dataSources;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @ReadOperation
+    public SqlStats sqlStats() {
+        // El DataSource observado y el pool que envuelve llevan al mismo HikariDataSource
+        List<PoolView> pools = dataSources.orderedStream()
+                .map(dataSource -> DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class))
+                .filter(Objects::nonNull)
+                .distinct()
+                .map(SqlStatsEndpoint::describe)
+                .toList();
+        return new SqlStats(pools, slowQueryLog.threshold().toMillis(), slowQueryLog.recent());
+    }
+
+    private static PoolView describe(HikariDataSource dataSource) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        // El pool se crea con la primera conexión
+        if (pool == null) {
+            return new PoolView(dataSource.getPoolName(), 0, 0, 0, 0, dataSource.getMaximumPoolSize(),
+                    dataSource.getConnectionTimeout());
+        }
+        return new PoolView(dataSource.getPoolName(), pool.getActiveConnections(), pool.getIdleConnections(),
+                pool.getTotalConnections(), pool.getThreadsAwaitingConnection(), dataSource.getMaximumPoolSize(),
+                dataSource.getConnectionTimeout());
+    }
+
+    public record SqlStats(List<PoolView> pools, long slowQueryThresholdMillis,
+                           List<SlowQueryLog.SlowStatement> slowStatements) {
+    }
+
+    public record PoolView(String name, int active, int idle, int total, int threadsAwaiting, int maxPoolSize,
+                           long connectionTimeoutMillis) {
+    }
+}
@@ -0,0 +1,26 @@
+package org.grubhart.pucp.tesis.module_processor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Traduce los filtros de fecha de los dashboards (días inclusive, cualquiera de los dos opcional) a un rango
+ * semiabierto [from, to) para las consultas por rango de los repositorios.
+ */
+final class DashboardPeriod {
+
+    private static final LocalDateTime EARLIEST = LocalDate.of(1970, 1, 1).atStartOfDay();
+    // Último día que cabe en un DATETIME de MySQL
+    private static final LocalDateTime LATEST = LocalDate.of(9999, 12, 31).atStartOfDay();
+
+    private DashboardPeriod() {
+    }
+
+    static LocalDateTime from(LocalDate startDate) {
+        return startDate == null ? EARLIEST : startDate.atStartOfDay();
+    }
+
+    static LocalDateTime to(LocalDate endDate) {
+        return endDate == null ? LATEST : endDate.plusDays(1).atStartOfDay();
+    }
+}
@@ -1,20 +1,17 @@
 package org.grubhart.pucp.tesis.module_processor;
 
-import org.grubhart.pucp.tesis.module_domain.ChangeLeadTime;
-import org.grubhart.pucp.tesis.module_domain.ChangeLeadTimeRepository;
 import org.grubhart.pucp.tesis.module_domain.Commit;
-import org.grubhart.pucp.tesis.module_domain.CommitParent;
-import org.grubhart.pucp.tesis.module_domain.CommitParentRepository;
 import org.grubhart.pucp.tesis.module_domain.CommitRepository;
-import org.grubhart.pucp.tesis.module_domain.Deployment;
-import org.grubhart.pucp.tesis.module_domain.Incident;
-import org.grubhart.pucp.tesis.module_domain.IncidentRepository;
+import org.grubhart.pucp.tesis.module_domain.LeadTimeFact;
+import org.grubhart.pucp.tesis.module_domain.LeadTimeFactRepository;
 import org.grubhart.pucp.tesis.module_domain.PullRequest;
 import org.grubhart.pucp.tesis.module_domain.PullRequestRepository;
+import org.grubhart.pucp.tesis.module_domain.ReadFromReplica;
 import org.grubhart.pucp.tesis.module_domain.RepositoryConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -27,27 +24,23 @@ import java.util.stream.Collectors;
  * de métricas basándose en el usuario autenticado.
  */
 @Service
+// Solo lecturas: con una réplica configurada (dora.datasource.replica.url) estas consultas se sirven desde ella
+@ReadFromReplica
+@Transactional(readOnly = true)
 public class DeveloperDashboardService {
 
     private static final Logger logger = LoggerFactory.getLogger(DeveloperDashboardService.class);
-    private static final long INCIDENT_CORRELATION_WINDOW_HOURS = 48;
 
     private final CommitRepository commitRepository;
-    private final ChangeLeadTimeRepository changeLeadTimeRepository;
-    private final IncidentRepository incidentRepository;
+    private final LeadTimeFactRepository leadTimeFactRepository;
     private final PullRequestRepository pullRequestRepository;
-    private final CommitParentRepository commitParentRepository;
 
     public DeveloperDashboardService(CommitRepository commitRepository,
-                                     ChangeLeadTimeRepository changeLeadTimeRepository,
-                                     IncidentRepository incidentRepository,
-                                     PullRequestRepository pullRequestRepository,
-                                     CommitParentRepository commitParentRepository) {
+                                     LeadTimeFactRepository leadTimeFactRepository,
+                                     PullRequestRepository pullRequestRepository) {
         this.commitRepository = commitRepository;
-        this.changeLeadTimeRepository = changeLeadTimeRepository;
-        this.incidentRepository = incidentRepository;
+        this.leadTimeFactRepository = leadTimeFactRepository;
         this.pullRequestRepository = pullRequestRepository;
-        this.commitParentRepository = commitParentRepository;
     }
 
     /**
@@ -65,16 +58,9 @@ public class DeveloperDashboardService {
         logger.info("Obteniendo métricas para el developer: {} (startDate: {}, endDate: {}, repositoryIds: {})",
                 githubUsername, startDate, endDate, repositoryIds);
 
-        // Obtener todos los commits del developer
-        List<Commit> allDeveloperCommits = commitRepository.findAll().stream()
-                .filter(commit -> githubUsername.equalsIgnoreCase(commit.getAuthor()))
-                .collect(Collectors.toList());
-
-        // Filtrar commits de merge (no representan trabajo real del developer)
-        List<Commit> developerCommits = filterOutMergeCommits(allDeveloperCommits);
-
-        logger.debug("Developer {}: {} commits totales, {} después de filtrar merge commits",
-                githubUsername, allDeveloperCommits.size(), developerCommits.size());
+        // Commits del developer, sin los de merge (no representan trabajo real del developer)
+        Set<String> authorKeys = Set.of(githubUsername.toLowerCase());
+        List<Commit> developerCommits = commitRepository.findNonMergeByAuthorKeys(authorKeys);
 
         logger.debug("Se encontraron {} commits para el developer {}", developerCommits.size(), githubUsername);
 
@@ -112,7 +98,7 @@ public class DeveloperDashboardService {
         CommitStatsDto commitStats = calculateCommitStats(filteredCommits, commitsByRepository.size());
 
         // Calcular estadísticas de Pull Requests (usando commits filtrados)
-        PullRequestStatsDto pullRequestStats = calculatePullRequestStats(filteredCommits);
+        PullRequestStatsDto pullRequestStats = calculatePullRequestStats(filteredCommits, authorKeys);
 
         // Calcular métricas DORA (usando commits filtrados)
         DeveloperDoraMetricsDto doraMetrics = calculateDoraMetrics(filteredCommits, startDate, endDate, repositoryIds);
@@ -161,11 +147,10 @@ public class DeveloperDashboardService {
     }
 
     /**
-     * Calcula estadísticas de Pull Requests del developer.
-     * Utiliza el campo firstCommitSha y la cadena de commit parents para determinar
-     * todos los commits de cada PR.
+     * Calcula estadísticas de Pull Requests del developer: los PRs cuyo primer commit (firstCommitSha) es uno de
+     * sus commits filtrados.
      */
-    private PullRequestStatsDto calculatePullRequestStats(List<Commit> developerCommits) {
+    private PullRequestStatsDto calculatePullRequestStats(List<Commit> developerCommits, Set<String> authorKeys) {
         if (developerCommits.isEmpty()) {
             return new PullRequestStatsDto(0L, 0L, 0L);
         }
@@ -175,25 +160,9 @@ public class DeveloperDashboardService {
                 .map(Commit::getSha)
                 .collect(Collectors.toSet());
 
-        // Construir mapa de parent -> children para traversal eficiente
-        Map<String, List<String>> parentToChildren = buildParentToChildrenMap();
-
-        // Obtener todos los PRs
-        List<PullRequest> allPullRequests = pullRequestRepository.findAll();
-
-        // Filtrar PRs que incluyen alguno de los commits del developer
-        List<PullRequest> developerPullRequests = allPullRequests.stream()
-                .filter(pr -> {
-                    if (pr.getFirstCommitSha() == null) {
-                        return false;
-                    }
-                    // Encontrar todos los commits descendientes del firstCommitSha
-                    Set<String> prCommits = findAllDescendants(pr.getFirstCommitSha(), parentToChildren);
-                    // Incluir también el firstCommitSha
-                    prCommits.add(pr.getFirstCommitSha());
-                    // Ver si alguno de los commits del PR está en los commits del developer
-                    return prCommits.stream().anyMatch(developerCommitShas::contains);
-                })
+        // PRs abiertos por el developer; el filtro de fecha y repositorio llega con los commits
+        List<PullRequest> developerPullRequests = pullRequestRepository.findByFirstCommitAuthorKeys(authorKeys).stream()
+                .filter(pr -> developerCommitShas.contains(pr.getFirstCommitSha()))
                 .collect(Collectors.toList());
 
         long totalPullRequests = developerPullRequests.size();
@@ -215,49 +184,6 @@ public class DeveloperDashboardService {
         );
     }
 
-    /**
-     * Construye un mapa de parent SHA -> lista de children SHAs.
-     */
-    private Map<String, List<String>> buildParentToChildrenMap() {
-        List<CommitParent> allCommitParents = commitParentRepository.findAll();
-
-        Map<String, List<String>> parentToChildren = new HashMap<>();
-        for (CommitParent cp : allCommitParents) {
-            String parentSha = cp.getParent().getSha();
-            String childSha = cp.getCommit().getSha();
-
-            parentToChildren.computeIfAbsent(parentSha, k -> new ArrayList<>()).add(childSha);
-        }
-
-        return parentToChildren;
-    }
-
-    /**
-     * Encuentra todos los commits descendientes de un commit dado, siguiendo la cadena de parents.
-     * Usa BFS (Breadth-First Search) para evitar ciclos y ser eficiente.
-     */
-    private Set<String> findAllDescendants(String startSha, Map<String, List<String>> parentToChildren) {
-        Set<String> descendants = new HashSet<>();
-        Queue<String> queue = new LinkedList<>();
-        queue.add(startSha);
-
-        while (!queue.isEmpty()) {
-            String currentSha = queue.poll();
-            List<String> children = parentToChildren.get(currentSha);
-
-            if (children != null) {
-                for (String childSha : children) {
-                    if (!descendants.contains(childSha)) {
-                        descendants.add(childSha);
-                        queue.add(childSha);
-                    }
-                }
-            }
-        }
-
-        return descendants;
-    }
-
     /**
      * Calcula métricas DORA para el developer.
      * Incluye Lead Time, Deployment Frequency, Change Failure Rate y series de tiempo diarias.
@@ -278,16 +204,8 @@ public class DeveloperDashboardService {
             );
         }
 
-        // Obtener todos los ChangeLeadTime para los commits del developer
-        Set<String> commitShas = developerCommits.stream()
-                .map(Commit::getSha)
-                .collect(Collectors.toSet());
-
-        List<ChangeLeadTime> leadTimes = changeLeadTimeRepository.findAll().stream()
-                .filter(lt -> commitShas.contains(lt.getCommit().getSha()))
-                .filter(lt -> applyDeploymentDateFilter(lt.getDeployment(), startDate, endDate))
-                .filter(lt -> applyRepositoryFilter(lt.getDeployment(), repositoryIds))
-                .collect(Collectors.toList());
+        // Lead times de los commits del developer, leídos de la tabla desnormalizada
+        List<LeadTimeFact> leadTimes = findLeadTimeFacts(developerCommits, startDate, endDate, repositoryIds);
 
         if (leadTimes.isEmpty()) {
             // No hay deployments con lead time calculado aún
@@ -301,7 +219,7 @@ public class DeveloperDashboardService {
 
         // Calcular estadísticas de lead time (convertir de segundos a horas)
         DoubleSummaryStatistics leadTimeStats = leadTimes.stream()
-                .mapToDouble(lt -> lt.getLeadTimeInSeconds() / 3600.0) // Convertir a horas
+                .mapToDouble(lt -> lt.getLeadTimeSeconds() / 3600.0) // Convertir a horas
                 .summaryStatistics();
 
         double averageLeadTimeHours = leadTimeStats.getAverage();
@@ -311,19 +229,15 @@ public class DeveloperDashboardService {
 
         // Contar deployments únicos
         Set<Long> uniqueDeploymentIds = leadTimes.stream()
-                .map(lt -> lt.getDeployment().getId())
+                .map(LeadTimeFact::getDeploymentId)
                 .collect(Collectors.toSet());
         long totalDeploymentCount = uniqueDeploymentIds.size();
 
-        // Obtener todos los deployments del developer
-        List<Deployment> deployments = leadTimes.stream()
-                .map(ChangeLeadTime::getDeployment)
-                .distinct()
-                .collect(Collectors.toList());
-
-        // Calcular CFR: identificar deployments que causaron incidentes
-        List<Incident> allIncidents = incidentRepository.findAll();
-        Set<Long> failedDeploymentIds = identifyFailedDeployments(deployments, allIncidents);
+        // Calcular CFR: deployments marcados como fallidos al correlacionarse con un incidente
+        Set<Long> failedDeploymentIds = leadTimes.stream()
+                .filter(LeadTimeFact::isFailed)
+                .map(LeadTimeFact::getDeploymentId)
+                .collect(Collectors.toSet());
         long failedDeploymentCount = failedDeploymentIds.size();
 
         Double changeFailureRate = totalDeploymentCount > 0
@@ -345,80 +259,44 @@ public class DeveloperDashboardService {
         );
     }
 
-    /**
-     * Identifica deployments que causaron incidentes dentro de una ventana de 48 horas.
-     */
-    private Set<Long> identifyFailedDeployments(List<Deployment> deployments, List<Incident> allIncidents) {
-        Set<Long> failedDeploymentIds = new HashSet<>();
-
-        for (Deployment deployment : deployments) {
-            LocalDateTime deploymentTime = deployment.getCreatedAt();
-            LocalDateTime windowEnd = deploymentTime.plusHours(INCIDENT_CORRELATION_WINDOW_HOURS);
-
-            // Buscar incidentes que comenzaron dentro de la ventana de 48 horas
-            boolean hasIncident = allIncidents.stream()
-                    .anyMatch(incident -> {
-                        boolean withinTimeWindow = !incident.getStartTime().isBefore(deploymentTime)
-                                && incident.getStartTime().isBefore(windowEnd);
-
-                        // Correlacionar por serviceName si está disponible
-                        if (deployment.getServiceName() != null && incident.getServiceName() != null) {
-                            return withinTimeWindow
-                                    && deployment.getServiceName().equals(incident.getServiceName());
-                        }
-
-                        // Fallback: correlacionar por repositorio
-                        return withinTimeWindow
-                                && deployment.getRepository().getId().equals(incident.getRepository().getId());
-                    });
-
-            if (hasIncident) {
-                failedDeploymentIds.add(deployment.getId());
-            }
-        }
-
-        return failedDeploymentIds;
-    }
-
     /**
      * Calcula series de tiempo diarias agrupando métricas por fecha.
      */
-    private List<DailyMetricDto> calculateDailyTimeSeries(List<ChangeLeadTime> leadTimes,
+    private List<DailyMetricDto> calculateDailyTimeSeries(List<LeadTimeFact> leadTimes,
                                                            Set<Long> failedDeploymentIds) {
         // Agrupar por fecha (LocalDate del deployment)
-        Map<LocalDate, List<ChangeLeadTime>> leadTimesByDate = leadTimes.stream()
-                .collect(Collectors.groupingBy(lt ->
-                        lt.getDeployment().getCreatedAt().toLocalDate()));
+        Map<LocalDate, List<LeadTimeFact>> leadTimesByDate = leadTimes.stream()
+                .collect(Collectors.groupingBy(lt -> lt.getDeployedAt().toLocalDate()));
 
-        logger.debug("Agrupando {} ChangeLeadTime records en {} días distintos",
+        logger.debug("Agrupando {} lead times en {} días distintos",
                 leadTimes.size(), leadTimesByDate.size());
 
         // Calcular métricas para cada día
         return leadTimesByDate.entrySet().stream()
                 .map(entry -> {
                     LocalDate date = entry.getKey();
-                    List<ChangeLeadTime> dailyLeadTimes = entry.getValue();
+                    List<LeadTimeFact> dailyLeadTimes = entry.getValue();
 
                     // Log detallado para debugging
                     if (!dailyLeadTimes.isEmpty()) {
-                        ChangeLeadTime firstLt = dailyLeadTimes.get(0);
-                        logger.debug("Fecha: {}, Commits: {}, Deployment ID: {}, Deployment createdAt: {}, Commit SHA: {}, Commit date: {}",
+                        LeadTimeFact firstLt = dailyLeadTimes.get(0);
+                        logger.debug("Fecha: {}, Commits: {}, Deployment ID: {}, Deployment createdAt: {}, Commit SHA: {}, Lead time: {}s",
                                 date, dailyLeadTimes.size(),
-                                firstLt.getDeployment().getId(),
-                                firstLt.getDeployment().getCreatedAt(),
-                                firstLt.getCommit().getSha(),
-                                firstLt.getCommit().getDate());
+                                firstLt.getDeploymentId(),
+                                firstLt.getDeployedAt(),
+                                firstLt.getCommitSha(),
+                                firstLt.getLeadTimeSeconds());
                     }
 
                     // Calcular promedio de lead time para el día
                     double avgLeadTimeHours = dailyLeadTimes.stream()
-                            .mapToDouble(lt -> lt.getLeadTimeInSeconds() / 3600.0)
+                            .mapToDouble(lt -> lt.getLeadTimeSeconds() / 3600.0)
                             .average()
                             .orElse(0.0);
 
                     // Contar deployments únicos del día
                     Set<Long> dailyDeploymentIds = dailyLeadTimes.stream()
-                            .map(lt -> lt.getDeployment().getId())
+                            .map(LeadTimeFact::getDeploymentId)
                             .collect(Collectors.toSet());
                     long deploymentCount = dailyDeploymentIds.size();
 
@@ -459,17 +337,9 @@ public class DeveloperDashboardService {
             return commits;
         }
 
-        // Obtener todos los SHAs de commits
-        Set<String> commitShas = commits.stream()
-                .map(Commit::getSha)
-                .collect(Collectors.toSet());
-
-        // Obtener los ChangeLeadTime filtrados por fecha y repositorio
-        Set<String> filteredCommitShas = changeLeadTimeRepository.findAll().stream()
-                .filter(lt -> commitShas.contains(lt.getCommit().getSha()))
-                .filter(lt -> applyDeploymentDateFilter(lt.getDeployment(), startDate, endDate))
-                .filter(lt -> applyRepositoryFilter(lt.getDeployment(), repositoryIds))
-                .map(lt -> lt.getCommit().getSha())
+        // SHAs de los commits con lead times que cumplen los criterios
+        Set<String> filteredCommitShas = findLeadTimeFacts(commits, startDate, endDate, repositoryIds).stream()
+                .map(LeadTimeFact::getCommitSha)
                 .collect(Collectors.toSet());
 
         // Retornar solo los commits que tienen deployments que cumplen los criterios
@@ -479,37 +349,32 @@ public class DeveloperDashboardService {
     }
 
     /**
-     * Aplica filtro de fecha sobre el deployment.
-     * Retorna true si el deployment está dentro del rango de fechas o si no hay filtro de fecha.
+     * Lead times de los commits indicados cuyo deployment cae en el rango de fechas y en los repositorios pedidos.
+     * Se leen de {@code lead_time_fact} por autor con una sola consulta por rango; sin fechas el rango queda abierto.
      */
-    private boolean applyDeploymentDateFilter(Deployment deployment, LocalDate startDate, LocalDate endDate) {
-        if (startDate == null && endDate == null) {
-            return true; // Sin filtro de fecha
-        }
-
-        LocalDate deploymentDate = deployment.getCreatedAt().toLocalDate();
-
-        if (startDate != null && deploymentDate.isBefore(startDate)) {
-            return false;
-        }
-
-        if (endDate != null && deploymentDate.isAfter(endDate)) {
-            return false;
+    private List<LeadTimeFact> findLeadTimeFacts(List<Commit> commits, LocalDate startDate, LocalDate endDate,
+                                                 List<Long> repositoryIds) {
+        Set<String> authorKeys = commits.stream()
+                .map(Commit::getAuthor)
+                .filter(Objects::nonNull)
+                .map(String::toLowerCase)
+                .collect(Collectors.toSet());
+        if (authorKeys.isEmpty()) {
+            return Collections.emptyList();
         }
 
-        return true;
-    }
+        List<LeadTimeFact> facts = repositoryIds == null || repositoryIds.isEmpty()
+                ? leadTimeFactRepository.findByAuthorsDeployedBetween(authorKeys,
+                        DashboardPeriod.from(startDate), DashboardPeriod.to(endDate))
+                : leadTimeFactRepository.findByAuthorsDeployedBetweenInRepositories(authorKeys,
+                        DashboardPeriod.from(startDate), DashboardPeriod.to(endDate), repositoryIds);
 
-    /**
-     * Aplica filtro de repositorios sobre el deployment.
-     * Retorna true si el deployment pertenece a alguno de los repositorios especificados o si no hay filtro.
-     */
-    private boolean applyRepositoryFilter(Deployment deployment, List<Long> repositoryIds) {
-        if (repositoryIds == null || repositoryIds.isEmpty()) {
-            return true; // Sin filtro de repositorio
-        }
-
-        return repositoryIds.contains(deployment.getRepository().getId());
+        Set<String> commitShas = commits.stream()
+                .map(Commit::getSha)
+                .collect(Collectors.toSet());
+        return facts.stream()
+                .filter(lt -> commitShas.contains(lt.getCommitSha()))
+                .collect(Collectors.toList());
     }
 
     /**
@@ -529,43 +394,4 @@ public class DeveloperDashboardService {
                 )
         );
     }
-
-    /**
-     * Filtra commits de merge que no representan trabajo real del developer.
-     * Los commits de merge se guardan en la BD para mantener el grafo de commits,
-     * pero no deben contarse en las métricas del developer.
-     *
-     * @param commits Lista de commits a filtrar
-     * @return Lista de commits sin merge commits
-     */
-    private List<Commit> filterOutMergeCommits(List<Commit> commits) {
-        return commits.stream()
-                .filter(commit -> !isMergeCommit(commit))
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * Determina si un commit es un merge commit basándose en:
-     * 1. Número de parents: >= 2 parents indica merge de múltiples ramas
-     * 2. Mensaje del commit: comienza con "Merge pull request" o "Merge branch"
-     *
-     * @param commit El commit a evaluar
-     * @return true si es un merge commit, false en caso contrario
-     */
-    private boolean isMergeCommit(Commit commit) {
-        // Criterio 1: Commits con 2 o más parents son merge commits
-        if (commit.getParents() != null && commit.getParents().size() >= 2) {
-            return true;
-        }
-
-        // Criterio 2: Mensaje comienza con patrones típicos de merge
-        if (commit.getMessage() != null && !commit.getMessage().isEmpty()) {
-            String messageLower = commit.getMessage().toLowerCase();
-            return messageLower.startsWith("merge pull request") ||
-                   messageLower.startsWith("merge branch") ||
-                   messageLower.startsWith("merge remote-tracking branch");
-        }
-
-        return false;
-    }
 }
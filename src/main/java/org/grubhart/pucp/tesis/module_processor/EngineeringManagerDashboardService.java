@@ -4,6 +4,7 @@ import org.grubhart.pucp.tesis.module_domain.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -15,33 +16,32 @@ import java.util.stream.Collectors;
  * Este servicio agrega métricas de múltiples equipos de la organización.
  */
 @Service
+// Solo lecturas: con una réplica configurada (dora.datasource.replica.url) estas consultas se sirven desde ella
+@ReadFromReplica
+@Transactional(readOnly = true)
 public class EngineeringManagerDashboardService {
 
     private static final Logger logger = LoggerFactory.getLogger(EngineeringManagerDashboardService.class);
-    private static final long INCIDENT_CORRELATION_WINDOW_HOURS = 48;
 
     private final UserRepository userRepository;
     private final TeamRepository teamRepository;
     private final CommitRepository commitRepository;
-    private final ChangeLeadTimeRepository changeLeadTimeRepository;
+    private final LeadTimeFactRepository leadTimeFactRepository;
     private final IncidentRepository incidentRepository;
     private final PullRequestRepository pullRequestRepository;
-    private final CommitParentRepository commitParentRepository;
 
     public EngineeringManagerDashboardService(UserRepository userRepository,
                                               TeamRepository teamRepository,
                                               CommitRepository commitRepository,
-                                              ChangeLeadTimeRepository changeLeadTimeRepository,
+                                              LeadTimeFactRepository leadTimeFactRepository,
                                               IncidentRepository incidentRepository,
-                                              PullRequestRepository pullRequestRepository,
-                                              CommitParentRepository commitParentRepository) {
+                                              PullRequestRepository pullRequestRepository) {
         this.userRepository = userRepository;
         this.teamRepository = teamRepository;
         this.commitRepository = commitRepository;
-        this.changeLeadTimeRepository = changeLeadTimeRepository;
+        this.leadTimeFactRepository = leadTimeFactRepository;
         this.incidentRepository = incidentRepository;
         this.pullRequestRepository = pullRequestRepository;
-        this.commitParentRepository = commitParentRepository;
     }
 
     /**
@@ -103,7 +103,8 @@ public class EngineeringManagerDashboardService {
         logger.debug("Total de miembros: {} (filtrados: {})", allMembers.size(), filteredMembers.size());
 
         // Obtener commits de todos los miembros filtrados
-        List<Commit> allCommits = getCommitsForMembers(filteredMembers);
+        Set<String> memberAuthorKeys = authorKeys(filteredMembers);
+        List<Commit> allCommits = getCommitsForMembers(memberAuthorKeys);
 
         if (allCommits.isEmpty()) {
             logger.warn("No se encontraron commits para los miembros");
@@ -116,9 +117,14 @@ public class EngineeringManagerDashboardService {
         logger.debug("Después de aplicar filtros: {} commits (de {} totales)",
                 filteredCommits.size(), allCommits.size());
 
+        // PRs de los miembros, leídos una vez para la organización y para cada equipo
+        List<PullRequest> pullRequests = filteredCommits.isEmpty()
+                ? Collections.emptyList()
+                : pullRequestRepository.findByFirstCommitAuthorKeys(memberAuthorKeys);
+
         // Calcular estadísticas por equipo
         List<TeamMetricsDto> teamMetrics = calculateTeamMetrics(teams, filteredMembers, filteredCommits,
-                startDate, endDate, repositoryIds);
+                pullRequests, startDate, endDate, repositoryIds);
 
         // Agrupar commits filtrados por repositorio
         Map<RepositoryConfig, List<Commit>> commitsByRepository = filteredCommits.stream()
@@ -143,7 +149,7 @@ public class EngineeringManagerDashboardService {
         CommitStatsDto aggregatedCommitStats = calculateCommitStats(filteredCommits, commitsByRepository.size());
 
         // Calcular estadísticas agregadas de Pull Requests
-        PullRequestStatsDto aggregatedPullRequestStats = calculatePullRequestStats(filteredCommits);
+        PullRequestStatsDto aggregatedPullRequestStats = calculatePullRequestStats(filteredCommits, pullRequests);
 
         // Calcular métricas DORA agregadas
         TeamDoraMetricsDto aggregatedDoraMetrics = calculateDoraMetrics(filteredCommits, startDate, endDate, repositoryIds);
@@ -175,10 +181,7 @@ public class EngineeringManagerDashboardService {
             return teamRepository.findAll();
         }
 
-        Set<Long> teamIdSet = new HashSet<>(teamIds);
-        return teamRepository.findAll().stream()
-                .filter(team -> teamIdSet.contains(team.getId()))
-                .collect(Collectors.toList());
+        return teamRepository.findAllById(new HashSet<>(teamIds));
     }
 
     /**
@@ -213,26 +216,24 @@ public class EngineeringManagerDashboardService {
     }
 
     /**
-     * Obtiene todos los commits de una lista de usuarios.
-     * Filtra commits de merge que no representan trabajo real.
+     * Usernames de GitHub de los miembros en minúsculas, como se comparan con el autor de los commits.
      */
-    private List<Commit> getCommitsForMembers(List<User> members) {
-        Set<String> memberUsernames = members.stream()
+    private Set<String> authorKeys(List<User> members) {
+        return members.stream()
                 .map(User::getGithubUsername)
                 .map(String::toLowerCase)
                 .collect(Collectors.toSet());
+    }
 
-        List<Commit> allCommits = commitRepository.findAll().stream()
-                .filter(commit -> memberUsernames.contains(commit.getAuthor().toLowerCase()))
-                .collect(Collectors.toList());
-
-        // Filtrar commits de merge (no representan trabajo real)
-        List<Commit> filteredCommits = filterOutMergeCommits(allCommits);
+    /**
+     * Obtiene los commits de los autores indicados, sin los de merge (no representan trabajo real).
+     */
+    private List<Commit> getCommitsForMembers(Set<String> authorKeys) {
+        List<Commit> commits = commitRepository.findNonMergeByAuthorKeys(authorKeys);
 
-        logger.debug("Commits de miembros: {} totales, {} después de filtrar merge commits",
-                allCommits.size(), filteredCommits.size());
+        logger.debug("Commits de miembros: {} sin contar merge commits", commits.size());
 
-        return filteredCommits;
+        return commits;
     }
 
     /**
@@ -241,6 +242,7 @@ public class EngineeringManagerDashboardService {
     private List<TeamMetricsDto> calculateTeamMetrics(List<Team> teams,
                                                        List<User> allFilteredMembers,
                                                        List<Commit> allFilteredCommits,
+                                                       List<PullRequest> pullRequests,
                                                        LocalDate startDate,
                                                        LocalDate endDate,
                                                        List<Long> repositoryIds) {
@@ -269,7 +271,7 @@ public class EngineeringManagerDashboardService {
                     long totalCommits = teamCommits.size();
 
                     // Calcular PRs del equipo
-                    PullRequestStatsDto teamPRStats = calculatePullRequestStats(teamCommits);
+                    PullRequestStatsDto teamPRStats = calculatePullRequestStats(teamCommits, pullRequests);
 
                     // Agrupar commits por repositorio
                     Map<RepositoryConfig, List<Commit>> teamCommitsByRepo = teamCommits.stream()
@@ -363,9 +365,10 @@ public class EngineeringManagerDashboardService {
     }
 
     /**
-     * Calcula estadísticas de Pull Requests.
+     * Calcula estadísticas de Pull Requests: los PRs cuyo primer commit (firstCommitSha) es uno de los commits
+     * indicados. {@code pullRequests} son los PRs de todos los autores del dashboard, leídos una sola vez.
      */
-    private PullRequestStatsDto calculatePullRequestStats(List<Commit> commits) {
+    private PullRequestStatsDto calculatePullRequestStats(List<Commit> commits, List<PullRequest> pullRequests) {
         if (commits.isEmpty()) {
             return new PullRequestStatsDto(0L, 0L, 0L);
         }
@@ -374,18 +377,8 @@ public class EngineeringManagerDashboardService {
                 .map(Commit::getSha)
                 .collect(Collectors.toSet());
 
-        Map<String, List<String>> parentToChildren = buildParentToChildrenMap();
-        List<PullRequest> allPullRequests = pullRequestRepository.findAll();
-
-        List<PullRequest> relevantPullRequests = allPullRequests.stream()
-                .filter(pr -> {
-                    if (pr.getFirstCommitSha() == null) {
-                        return false;
-                    }
-                    Set<String> prCommits = findAllDescendants(pr.getFirstCommitSha(), parentToChildren);
-                    prCommits.add(pr.getFirstCommitSha());
-                    return prCommits.stream().anyMatch(commitShas::contains);
-                })
+        List<PullRequest> relevantPullRequests = pullRequests.stream()
+                .filter(pr -> commitShas.contains(pr.getFirstCommitSha()))
                 .collect(Collectors.toList());
 
         long totalPullRequests = relevantPullRequests.size();
@@ -399,47 +392,6 @@ public class EngineeringManagerDashboardService {
         return new PullRequestStatsDto(totalPullRequests, mergedPullRequests, openPullRequests);
     }
 
-    /**
-     * Construye un mapa de parent SHA -> lista de children SHAs.
-     */
-    private Map<String, List<String>> buildParentToChildrenMap() {
-        List<CommitParent> allCommitParents = commitParentRepository.findAll();
-        Map<String, List<String>> parentToChildren = new HashMap<>();
-
-        for (CommitParent cp : allCommitParents) {
-            String parentSha = cp.getParent().getSha();
-            String childSha = cp.getCommit().getSha();
-            parentToChildren.computeIfAbsent(parentSha, k -> new ArrayList<>()).add(childSha);
-        }
-
-        return parentToChildren;
-    }
-
-    /**
-     * Encuentra todos los commits descendientes de un commit dado.
-     */
-    private Set<String> findAllDescendants(String startSha, Map<String, List<String>> parentToChildren) {
-        Set<String> descendants = new HashSet<>();
-        Queue<String> queue = new LinkedList<>();
-        queue.add(startSha);
-
-        while (!queue.isEmpty()) {
-            String currentSha = queue.poll();
-            List<String> children = parentToChildren.get(currentSha);
-
-            if (children != null) {
-                for (String childSha : children) {
-                    if (!descendants.contains(childSha)) {
-                        descendants.add(childSha);
-                        queue.add(childSha);
-                    }
-                }
-            }
-        }
-
-        return descendants;
-    }
-
     /**
      * Calcula métricas DORA agregadas.
      */
@@ -457,15 +409,7 @@ public class EngineeringManagerDashboardService {
             );
         }
 
-        Set<String> commitShas = commits.stream()
-                .map(Commit::getSha)
-                .collect(Collectors.toSet());
-
-        List<ChangeLeadTime> leadTimes = changeLeadTimeRepository.findAll().stream()
-                .filter(lt -> commitShas.contains(lt.getCommit().getSha()))
-                .filter(lt -> applyDeploymentDateFilter(lt.getDeployment(), startDate, endDate))
-                .filter(lt -> applyRepositoryFilter(lt.getDeployment(), repositoryIds))
-                .collect(Collectors.toList());
+        List<LeadTimeFact> leadTimes = findLeadTimeFacts(commits, startDate, endDate, repositoryIds);
 
         if (leadTimes.isEmpty()) {
             return new TeamDoraMetricsDto(
@@ -478,7 +422,7 @@ public class EngineeringManagerDashboardService {
         }
 
         DoubleSummaryStatistics leadTimeStats = leadTimes.stream()
-                .mapToDouble(lt -> lt.getLeadTimeInSeconds() / 3600.0)
+                .mapToDouble(lt -> lt.getLeadTimeSeconds() / 3600.0)
                 .summaryStatistics();
 
         double averageLeadTimeHours = leadTimeStats.getAverage();
@@ -487,17 +431,15 @@ public class EngineeringManagerDashboardService {
         long deploymentCommitCount = leadTimes.size();
 
         Set<Long> uniqueDeploymentIds = leadTimes.stream()
-                .map(lt -> lt.getDeployment().getId())
+                .map(LeadTimeFact::getDeploymentId)
                 .collect(Collectors.toSet());
         long totalDeploymentCount = uniqueDeploymentIds.size();
 
-        List<Deployment> deployments = leadTimes.stream()
-                .map(ChangeLeadTime::getDeployment)
-                .distinct()
-                .collect(Collectors.toList());
-
-        List<Incident> allIncidents = incidentRepository.findAll();
-        Set<Long> failedDeploymentIds = identifyFailedDeployments(deployments, allIncidents);
+        // Deployments marcados como fallidos al correlacionarse con un incidente
+        Set<Long> failedDeploymentIds = leadTimes.stream()
+                .filter(LeadTimeFact::isFailed)
+                .map(LeadTimeFact::getDeploymentId)
+                .collect(Collectors.toSet());
         long failedDeploymentCount = failedDeploymentIds.size();
 
         Double changeFailureRate = totalDeploymentCount > 0
@@ -505,7 +447,7 @@ public class EngineeringManagerDashboardService {
                 : null;
 
         // Calculate MTTR metrics
-        List<Incident> resolvedIncidents = filterResolvedIncidents(allIncidents, deployments, startDate, endDate, repositoryIds);
+        List<Incident> resolvedIncidents = findResolvedIncidents(leadTimes, startDate, endDate, repositoryIds);
         Double averageMTTRHours = null;
         Double minMTTRHours = null;
         Double maxMTTRHours = null;
@@ -543,87 +485,32 @@ public class EngineeringManagerDashboardService {
     }
 
     /**
-     * Filtra incidentes resueltos relacionados con los deployments,
-     * aplicando los mismos filtros que las otras métricas DORA.
+     * Incidentes resueltos de los repositorios de los deployments (o de los pedidos), con los mismos filtros de
+     * fecha que las otras métricas DORA.
      */
-    private List<Incident> filterResolvedIncidents(List<Incident> allIncidents,
-                                                    List<Deployment> deployments,
-                                                    LocalDate startDate,
-                                                    LocalDate endDate,
-                                                    List<Long> repositoryIds) {
-        // Obtener los IDs de repositorios relevantes
-        Set<Long> relevantRepoIds = deployments.stream()
-                .map(d -> d.getRepository().getId())
+    private List<Incident> findResolvedIncidents(List<LeadTimeFact> leadTimes,
+                                                 LocalDate startDate,
+                                                 LocalDate endDate,
+                                                 List<Long> repositoryIds) {
+        // Sin filtro de repositorio, solo los repositorios con deployments en el rango
+        Collection<Long> relevantRepoIds = repositoryIds != null && !repositoryIds.isEmpty()
+                ? repositoryIds
+                : leadTimes.stream()
+                .map(LeadTimeFact::getRepositoryId)
                 .collect(Collectors.toSet());
 
-        return allIncidents.stream()
-                .filter(incident -> incident.getState() == IncidentState.RESOLVED)
-                .filter(incident -> incident.getDurationSeconds() != null)
-                .filter(incident -> {
-                    // Aplicar filtro de fecha basado en startTime del incidente
-                    LocalDate incidentDate = incident.getStartTime().toLocalDate();
-                    if (startDate != null && incidentDate.isBefore(startDate)) {
-                        return false;
-                    }
-                    if (endDate != null && incidentDate.isAfter(endDate)) {
-                        return false;
-                    }
-                    return true;
-                })
-                .filter(incident -> {
-                    // Aplicar filtro de repositorio
-                    if (repositoryIds != null && !repositoryIds.isEmpty()) {
-                        return incident.getRepository() != null
-                                && repositoryIds.contains(incident.getRepository().getId());
-                    }
-                    // Si no hay filtro de repositorio, usar solo incidentes de repos relevantes
-                    return incident.getRepository() != null
-                            && relevantRepoIds.contains(incident.getRepository().getId());
-                })
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * Identifica deployments que causaron incidentes.
-     */
-    private Set<Long> identifyFailedDeployments(List<Deployment> deployments, List<Incident> allIncidents) {
-        Set<Long> failedDeploymentIds = new HashSet<>();
-
-        for (Deployment deployment : deployments) {
-            LocalDateTime deploymentTime = deployment.getCreatedAt();
-            LocalDateTime windowEnd = deploymentTime.plusHours(INCIDENT_CORRELATION_WINDOW_HOURS);
-
-            boolean hasIncident = allIncidents.stream()
-                    .anyMatch(incident -> {
-                        boolean withinTimeWindow = !incident.getStartTime().isBefore(deploymentTime)
-                                && incident.getStartTime().isBefore(windowEnd);
-
-                        if (deployment.getServiceName() != null && incident.getServiceName() != null) {
-                            return withinTimeWindow
-                                    && deployment.getServiceName().equals(incident.getServiceName());
-                        }
-
-                        return withinTimeWindow
-                                && deployment.getRepository().getId().equals(incident.getRepository().getId());
-                    });
-
-            if (hasIncident) {
-                failedDeploymentIds.add(deployment.getId());
-            }
-        }
-
-        return failedDeploymentIds;
+        return incidentRepository.findResolvedInRepositoriesStartedBetween(relevantRepoIds,
+                DashboardPeriod.from(startDate), DashboardPeriod.to(endDate));
     }
 
     /**
      * Calcula series de tiempo diarias.
      */
-    private List<TeamDailyMetricDto> calculateDailyTimeSeries(List<ChangeLeadTime> leadTimes,
+    private List<TeamDailyMetricDto> calculateDailyTimeSeries(List<LeadTimeFact> leadTimes,
                                                                Set<Long> failedDeploymentIds,
                                                                List<Incident> resolvedIncidents) {
-        Map<LocalDate, List<ChangeLeadTime>> leadTimesByDate = leadTimes.stream()
-                .collect(Collectors.groupingBy(lt ->
-                        lt.getDeployment().getCreatedAt().toLocalDate()));
+        Map<LocalDate, List<LeadTimeFact>> leadTimesByDate = leadTimes.stream()
+                .collect(Collectors.groupingBy(lt -> lt.getDeployedAt().toLocalDate()));
 
         Map<LocalDate, List<Incident>> incidentsByDate = resolvedIncidents.stream()
                 .collect(Collectors.groupingBy(incident ->
@@ -636,7 +523,7 @@ public class EngineeringManagerDashboardService {
 
         return allDates.stream()
                 .map(date -> {
-                    List<ChangeLeadTime> dailyLeadTimes = leadTimesByDate.getOrDefault(date, Collections.emptyList());
+                    List<LeadTimeFact> dailyLeadTimes = leadTimesByDate.getOrDefault(date, Collections.emptyList());
                     List<Incident> dailyIncidents = incidentsByDate.getOrDefault(date, Collections.emptyList());
 
                     Double avgLeadTimeHours = null;
@@ -646,12 +533,12 @@ public class EngineeringManagerDashboardService {
 
                     if (!dailyLeadTimes.isEmpty()) {
                         avgLeadTimeHours = dailyLeadTimes.stream()
-                                .mapToDouble(lt -> lt.getLeadTimeInSeconds() / 3600.0)
+                                .mapToDouble(lt -> lt.getLeadTimeSeconds() / 3600.0)
                                 .average()
                                 .orElse(0.0);
 
                         Set<Long> dailyDeploymentIds = dailyLeadTimes.stream()
-                                .map(lt -> lt.getDeployment().getId())
+                                .map(LeadTimeFact::getDeploymentId)
                                 .collect(Collectors.toSet());
                         deploymentCount = dailyDeploymentIds.size();
                         commitCount = dailyLeadTimes.size();
@@ -696,15 +583,8 @@ public class EngineeringManagerDashboardService {
             return commits;
         }
 
-        Set<String> commitShas = commits.stream()
-                .map(Commit::getSha)
-                .collect(Collectors.toSet());
-
-        Set<String> filteredCommitShas = changeLeadTimeRepository.findAll().stream()
-                .filter(lt -> commitShas.contains(lt.getCommit().getSha()))
-                .filter(lt -> applyDeploymentDateFilter(lt.getDeployment(), startDate, endDate))
-                .filter(lt -> applyRepositoryFilter(lt.getDeployment(), repositoryIds))
-                .map(lt -> lt.getCommit().getSha())
+        Set<String> filteredCommitShas = findLeadTimeFacts(commits, startDate, endDate, repositoryIds).stream()
+                .map(LeadTimeFact::getCommitSha)
                 .collect(Collectors.toSet());
 
         return commits.stream()
@@ -713,35 +593,34 @@ public class EngineeringManagerDashboardService {
     }
 
     /**
-     * Aplica filtro de fecha sobre el deployment.
+     * Lead times de los commits indicados cuyo deployment cae en el rango de fechas y en los repositorios pedidos.
+     * Se leen de {@code lead_time_fact} por autor con una sola consulta por rango; sin fechas el rango queda abierto.
      */
-    private boolean applyDeploymentDateFilter(Deployment deployment, LocalDate startDate, LocalDate endDate) {
-        if (startDate == null && endDate == null) {
-            return true;
-        }
-
-        LocalDate deploymentDate = deployment.getCreatedAt().toLocalDate();
-
-        if (startDate != null && deploymentDate.isBefore(startDate)) {
-            return false;
-        }
-
-        if (endDate != null && deploymentDate.isAfter(endDate)) {
-            return false;
+    private List<LeadTimeFact> findLeadTimeFacts(List<Commit> commits,
+                                                 LocalDate startDate,
+                                                 LocalDate endDate,
+                                                 List<Long> repositoryIds) {
+        Set<String> authorKeys = commits.stream()
+                .map(Commit::getAuthor)
+                .filter(Objects::nonNull)
+                .map(String::toLowerCase)
+                .collect(Collectors.toSet());
+        if (authorKeys.isEmpty()) {
+            return Collections.emptyList();
         }
 
-        return true;
-    }
+        List<LeadTimeFact> facts = repositoryIds == null || repositoryIds.isEmpty()
+                ? leadTimeFactRepository.findByAuthorsDeployedBetween(authorKeys,
+                        DashboardPeriod.from(startDate), DashboardPeriod.to(endDate))
+                : leadTimeFactRepository.findByAuthorsDeployedBetweenInRepositories(authorKeys,
+                        DashboardPeriod.from(startDate), DashboardPeriod.to(endDate), repositoryIds);
 
-    /**
-     * Aplica filtro de repositorios sobre el deployment.
-     */
-    private boolean applyRepositoryFilter(Deployment deployment, List<Long> repositoryIds) {
-        if (repositoryIds == null || repositoryIds.isEmpty()) {
-            return true;
-        }
-
-        return repositoryIds.contains(deployment.getRepository().getId());
+        Set<String> commitShas = commits.stream()
+                .map(Commit::getSha)
+                .collect(Collectors.toSet());
+        return facts.stream()
+                .filter(lt -> commitShas.contains(lt.getCommitSha()))
+                .collect(Collectors.toList());
     }
 
     /**
@@ -765,37 +644,4 @@ public class EngineeringManagerDashboardService {
                 )
         );
     }
-
-    /**
-     * Filtra commits de merge que no representan trabajo real.
-     * Los commits de merge se guardan en la BD para mantener el grafo de commits,
-     * pero no deben contarse en las métricas.
-     */
-    private List<Commit> filterOutMergeCommits(List<Commit> commits) {
-        return commits.stream()
-                .filter(commit -> !isMergeCommit(commit))
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * Determina si un commit es un merge commit basándose en:
-     * 1. Número de parents: >= 2 parents indica merge de múltiples ramas
-     * 2. Mensaje del commit: comienza con "Merge pull request" o "Merge branch"
-     */
-    private boolean isMergeCommit(Commit commit) {
-        // Criterio 1: Commits con 2 o más parents son merge commits
-        if (commit.getParents() != null && commit.getParents().size() >= 2) {
-            return true;
-        }
-
-        // Criterio 2: Mensaje comienza con patrones típicos de merge
-        if (commit.getMessage() != null && !commit.getMessage().isEmpty()) {
-            String messageLower = commit.getMessage().toLowerCase();
-            return messageLower.startsWith("merge pull request") ||
-                    messageLower.startsWith("merge branch") ||
-                    messageLower.startsWith("merge remote-tracking branch");
-        }
-
-        return false;
-    }
-}
\ No newline at end of file
+}
@@ -20,21 +20,36 @@ public class LeadTimeCalculationService {
     private final DeploymentRepository deploymentRepository;
     private final CommitRepository commitRepository;
     private final ChangeLeadTimeRepository changeLeadTimeRepository;
+    private final LeadTimeFactRepository leadTimeFactRepository;
+    private final UserRepository userRepository;
 
     public LeadTimeCalculationService(DeploymentRepository deploymentRepository,
                                       CommitRepository commitRepository,
-                                      ChangeLeadTimeRepository changeLeadTimeRepository) {
+                                      ChangeLeadTimeRepository changeLeadTimeRepository,
+                                      LeadTimeFactRepository leadTimeFactRepository,
+                                      UserRepository userRepository) {
         this.deploymentRepository = deploymentRepository;
         this.commitRepository = commitRepository;
         this.changeLeadTimeRepository = changeLeadTimeRepository;
+        this.leadTimeFactRepository = leadTimeFactRepository;
+        this.userRepository = userRepository;
     }
 
     @Transactional
     public void calculate() {
         List<Deployment> unprocessedDeployments = deploymentRepository.findByLeadTimeProcessedFalseAndEnvironment(PRODUCTION_ENVIRONMENT, SORT_BY_CREATED_AT_ASC);
         List<Deployment> processedDeployments = new ArrayList<>();
+        Map<String, Optional<Long>> teamIdsByAuthor = new HashMap<>();
 
         for (Deployment currentDeployment : unprocessedDeployments) {
+            // Without a deployment date there is no lead time to measure, and lead_time_fact.deployed_at is
+            // not null; skip it for good, as the V7 backfill does
+            if (currentDeployment.getCreatedAt() == null) {
+                currentDeployment.setLeadTimeProcessed(true);
+                processedDeployments.add(currentDeployment);
+                continue;
+            }
+
             Long repositoryId = currentDeployment.getRepository().getId();
 
             Optional<Deployment> previousDeploymentOpt = deploymentRepository.findFirstByRepositoryIdAndEnvironmentAndCreatedAtBefore(
@@ -58,6 +73,13 @@ public class LeadTimeCalculationService {
                         })
                         .collect(Collectors.toList());
                 changeLeadTimeRepository.saveAll(leadTimes);
+
+                // 4. Denormalized copy the dashboards read with a single range scan
+                List<LeadTimeFact> facts = leadTimes.stream()
+                        .map(leadTime -> new LeadTimeFact(leadTime,
+                                teamIdOf(leadTime.getCommit().getAuthor(), teamIdsByAuthor)))
+                        .collect(Collectors.toList());
+                leadTimeFactRepository.saveAll(facts);
             }
 
             currentDeployment.setLeadTimeProcessed(true);
@@ -69,6 +91,19 @@ public class LeadTimeCalculationService {
         }
     }
 
+    /**
+     * Team of the commit author when the lead time is calculated, looked up once per author and run.
+     */
+    private Long teamIdOf(String author, Map<String, Optional<Long>> teamIdsByAuthor) {
+        if (author == null) {
+            return null;
+        }
+        return teamIdsByAuthor.computeIfAbsent(author.toLowerCase(), key -> userRepository
+                        .findByGithubUsernameIgnoreCase(key)
+                        .map(User::getTeamId))
+                .orElse(null);
+    }
+
     private Set<String> getAllCommitsForDeployment(Deployment deployment, Long repositoryId) {
         Set<Commit> commits = getAllCommitsForDeployment(deployment, repositoryId, Collections.emptySet());
         return commits.stream()
@@ -5,6 +5,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -16,13 +18,16 @@ public class TeamManagementService {
     private final TeamRepository teamRepository;
     private final UserRepository userRepository;
     private final RepositoryConfigRepository repositoryConfigRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     public TeamManagementService(TeamRepository teamRepository,
                                  UserRepository userRepository,
-                                 RepositoryConfigRepository repositoryConfigRepository) {
+                                 RepositoryConfigRepository repositoryConfigRepository,
+                                 ReferenceDataCache referenceDataCache) {
         this.teamRepository = teamRepository;
         this.userRepository = userRepository;
         this.repositoryConfigRepository = repositoryConfigRepository;
+        this.referenceDataCache = referenceDataCache;
     }
 
     /**
@@ -37,6 +42,7 @@ public class TeamManagementService {
 
         Team team = new Team(request.getName());
         team = teamRepository.save(team);
+        referenceDataCache.evictTeams();
 
         // Assign tech leads if provided
         if (request.getTechLeadIds() != null && !request.getTechLeadIds().isEmpty()) {
@@ -63,6 +69,7 @@ public class TeamManagementService {
 
         team.setName(request.getName());
         team = teamRepository.save(team);
+        referenceDataCache.evictTeams();
 
         // Update tech leads if provided
         if (request.getTechLeadIds() != null) {
@@ -72,6 +79,7 @@ public class TeamManagementService {
                 techLead.setTeamId(null);
                 userRepository.save(techLead);
             }
+            referenceDataCache.evictUsers();
 
             // Assign new tech leads
             for (Long techLeadId : request.getTechLeadIds()) {
@@ -97,6 +105,7 @@ public class TeamManagementService {
         }
 
         teamRepository.delete(team);
+        referenceDataCache.evictTeams();
     }
 
     /**
@@ -114,13 +123,40 @@ public class TeamManagementService {
     }
 
     /**
-     * Get all teams
+     * Get a page of teams ordered by id, starting after the {@code after} cursor (see {@link KeysetPage}); all
+     * teams when neither the cursor nor the limit is given.
+     * Member, tech lead and repository counts come from grouped queries over the whole page, so the number of
+     * queries does not grow with the page size.
      */
     @Transactional(readOnly = true)
-    public List<TeamResponse> getAllTeams() {
-        return teamRepository.findAll().stream()
-                .map(this::buildTeamResponse)
-                .collect(Collectors.toList());
+    public KeysetPage<TeamResponse> getTeams(Long after, Integer limit) {
+        KeysetPage<Team> page = KeysetPage.read(after, limit, teamRepository::findByIdGreaterThanOrderByIdAsc,
+                Team::getId);
+        if (page.items().isEmpty()) {
+            return new KeysetPage<>(List.of(), null);
+        }
+
+        List<Long> teamIds = page.items().stream().map(Team::getId).toList();
+        Map<Long, TeamMemberCount> memberCounts = userRepository.countMembersByTeam(teamIds, RoleName.TECH_LEAD)
+                .stream()
+                .collect(Collectors.toMap(TeamMemberCount::teamId, Function.identity()));
+        Map<Long, Long> repositoryCounts = teamRepository.countRepositoriesByTeam(teamIds).stream()
+                .collect(Collectors.toMap(TeamRepositoryCount::teamId, TeamRepositoryCount::repositories));
+        Map<Long, List<Long>> techLeadIds = userRepository.findByTeamIdInAndRoles_Name(teamIds, RoleName.TECH_LEAD)
+                .stream()
+                .collect(Collectors.groupingBy(User::getTeamId, Collectors.mapping(User::getId, Collectors.toList())));
+
+        return page.map(team -> {
+            TeamMemberCount counts = memberCounts.get(team.getId());
+            return new TeamResponse(
+                    team.getId(),
+                    team.getName(),
+                    counts == null ? 0 : counts.members().intValue(),
+                    counts == null ? 0 : counts.withRole().intValue(),
+                    repositoryCounts.getOrDefault(team.getId(), 0L).intValue(),
+                    techLeadIds.getOrDefault(team.getId(), List.of())
+            );
+        });
     }
 
     /**
@@ -148,6 +184,7 @@ public class TeamManagementService {
 
             user.setTeamId(teamId);
             userRepository.save(user);
+            referenceDataCache.evictUsers();
         }
     }
 
@@ -165,6 +202,7 @@ public class TeamManagementService {
 
         user.setTeamId(null);
         userRepository.save(user);
+        referenceDataCache.evictUsers();
     }
 
     /**
@@ -180,6 +218,7 @@ public class TeamManagementService {
 
         team.addRepository(repository);
         teamRepository.save(team);
+        referenceDataCache.evictTeams();
     }
 
     /**
@@ -195,6 +234,7 @@ public class TeamManagementService {
 
         team.removeRepository(repository);
         teamRepository.save(team);
+        referenceDataCache.evictTeams();
     }
 
     /**
@@ -244,6 +284,7 @@ public class TeamManagementService {
 
         user.setTeamId(teamId);
         userRepository.save(user);
+        referenceDataCache.evictUsers();
     }
 
     private TeamResponse buildTeamResponse(Team team) {
@@ -4,6 +4,7 @@ import org.grubhart.pucp.tesis.module_domain.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -16,33 +17,32 @@ import java.util.OptionalDouble;
  * Este servicio agrega métricas de todos los miembros del equipo del tech lead.
  */
 @Service
+// Solo lecturas: con una réplica configurada (dora.datasource.replica.url) estas consultas se sirven desde ella
+@ReadFromReplica
+@Transactional(readOnly = true)
 public class TechLeadDashboardService {
 
     private static final Logger logger = LoggerFactory.getLogger(TechLeadDashboardService.class);
-    private static final long INCIDENT_CORRELATION_WINDOW_HOURS = 48;
 
     private final UserRepository userRepository;
     private final TeamRepository teamRepository;
     private final CommitRepository commitRepository;
-    private final ChangeLeadTimeRepository changeLeadTimeRepository;
+    private final LeadTimeFactRepository leadTimeFactRepository;
     private final IncidentRepository incidentRepository;
     private final PullRequestRepository pullRequestRepository;
-    private final CommitParentRepository commitParentRepository;
 
     public TechLeadDashboardService(UserRepository userRepository,
                                     TeamRepository teamRepository,
                                     CommitRepository commitRepository,
-                                    ChangeLeadTimeRepository changeLeadTimeRepository,
+                                    LeadTimeFactRepository leadTimeFactRepository,
                                     IncidentRepository incidentRepository,
-                                    PullRequestRepository pullRequestRepository,
-                                    CommitParentRepository commitParentRepository) {
+                                    PullRequestRepository pullRequestRepository) {
         this.userRepository = userRepository;
         this.teamRepository = teamRepository;
         this.commitRepository = commitRepository;
-        this.changeLeadTimeRepository = changeLeadTimeRepository;
+        this.leadTimeFactRepository = leadTimeFactRepository;
         this.incidentRepository = incidentRepository;
         this.pullRequestRepository = pullRequestRepository;
-        this.commitParentRepository = commitParentRepository;
     }
 
     /**
@@ -97,7 +97,8 @@ public class TechLeadDashboardService {
                 allTeamMembers.size(), filteredMembers.size());
 
         // Obtener commits de todos los miembros filtrados
-        List<Commit> teamCommits = getTeamCommits(filteredMembers);
+        Set<String> memberAuthorKeys = authorKeys(filteredMembers);
+        List<Commit> teamCommits = getTeamCommits(memberAuthorKeys);
 
         if (teamCommits.isEmpty()) {
             logger.warn("No se encontraron commits para los miembros del equipo");
@@ -110,9 +111,14 @@ public class TechLeadDashboardService {
         logger.debug("Después de aplicar filtros: {} commits (de {} totales)",
                 filteredCommits.size(), teamCommits.size());
 
+        // PRs de los miembros, leídos una vez para el equipo y para cada miembro
+        List<PullRequest> teamPullRequests = filteredCommits.isEmpty()
+                ? Collections.emptyList()
+                : pullRequestRepository.findByFirstCommitAuthorKeys(memberAuthorKeys);
+
         // Calcular estadísticas por miembro
         List<TeamMemberStatsDto> memberStats = calculateMemberStats(filteredMembers, filteredCommits,
-                startDate, endDate, repositoryIds);
+                teamPullRequests, startDate, endDate, repositoryIds);
 
         // Agrupar commits filtrados por repositorio
         Map<RepositoryConfig, List<Commit>> commitsByRepository = filteredCommits.stream()
@@ -137,7 +143,7 @@ public class TechLeadDashboardService {
         CommitStatsDto commitStats = calculateCommitStats(filteredCommits, commitsByRepository.size());
 
         // Calcular estadísticas de Pull Requests
-        PullRequestStatsDto pullRequestStats = calculatePullRequestStats(filteredCommits);
+        PullRequestStatsDto pullRequestStats = calculatePullRequestStats(filteredCommits, teamPullRequests);
 
         // Calcular métricas DORA
         TeamDoraMetricsDto doraMetrics = calculateDoraMetrics(filteredCommits, startDate, endDate, repositoryIds);
@@ -176,26 +182,24 @@ public class TechLeadDashboardService {
     }
 
     /**
-     * Obtiene todos los commits de una lista de usuarios.
-     * Filtra commits de merge que no representan trabajo real.
+     * Usernames de GitHub de los miembros en minúsculas, como se comparan con el autor de los commits.
      */
-    private List<Commit> getTeamCommits(List<User> members) {
-        Set<String> memberUsernames = members.stream()
+    private Set<String> authorKeys(List<User> members) {
+        return members.stream()
                 .map(User::getGithubUsername)
                 .map(String::toLowerCase)
                 .collect(Collectors.toSet());
+    }
 
-        List<Commit> allTeamCommits = commitRepository.findAll().stream()
-                .filter(commit -> memberUsernames.contains(commit.getAuthor().toLowerCase()))
-                .collect(Collectors.toList());
-
-        // Filtrar commits de merge (no representan trabajo real del equipo)
-        List<Commit> filteredCommits = filterOutMergeCommits(allTeamCommits);
+    /**
+     * Obtiene los commits de los autores indicados, sin los de merge (no representan trabajo real del equipo).
+     */
+    private List<Commit> getTeamCommits(Set<String> authorKeys) {
+        List<Commit> teamCommits = commitRepository.findNonMergeByAuthorKeys(authorKeys);
 
-        logger.debug("Team commits: {} totales, {} después de filtrar merge commits",
-                allTeamCommits.size(), filteredCommits.size());
+        logger.debug("Team commits: {} sin contar merge commits", teamCommits.size());
 
-        return filteredCommits;
+        return teamCommits;
     }
 
     /**
@@ -203,9 +207,15 @@ public class TechLeadDashboardService {
      */
     private List<TeamMemberStatsDto> calculateMemberStats(List<User> members,
                                                            List<Commit> filteredCommits,
+                                                           List<PullRequest> pullRequests,
                                                            LocalDate startDate,
                                                            LocalDate endDate,
                                                            List<Long> repositoryIds) {
+        // Una sola lectura para todo el equipo, repartida luego por autor
+        Map<String, List<LeadTimeFact>> leadTimesByAuthor = findLeadTimeFacts(filteredCommits, startDate, endDate,
+                repositoryIds).stream()
+                .collect(Collectors.groupingBy(LeadTimeFact::getAuthorKey));
+
         return members.stream()
                 .map(member -> {
                     String username = member.getGithubUsername().toLowerCase();
@@ -218,13 +228,15 @@ public class TechLeadDashboardService {
                     long totalCommits = memberCommits.size();
 
                     // Calcular PRs del miembro
-                    PullRequestStatsDto memberPRStats = calculatePullRequestStats(memberCommits);
+                    PullRequestStatsDto memberPRStats = calculatePullRequestStats(memberCommits, pullRequests);
+
+                    List<LeadTimeFact> memberLeadTimes = leadTimesByAuthor.getOrDefault(username, Collections.emptyList());
 
                     // Calcular lead time promedio del miembro
-                    Double averageLeadTime = calculateAverageLeadTime(memberCommits, startDate, endDate, repositoryIds);
+                    Double averageLeadTime = calculateAverageLeadTime(memberLeadTimes);
 
                     // Contar deployments del miembro
-                    long deploymentCount = countDeployments(memberCommits, startDate, endDate, repositoryIds);
+                    long deploymentCount = countDeployments(memberLeadTimes);
 
                     return new TeamMemberStatsDto(
                             member.getId(),
@@ -243,56 +255,25 @@ public class TechLeadDashboardService {
     }
 
     /**
-     * Calcula el lead time promedio para una lista de commits.
+     * Calcula el lead time promedio de los lead times de un miembro.
      */
-    private Double calculateAverageLeadTime(List<Commit> commits,
-                                            LocalDate startDate,
-                                            LocalDate endDate,
-                                            List<Long> repositoryIds) {
-        if (commits.isEmpty()) {
-            return null;
-        }
-
-        Set<String> commitShas = commits.stream()
-                .map(Commit::getSha)
-                .collect(Collectors.toSet());
-
-        List<ChangeLeadTime> leadTimes = changeLeadTimeRepository.findAll().stream()
-                .filter(lt -> commitShas.contains(lt.getCommit().getSha()))
-                .filter(lt -> applyDeploymentDateFilter(lt.getDeployment(), startDate, endDate))
-                .filter(lt -> applyRepositoryFilter(lt.getDeployment(), repositoryIds))
-                .collect(Collectors.toList());
-
+    private Double calculateAverageLeadTime(List<LeadTimeFact> leadTimes) {
         if (leadTimes.isEmpty()) {
             return null;
         }
 
         return leadTimes.stream()
-                .mapToDouble(lt -> lt.getLeadTimeInSeconds() / 3600.0)
+                .mapToDouble(lt -> lt.getLeadTimeSeconds() / 3600.0)
                 .average()
                 .orElse(0.0);
     }
 
     /**
-     * Cuenta la cantidad de deployments únicos para una lista de commits.
+     * Cuenta la cantidad de deployments únicos de los lead times de un miembro.
      */
-    private long countDeployments(List<Commit> commits,
-                                   LocalDate startDate,
-                                   LocalDate endDate,
-                                   List<Long> repositoryIds) {
-        if (commits.isEmpty()) {
-            return 0;
-        }
-
-        Set<String> commitShas = commits.stream()
-                .map(Commit::getSha)
-                .collect(Collectors.toSet());
-
-        return changeLeadTimeRepository.findAll().stream()
-                .filter(lt -> commitShas.contains(lt.getCommit().getSha()))
-                .filter(lt -> applyDeploymentDateFilter(lt.getDeployment(), startDate, endDate))
-                .filter(lt -> applyRepositoryFilter(lt.getDeployment(), repositoryIds))
-                .map(lt -> lt.getDeployment().getId())
+    private long countDeployments(List<LeadTimeFact> leadTimes) {
+        return leadTimes.stream()
+                .map(LeadTimeFact::getDeploymentId)
                 .distinct()
                 .count();
     }
@@ -324,10 +305,10 @@ public class TechLeadDashboardService {
     }
 
     /**
-     * Calcula estadísticas de Pull Requests.
-     * Reutiliza la lógica del DeveloperDashboardService.
+     * Calcula estadísticas de Pull Requests: los PRs cuyo primer commit (firstCommitSha) es uno de los commits
+     * indicados. {@code pullRequests} son los PRs de todos los autores del dashboard, leídos una sola vez.
      */
-    private PullRequestStatsDto calculatePullRequestStats(List<Commit> commits) {
+    private PullRequestStatsDto calculatePullRequestStats(List<Commit> commits, List<PullRequest> pullRequests) {
         if (commits.isEmpty()) {
             return new PullRequestStatsDto(0L, 0L, 0L);
         }
@@ -336,18 +317,8 @@ public class TechLeadDashboardService {
                 .map(Commit::getSha)
                 .collect(Collectors.toSet());
 
-        Map<String, List<String>> parentToChildren = buildParentToChildrenMap();
-        List<PullRequest> allPullRequests = pullRequestRepository.findAll();
-
-        List<PullRequest> relevantPullRequests = allPullRequests.stream()
-                .filter(pr -> {
-                    if (pr.getFirstCommitSha() == null) {
-                        return false;
-                    }
-                    Set<String> prCommits = findAllDescendants(pr.getFirstCommitSha(), parentToChildren);
-                    prCommits.add(pr.getFirstCommitSha());
-                    return prCommits.stream().anyMatch(commitShas::contains);
-                })
+        List<PullRequest> relevantPullRequests = pullRequests.stream()
+                .filter(pr -> commitShas.contains(pr.getFirstCommitSha()))
                 .collect(Collectors.toList());
 
         long totalPullRequests = relevantPullRequests.size();
@@ -361,47 +332,6 @@ public class TechLeadDashboardService {
         return new PullRequestStatsDto(totalPullRequests, mergedPullRequests, openPullRequests);
     }
 
-    /**
-     * Construye un mapa de parent SHA -> lista de children SHAs.
-     */
-    private Map<String, List<String>> buildParentToChildrenMap() {
-        List<CommitParent> allCommitParents = commitParentRepository.findAll();
-        Map<String, List<String>> parentToChildren = new HashMap<>();
-
-        for (CommitParent cp : allCommitParents) {
-            String parentSha = cp.getParent().getSha();
-            String childSha = cp.getCommit().getSha();
-            parentToChildren.computeIfAbsent(parentSha, k -> new ArrayList<>()).add(childSha);
-        }
-
-        return parentToChildren;
-    }
-
-    /**
-     * Encuentra todos los commits descendientes de un commit dado.
-     */
-    private Set<String> findAllDescendants(String startSha, Map<String, List<String>> parentToChildren) {
-        Set<String> descendants = new HashSet<>();
-        Queue<String> queue = new LinkedList<>();
-        queue.add(startSha);
-
-        while (!queue.isEmpty()) {
-            String currentSha = queue.poll();
-            List<String> children = parentToChildren.get(currentSha);
-
-            if (children != null) {
-                for (String childSha : children) {
-                    if (!descendants.contains(childSha)) {
-                        descendants.add(childSha);
-                        queue.add(childSha);
-                    }
-                }
-            }
-        }
-
-        return descendants;
-    }
-
     /**
      * Calcula métricas DORA agregadas del equipo.
      */
@@ -419,15 +349,7 @@ public class TechLeadDashboardService {
             );
         }
 
-        Set<String> commitShas = commits.stream()
-                .map(Commit::getSha)
-                .collect(Collectors.toSet());
-
-        List<ChangeLeadTime> leadTimes = changeLeadTimeRepository.findAll().stream()
-                .filter(lt -> commitShas.contains(lt.getCommit().getSha()))
-                .filter(lt -> applyDeploymentDateFilter(lt.getDeployment(), startDate, endDate))
-                .filter(lt -> applyRepositoryFilter(lt.getDeployment(), repositoryIds))
-                .collect(Collectors.toList());
+        List<LeadTimeFact> leadTimes = findLeadTimeFacts(commits, startDate, endDate, repositoryIds);
 
         if (leadTimes.isEmpty()) {
             return new TeamDoraMetricsDto(
@@ -440,7 +362,7 @@ public class TechLeadDashboardService {
         }
 
         DoubleSummaryStatistics leadTimeStats = leadTimes.stream()
-                .mapToDouble(lt -> lt.getLeadTimeInSeconds() / 3600.0)
+                .mapToDouble(lt -> lt.getLeadTimeSeconds() / 3600.0)
                 .summaryStatistics();
 
         double averageLeadTimeHours = leadTimeStats.getAverage();
@@ -449,17 +371,15 @@ public class TechLeadDashboardService {
         long deploymentCommitCount = leadTimes.size();
 
         Set<Long> uniqueDeploymentIds = leadTimes.stream()
-                .map(lt -> lt.getDeployment().getId())
+                .map(LeadTimeFact::getDeploymentId)
                 .collect(Collectors.toSet());
         long totalDeploymentCount = uniqueDeploymentIds.size();
 
-        List<Deployment> deployments = leadTimes.stream()
-                .map(ChangeLeadTime::getDeployment)
-                .distinct()
-                .collect(Collectors.toList());
-
-        List<Incident> allIncidents = incidentRepository.findAll();
-        Set<Long> failedDeploymentIds = identifyFailedDeployments(deployments, allIncidents);
+        // Deployments marcados como fallidos al correlacionarse con un incidente
+        Set<Long> failedDeploymentIds = leadTimes.stream()
+                .filter(LeadTimeFact::isFailed)
+                .map(LeadTimeFact::getDeploymentId)
+                .collect(Collectors.toSet());
         long failedDeploymentCount = failedDeploymentIds.size();
 
         Double changeFailureRate = totalDeploymentCount > 0
@@ -467,7 +387,7 @@ public class TechLeadDashboardService {
                 : null;
 
         // Calculate MTTR metrics
-        List<Incident> resolvedIncidents = filterResolvedIncidents(allIncidents, deployments, startDate, endDate, repositoryIds);
+        List<Incident> resolvedIncidents = findResolvedIncidents(leadTimes, startDate, endDate, repositoryIds);
         Double averageMTTRHours = null;
         Double minMTTRHours = null;
         Double maxMTTRHours = null;
@@ -505,87 +425,32 @@ public class TechLeadDashboardService {
     }
 
     /**
-     * Filtra incidentes resueltos relacionados con los deployments del equipo,
-     * aplicando los mismos filtros que las otras métricas DORA.
+     * Incidentes resueltos de los repositorios de los deployments (o de los pedidos), con los mismos filtros de
+     * fecha que las otras métricas DORA.
      */
-    private List<Incident> filterResolvedIncidents(List<Incident> allIncidents,
-                                                    List<Deployment> deployments,
-                                                    LocalDate startDate,
-                                                    LocalDate endDate,
-                                                    List<Long> repositoryIds) {
-        // Obtener los IDs de repositorios relevantes
-        Set<Long> relevantRepoIds = deployments.stream()
-                .map(d -> d.getRepository().getId())
+    private List<Incident> findResolvedIncidents(List<LeadTimeFact> leadTimes,
+                                                 LocalDate startDate,
+                                                 LocalDate endDate,
+                                                 List<Long> repositoryIds) {
+        // Sin filtro de repositorio, solo los repositorios con deployments en el rango
+        Collection<Long> relevantRepoIds = repositoryIds != null && !repositoryIds.isEmpty()
+                ? repositoryIds
+                : leadTimes.stream()
+                .map(LeadTimeFact::getRepositoryId)
                 .collect(Collectors.toSet());
 
-        return allIncidents.stream()
-                .filter(incident -> incident.getState() == IncidentState.RESOLVED)
-                .filter(incident -> incident.getDurationSeconds() != null)
-                .filter(incident -> {
-                    // Aplicar filtro de fecha basado en startTime del incidente
-                    LocalDate incidentDate = incident.getStartTime().toLocalDate();
-                    if (startDate != null && incidentDate.isBefore(startDate)) {
-                        return false;
-                    }
-                    if (endDate != null && incidentDate.isAfter(endDate)) {
-                        return false;
-                    }
-                    return true;
-                })
-                .filter(incident -> {
-                    // Aplicar filtro de repositorio
-                    if (repositoryIds != null && !repositoryIds.isEmpty()) {
-                        return incident.getRepository() != null
-                                && repositoryIds.contains(incident.getRepository().getId());
-                    }
-                    // Si no hay filtro de repositorio, usar solo incidentes de repos relevantes
-                    return incident.getRepository() != null
-                            && relevantRepoIds.contains(incident.getRepository().getId());
-                })
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * Identifica deployments que causaron incidentes.
-     */
-    private Set<Long> identifyFailedDeployments(List<Deployment> deployments, List<Incident> allIncidents) {
-        Set<Long> failedDeploymentIds = new HashSet<>();
-
-        for (Deployment deployment : deployments) {
-            LocalDateTime deploymentTime = deployment.getCreatedAt();
-            LocalDateTime windowEnd = deploymentTime.plusHours(INCIDENT_CORRELATION_WINDOW_HOURS);
-
-            boolean hasIncident = allIncidents.stream()
-                    .anyMatch(incident -> {
-                        boolean withinTimeWindow = !incident.getStartTime().isBefore(deploymentTime)
-                                && incident.getStartTime().isBefore(windowEnd);
-
-                        if (deployment.getServiceName() != null && incident.getServiceName() != null) {
-                            return withinTimeWindow
-                                    && deployment.getServiceName().equals(incident.getServiceName());
-                        }
-
-                        return withinTimeWindow
-                                && deployment.getRepository().getId().equals(incident.getRepository().getId());
-                    });
-
-            if (hasIncident) {
-                failedDeploymentIds.add(deployment.getId());
-            }
-        }
-
-        return failedDeploymentIds;
+        return incidentRepository.findResolvedInRepositoriesStartedBetween(relevantRepoIds,
+                DashboardPeriod.from(startDate), DashboardPeriod.to(endDate));
     }
 
     /**
      * Calcula series de tiempo diarias del equipo.
      */
-    private List<TeamDailyMetricDto> calculateDailyTimeSeries(List<ChangeLeadTime> leadTimes,
+    private List<TeamDailyMetricDto> calculateDailyTimeSeries(List<LeadTimeFact> leadTimes,
                                                               Set<Long> failedDeploymentIds,
                                                               List<Incident> resolvedIncidents) {
-        Map<LocalDate, List<ChangeLeadTime>> leadTimesByDate = leadTimes.stream()
-                .collect(Collectors.groupingBy(lt ->
-                        lt.getDeployment().getCreatedAt().toLocalDate()));
+        Map<LocalDate, List<LeadTimeFact>> leadTimesByDate = leadTimes.stream()
+                .collect(Collectors.groupingBy(lt -> lt.getDeployedAt().toLocalDate()));
 
         Map<LocalDate, List<Incident>> incidentsByDate = resolvedIncidents.stream()
                 .collect(Collectors.groupingBy(incident ->
@@ -598,7 +463,7 @@ public class TechLeadDashboardService {
 
         return allDates.stream()
                 .map(date -> {
-                    List<ChangeLeadTime> dailyLeadTimes = leadTimesByDate.getOrDefault(date, Collections.emptyList());
+                    List<LeadTimeFact> dailyLeadTimes = leadTimesByDate.getOrDefault(date, Collections.emptyList());
                     List<Incident> dailyIncidents = incidentsByDate.getOrDefault(date, Collections.emptyList());
 
                     Double avgLeadTimeHours = null;
@@ -608,12 +473,12 @@ public class TechLeadDashboardService {
 
                     if (!dailyLeadTimes.isEmpty()) {
                         avgLeadTimeHours = dailyLeadTimes.stream()
-                                .mapToDouble(lt -> lt.getLeadTimeInSeconds() / 3600.0)
+                                .mapToDouble(lt -> lt.getLeadTimeSeconds() / 3600.0)
                                 .average()
                                 .orElse(0.0);
 
                         Set<Long> dailyDeploymentIds = dailyLeadTimes.stream()
-                                .map(lt -> lt.getDeployment().getId())
+                                .map(LeadTimeFact::getDeploymentId)
                                 .collect(Collectors.toSet());
                         deploymentCount = dailyDeploymentIds.size();
                         commitCount = dailyLeadTimes.size();
@@ -658,15 +523,8 @@ public class TechLeadDashboardService {
             return commits;
         }
 
-        Set<String> commitShas = commits.stream()
-                .map(Commit::getSha)
-                .collect(Collectors.toSet());
-
-        Set<String> filteredCommitShas = changeLeadTimeRepository.findAll().stream()
-                .filter(lt -> commitShas.contains(lt.getCommit().getSha()))
-                .filter(lt -> applyDeploymentDateFilter(lt.getDeployment(), startDate, endDate))
-                .filter(lt -> applyRepositoryFilter(lt.getDeployment(), repositoryIds))
-                .map(lt -> lt.getCommit().getSha())
+        Set<String> filteredCommitShas = findLeadTimeFacts(commits, startDate, endDate, repositoryIds).stream()
+                .map(LeadTimeFact::getCommitSha)
                 .collect(Collectors.toSet());
 
         return commits.stream()
@@ -675,35 +533,34 @@ public class TechLeadDashboardService {
     }
 
     /**
-     * Aplica filtro de fecha sobre el deployment.
+     * Lead times de los commits indicados cuyo deployment cae en el rango de fechas y en los repositorios pedidos.
+     * Se leen de {@code lead_time_fact} por autor con una sola consulta por rango; sin fechas el rango queda abierto.
      */
-    private boolean applyDeploymentDateFilter(Deployment deployment, LocalDate startDate, LocalDate endDate) {
-        if (startDate == null && endDate == null) {
-            return true;
-        }
-
-        LocalDate deploymentDate = deployment.getCreatedAt().toLocalDate();
-
-        if (startDate != null && deploymentDate.isBefore(startDate)) {
-            return false;
-        }
-
-        if (endDate != null && deploymentDate.isAfter(endDate)) {
-            return false;
+    private List<LeadTimeFact> findLeadTimeFacts(List<Commit> commits,
+                                                 LocalDate startDate,
+                                                 LocalDate endDate,
+                                                 List<Long> repositoryIds) {
+        Set<String> authorKeys = commits.stream()
+                .map(Commit::getAuthor)
+                .filter(Objects::nonNull)
+                .map(String::toLowerCase)
+                .collect(Collectors.toSet());
+        if (authorKeys.isEmpty()) {
+            return Collections.emptyList();
         }
 
-        return true;
-    }
-
-    /**
-     * Aplica filtro de repositorios sobre el deployment.
-     */
-    private boolean applyRepositoryFilter(Deployment deployment, List<Long> repositoryIds) {
-        if (repositoryIds == null || repositoryIds.isEmpty()) {
-            return true;
-        }
+        List<LeadTimeFact> facts = repositoryIds == null || repositoryIds.isEmpty()
+                ? leadTimeFactRepository.findByAuthorsDeployedBetween(authorKeys,
+                        DashboardPeriod.from(startDate), DashboardPeriod.to(endDate))
+                : leadTimeFactRepository.findByAuthorsDeployedBetweenInRepositories(authorKeys,
+                        DashboardPeriod.from(startDate), DashboardPeriod.to(endDate), repositoryIds);
 
-        return repositoryIds.contains(deployment.getRepository().getId());
+        Set<String> commitShas = commits.stream()
+                .map(Commit::getSha)
+                .collect(Collectors.toSet());
+        return facts.stream()
+                .filter(lt -> commitShas.contains(lt.getCommitSha()))
+                .collect(Collectors.toList());
     }
 
     /**
@@ -727,43 +584,4 @@ public class TechLeadDashboardService {
                 )
         );
     }
-
-    /**
-     * Filtra commits de merge que no representan trabajo real del equipo.
-     * Los commits de merge se guardan en la BD para mantener el grafo de commits,
-     * pero no deben contarse en las métricas del equipo.
-     *
-     * @param commits Lista de commits a filtrar
-     * @return Lista de commits sin merge commits
-     */
-    private List<Commit> filterOutMergeCommits(List<Commit> commits) {
-        return commits.stream()
-                .filter(commit -> !isMergeCommit(commit))
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * Determina si un commit es un merge commit basándose en:
-     * 1. Número de parents: >= 2 parents indica merge de múltiples ramas
-     * 2. Mensaje del commit: comienza con "Merge pull request" o "Merge branch"
-     *
-     * @param commit El commit a evaluar
-     * @return true si es un merge commit, false en caso contrario
-     */
-    private boolean isMergeCommit(Commit commit) {
-        // Criterio 1: Commits con 2 o más parents son merge commits
-        if (commit.getParents() != null && commit.getParents().size() >= 2) {
-            return true;
-        }
-
-        // Criterio 2: Mensaje comienza con patrones típicos de merge
-        if (commit.getMessage() != null && !commit.getMessage().isEmpty()) {
-            String messageLower = commit.getMessage().toLowerCase();
-            return messageLower.startsWith("merge pull request") ||
-                   messageLower.startsWith("merge branch") ||
-                   messageLower.startsWith("merge remote-tracking branch");
-        }
-
-        return false;
-    }
 }
@@ -0,0 +1,7 @@
+-- Se retira el archivo histórico de V4: ningún dashboard leía los resúmenes mensuales y activar el job borraba
+-- el detalle de los períodos viejos, que los dashboards entonces mostraban vacíos. Las tablas de detalle se
+-- consultan por rango con los índices de V2, V7 y V9.
+
+drop table if exists deployment_monthly_summary;
+drop table if exists incident_monthly_summary;
+drop table if exists commit_monthly_summary;
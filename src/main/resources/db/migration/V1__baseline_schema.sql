@@ -0,0 +1,209 @@
+-- Esquema base: las tablas tal como Hibernate las generaba con ddl-auto=create-drop (MySQL 8, InnoDB).
+-- A partir de esta versión el esquema solo cambia con migraciones; Hibernate únicamente lo valida.
+
+create table repository_config (
+    id                             bigint not null,
+    datadog_service_name           varchar(255),
+    deployment_workflow_file_name  varchar(255),
+    repository_url                 varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+-- Secuencias emuladas de los ids con GenerationType.AUTO (MySQL no tiene secuencias)
+create table repository_config_seq (
+    next_val bigint
+) engine=InnoDB;
+insert into repository_config_seq values (1);
+
+create table commit (
+    sha            varchar(255) not null,
+    author         varchar(255),
+    date           datetime(6),
+    message        longtext,
+    repository_id  bigint not null,
+    primary key (sha),
+    constraint fk_commit_repository foreign key (repository_id) references repository_config (id)
+) engine=InnoDB;
+
+create table commit_parent (
+    id          bigint not null,
+    commit_sha  varchar(255) not null,
+    parent_sha  varchar(255) not null,
+    primary key (id),
+    constraint uk_commit_parent_edge unique (commit_sha, parent_sha),
+    constraint fk_commit_parent_commit foreign key (commit_sha) references commit (sha),
+    constraint fk_commit_parent_parent foreign key (parent_sha) references commit (sha)
+) engine=InnoDB;
+
+create table commit_parent_seq (
+    next_val bigint
+) engine=InnoDB;
+insert into commit_parent_seq values (1);
+
+create table commit_sync_cursors (
+    id              bigint not null auto_increment,
+    branch          varchar(255) not null,
+    head_sha        varchar(40) not null,
+    repository_url  varchar(255) not null,
+    updated_at      datetime(6) not null,
+    primary key (id),
+    constraint uk_commit_sync_cursors_repository_branch unique (repository_url, branch)
+) engine=InnoDB;
+
+create table pull_requests (
+    id                bigint not null,
+    created_at        datetime(6) not null,
+    first_commit_sha  varchar(255),
+    merged_at         datetime(6),
+    state             varchar(255) not null,
+    repository_id     bigint not null,
+    primary key (id),
+    constraint fk_pull_requests_repository foreign key (repository_id) references repository_config (id)
+) engine=InnoDB;
+
+create table deployment (
+    id                   bigint not null auto_increment,
+    change_failure       bit not null,
+    conclusion           varchar(255),
+    created_at           datetime(6),
+    environment          varchar(255),
+    github_id            bigint,
+    head_branch          varchar(255),
+    lead_time_processed  bit not null,
+    name                 varchar(255),
+    service_name         varchar(255),
+    sha                  varchar(255),
+    status               varchar(255),
+    updated_at           datetime(6),
+    repository_id        bigint not null,
+    primary key (id),
+    constraint uk_deployment_github_id unique (github_id),
+    constraint fk_deployment_repository foreign key (repository_id) references repository_config (id)
+) engine=InnoDB;
+
+create table change_lead_time (
+    id                    bigint not null auto_increment,
+    lead_time_in_seconds  bigint not null,
+    commit_sha            varchar(255),
+    deployment_id         bigint,
+    primary key (id),
+    constraint fk_change_lead_time_commit foreign key (commit_sha) references commit (sha),
+    constraint fk_change_lead_time_deployment foreign key (deployment_id) references deployment (id)
+) engine=InnoDB;
+
+create table incidents (
+    id                   bigint not null auto_increment,
+    created_at           datetime(6) not null,
+    datadog_incident_id  varchar(255) not null,
+    duration_seconds     bigint,
+    resolved_time        datetime(6),
+    service_name         varchar(255),
+    severity             enum ('SEV1','SEV2','SEV3','SEV4','SEV5'),
+    start_time           datetime(6) not null,
+    state                enum ('ACTIVE','STABLE','RESOLVED') not null,
+    title                varchar(255) not null,
+    updated_at           datetime(6) not null,
+    repository_id        bigint not null,
+    primary key (id),
+    constraint uk_incidents_datadog_incident_id unique (datadog_incident_id),
+    constraint fk_incidents_repository foreign key (repository_id) references repository_config (id)
+) engine=InnoDB;
+
+create table roles (
+    id    bigint not null auto_increment,
+    name  enum ('ADMIN','ENGINEERING_MANAGER','TECH_LEAD','DEVELOPER') not null,
+    primary key (id),
+    constraint uk_roles_name unique (name)
+) engine=InnoDB;
+
+create table users (
+    id               bigint not null auto_increment,
+    active           bit not null,
+    avatar_url       varchar(255),
+    email            varchar(255),
+    github_id        bigint not null,
+    github_username  varchar(255) not null,
+    name             varchar(255),
+    team_id          bigint,
+    primary key (id),
+    constraint uk_users_github_id unique (github_id),
+    constraint uk_users_github_username unique (github_username)
+) engine=InnoDB;
+
+create table user_roles (
+    user_id  bigint not null,
+    role_id  bigint not null,
+    primary key (user_id, role_id),
+    constraint fk_user_roles_user foreign key (user_id) references users (id),
+    constraint fk_user_roles_role foreign key (role_id) references roles (id)
+) engine=InnoDB;
+
+create table teams (
+    id    bigint not null auto_increment,
+    name  varchar(255) not null,
+    primary key (id),
+    constraint uk_teams_name unique (name)
+) engine=InnoDB;
+
+create table team_repositories (
+    team_id               bigint not null,
+    repository_config_id  bigint not null,
+    primary key (team_id, repository_config_id),
+    constraint fk_team_repositories_team foreign key (team_id) references teams (id),
+    constraint fk_team_repositories_repository foreign key (repository_config_id) references repository_config (id)
+) engine=InnoDB;
+
+create table sync_status (
+    job_name             varchar(255) not null,
+    last_successful_run  datetime(6),
+    primary key (job_name)
+) engine=InnoDB;
+
+create table sync_lock (
+    lock_name     varchar(255) not null,
+    locked_at     datetime(6),
+    locked_by     varchar(255),
+    locked_until  datetime(6),
+    primary key (lock_name)
+) engine=InnoDB;
+
+create table sync_tasks (
+    id               bigint not null auto_increment,
+    attempts         integer not null,
+    created_at       datetime(6) not null,
+    finished_at      datetime(6),
+    last_error       varchar(1000),
+    next_attempt_at  datetime(6) not null,
+    repository_url   varchar(255) not null,
+    stage            enum ('COMMITS') not null,
+    started_at       datetime(6),
+    status           enum ('PENDING','RUNNING','SUCCEEDED','QUARANTINED') not null,
+    window_end       datetime(6) not null,
+    window_start     datetime(6) not null,
+    primary key (id),
+    constraint uk_sync_tasks_window unique (repository_url, stage, window_start, window_end),
+    index idx_sync_tasks_status_next_attempt (status, next_attempt_at)
+) engine=InnoDB;
+
+-- Registro de publicaciones de eventos de Spring Modulith (JPA). El mapeo pertenece a la librería, así que
+-- estas tablas se excluyen de la validación de Hibernate (ver ApplicationSchemaFilterProvider).
+create table event_publication (
+    id                binary(16) not null,
+    completion_date   datetime(6),
+    event_type        varchar(512),
+    listener_id       varchar(512),
+    publication_date  datetime(6),
+    serialized_event  longtext,
+    primary key (id),
+    index idx_event_publication_completion_date (completion_date)
+) engine=InnoDB;
+
+create table event_publication_archive (
+    id                binary(16) not null,
+    completion_date   datetime(6),
+    event_type        varchar(512),
+    listener_id       varchar(512),
+    publication_date  datetime(6),
+    serialized_event  longtext,
+    primary key (id)
+) engine=InnoDB;
@@ -0,0 +1,17 @@
+-- Índices compuestos para las consultas calientes de la sincronización y de los dashboards.
+-- Los mismos índices están declarados en las entidades (@Table(indexes = ...)).
+
+-- Commits de un repositorio por autor y fecha (dashboards de developer y tech lead)
+create index idx_commit_repository_author_date on commit (repository_id, author, date);
+
+-- Recorrido del grafo hacia los hijos de un commit; commit_sha ya está cubierto por la unique (commit_sha, parent_sha)
+create index idx_commit_parent_parent_sha on commit_parent (parent_sha);
+
+-- Frecuencia de deployments y correlación con incidentes, por repositorio y por ambiente
+create index idx_deployment_repository_environment_created on deployment (repository_id, environment, created_at);
+create index idx_deployment_environment_created on deployment (environment, created_at);
+-- Pendientes del cálculo de lead time (lead_time_processed = false), en orden de creación
+create index idx_deployment_lead_time_pending on deployment (lead_time_processed, environment, created_at);
+
+-- Incidentes de un servicio por estado y fecha de inicio (MTTR y CFR)
+create index idx_incidents_service_state_start on incidents (service_name, state, start_time);
@@ -0,0 +1,30 @@
+-- Deployments, incidentes y lead times dejan de usar auto_increment: con IDENTITY Hibernate necesita el id de
+-- cada fila al insertarla y no puede agrupar los INSERT en lotes JDBC. Pasan a un generador de secuencia que en
+-- MySQL se emula con una tabla <tabla>_seq y reserva los ids de a 100 (allocationSize de las entidades).
+-- Cada secuencia arranca por encima del mayor id existente más un bloque completo.
+
+set foreign_key_checks = 0;
+
+alter table deployment modify id bigint not null;
+alter table change_lead_time modify id bigint not null;
+alter table incidents modify id bigint not null;
+
+set foreign_key_checks = 1;
+
+create table deployment_seq (
+    next_val bigint
+) engine=InnoDB;
+insert into deployment_seq select coalesce(max(id), 0) + 101 from deployment;
+
+create table change_lead_time_seq (
+    next_val bigint
+) engine=InnoDB;
+insert into change_lead_time_seq select coalesce(max(id), 0) + 101 from change_lead_time;
+
+create table incidents_seq (
+    next_val bigint
+) engine=InnoDB;
+insert into incidents_seq select coalesce(max(id), 0) + 101 from incidents;
+
+-- commit_parent ya usaba una secuencia (de a 50); el nuevo bloque es de 100
+update commit_parent_seq set next_val = (select coalesce(max(id), 0) + 101 from commit_parent);
@@ -0,0 +1,41 @@
+-- Resúmenes mensuales de la historia archivada. El job de archivado (HistoryArchivalService) agrega por mes las
+-- filas más antiguas que el horizonte configurado y luego las borra, así las tablas de detalle solo conservan el
+-- período que los dashboards consultan fila a fila.
+
+create table deployment_monthly_summary (
+    id                        bigint not null auto_increment,
+    repository_id             bigint not null,
+    environment               varchar(255) not null,
+    month_start               date not null,
+    deployment_count          bigint not null,
+    failed_deployment_count   bigint not null,
+    lead_time_count           bigint not null,
+    lead_time_seconds_total   bigint not null,
+    lead_time_seconds_min     bigint,
+    lead_time_seconds_max     bigint,
+    primary key (id),
+    constraint uk_deployment_monthly_summary unique (repository_id, environment, month_start),
+    constraint fk_deployment_monthly_summary_repository foreign key (repository_id) references repository_config (id)
+) engine=InnoDB;
+
+create table incident_monthly_summary (
+    id                      bigint not null auto_increment,
+    repository_id           bigint not null,
+    month_start             date not null,
+    incident_count          bigint not null,
+    duration_seconds_total  bigint not null,
+    primary key (id),
+    constraint uk_incident_monthly_summary unique (repository_id, month_start),
+    constraint fk_incident_monthly_summary_repository foreign key (repository_id) references repository_config (id)
+) engine=InnoDB;
+
+create table commit_monthly_summary (
+    id             bigint not null auto_increment,
+    repository_id  bigint not null,
+    author         varchar(255) not null,
+    month_start    date not null,
+    commit_count   bigint not null,
+    primary key (id),
+    constraint uk_commit_monthly_summary unique (repository_id, author, month_start),
+    constraint fk_commit_monthly_summary_repository foreign key (repository_id) references repository_config (id)
+) engine=InnoDB;
@@ -0,0 +1,26 @@
+-- El mensaje de cada commit sale de la tabla commit a commit_message, comprimido, y solo se lee al pedirlo.
+-- Lo único que los dashboards necesitaban del mensaje (si es de merge) queda precalculado en merge_message, así
+-- las consultas y recorridos sobre commit leen filas angostas.
+-- COMPRESS() produce el mismo formato que CommitMessage: largo original en 4 bytes seguido del stream zlib.
+-- Sin FK hacia commit: los mensajes se insertan antes que su commit y se borran junto con él.
+
+create table commit_message (
+    sha   varchar(255) not null,
+    body  longblob,
+    primary key (sha)
+) engine=InnoDB;
+
+insert into commit_message (sha, body)
+select sha, compress(message) from commit;
+
+alter table commit
+    add column merge_message bit not null default 0;
+
+update commit
+set merge_message = 1
+where lower(message) like 'merge pull request%'
+   or lower(message) like 'merge branch%'
+   or lower(message) like 'merge remote-tracking branch%';
+
+alter table commit
+    drop column message;
@@ -0,0 +1,46 @@
+-- Los SHA de commit pasan de varchar(255) con el hex a varbinary(20) con los 20 bytes del SHA-1 (ShaConverter hace
+-- la conversión en la aplicación). La clave de commit y todas las columnas que la referencian ocupan la mitad, y los
+-- índices y joins del grafo de commits (commit_parent) también.
+-- Para comparar el tamaño de los índices antes y después:
+--   select table_name, index_name, stat_value * @@innodb_page_size as bytes
+--   from mysql.innodb_index_stats
+--   where database_name = database() and stat_name = 'size'
+--     and table_name in ('commit', 'commit_message', 'commit_parent', 'change_lead_time', 'pull_requests');
+-- Cada columna pasa primero a varbinary con el mismo texto, se reemplaza por unhex() y luego se acota a 20 bytes.
+-- unhex() devuelve NULL para un valor que no es hex; en las columnas not null eso hace fallar la migración en lugar
+-- de perder el dato.
+
+alter table commit_parent
+    drop foreign key fk_commit_parent_commit,
+    drop foreign key fk_commit_parent_parent;
+alter table change_lead_time drop foreign key fk_change_lead_time_commit;
+
+alter table commit modify sha varbinary(255) not null;
+update commit set sha = unhex(sha);
+alter table commit modify sha varbinary(20) not null;
+
+alter table commit_message modify sha varbinary(255) not null;
+update commit_message set sha = unhex(sha);
+alter table commit_message modify sha varbinary(20) not null;
+
+alter table commit_parent
+    modify commit_sha varbinary(255) not null,
+    modify parent_sha varbinary(255) not null;
+update commit_parent set commit_sha = unhex(commit_sha), parent_sha = unhex(parent_sha);
+alter table commit_parent
+    modify commit_sha varbinary(20) not null,
+    modify parent_sha varbinary(20) not null;
+
+alter table change_lead_time modify commit_sha varbinary(255);
+update change_lead_time set commit_sha = unhex(commit_sha) where commit_sha is not null;
+alter table change_lead_time modify commit_sha varbinary(20);
+
+alter table pull_requests modify first_commit_sha varbinary(255);
+update pull_requests set first_commit_sha = unhex(first_commit_sha) where first_commit_sha is not null;
+alter table pull_requests modify first_commit_sha varbinary(20);
+
+alter table commit_parent
+    add constraint fk_commit_parent_commit foreign key (commit_sha) references commit (sha),
+    add constraint fk_commit_parent_parent foreign key (parent_sha) references commit (sha);
+alter table change_lead_time
+    add constraint fk_change_lead_time_commit foreign key (commit_sha) references commit (sha);
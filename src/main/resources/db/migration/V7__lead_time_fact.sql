@@ -0,0 +1,50 @@
+-- Copia desnormalizada de change_lead_time para los dashboards (entidad LeadTimeFact): cada fila trae del commit el
+-- autor en minúsculas y si es de merge, y del deployment la fecha, el repositorio, el servicio y si falló, además
+-- del equipo del autor. Los dashboards leen un rango de (author_key, deployed_at) sin el join
+-- change_lead_time → commit → deployment. LeadTimeCalculationService la escribe junto con change_lead_time y
+-- DeploymentFailureCorrelator mantiene al día la columna failed.
+-- Sin FK hacia commit ni deployment: el archivado histórico borra estas filas por rango de deployed_at.
+
+create table lead_time_fact (
+    id                 bigint not null,
+    commit_sha         varbinary(20) not null,
+    deployment_id      bigint not null,
+    repository_id      bigint not null,
+    team_id            bigint,
+    author_key         varchar(255),
+    deployed_at        datetime(6) not null,
+    lead_time_seconds  bigint not null,
+    service_name       varchar(255),
+    failed             bit not null,
+    merge_commit       bit not null,
+    primary key (id),
+    constraint uk_lead_time_fact_deployment_commit unique (deployment_id, commit_sha),
+    index idx_lead_time_fact_author_deployed (author_key, deployed_at),
+    index idx_lead_time_fact_team_deployed (team_id, deployed_at),
+    index idx_lead_time_fact_repository_deployed (repository_id, deployed_at)
+) engine=InnoDB;
+
+-- Carga inicial con los lead times existentes; el equipo es el actual de cada autor
+insert into lead_time_fact (id, commit_sha, deployment_id, repository_id, team_id, author_key, deployed_at,
+                            lead_time_seconds, service_name, failed, merge_commit)
+select lt.id,
+       lt.commit_sha,
+       d.id,
+       d.repository_id,
+       u.team_id,
+       lower(c.author),
+       d.created_at,
+       lt.lead_time_in_seconds,
+       d.service_name,
+       d.change_failure,
+       c.merge_message or (select count(*) from commit_parent cp where cp.commit_sha = c.sha) >= 2
+from change_lead_time lt
+         join deployment d on d.id = lt.deployment_id
+         join commit c on c.sha = lt.commit_sha
+         left join users u on lower(u.github_username) = lower(c.author)
+where d.created_at is not null;
+
+create table lead_time_fact_seq (
+    next_val bigint
+) engine=InnoDB;
+insert into lead_time_fact_seq select coalesce(max(id), 0) + 101 from lead_time_fact;
@@ -0,0 +1,18 @@
+-- Aristas de commit_parent cuyo padre todavía no está guardado (entidad PendingCommitParent). CommitSyncService
+-- las dejaba en memoria hasta terminar la ventana, así que en un backfill grande la memoria crecía con la ventana
+-- y las que el padre no alcanzaba a resolver dentro de ella se perdían. Ahora esperan aquí, sin FK hacia commit,
+-- y cada lote pasa a commit_parent las que esperan a alguno de sus commits.
+
+create table pending_commit_parent (
+    id         bigint not null,
+    commit_sha varbinary(20) not null,
+    parent_sha varbinary(20) not null,
+    primary key (id),
+    constraint uk_pending_commit_parent unique (commit_sha, parent_sha),
+    index idx_pending_commit_parent_parent_sha (parent_sha)
+) engine=InnoDB;
+
+create table pending_commit_parent_seq (
+    next_val bigint
+) engine=InnoDB;
+insert into pending_commit_parent_seq values (1);
@@ -0,0 +1,12 @@
+-- Los dashboards dejaron de leer commit, pull_requests y commit_parent completos: piden los commits y los PRs de
+-- un conjunto de autores y los incidentes resueltos de unos repositorios en un rango. Índices para esas consultas.
+
+-- Commits por autor sin distinguir mayúsculas (lower(c.author) IN :authorKeys). Índice funcional (MySQL 8.0.13+):
+-- no puede declararse en la entidad con @Index
+create index idx_commit_author_key on commit ((lower(author)));
+
+-- PRs cuyo primer commit es de esos autores
+create index idx_pull_requests_first_commit_sha on pull_requests (first_commit_sha);
+
+-- MTTR: incidentes resueltos de los repositorios del dashboard, por fecha de inicio
+create index idx_incidents_repository_state_start on incidents (repository_id, state, start_time);
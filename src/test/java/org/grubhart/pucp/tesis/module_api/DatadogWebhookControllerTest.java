@@ -0,0 +1,76 @@
+package org.grubhart.pucp.tesis.module_api;
+
+import org.grubhart.pucp.tesis.module_collector.IncidentNotificationReceiver;
+import org.grubhart.pucp.tesis.module_collector.IncidentNotificationResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatadogWebhookControllerTest {
+
+    private static final String TOKEN = "dd-webhook-token";
+    private static final byte[] PAYLOAD = "{}".getBytes(StandardCharsets.UTF_8);
+
+    @Mock
+    private IncidentNotificationReceiver receiver;
+
+    private DatadogWebhookController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new DatadogWebhookController(receiver, TOKEN);
+    }
+
+    @Test
+    @DisplayName("Con token válido debe procesar la notificación y devolver el resultado")
+    void receiveIncident_withValidToken_shouldDelegate() {
+        // Arrange
+        when(receiver.receive(PAYLOAD))
+                .thenReturn(new IncidentNotificationResult("inc-1", IncidentNotificationResult.Status.CREATED, 1));
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = controller.receiveIncident(TOKEN, PAYLOAD);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("CREATED", response.getBody().get("status"));
+        assertEquals(1, response.getBody().get("failedDeployments"));
+    }
+
+    @Test
+    @DisplayName("Con token inválido debe responder 401 sin procesar")
+    void receiveIncident_withInvalidToken_shouldReturnUnauthorized() {
+        // Act
+        ResponseEntity<Map<String, Object>> response = controller.receiveIncident("wrong", PAYLOAD);
+
+        // Assert
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        verify(receiver, never()).receive(any());
+    }
+
+    @Test
+    @DisplayName("Un payload inválido debe responder 400")
+    void receiveIncident_withInvalidPayload_shouldReturnBadRequest() {
+        // Arrange
+        when(receiver.receive(PAYLOAD)).thenThrow(new IllegalArgumentException("missing data"));
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = controller.receiveIncident(TOKEN, PAYLOAD);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+}
@@ -0,0 +1,300 @@
+package org.grubhart.pucp.tesis.module_api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.grubhart.pucp.tesis.module_collector.IngestionKind;
+import org.grubhart.pucp.tesis.module_collector.RepositoryIngestionTrigger;
+import org.grubhart.pucp.tesis.module_domain.GitHubWorkflowRunDto;
+import org.grubhart.pucp.tesis.module_domain.GithubPullRequestDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GithubWebhookControllerTest {
+
+    private static final String SECRET = "webhook-secret";
+
+    @Mock
+    private RepositoryIngestionTrigger ingestionTrigger;
+
+    private GithubWebhookController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new GithubWebhookController(ingestionTrigger, new ObjectMapper().findAndRegisterModules(), SECRET, "");
+    }
+
+    @Test
+    @DisplayName("Un push a la rama por defecto debe encolar el guardado del rango before...after del evento")
+    void pushToDefaultBranch_shouldIngestPushedRange() throws Exception {
+        // Arrange
+        byte[] payload = """
+                {
+                  "ref": "refs/heads/main",
+                  "before": "abc000",
+                  "after": "abc123",
+                  "deleted": false,
+                  "repository": {"name": "repo", "default_branch": "main", "owner": {"login": "owner"}},
+                  "commits": [{"id": "abc123"}]
+                }
+                """.getBytes(StandardCharsets.UTF_8);
+        when(ingestionTrigger.ingestPush("owner", "repo", "abc000", "abc123")).thenReturn(true);
+
+        // Act
+        ResponseEntity<Map<String, String>> response = controller.receiveGithubEvent("push", sign(payload), payload);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        verify(ingestionTrigger).ingestPush("owner", "repo", "abc000", "abc123");
+        verify(ingestionTrigger, never()).enqueue(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Con una rama de commits configurada, deben aceptarse sus push y no los de la rama por defecto")
+    void pushWithConfiguredBranch_shouldFollowThatBranch() throws Exception {
+        // Arrange
+        controller = new GithubWebhookController(ingestionTrigger, new ObjectMapper(), SECRET, "release");
+        byte[] toRelease = pushPayload("refs/heads/release");
+        byte[] toMain = pushPayload("refs/heads/main");
+        when(ingestionTrigger.ingestPush("owner", "repo", "abc000", "abc123")).thenReturn(true);
+
+        // Act
+        ResponseEntity<Map<String, String>> releaseResponse =
+                controller.receiveGithubEvent("push", sign(toRelease), toRelease);
+        ResponseEntity<Map<String, String>> mainResponse = controller.receiveGithubEvent("push", sign(toMain), toMain);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, releaseResponse.getStatusCode());
+        assertEquals(HttpStatus.OK, mainResponse.getStatusCode());
+        verify(ingestionTrigger, times(1)).ingestPush("owner", "repo", "abc000", "abc123");
+    }
+
+    @Test
+    @DisplayName("Un push sin before/after debe recurrir a la sincronización de commits")
+    void pushWithoutRange_shouldFallBackToCommitSync() throws Exception {
+        // Arrange
+        byte[] payload = """
+                {
+                  "ref": "refs/heads/main",
+                  "repository": {"name": "repo", "default_branch": "main", "owner": {"login": "owner"}}
+                }
+                """.getBytes(StandardCharsets.UTF_8);
+        when(ingestionTrigger.enqueue("owner", "repo", IngestionKind.COMMITS)).thenReturn(true);
+
+        // Act
+        ResponseEntity<Map<String, String>> response = controller.receiveGithubEvent("push", sign(payload), payload);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        verify(ingestionTrigger).enqueue("owner", "repo", IngestionKind.COMMITS);
+    }
+
+    @Test
+    @DisplayName("Un push a otra rama debe ignorarse")
+    void pushToFeatureBranch_shouldBeIgnored() throws Exception {
+        // Arrange
+        byte[] payload = """
+                {
+                  "ref": "refs/heads/feature/x",
+                  "repository": {"name": "repo", "default_branch": "main", "owner": {"login": "owner"}}
+                }
+                """.getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        ResponseEntity<Map<String, String>> response = controller.receiveGithubEvent("push", sign(payload), payload);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verifyNoInteractions(ingestionTrigger);
+    }
+
+    @Test
+    @DisplayName("Un evento pull_request debe mapearse al DTO y encolar su guardado")
+    void pullRequestEvent_shouldIngestPullRequest() throws Exception {
+        // Arrange
+        byte[] payload = """
+                {
+                  "action": "closed",
+                  "pull_request": {"id": 42, "number": 7, "state": "closed",
+                                   "created_at": "2025-01-01T10:00:00Z", "merged_at": "2025-01-02T10:00:00Z",
+                                   "title": "unmapped field"},
+                  "repository": {"name": "repo", "owner": {"login": "owner"}}
+                }
+                """.getBytes(StandardCharsets.UTF_8);
+        ArgumentCaptor<GithubPullRequestDto> pullRequest = ArgumentCaptor.forClass(GithubPullRequestDto.class);
+        when(ingestionTrigger.ingestPullRequest(eq("owner"), eq("repo"), pullRequest.capture())).thenReturn(true);
+
+        // Act
+        ResponseEntity<Map<String, String>> response = controller.receiveGithubEvent("pull_request", sign(payload), payload);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(42L, pullRequest.getValue().getId());
+        assertEquals("closed", pullRequest.getValue().getState());
+        assertEquals(LocalDateTime.of(2025, 1, 2, 10, 0), pullRequest.getValue().getMergedAt());
+        verify(ingestionTrigger, never()).enqueue(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Un pull_request que no se puede mapear al DTO debe recurrir a la sincronización de Pull Requests")
+    void unmappablePullRequest_shouldFallBackToPullRequestSync() throws Exception {
+        // Arrange
+        byte[] payload = """
+                {
+                  "action": "opened",
+                  "pull_request": {"id": "not-a-number"},
+                  "repository": {"name": "repo", "owner": {"login": "owner"}}
+                }
+                """.getBytes(StandardCharsets.UTF_8);
+        when(ingestionTrigger.enqueue("owner", "repo", IngestionKind.PULL_REQUESTS)).thenReturn(true);
+
+        // Act
+        ResponseEntity<Map<String, String>> response = controller.receiveGithubEvent("pull_request", sign(payload), payload);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        verify(ingestionTrigger).enqueue("owner", "repo", IngestionKind.PULL_REQUESTS);
+        verify(ingestionTrigger, never()).ingestPullRequest(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Un workflow_run completado con éxito debe encolar el registro de la ejecución")
+    void successfulWorkflowRun_shouldIngestRun() throws Exception {
+        // Arrange
+        byte[] payload = workflowRunPayload("completed", "success");
+        ArgumentCaptor<GitHubWorkflowRunDto> run = ArgumentCaptor.forClass(GitHubWorkflowRunDto.class);
+        when(ingestionTrigger.ingestWorkflowRun(eq("owner"), eq("repo"), run.capture())).thenReturn(true);
+
+        // Act
+        ResponseEntity<Map<String, String>> response = controller.receiveGithubEvent("workflow_run", sign(payload), payload);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(99L, run.getValue().getId());
+        assertEquals("abc123", run.getValue().getHeadSha());
+        assertEquals(".github/workflows/deploy.yml", run.getValue().getPath());
+        verify(ingestionTrigger, never()).enqueue(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Un workflow_run fallido no debe encolar nada")
+    void failedWorkflowRun_shouldBeIgnored() throws Exception {
+        // Arrange
+        byte[] payload = workflowRunPayload("completed", "failure");
+
+        // Act
+        ResponseEntity<Map<String, String>> response = controller.receiveGithubEvent("workflow_run", sign(payload), payload);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verifyNoInteractions(ingestionTrigger);
+    }
+
+    @Test
+    @DisplayName("Un repositorio no configurado debe responder 200 sin encolar")
+    void unknownRepository_shouldReturnOk() throws Exception {
+        // Arrange
+        byte[] payload = workflowRunPayload("completed", "success");
+        when(ingestionTrigger.ingestWorkflowRun(eq("owner"), eq("repo"), any())).thenReturn(false);
+
+        // Act
+        ResponseEntity<Map<String, String>> response = controller.receiveGithubEvent("workflow_run", sign(payload), payload);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Repository not configured.", response.getBody().get("message"));
+    }
+
+    @Test
+    @DisplayName("Una firma inválida debe rechazarse con 401")
+    void invalidSignature_shouldReturnUnauthorized() {
+        // Arrange
+        byte[] payload = workflowRunPayload("completed", "success");
+
+        // Act
+        ResponseEntity<Map<String, String>> response =
+                controller.receiveGithubEvent("workflow_run", "sha256=" + "0".repeat(64), payload);
+
+        // Assert
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        verifyNoInteractions(ingestionTrigger);
+    }
+
+    @Test
+    @DisplayName("Sin secreto configurado debe rechazarse cualquier evento")
+    void missingSecret_shouldReturnUnauthorized() throws Exception {
+        // Arrange
+        controller = new GithubWebhookController(ingestionTrigger, new ObjectMapper(), "", "");
+        byte[] payload = workflowRunPayload("completed", "success");
+
+        // Act
+        ResponseEntity<Map<String, String>> response = controller.receiveGithubEvent("workflow_run", sign(payload), payload);
+
+        // Assert
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Un payload que no es JSON debe responder 400")
+    void malformedPayload_shouldReturnBadRequest() throws Exception {
+        // Arrange
+        byte[] payload = "not-json".getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        ResponseEntity<Map<String, String>> response = controller.receiveGithubEvent("push", sign(payload), payload);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    private static byte[] pushPayload(String ref) {
+        return ("""
+                {
+                  "ref": "%s",
+                  "before": "abc000",
+                  "after": "abc123",
+                  "repository": {"name": "repo", "default_branch": "main", "owner": {"login": "owner"}}
+                }
+                """).formatted(ref).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] workflowRunPayload(String action, String conclusion) {
+        return ("""
+                {
+                  "action": "%s",
+                  "workflow_run": {"id": 99, "name": "Deploy", "head_branch": "main", "head_sha": "abc123",
+                                   "path": ".github/workflows/deploy.yml", "event": "push", "status": "completed", "conclusion": "%s",
+                                   "created_at": "2025-01-01T10:00:00Z", "updated_at": "2025-01-01T10:05:00Z"},
+                  "repository": {"name": "repo", "owner": {"login": "owner"}}
+                }
+                """).formatted(action, conclusion).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String sign(byte[] payload) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return "sha256=" + HexFormat.of().formatHex(mac.doFinal(payload));
+    }
+}
@@ -3,6 +3,8 @@ package org.grubhart.pucp.tesis.module_api;
 import org.grubhart.pucp.tesis.module_api.dto.RepositoryDto;
 import org.grubhart.pucp.tesis.module_api.dto.RepositorySyncResultDto;
 import org.grubhart.pucp.tesis.module_api.dto.UpdateRepositoryRequest;
+import org.grubhart.pucp.tesis.module_domain.KeysetPage;
+import org.grubhart.pucp.tesis.module_domain.ReferenceDataCache;
 import org.grubhart.pucp.tesis.module_domain.RepositoryConfig;
 import org.grubhart.pucp.tesis.module_domain.RepositoryConfigRepository;
 import org.grubhart.pucp.tesis.module_domain.RepositorySyncResult;
@@ -14,6 +16,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -34,6 +38,9 @@ class RepositoryControllerTest {
     @Mock
     private RepositorySyncService repositorySyncService;
 
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
     @InjectMocks
     private RepositoryController repositoryController;
 
@@ -47,15 +54,17 @@ class RepositoryControllerTest {
     }
 
     @Test
-    @DisplayName("GET /repositories - Should return all repositories")
-    void getAllRepositories_shouldReturnAllRepositories() {
+    @DisplayName("GET /repositories - Should return the first page of repositories")
+    void getAllRepositories_shouldReturnFirstPage() {
         // Given
-        when(repositoryConfigRepository.findAll()).thenReturn(List.of(repo1, repo2));
+        when(repositoryConfigRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(101)))
+                .thenReturn(List.of(repo1, repo2));
 
         // When
-        List<RepositoryDto> result = repositoryController.getAllRepositories();
+        ResponseEntity<List<RepositoryDto>> response = repositoryController.getAllRepositories(null, 100);
 
         // Then
+        List<RepositoryDto> result = response.getBody();
         assertThat(result).hasSize(2);
         assertThat(result.get(0).repositoryUrl()).isEqualTo("https://github.com/user/repo1");
         assertThat(result.get(0).datadogServiceName()).isEqualTo("service1");
@@ -67,21 +76,67 @@ class RepositoryControllerTest {
         assertThat(result.get(1).owner()).isEqualTo("user");
         assertThat(result.get(1).repoName()).isEqualTo("repo2");
 
-        verify(repositoryConfigRepository).findAll();
+        assertThat(response.getHeaders().containsKey(HttpHeaders.LINK)).isFalse();
     }
 
     @Test
     @DisplayName("GET /repositories - Should return empty list when no repositories exist")
     void getAllRepositories_whenEmpty_shouldReturnEmptyList() {
         // Given
-        when(repositoryConfigRepository.findAll()).thenReturn(List.of());
+        when(repositoryConfigRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(101))).thenReturn(List.of());
+
+        // When
+        ResponseEntity<List<RepositoryDto>> response = repositoryController.getAllRepositories(null, 100);
+
+        // Then
+        assertThat(response.getBody()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("GET /repositories - Without cursor or limit should read a first page of the maximum size")
+    void getAllRepositories_withoutCursorOrLimit_shouldReadCappedFirstPage() {
+        // Given
+        when(repositoryConfigRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(KeysetPage.MAX_SIZE + 1)))
+                .thenReturn(List.of(repo1, repo2));
+
+        // When
+        ResponseEntity<List<RepositoryDto>> response = repositoryController.getAllRepositories(null, null);
+
+        // Then
+        assertThat(response.getBody()).hasSize(2);
+        assertThat(response.getHeaders().containsKey(HttpHeaders.LINK)).isFalse();
+    }
+
+    @Test
+    @DisplayName("GET /repositories - With only a cursor should use the default page size")
+    void getAllRepositories_withCursorOnly_shouldUseDefaultPageSize() {
+        // Given
+        when(repositoryConfigRepository.findByIdGreaterThanOrderByIdAsc(10L, Limit.of(101))).thenReturn(List.of(repo2));
+
+        // When
+        ResponseEntity<List<RepositoryDto>> response = repositoryController.getAllRepositories(10L, null);
+
+        // Then
+        assertThat(response.getBody()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("GET /repositories - Should link to the next page after the last returned id")
+    void getAllRepositories_whenMoreRepositoriesExist_shouldReturnNextPageLink() {
+        // Given
+        RepositoryConfig repo11 = mock(RepositoryConfig.class);
+        when(repo11.getId()).thenReturn(11L);
+        when(repositoryConfigRepository.findByIdGreaterThanOrderByIdAsc(10L, Limit.of(2)))
+                .thenReturn(List.of(repo11, mock(RepositoryConfig.class)));
 
         // When
-        List<RepositoryDto> result = repositoryController.getAllRepositories();
+        ResponseEntity<List<RepositoryDto>> response = repositoryController.getAllRepositories(10L, 1);
 
         // Then
-        assertThat(result).isEmpty();
-        verify(repositoryConfigRepository).findAll();
+        assertThat(response.getBody()).extracting(RepositoryDto::id).containsExactly(11L);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.LINK))
+                .isEqualTo("</api/v1/repositories?after=11&limit=1>; rel=\"next\"");
+        assertThat(response.getHeaders().getFirst(KeysetResponses.NEXT_CURSOR_HEADER)).isEqualTo("11");
     }
 
     @Test
@@ -143,6 +198,7 @@ class RepositoryControllerTest {
 
         verify(repositoryConfigRepository).findById(repoId);
         verify(repositoryConfigRepository).save(existingRepo);
+        verify(referenceDataCache).evictRepositories();
         assertThat(existingRepo.getDatadogServiceName()).isEqualTo("new-service-name");
     }
 
@@ -1,5 +1,6 @@
 package org.grubhart.pucp.tesis.module_api;
 
+import org.grubhart.pucp.tesis.module_domain.KeysetPage;
 import org.grubhart.pucp.tesis.module_domain.RepositoryConfig;
 import org.grubhart.pucp.tesis.module_processor.*;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,6 +10,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -76,19 +78,63 @@ class TeamControllerTest {
     }
 
     @Test
-    @DisplayName("GET /teams - Should return all teams")
-    void getAllTeams_returnsAllTeams() {
+    @DisplayName("GET /teams - Should return a page of teams")
+    void getAllTeams_returnsPageOfTeams() {
         // Given
-        List<TeamResponse> teams = List.of(teamResponse);
-        when(teamManagementService.getAllTeams()).thenReturn(teams);
+        when(teamManagementService.getTeams(null, 100)).thenReturn(new KeysetPage<>(List.of(teamResponse), null));
 
         // When
-        ResponseEntity<List<TeamResponse>> response = teamController.getAllTeams();
+        ResponseEntity<List<TeamResponse>> response = teamController.getAllTeams(null, 100);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        verify(teamManagementService).getAllTeams();
+        assertThat(response.getHeaders().containsKey(HttpHeaders.LINK)).isFalse();
+        verify(teamManagementService).getTeams(null, 100);
+    }
+
+    @Test
+    @DisplayName("GET /teams - Without cursor or limit the next page link should carry the maximum size")
+    void getAllTeams_withoutCursorOrLimit_linksWithMaximumSize() {
+        // Given
+        when(teamManagementService.getTeams(null, null)).thenReturn(new KeysetPage<>(List.of(teamResponse), 1L));
+
+        // When
+        ResponseEntity<List<TeamResponse>> response = teamController.getAllTeams(null, null);
+
+        // Then
+        assertThat(response.getBody()).hasSize(1);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.LINK))
+                .isEqualTo("</api/v1/teams?after=1&limit=500>; rel=\"next\"");
+    }
+
+    @Test
+    @DisplayName("GET /teams - The next page link should carry the clamped page size")
+    void getAllTeams_withOversizedLimit_linksWithClampedLimit() {
+        // Given
+        when(teamManagementService.getTeams(null, 10_000)).thenReturn(new KeysetPage<>(List.of(teamResponse), 1L));
+
+        // When
+        ResponseEntity<List<TeamResponse>> response = teamController.getAllTeams(null, 10_000);
+
+        // Then
+        assertThat(response.getHeaders().getFirst(HttpHeaders.LINK))
+                .isEqualTo("</api/v1/teams?after=1&limit=500>; rel=\"next\"");
+    }
+
+    @Test
+    @DisplayName("GET /teams - Should link to the next page when there are more teams")
+    void getAllTeams_whenMoreTeamsExist_returnsNextPageLink() {
+        // Given
+        when(teamManagementService.getTeams(null, 1)).thenReturn(new KeysetPage<>(List.of(teamResponse), 1L));
+
+        // When
+        ResponseEntity<List<TeamResponse>> response = teamController.getAllTeams(null, 1);
+
+        // Then
+        assertThat(response.getHeaders().getFirst(HttpHeaders.LINK))
+                .isEqualTo("</api/v1/teams?after=1&limit=1>; rel=\"next\"");
+        assertThat(response.getHeaders().getFirst(KeysetResponses.NEXT_CURSOR_HEADER)).isEqualTo("1");
     }
 
     @Test
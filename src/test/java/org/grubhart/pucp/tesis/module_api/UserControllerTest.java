@@ -8,6 +8,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -30,6 +32,9 @@ class UserControllerTest {
     @Mock
     private RoleRepository roleRepository;
 
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
     @InjectMocks
     private UserController userController;
 
@@ -117,10 +122,12 @@ class UserControllerTest {
 
         List<User> activeUsersFromRepo = List.of(user1, user2);
 
-        when(userRepository.findAllByActiveTrue()).thenReturn(activeUsersFromRepo);
+        when(userRepository.findByActiveTrueAndIdGreaterThanOrderByIdAsc(0L, Limit.of(101)))
+                .thenReturn(activeUsersFromRepo);
 
         // When
-        List<UserSummaryDto> response = userController.getActiveUsers();
+        ResponseEntity<List<UserSummaryDto>> result = userController.getActiveUsers(null, 100);
+        List<UserSummaryDto> response = result.getBody();
 
         // Then
         assertEquals(2, response.size());
@@ -140,6 +147,46 @@ class UserControllerTest {
         assertEquals("url2", response.get(1).avatarUrl());
         assertNotNull(response.get(1).roles(), "Roles should not be null");
         assertTrue(response.get(1).roles().contains("DEVELOPER"), "Should contain DEVELOPER role");
+        assertNull(result.getHeaders().getFirst(KeysetResponses.NEXT_CURSOR_HEADER), "Single page has no next cursor");
+    }
+
+    @Test
+    void getActiveUsers_withoutCursorOrLimit_shouldReadCappedFirstPage() {
+        // Given
+        User user1 = new User(100L, "activeuser", "active@test.com", "Active User", "url1");
+        user1.setId(1L);
+        User user2 = new User(200L, "anotheractive", "another@test.com", "Another User", "url2");
+        user2.setId(2L);
+        when(userRepository.findByActiveTrueAndIdGreaterThanOrderByIdAsc(0L, Limit.of(KeysetPage.MAX_SIZE + 1)))
+                .thenReturn(List.of(user1, user2));
+
+        // When
+        ResponseEntity<List<UserSummaryDto>> result = userController.getActiveUsers(null, null);
+
+        // Then
+        assertEquals(List.of(1L, 2L), result.getBody().stream().map(UserSummaryDto::id).toList());
+        assertNull(result.getHeaders().getFirst(HttpHeaders.LINK), "Short list has no next page");
+    }
+
+    @Test
+    void getActiveUsers_whenMoreUsersExist_shouldReturnCursorOfLastUser() {
+        // Given
+        User user1 = new User(100L, "activeuser", "active@test.com", "Active User", "url1");
+        user1.setId(5L);
+        User user2 = new User(200L, "anotheractive", "another@test.com", "Another User", "url2");
+        user2.setId(7L);
+        User user3 = new User(300L, "thirdactive", "third@test.com", "Third User", "url3");
+        user3.setId(9L);
+        when(userRepository.findByActiveTrueAndIdGreaterThanOrderByIdAsc(4L, Limit.of(3)))
+                .thenReturn(List.of(user1, user2, user3));
+
+        // When
+        ResponseEntity<List<UserSummaryDto>> result = userController.getActiveUsers(4L, 2);
+
+        // Then
+        assertEquals(List.of(5L, 7L), result.getBody().stream().map(UserSummaryDto::id).toList());
+        assertEquals("7", result.getHeaders().getFirst(KeysetResponses.NEXT_CURSOR_HEADER));
+        assertEquals("</api/v1/users?after=7&limit=2>; rel=\"next\"", result.getHeaders().getFirst(HttpHeaders.LINK));
     }
 
     @Test
@@ -167,6 +214,7 @@ class UserControllerTest {
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         verify(userRepository).save(user);
+        verify(referenceDataCache).evictUsers();
         assertTrue(user.getRoles().contains(techLeadRole));
         assertTrue(user.getRoles().contains(developerRole));
         assertEquals(2, user.getRoles().size());
@@ -0,0 +1,96 @@
+package org.grubhart.pucp.tesis.module_collector.config;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebClientConfigTest {
+
+    private MockWebServer mockWebServer;
+    private ConnectionProvider connectionProvider;
+    private WebClient webClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("dora.http.github.max-connections", "2")
+                .withProperty("dora.http.github.response-timeout", "5s");
+        environment.setConversionService(new ApplicationConversionService());
+        WebClientConfig config = new WebClientConfig(environment);
+
+        connectionProvider = config.githubConnectionProvider();
+        webClient = config.githubWebClientBuilder(connectionProvider)
+                .clone()
+                .baseUrl(mockWebServer.url("/").toString())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        connectionProvider.dispose();
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    @DisplayName("Las requests consecutivas a la misma API deben reutilizar la conexión del pool")
+    void consecutiveRequests_shouldReuseConnection() throws InterruptedException {
+        // Arrange
+        mockWebServer.enqueue(new MockResponse().setBody("uno"));
+        mockWebServer.enqueue(new MockResponse().setBody("dos"));
+
+        // Act
+        webClient.get().uri("/first").retrieve().bodyToMono(String.class).block();
+        webClient.get().uri("/second").retrieve().bodyToMono(String.class).block();
+
+        // Assert
+        RecordedRequest first = mockWebServer.takeRequest();
+        RecordedRequest second = mockWebServer.takeRequest();
+        assertThat(first.getSequenceNumber()).isZero();
+        assertThat(second.getSequenceNumber()).as("segunda request sobre la misma conexión").isEqualTo(1);
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("El cliente debe pedir compresión gzip y descomprimir la respuesta")
+    void response_whenGzipped_shouldBeDecoded() throws IOException, InterruptedException {
+        // Arrange
+        mockWebServer.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setHeader("Content-Encoding", "gzip")
+                .setBody(new Buffer().write(gzip("{\"sha\":\"abc123\"}"))));
+
+        // Act
+        String body = webClient.get().uri("/repos/acme/api/commits").retrieve().bodyToMono(String.class).block();
+
+        // Assert
+        assertThat(body).isEqualTo("{\"sha\":\"abc123\"}");
+        assertThat(mockWebServer.takeRequest().getHeader("Accept-Encoding")).contains("gzip");
+    }
+
+    private static byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -1,12 +1,14 @@
 package org.grubhart.pucp.tesis.module_collector.datadog;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
 import org.grubhart.pucp.tesis.module_collector.datadog.dto.DatadogFieldValue;
 import org.grubhart.pucp.tesis.module_collector.datadog.dto.DatadogIncidentFields;
 import org.grubhart.pucp.tesis.module_collector.datadog.dto.DatadogIncidentResponse;
+import org.grubhart.pucp.tesis.module_collector.metrics.CollectorMetrics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -42,7 +44,7 @@ class DatadogIncidentClientTest {
                 .defaultHeader("DD-APPLICATION-KEY", applicationKey)
                 .build();
 
-        datadogClient = new DatadogIncidentClient(webClient);
+        datadogClient = new DatadogIncidentClient(webClient, new CollectorMetrics(new SimpleMeterRegistry()));
     }
 
     @AfterEach
@@ -0,0 +1,185 @@
+package org.grubhart.pucp.tesis.module_collector.datadog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.grubhart.pucp.tesis.module_collector.metrics.CollectorMetrics;
+import org.grubhart.pucp.tesis.module_domain.DatadogServiceData;
+import org.grubhart.pucp.tesis.module_domain.DatadogServicesResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DatadogServiceClientTest {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private MockWebServer mockWebServer;
+    private MutableClock clock;
+    private DatadogServiceClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        WebClient webClient = WebClient.builder()
+                .baseUrl(String.format("http://localhost:%s", mockWebServer.getPort()))
+                .build();
+
+        clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        client = new DatadogServiceClient(webClient, "prod", TTL, clock, new CollectorMetrics(new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    @DisplayName("GIVEN an APM dependency map WHEN fetching services THEN should issue one request and keep only the top-level keys")
+    void shouldFetchOnceAndExtractServiceNames() throws InterruptedException {
+        // Given
+        enqueueServices("""
+                {
+                  "web-store": {"calls": ["orders", "payments"]},
+                  "orders": {"calls": [{"nested": {"ignored": true}}]},
+                  "payments": {"calls": []}
+                }
+                """);
+
+        // When
+        DatadogServicesResponse response = client.getServices();
+
+        // Then
+        assertThat(namesOf(response)).containsExactly("web-store", "orders", "payments");
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+        RecordedRequest request = mockWebServer.takeRequest();
+        assertThat(request.getPath()).isEqualTo("/api/v1/service_dependencies?env=prod");
+    }
+
+    @Test
+    @DisplayName("GIVEN a fresh cached list WHEN fetching services again THEN should not call Datadog")
+    void shouldServeFromCacheWithinTtl() {
+        // Given
+        enqueueServices("{\"web-store\": {\"calls\": []}}");
+        client.getServices();
+
+        // When
+        clock.advance(TTL.minusSeconds(1));
+        DatadogServicesResponse response = client.getServices();
+
+        // Then
+        assertThat(namesOf(response)).containsExactly("web-store");
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("GIVEN a stale cached list WHEN fetching services THEN should return it immediately and refresh in background")
+    void shouldServeStaleListWhileRefreshing() throws InterruptedException {
+        // Given
+        enqueueServices("{\"web-store\": {\"calls\": []}}");
+        client.getServices();
+        enqueueServices("{\"web-store\": {\"calls\": []}, \"checkout\": {\"calls\": []}}");
+
+        // When
+        clock.advance(TTL);
+        DatadogServicesResponse stale = client.getServices();
+
+        // Then
+        assertThat(namesOf(stale)).containsExactly("web-store");
+        assertThat(mockWebServer.takeRequest(5, TimeUnit.SECONDS)).isNotNull(); // initial load
+        assertThat(mockWebServer.takeRequest(5, TimeUnit.SECONDS)).isNotNull(); // background refresh
+
+        List<String> refreshed = namesOf(client.getServices());
+        long deadline = System.currentTimeMillis() + 5000;
+        while (refreshed.size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            refreshed = namesOf(client.getServices());
+        }
+        assertThat(refreshed).containsExactly("web-store", "checkout");
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("GIVEN a failing background refresh WHEN fetching services THEN should keep serving the cached list")
+    void shouldKeepStaleListWhenRefreshFails() throws InterruptedException {
+        // Given
+        enqueueServices("{\"web-store\": {\"calls\": []}}");
+        client.getServices();
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+
+        // When
+        clock.advance(TTL);
+        client.getServices();
+        mockWebServer.takeRequest(5, TimeUnit.SECONDS);
+        mockWebServer.takeRequest(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(namesOf(client.getServices())).containsExactly("web-store");
+    }
+
+    @Test
+    @DisplayName("GIVEN Datadog is unavailable on first load WHEN fetching services THEN should propagate the error")
+    void shouldPropagateErrorWhenInitialLoadFails() {
+        // Given
+        mockWebServer.enqueue(new MockResponse().setResponseCode(403));
+
+        // When / Then
+        assertThrows(RuntimeException.class, () -> client.getServices());
+    }
+
+    private void enqueueServices(String body) {
+        mockWebServer.enqueue(new MockResponse()
+                .setBody(body)
+                .addHeader("Content-Type", "application/json"));
+    }
+
+    private static List<String> namesOf(DatadogServicesResponse response) {
+        return response.data().stream()
+                .map(DatadogServiceData::id)
+                .toList();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(Instant start) {
+            this.now = start;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -4,9 +4,11 @@ import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import org.grubhart.pucp.tesis.module_collector.github.dto.GithubMemberDto;
+import org.grubhart.pucp.tesis.module_collector.metrics.CollectorMetrics;
 import org.grubhart.pucp.tesis.module_domain.*;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,13 +19,17 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -39,13 +45,14 @@ class GithubClientImplTest {
     private GithubClientImpl githubClient;
     private final LocalDateTime since = LocalDateTime.of(2024, 1, 1, 0, 0);
     private static final String ORG_NAME = "test-org";
+    private final CollectorMetrics metrics = new CollectorMetrics(new SimpleMeterRegistry());
 
     @BeforeEach
     void setUp() throws IOException {
         mockWebServer = new MockWebServer();
         mockWebServer.start();
         String baseUrl = String.format("http://localhost:%s", mockWebServer.getPort());
-        githubClient = new GithubClientImpl(WebClient.builder(), baseUrl, "fake-token");
+        githubClient = new GithubClientImpl(WebClient.builder(), baseUrl, "fake-token", metrics);
     }
 
     @AfterEach
@@ -132,7 +139,7 @@ class GithubClientImplTest {
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
         when(responseSpec.toEntityList(GithubRepositoryDto.class)).thenReturn(Mono.empty());
 
-        GithubClientImpl clientWithMock = new GithubClientImpl(mockWebClient);
+        GithubClientImpl clientWithMock = new GithubClientImpl(mockWebClient, metrics);
 
         // Act
         List<GithubRepositoryDto> repos = clientWithMock.getOrgRepositories(ORG_NAME);
@@ -159,7 +166,7 @@ class GithubClientImplTest {
         when(mockResponseEntity.getBody()).thenReturn(null);
         when(mockResponseEntity.getHeaders()).thenReturn(new org.springframework.http.HttpHeaders());
 
-        GithubClientImpl clientWithMock = new GithubClientImpl(mockWebClient);
+        GithubClientImpl clientWithMock = new GithubClientImpl(mockWebClient, metrics);
 
         // Act
         List<GithubRepositoryDto> repos = clientWithMock.getOrgRepositories(ORG_NAME);
@@ -263,6 +270,206 @@ class GithubClientImplTest {
         assertEquals("123", commits.get(0).getSha());
     }
 
+    @Test
+    @DisplayName("streamCommits debe entregar los commits en lotes acotados a través de varias páginas")
+    void streamCommits_shouldDeliverCommitsInBoundedBatchesAcrossPages() {
+        // Arrange
+        String nextPageUrl = String.format("http://localhost:%d/repos/owner/repo/commits?page=2", mockWebServer.getPort());
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("[{\"sha\":\"1\"},{\"sha\":\"2\"},{\"sha\":\"3\"}]")
+                .addHeader("Content-Type", "application/json")
+                .addHeader("Link", "<" + nextPageUrl + ">; rel=\"next\""));
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("[{\"sha\":\"4\"}]")
+                .addHeader("Content-Type", "application/json"));
+
+        List<List<String>> batches = new ArrayList<>();
+
+        // Act
+        int delivered = githubClient.streamCommits("owner", "repo", since, 2,
+                batch -> batches.add(batch.stream().map(GithubCommitDto::getSha).collect(Collectors.toList())));
+
+        // Assert
+        assertEquals(4, delivered);
+        assertThat(batches).containsExactly(List.of("1", "2"), List.of("3"), List.of("4"));
+        assertEquals(2, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    @DisplayName("streamCommits con ventana debe enviar 'until' y la rama, y propagar el fallo de una página intermedia")
+    void streamCommits_withWindow_shouldFailInsteadOfReturningPartialResults() throws InterruptedException {
+        // Arrange
+        String nextPageUrl = String.format("http://localhost:%d/repos/owner/repo/commits?page=2", mockWebServer.getPort());
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("[{\"sha\":\"1\"}]")
+                .addHeader("Content-Type", "application/json")
+                .addHeader("Link", "<" + nextPageUrl + ">; rel=\"next\""));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(502));
+        LocalDateTime until = since.plusDays(30);
+        List<GithubCommitDto> received = new ArrayList<>();
+
+        // Act & Assert
+        assertThrows(RuntimeException.class,
+                () -> githubClient.streamCommits("owner", "repo", "release", since, until, 100, received::addAll));
+        assertThat(received).hasSize(1);
+        assertThat(mockWebServer.takeRequest().getPath()).contains("until=").contains("sha=release");
+    }
+
+    @Test
+    @DisplayName("Un 4xx distinto de 404 no debe dar por completa una ventana de commits")
+    void streamCommits_withWindow_whenPageReturnsClientError_shouldThrow() {
+        // Arrange
+        String nextPageUrl = String.format("http://localhost:%d/repos/owner/repo/commits?page=2", mockWebServer.getPort());
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("[{\"sha\":\"1\"}]")
+                .addHeader("Content-Type", "application/json")
+                .addHeader("Link", "<" + nextPageUrl + ">; rel=\"next\""));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(422));
+
+        // Act & Assert
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> githubClient.streamCommits("owner", "repo", null, since, since.plusDays(30), 100, batch -> { }));
+        assertThat(error).isNotInstanceOf(GithubRateLimitException.class);
+    }
+
+    @Test
+    @DisplayName("Un 429 con Retry-After debe informarse como límite de tasa con la espera indicada")
+    void streamCommits_whenTooManyRequests_shouldThrowRateLimitWithRetryAfter() {
+        // Arrange
+        mockWebServer.enqueue(new MockResponse().setResponseCode(429).addHeader("Retry-After", "120"));
+
+        // Act & Assert
+        GithubRateLimitException error = assertThrows(GithubRateLimitException.class,
+                () -> githubClient.streamCommits("owner", "repo", null, since, since.plusDays(30), 100, batch -> { }));
+        assertThat(error.getRetryAfter()).isEqualTo(Duration.ofSeconds(120));
+    }
+
+    @Test
+    @DisplayName("Un 403 con la cuota agotada debe informarse como límite de tasa hasta el reinicio de la cuota")
+    void getPullRequests_whenQuotaIsExhausted_shouldThrowRateLimit() {
+        // Arrange
+        long reset = Instant.now().plusSeconds(600).getEpochSecond();
+        mockWebServer.enqueue(new MockResponse().setResponseCode(403)
+                .addHeader("X-RateLimit-Remaining", "0")
+                .addHeader("X-RateLimit-Reset", String.valueOf(reset)));
+
+        // Act & Assert
+        GithubRateLimitException error = assertThrows(GithubRateLimitException.class,
+                () -> githubClient.getPullRequests("owner", "repo", since));
+        assertThat(error.getRetryAfter()).isPositive().isLessThanOrEqualTo(Duration.ofSeconds(600));
+    }
+
+    @Test
+    @DisplayName("Un 403 sin límite de tasa es un problema de permisos y no debe reintentarse como tal")
+    void getOrgRepositories_whenForbidden_shouldThrowPlainError() {
+        // Arrange
+        mockWebServer.enqueue(new MockResponse().setResponseCode(403).addHeader("X-RateLimit-Remaining", "4999"));
+
+        // Act & Assert
+        RuntimeException error = assertThrows(RuntimeException.class, () -> githubClient.getOrgRepositories(ORG_NAME));
+        assertThat(error).isNotInstanceOf(GithubRateLimitException.class);
+    }
+
+    @Test
+    @DisplayName("getPullRequests no debe devolver resultados parciales si falla una página intermedia")
+    void getPullRequests_whenLaterPageFails_shouldThrow() {
+        // Arrange
+        String nextPageUrl = String.format("http://localhost:%d/repos/owner/repo/pulls?page=2", mockWebServer.getPort());
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("[{\"id\": 1, \"number\": 1, \"state\": \"open\"}]")
+                .addHeader("Content-Type", "application/json")
+                .addHeader("Link", "<" + nextPageUrl + ">; rel=\"next\""));
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("[{\"sha\": \"first\"}]")
+                .addHeader("Content-Type", "application/json"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> githubClient.getPullRequests("owner", "repo", since));
+    }
+
+    @Test
+    @DisplayName("getHeadSha debe pedir un solo commit de la rama y devolver su SHA")
+    void getHeadSha_shouldReturnNewestCommitOfBranch() throws InterruptedException {
+        // Arrange
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("[{\"sha\":\"head-sha\"}]")
+                .addHeader("Content-Type", "application/json"));
+
+        // Act
+        Optional<String> head = githubClient.getHeadSha("owner", "repo", "main");
+
+        // Assert
+        assertThat(head).contains("head-sha");
+        String path = mockWebServer.takeRequest().getPath();
+        assertThat(path).contains("per_page=1").contains("sha=main");
+    }
+
+    @Test
+    @DisplayName("getHeadSha debe devolver vacío si el repositorio no tiene commits")
+    void getHeadSha_whenRepositoryIsEmpty_shouldReturnEmpty() {
+        // Arrange
+        mockWebServer.enqueue(new MockResponse().setResponseCode(409));
+
+        // Act & Assert
+        assertThat(githubClient.getHeadSha("owner", "repo", null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("streamCommitsBetween debe entregar los commits de todas las páginas de la comparación")
+    void streamCommitsBetween_whenAhead_shouldDeliverCommitsAcrossPages() throws InterruptedException {
+        // Arrange
+        String nextPageUrl = String.format("http://localhost:%d/repos/owner/repo/compare/base...head?page=2", mockWebServer.getPort());
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("{\"status\":\"ahead\",\"ahead_by\":3,\"commits\":[{\"sha\":\"1\"},{\"sha\":\"2\"}],\"files\":[]}")
+                .addHeader("Content-Type", "application/json")
+                .addHeader("Link", "<" + nextPageUrl + ">; rel=\"next\""));
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("{\"status\":\"ahead\",\"ahead_by\":3,\"commits\":[{\"sha\":\"3\"}]}")
+                .addHeader("Content-Type", "application/json"));
+        List<String> received = new ArrayList<>();
+
+        // Act
+        CommitComparison comparison = githubClient.streamCommitsBetween("owner", "repo", "base", "head", 100,
+                batch -> batch.forEach(commit -> received.add(commit.getSha())));
+
+        // Assert
+        assertEquals(CommitComparison.Status.AHEAD, comparison.status());
+        assertEquals(3, comparison.delivered());
+        assertThat(received).containsExactly("1", "2", "3");
+        assertThat(mockWebServer.takeRequest().getPath()).startsWith("/repos/owner/repo/compare/base...head");
+    }
+
+    @Test
+    @DisplayName("streamCommitsBetween no debe entregar commits si la historia diverge")
+    void streamCommitsBetween_whenDiverged_shouldNotDeliverCommits() {
+        // Arrange
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("{\"status\":\"diverged\",\"ahead_by\":2,\"behind_by\":1,\"commits\":[{\"sha\":\"1\"}]}")
+                .addHeader("Content-Type", "application/json"));
+        List<GithubCommitDto> received = new ArrayList<>();
+
+        // Act
+        CommitComparison comparison = githubClient.streamCommitsBetween("owner", "repo", "base", "head", 100, received::addAll);
+
+        // Assert
+        assertEquals(CommitComparison.Status.DIVERGED, comparison.status());
+        assertThat(received).isEmpty();
+    }
+
+    @Test
+    @DisplayName("streamCommitsBetween debe informar BASE_NOT_FOUND si la base ya no existe")
+    void streamCommitsBetween_whenBaseIsGone_shouldReportBaseNotFound() {
+        // Arrange
+        mockWebServer.enqueue(new MockResponse().setResponseCode(404));
+
+        // Act
+        CommitComparison comparison = githubClient.streamCommitsBetween("owner", "repo", "base", "head", 100, batch -> { });
+
+        // Assert
+        assertEquals(CommitComparison.Status.BASE_NOT_FOUND, comparison.status());
+    }
+
     @Test
     void getPullRequests_shouldReturnPullRequestsWhenResponseIsSuccessful() {
         // Arrange
@@ -301,53 +508,76 @@ class GithubClientImplTest {
     }
 
     @Test
-    void getWorkflowRuns_shouldReturnWorkflowRunsWhenResponseIsSuccessful() {
+    @DisplayName("streamWorkflowRuns debe delegar en GitHub los filtros de rama, estado y fecha y recorrer todas las páginas")
+    void streamWorkflowRuns_shouldSendFiltersAndDeliverEveryPage() throws InterruptedException {
         // Arrange
-        String jsonBody = "{\"total_count\":1,\"workflow_runs\":[{\"id\":1,\"status\":\"completed\",\"conclusion\":\"success\",\"created_at\":\"2024-01-01T00:00:00Z\",\"updated_at\":\"2024-01-01T00:00:00Z\"}]}";
-        mockWebServer.enqueue(new MockResponse().setBody(jsonBody).addHeader("Content-Type", "application/json"));
+        String nextPageUrl = String.format("http://localhost:%d/repos/owner/repo/actions/workflows/main.yml/runs?branch=main&page=2", mockWebServer.getPort());
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("{\"total_count\":2,\"workflow_runs\":[{\"id\":1,\"conclusion\":\"success\"}]}")
+                .addHeader("Content-Type", "application/json")
+                .addHeader("Link", "<" + nextPageUrl + ">; rel=\"next\""));
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("{\"total_count\":2,\"workflow_runs\":[{\"id\":2,\"conclusion\":\"success\"}]}")
+                .addHeader("Content-Type", "application/json"));
+        WorkflowRunQuery query = new WorkflowRunQuery("main.yml", "main", "success", null,
+                LocalDateTime.of(2024, 1, 1, 0, 0));
+        List<Long> received = new ArrayList<>();
 
         // Act
-        List<GitHubWorkflowRunDto> runs = githubClient.getWorkflowRuns("owner", "repo", "main.yml", since);
+        int delivered = githubClient.streamWorkflowRuns("owner", "repo", query,
+                page -> page.forEach(run -> received.add(run.getId())));
 
         // Assert
-        assertEquals(1, runs.size());
-        assertEquals(1L, runs.get(0).getId());
-    }
-
-    @Test
-    void getWorkflowRuns_shouldThrowRuntimeExceptionWhenApiReturns5xxError() {
-        // Arrange
-        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
-
-        // Act & Assert
-        assertThrows(RuntimeException.class, () -> {
-            githubClient.getWorkflowRuns("owner", "repo", "main.yml", since);
-        });
+        assertEquals(2, delivered);
+        assertThat(received).containsExactly(1L, 2L);
+        String firstPath = mockWebServer.takeRequest().getPath();
+        assertThat(firstPath).startsWith("/repos/owner/repo/actions/workflows/main.yml/runs")
+                .contains("per_page=100", "exclude_pull_requests=true", "branch=main", "status=success",
+                        "created=%3E%3D2024-01-01T00:00");
+        assertThat(firstPath).doesNotContain("event=");
+        assertThat(mockWebServer.takeRequest().getPath()).endsWith("page=2");
     }
 
     @Test
-    void getWorkflowRuns_shouldReturnEmptyListWhenApiReturns4xxError() {
+    @DisplayName("streamWorkflowRuns debe fallar ante un error en lugar de devolver resultados parciales")
+    void streamWorkflowRuns_whenPageFails_shouldThrow() {
         // Arrange
         mockWebServer.enqueue(new MockResponse().setResponseCode(404));
+        WorkflowRunQuery query = new WorkflowRunQuery("main.yml", "main", "success", null, null);
 
-        // Act
-        List<GitHubWorkflowRunDto> runs = githubClient.getWorkflowRuns("owner", "repo", "main.yml", since);
-
-        // Assert
-        assertTrue(runs.isEmpty());
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> githubClient.streamWorkflowRuns("owner", "repo", query, page -> { }));
     }
 
     @Test
-    void getWorkflowRuns_shouldReturnEmptyListWhenWorkflowRunsFieldIsMissing() {
+    @DisplayName("streamWorkflowRuns debe partir el rango de creación cuando GitHub reporta más de 1000 resultados")
+    void streamWorkflowRuns_whenTotalCountExceedsLimit_shouldSplitCreatedRange() throws InterruptedException {
         // Arrange
-        String jsonBody = "{\"total_count\": 0}";
-        mockWebServer.enqueue(new MockResponse().setBody(jsonBody).addHeader("Content-Type", "application/json"));
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("{\"total_count\":1500,\"workflow_runs\":[{\"id\":1,\"conclusion\":\"success\"}]}")
+                .addHeader("Content-Type", "application/json"));
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("{\"total_count\":900,\"workflow_runs\":[{\"id\":2,\"conclusion\":\"success\"}]}")
+                .addHeader("Content-Type", "application/json"));
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("{\"total_count\":600,\"workflow_runs\":[{\"id\":3,\"conclusion\":\"success\"}]}")
+                .addHeader("Content-Type", "application/json"));
+        WorkflowRunQuery query = new WorkflowRunQuery("main.yml", "main", "success", null,
+                LocalDateTime.of(2024, 1, 1, 0, 0));
+        List<Long> received = new ArrayList<>();
 
         // Act
-        List<GitHubWorkflowRunDto> runs = githubClient.getWorkflowRuns("owner", "repo", "main.yml", since);
+        int delivered = githubClient.streamWorkflowRuns("owner", "repo", query,
+                page -> page.forEach(run -> received.add(run.getId())));
 
         // Assert
-        assertTrue(runs.isEmpty());
+        assertEquals(2, delivered);
+        assertThat(received).containsExactly(2L, 3L);
+        assertThat(mockWebServer.takeRequest().getPath()).contains("created=%3E%3D2024-01-01T00:00");
+        String newerHalf = mockWebServer.takeRequest().getPath();
+        String olderHalf = mockWebServer.takeRequest().getPath();
+        assertThat(newerHalf).containsPattern("created=\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}\\.\\.");
+        assertThat(olderHalf).contains("created=2024-01-01T00:00:00..");
     }
 
     @Test
@@ -380,57 +610,6 @@ class GithubClientImplTest {
         assertNull(githubClient.parseNextPageUrl(Collections.singletonList("<https://api.github.com/malformed-url; rel=\"next\"")));
     }
 
-    @Test
-    void getWorkflowRuns_shouldCorrectlyFilterByDateAndHandleNullTimestamps() {
-        // Arrange
-        String jsonBody = "{\"total_count\":3,\"workflow_runs\":[{\"id\":1,\"status\":\"completed\",\"conclusion\":\"success\",\"created_at\":\"2023-12-31T23:59:59Z\",\"updated_at\":\"2023-12-31T23:59:59Z\"},{\"id\":2,\"status\":\"completed\",\"conclusion\":\"success\",\"created_at\":\"2024-01-01T00:00:00Z\",\"updated_at\":\"2024-01-01T00:00:00Z\"},{\"id\":3,\"status\":\"completed\",\"conclusion\":\"success\",\"created_at\":null,\"updated_at\":\"2024-01-02T00:00:00Z\"}]}";
-        mockWebServer.enqueue(new MockResponse().setBody(jsonBody).addHeader("Content-Type", "application/json"));
-
-        // Act
-        List<GitHubWorkflowRunDto> runs = githubClient.getWorkflowRuns("owner", "repo", "main.yml", since);
-
-        // Assert
-        assertEquals(2, runs.size());
-        assertTrue(runs.stream().anyMatch(run -> run.getId() == 2L));
-        assertTrue(runs.stream().anyMatch(run -> run.getId() == 3L));
-        assertFalse(runs.stream().anyMatch(run -> run.getId() == 1L));
-    }
-
-    @Test
-    void getWorkflowRuns_shouldHandleSinglePageResponseWithoutLinkHeader() {
-        // Arrange
-        String jsonBody = "{\"total_count\":1,\"workflow_runs\":[{\"id\":1,\"status\":\"completed\",\"conclusion\":\"success\",\"created_at\":\"2024-01-01T00:00:00Z\",\"updated_at\":\"2024-01-01T00:00:00Z\"}]}";
-        mockWebServer.enqueue(
-            new MockResponse()
-                .setBody(jsonBody)
-                .addHeader("Content-Type", "application/json")
-        );
-
-        // Act
-        List<GitHubWorkflowRunDto> runs = githubClient.getWorkflowRuns("owner", "repo", "main.yml", since);
-
-        // Assert
-        assertEquals(1, runs.size());
-        assertEquals(1L, runs.get(0).getId());
-    }
-
-    @Test
-    void getWorkflowRuns_stopsPagingWhenNoLinkHeaderIsPresent() throws Exception {
-        // Arrange
-        String jsonBody = "{\"total_count\":1,\"workflow_runs\":[{\"id\":1,\"status\":\"completed\",\"conclusion\":\"success\",\"created_at\":\"2024-01-01T00:00:00Z\",\"updated_at\":\"2024-01-01T00:00:00Z\"}]}";
-        mockWebServer.enqueue(
-            new MockResponse()
-                .setBody(jsonBody)
-                .addHeader("Content-Type", "application/json")
-        );
-
-        // Act
-        githubClient.getWorkflowRuns("owner", "repo", "main.yml", since);
-
-        // Assert
-        assertEquals(1, mockWebServer.getRequestCount());
-    }
-
     @Test
     void parseNextPageUrl_shouldHandleNullInLinkHeaderList() {
         // Arrange
@@ -476,7 +655,7 @@ class GithubClientImplTest {
         when(responseSpec.toEntityList(GithubPullRequestDto.class)).thenReturn(Mono.justOrEmpty(null));
 
         // Creamos una instancia del cliente con nuestro WebClient mockeado
-        GithubClientImpl clientWithMock = new GithubClientImpl(mockWebClient);
+        GithubClientImpl clientWithMock = new GithubClientImpl(mockWebClient, metrics);
 
         // 2. Act
         List<GithubPullRequestDto> pullRequests = clientWithMock.getPullRequests("owner", "repo", since);
@@ -514,7 +693,7 @@ class GithubClientImplTest {
         when(responseSpec.toEntityList(GithubPullRequestDto.class)).thenReturn(Mono.just(mockResponseEntity));
 
         // Creamos una instancia del cliente con nuestro WebClient mockeado
-        GithubClientImpl clientWithMock = new GithubClientImpl(mockWebClient);
+        GithubClientImpl clientWithMock = new GithubClientImpl(mockWebClient, metrics);
 
         // 2. Act
         List<GithubPullRequestDto> pullRequests = clientWithMock.getPullRequests("owner", "repo", since);
@@ -528,76 +707,6 @@ class GithubClientImplTest {
         verify(mockWebClient, times(1)).get();
     }
 
-    @Test
-    @DisplayName("getWorkflowRuns debe detenerse si la respuesta de la API es nula")
-    void getWorkflowRuns_shouldStopWhenResponseIsNull() {
-        // 1. Arrange
-        // Creamos un mock de WebClient y su cadena de llamadas
-        WebClient mockWebClient = mock(WebClient.class);
-        WebClient.RequestHeadersUriSpec requestHeadersUriSpec = mock(WebClient.RequestHeadersUriSpec.class);
-        WebClient.RequestHeadersSpec requestHeadersSpec = mock(WebClient.RequestHeadersSpec.class);
-        WebClient.ResponseSpec responseSpec = mock(WebClient.ResponseSpec.class);
-
-        // Configuramos la cadena de mocks para que devuelva un Mono que resulta en 'null'
-        when(mockWebClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
-        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        // La clave está aquí: toEntity(...).block() devolverá null
-        when(responseSpec.toEntity(GitHubWorkflowRunsResponse.class)).thenReturn(Mono.justOrEmpty(null));
-
-        // Creamos una instancia del cliente con nuestro WebClient mockeado
-        GithubClientImpl clientWithMock = new GithubClientImpl(mockWebClient);
-
-        // 2. Act
-        List<GitHubWorkflowRunDto> workflowRuns = clientWithMock.getWorkflowRuns("owner", "repo", "workflow.yml", since);
-
-        // 3. Assert
-        // Verificamos que la lista de runs está vacía, ya que el bucle se rompió en la primera iteración.
-        assertThat(workflowRuns).isNotNull();
-        assertThat(workflowRuns).isEmpty();
-
-        // Verificamos que el método get() del webclient fue llamado una vez, y no más.
-        verify(mockWebClient, times(1)).get();
-    }
-
-    @Test
-    @DisplayName("getWorkflowRuns debe detenerse si la respuesta de la API no tiene cuerpo")
-    void getWorkflowRuns_shouldStopWhenResponseHasNoBody() {
-        // 1. Arrange
-        // Creamos un mock de WebClient y su cadena de llamadas
-        WebClient mockWebClient = mock(WebClient.class);
-        WebClient.RequestHeadersUriSpec requestHeadersUriSpec = mock(WebClient.RequestHeadersUriSpec.class);
-        WebClient.RequestHeadersSpec requestHeadersSpec = mock(WebClient.RequestHeadersSpec.class);
-        WebClient.ResponseSpec responseSpec = mock(WebClient.ResponseSpec.class);
-
-        // Creamos una ResponseEntity mockeada
-        ResponseEntity<GitHubWorkflowRunsResponse> mockResponseEntity = mock(ResponseEntity.class);
-
-        // La clave está aquí: hasBody() devolverá false
-        when(mockResponseEntity.hasBody()).thenReturn(false);
-
-        // Configuramos la cadena de mocks para que devuelva nuestra ResponseEntity mockeada
-        when(mockWebClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
-        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.toEntity(GitHubWorkflowRunsResponse.class)).thenReturn(Mono.just(mockResponseEntity));
-
-        // Creamos una instancia del cliente con nuestro WebClient mockeado
-        GithubClientImpl clientWithMock = new GithubClientImpl(mockWebClient);
-
-        // 2. Act
-        List<GitHubWorkflowRunDto> workflowRuns = clientWithMock.getWorkflowRuns("owner", "repo", "workflow.yml", since);
-
-        // 3. Assert
-        // Verificamos que la lista de runs está vacía, ya que el bucle se rompió.
-        assertThat(workflowRuns).isNotNull();
-        assertThat(workflowRuns).isEmpty();
-
-        // Verificamos que el método get() del webclient fue llamado una vez, y no más.
-        verify(mockWebClient, times(1)).get();
-    }
-
-
     @Test
     @DisplayName("getCommits debe detenerse si la respuesta de la API es nula")
     void getCommits_shouldStopWhenResponseIsNull() {
@@ -613,11 +722,11 @@ class GithubClientImplTest {
         when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
 
-        // La clave: toEntityList(...).block() devolverá null
-        when(responseSpec.toEntityList(GithubCommitDto.class)).thenReturn(Mono.justOrEmpty(null));
+        // La clave: toEntityFlux(...).block() devolverá null
+        when(responseSpec.toEntityFlux(GithubCommitDto.class)).thenReturn(Mono.justOrEmpty(null));
 
         // Creamos una instancia del cliente con nuestro WebClient mockeado
-        GithubClientImpl clientWithMock = new GithubClientImpl(mockWebClient);
+        GithubClientImpl clientWithMock = new GithubClientImpl(mockWebClient, metrics);
 
         // 2. Act
         List<GithubCommitDto> commits = clientWithMock.getCommits("owner", "repo", since);
@@ -642,21 +751,19 @@ class GithubClientImplTest {
         WebClient.ResponseSpec responseSpec = mock(WebClient.ResponseSpec.class);
 
         // Creamos una ResponseEntity mockeada
-        ResponseEntity<List<GithubCommitDto>> mockResponseEntity = mock(ResponseEntity.class);
+        ResponseEntity<Flux<GithubCommitDto>> mockResponseEntity = mock(ResponseEntity.class);
 
         // La clave está aquí: getBody() devolverá null
         when(mockResponseEntity.getBody()).thenReturn(null);
-        // Devolvemos cabeceras vacías para que el parseo de la paginación no falle
-        when(mockResponseEntity.getHeaders()).thenReturn(new org.springframework.http.HttpHeaders());
 
         // Configuramos la cadena de mocks para que devuelva nuestra ResponseEntity mockeada
         when(mockWebClient.get()).thenReturn(requestHeadersUriSpec);
         when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.toEntityList(GithubCommitDto.class)).thenReturn(Mono.just(mockResponseEntity));
+        when(responseSpec.toEntityFlux(GithubCommitDto.class)).thenReturn(Mono.just(mockResponseEntity));
 
         // Creamos una instancia del cliente con nuestro WebClient mockeado
-        GithubClientImpl clientWithMock = new GithubClientImpl(mockWebClient);
+        GithubClientImpl clientWithMock = new GithubClientImpl(mockWebClient, metrics);
 
         // 2. Act
         List<GithubCommitDto> commits = clientWithMock.getCommits("owner", "repo", since);
@@ -682,7 +789,7 @@ class GithubClientImplTest {
 
         // Espía del cliente
         String baseUrl = String.format("http://localhost:%s", mockWebServer.getPort());
-        GithubClientImpl clientSpy = spy(new GithubClientImpl(WebClient.builder(), baseUrl, "fake-token"));
+        GithubClientImpl clientSpy = spy(new GithubClientImpl(WebClient.builder(), baseUrl, "fake-token", metrics));
 
         // Simular la respuesta de la API para la lista de PRs
         String prJsonBody = "[{\"id\":1, \"number\":123, \"state\":\"open\", \"updated_at\":\"2024-05-20T10:00:00Z\"}]";
@@ -834,7 +941,7 @@ class GithubClientImplTest {
         // Return empty headers to prevent NullPointerException in getNextPageUrl
         when(mockResponseEntity.getHeaders()).thenReturn(new org.springframework.http.HttpHeaders());
 
-        GithubClientImpl clientWithMock = new GithubClientImpl(mockWebClient);
+        GithubClientImpl clientWithMock = new GithubClientImpl(mockWebClient, metrics);
 
         // Act
         List<OrganizationMember> members = clientWithMock.getOrganizationMembers("owner");
@@ -861,7 +968,7 @@ class GithubClientImplTest {
         // La clave: toEntityList(...).block() devolverá null porque el Mono está vacío
         when(responseSpec.toEntityList(GithubMemberDto.class)).thenReturn(Mono.empty());
 
-        GithubClientImpl clientWithMock = new GithubClientImpl(mockWebClient);
+        GithubClientImpl clientWithMock = new GithubClientImpl(mockWebClient, metrics);
 
         // 2. Act
         List<OrganizationMember> members = clientWithMock.getOrganizationMembers("owner");
@@ -892,7 +999,7 @@ class GithubClientImplTest {
                 null, null, null);
         when(responseSpec.toEntityList(GithubMemberDto.class)).thenReturn(Mono.error(serverError));
 
-        GithubClientImpl clientWithMock = new GithubClientImpl(mockWebClient);
+        GithubClientImpl clientWithMock = new GithubClientImpl(mockWebClient, metrics);
 
         // Act & Assert
         Exception exception = assertThrows(RuntimeException.class, () -> {
@@ -929,7 +1036,7 @@ class GithubClientImplTest {
                 null, null, null);
         when(responseSpec.toEntityList(GithubMemberDto.class)).thenReturn(Mono.error(clientError));
 
-        GithubClientImpl clientWithMock = new GithubClientImpl(mockWebClient);
+        GithubClientImpl clientWithMock = new GithubClientImpl(mockWebClient, metrics);
 
         // Act
         List<OrganizationMember> members = clientWithMock.getOrganizationMembers("owner");
@@ -970,7 +1077,7 @@ class GithubClientImplTest {
         RuntimeException simulatedException = new RuntimeException("Simulated network failure");
         when(requestHeadersSpec.retrieve()).thenThrow(simulatedException);
 
-        GithubClientImpl clientWithMock = new GithubClientImpl(mockWebClient);
+        GithubClientImpl clientWithMock = new GithubClientImpl(mockWebClient, metrics);
 
         // Act & Assert
         Exception exception = assertThrows(RuntimeException.class, () -> {
@@ -1018,7 +1125,7 @@ class GithubClientImplTest {
                 .thenReturn(Mono.just(firstResponse)) // Success on first call
                 .thenReturn(Mono.error(simulatedException)); // Failure on second call
 
-        GithubClientImpl clientWithMock = new GithubClientImpl(mockWebClient);
+        GithubClientImpl clientWithMock = new GithubClientImpl(mockWebClient, metrics);
 
         // Act
         List<OrganizationMember> members = clientWithMock.getOrganizationMembers("owner");
@@ -1044,4 +1151,20 @@ class GithubClientImplTest {
         // Cleanup
         logger.detachAppender(listAppender);
     }
+
+    @Test
+    @DisplayName("endpointTemplate debe reemplazar owner, repo, usuario y números por variables")
+    void endpointTemplate_shouldReplaceIdentifiersWithVariables() {
+        assertEquals("/repos/{owner}/{repo}/commits", GithubClientImpl.endpointTemplate("/repos/acme/api/commits"));
+        assertEquals("/repos/{owner}/{repo}/pulls/{number}/commits",
+                GithubClientImpl.endpointTemplate("/repos/acme/api/pulls/42/commits"));
+        assertEquals("/repos/{owner}/{repo}/actions/workflows/{workflow}/runs",
+                GithubClientImpl.endpointTemplate("/repos/acme/api/actions/workflows/deploy.yml/runs"));
+        assertEquals("/orgs/{org}/members", GithubClientImpl.endpointTemplate("/orgs/acme/members"));
+        assertEquals("/orgs/{org}/teams/devs/members/{username}",
+                GithubClientImpl.endpointTemplate("/orgs/acme/teams/devs/members/octocat"));
+        assertEquals("/repos/{owner}/{repo}/compare/{basehead}",
+                GithubClientImpl.endpointTemplate("/repos/acme/api/compare/abc123...def456"));
+        assertEquals("/user", GithubClientImpl.endpointTemplate("/user"));
+    }
 }
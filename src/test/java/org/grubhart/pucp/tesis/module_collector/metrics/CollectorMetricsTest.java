@@ -0,0 +1,108 @@
+package org.grubhart.pucp.tesis.module_collector.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CollectorMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private CollectorMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new CollectorMetrics(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.close();
+    }
+
+    @Test
+    @DisplayName("El filtro HTTP debe medir cada request etiquetado por plantilla de endpoint y estado")
+    void httpClientTimer_shouldTagByTemplateAndStatus() {
+        // Arrange
+        ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("https://api.example.com/repos/acme/api/commits")).build();
+
+        // Act
+        metrics.httpClientTimer("github", path -> "/repos/{owner}/{repo}/commits")
+                .filter(request, req -> Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND).build()))
+                .block();
+
+        // Assert
+        Timer timer = registry.find(CollectorMetrics.HTTP_CLIENT_REQUESTS)
+                .tags("client", "github", "method", "GET", "uri", "/repos/{owner}/{repo}/commits",
+                        "status", "404", "outcome", "CLIENT_ERROR")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("recordPage debe contar páginas e ítems por cliente y recurso")
+    void recordPage_shouldCountPagesAndItems() {
+        // Act
+        metrics.recordPage("github", "commits", 100);
+        metrics.recordPage("github", "commits", 40);
+
+        // Assert
+        assertThat(registry.get(CollectorMetrics.PAGES).tags("client", "github", "resource", "commits").counter().count())
+                .isEqualTo(2.0);
+        assertThat(registry.get(CollectorMetrics.ITEMS).tags("client", "github", "resource", "commits").counter().count())
+                .isEqualTo(140.0);
+    }
+
+    @Test
+    @DisplayName("recordBatchWrite debe registrar el tamaño del lote y devolver el resultado de la escritura")
+    void recordBatchWrite_shouldRecordSizeAndDuration() {
+        // Act
+        List<String> saved = metrics.recordBatchWrite("commits", 3, () -> List.of("a", "b", "c"));
+
+        // Assert
+        assertThat(saved).hasSize(3);
+        assertThat(registry.get(CollectorMetrics.DB_BATCH_SIZE).tag("entity", "commits").summary().totalAmount())
+                .isEqualTo(3.0);
+        assertThat(registry.get(CollectorMetrics.DB_BATCH_DURATION).tag("entity", "commits").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Una etapa que falla debe medirse con outcome error y propagar la excepción")
+    void timeStage_whenActionFails_shouldTagErrorAndRethrow() {
+        // Act & Assert
+        assertThatThrownBy(() -> metrics.timeStage("commits", (Runnable) () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(registry.get(CollectorMetrics.STAGE_DURATION).tags("stage", "commits", "outcome", "error").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("El timer por repositorio no debe publicar histograma de percentiles")
+    void timeRepository_shouldNotPublishPercentileHistogram() {
+        // Act
+        metrics.timeRepository("acme/api", () -> null);
+
+        // Assert
+        Timer timer = registry.get(CollectorMetrics.REPOSITORY_DURATION).tags("repository", "acme/api").timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.takeSnapshot().histogramCounts()).isEmpty();
+    }
+}
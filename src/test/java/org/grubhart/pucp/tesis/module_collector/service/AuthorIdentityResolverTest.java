@@ -0,0 +1,97 @@
+package org.grubhart.pucp.tesis.module_collector.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.grubhart.pucp.tesis.module_collector.metrics.CollectorMetrics;
+import org.grubhart.pucp.tesis.module_domain.Commit;
+import org.grubhart.pucp.tesis.module_domain.GithubCommitDto;
+import org.grubhart.pucp.tesis.module_domain.RepositoryConfig;
+import org.grubhart.pucp.tesis.module_domain.User;
+import org.grubhart.pucp.tesis.module_domain.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthorIdentityResolverTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private AuthorIdentityResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        resolver = new AuthorIdentityResolver(userRepository, new CollectorMetrics(registry));
+    }
+
+    @Test
+    @DisplayName("Debe resolver usuarios por githubId, username y email sin distinguir mayúsculas")
+    void shouldResolveUsersByIdUsernameAndEmail() {
+        // GIVEN
+        when(userRepository.findAll()).thenReturn(List.of(new User(42L, "octocat", "Octo@Example.com")));
+
+        // WHEN / THEN
+        assertThat(resolver.findUsernameByGithubId(42L)).contains("octocat");
+        assertThat(resolver.findUsernameByGithubUsername("OctoCat")).contains("octocat");
+        assertThat(resolver.findUsernameByEmail("octo@example.com")).contains("octocat");
+        assertThat(resolver.findUsernameByEmail("unknown@example.com")).isEmpty();
+
+        assertThat(registry.get(CollectorMetrics.AUTHOR_RESOLUTIONS).tag("outcome", "resolved").counter().count())
+                .isEqualTo(3.0);
+        assertThat(registry.get(CollectorMetrics.AUTHOR_RESOLUTIONS).tag("outcome", "unresolved").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Debe cargar los usuarios una sola vez hasta que se solicite una recarga")
+    void shouldLoadUsersOnceUntilRefreshed() {
+        // GIVEN
+        when(userRepository.findAll())
+                .thenReturn(List.of(new User(1L, "first", null)))
+                .thenReturn(List.of(new User(1L, "renamed", null)));
+
+        // WHEN
+        resolver.findUsernameByGithubId(1L);
+        resolver.findUsernameByGithubId(1L);
+        resolver.findUsernameByGithubUsername("first");
+
+        // THEN
+        verify(userRepository, times(1)).findAll();
+        assertThat(resolver.findUsernameByGithubId(1L)).contains("first");
+
+        resolver.refresh();
+        assertThat(resolver.findUsernameByGithubId(1L)).contains("renamed");
+        verify(userRepository, times(2)).findAll();
+    }
+
+    @Test
+    @DisplayName("El constructor de Commit debe resolver el autor noreply desde el índice en memoria")
+    void commitConstructor_shouldResolveNoreplyAuthorFromIndex() {
+        // GIVEN
+        when(userRepository.findAll()).thenReturn(List.of(new User(12345L, "real-user", null)));
+
+        GithubCommitDto.CommitAuthor author = new GithubCommitDto.CommitAuthor();
+        author.setEmail("12345+old-login@users.noreply.github.com");
+        GithubCommitDto.Commit gitCommit = new GithubCommitDto.Commit();
+        gitCommit.setAuthor(author);
+        GithubCommitDto dto = new GithubCommitDto();
+        dto.setSha("sha-1");
+        dto.setCommit(gitCommit);
+
+        // WHEN
+        Commit commit = new Commit(dto, new RepositoryConfig("https://github.com/owner/repo"), resolver);
+
+        // THEN
+        assertThat(commit.getAuthor()).isEqualTo("real-user");
+        verify(userRepository, never()).findByGithubId(anyLong());
+    }
+}
@@ -1,29 +1,50 @@
 package org.grubhart.pucp.tesis.module_collector.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.grubhart.pucp.tesis.module_collector.metrics.CollectorMetrics;
 import org.grubhart.pucp.tesis.module_domain.Commit;
+import org.grubhart.pucp.tesis.module_domain.CommitComparison;
+import org.grubhart.pucp.tesis.module_domain.CommitEdge;
 import org.grubhart.pucp.tesis.module_domain.CommitParent;
 import org.grubhart.pucp.tesis.module_domain.CommitParentRepository;
 import org.grubhart.pucp.tesis.module_domain.CommitRepository;
+import org.grubhart.pucp.tesis.module_domain.CommitSyncCursor;
+import org.grubhart.pucp.tesis.module_domain.CommitSyncCursorRepository;
 import org.grubhart.pucp.tesis.module_domain.GithubCommitCollector;
 import org.grubhart.pucp.tesis.module_domain.GithubCommitDto;
+import org.grubhart.pucp.tesis.module_domain.PendingCommitParent;
+import org.grubhart.pucp.tesis.module_domain.PendingCommitParentRepository;
 import org.grubhart.pucp.tesis.module_domain.RepositoryConfig;
 import org.grubhart.pucp.tesis.module_domain.RepositoryConfigRepository;
+import org.grubhart.pucp.tesis.module_domain.SyncStatus;
 import org.grubhart.pucp.tesis.module_domain.SyncStatusRepository;
+import org.grubhart.pucp.tesis.module_domain.SyncTask;
+import org.grubhart.pucp.tesis.module_domain.SyncTaskRepository;
+import org.grubhart.pucp.tesis.module_domain.SyncTaskStatus;
 import org.grubhart.pucp.tesis.module_domain.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +56,9 @@ class CommitSyncServiceTest {
     @Mock
     private CommitParentRepository commitParentRepository;
 
+    @Mock
+    private PendingCommitParentRepository pendingCommitParentRepository;
+
     @Mock
     private SyncStatusRepository syncStatusRepository;
 
@@ -47,13 +71,67 @@ class CommitSyncServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
+    @Mock
+    private AuthorIdentityResolver authorIdentityResolver;
+
+    @Mock
+    private SyncTaskRepository syncTaskRepository;
+
+    @Mock
+    private CommitSyncCursorRepository commitSyncCursorRepository;
+
     private CommitSyncService commitSyncService;
 
+    private final List<SyncTask> syncTasks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Cola de tareas en memoria; con una ventana de 400 días la primera sincronización es una sola tarea.
+        lenient().when(syncTaskRepository.save(any(SyncTask.class))).thenAnswer(invocation -> {
+            SyncTask task = invocation.getArgument(0);
+            if (!syncTasks.contains(task)) {
+                syncTasks.add(task);
+            }
+            return task;
+        });
+        lenient().when(syncTaskRepository.findOpenForRepository(anyString(), any())).thenAnswer(invocation ->
+                syncTasks.stream()
+                        .filter(task -> task.getRepositoryUrl().equals(invocation.getArgument(0)))
+                        .filter(task -> task.getStatus() == SyncTaskStatus.PENDING || task.getStatus() == SyncTaskStatus.RUNNING)
+                        .collect(Collectors.toList()));
+        SyncTaskService syncTaskService = new SyncTaskService(syncTaskRepository, Duration.ofMinutes(1),
+                Duration.ofHours(6), 6, Duration.ofMinutes(30), Clock.systemDefaultZone());
+        commitSyncService = new CommitSyncService(commitRepository, commitParentRepository,
+                pendingCommitParentRepository, syncStatusRepository, repositoryConfigRepository, githubCommitCollector,
+                authorIdentityResolver, syncTaskService, new CollectorMetrics(new SimpleMeterRegistry()),
+                Duration.ofDays(400), commitSyncCursorRepository, "");
+    }
+
     private static final String VALID_URL = "https://github.com/owner/repo";
     private static final String OWNER = "owner";
     private static final String REPO = "repo";
 
+    private void givenStoredCommits(Commit... storedCommits) {
+        when(commitRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Iterable<String> requestedShas = invocation.getArgument(0);
+            Set<String> shas = new HashSet<>();
+            requestedShas.forEach(shas::add);
+            return Arrays.stream(storedCommits)
+                    .filter(commit -> shas.contains(commit.getSha()))
+                    .collect(Collectors.toList());
+        });
+    }
+
+    private void givenGithubStreams(List<GithubCommitDto> commits) {
+        when(githubCommitCollector.streamCommits(anyString(), anyString(), any(), any(), any(), anyInt(), any())).thenAnswer(invocation -> {
+            Consumer<List<GithubCommitDto>> batchConsumer = invocation.getArgument(6);
+            if (!commits.isEmpty()) {
+                batchConsumer.accept(commits);
+            }
+            return commits.size();
+        });
+    }
+
 
     @Test
     @DisplayName("Dado que no hay repositorios configurados, el servicio no debe hacer nada")
@@ -65,7 +143,7 @@ class CommitSyncServiceTest {
         commitSyncService.syncCommits();
 
         // THEN: No se debe intentar obtener commits ni guardar ningún estado.
-        verify(githubCommitCollector, never()).getCommits(anyString(), anyString(), any());
+        verify(githubCommitCollector, never()).streamCommits(anyString(), anyString(), any(), any(), any(), anyInt(), any());
         verify(syncStatusRepository, never()).save(any());
         verify(commitRepository, never()).saveAll(any());
     }
@@ -81,7 +159,7 @@ class CommitSyncServiceTest {
         commitSyncService.syncCommits();
 
         // THEN: No se debe intentar obtener commits ni guardar ningún estado.
-        verify(githubCommitCollector, never()).getCommits(anyString(), anyString(), any());
+        verify(githubCommitCollector, never()).streamCommits(anyString(), anyString(), any(), any(), any(), anyInt(), any());
         verify(syncStatusRepository, never()).save(any());
         verify(commitRepository, never()).saveAll(any());
     }
@@ -97,7 +175,7 @@ class CommitSyncServiceTest {
         commitSyncService.syncCommits();
 
         // THEN: No se debe intentar obtener commits ni guardar ningún estado.
-        verify(githubCommitCollector, never()).getCommits(anyString(), anyString(), any());
+        verify(githubCommitCollector, never()).streamCommits(anyString(), anyString(), any(), any(), any(), anyInt(), any());
         verify(syncStatusRepository, never()).save(any());
         verify(commitRepository, never()).saveAll(any());
     }
@@ -113,13 +191,13 @@ class CommitSyncServiceTest {
         when(syncStatusRepository.findById("COMMIT_SYNC_owner/repo")).thenReturn(java.util.Optional.empty());
 
         // Simulamos que la API de GitHub no devuelve nuevos commits.
-        when(githubCommitCollector.getCommits(eq(OWNER), eq(REPO), any())).thenReturn(Collections.emptyList());
+        givenGithubStreams(Collections.emptyList());
 
         // WHEN: Se ejecuta el servicio de sincronización.
         commitSyncService.syncCommits();
 
         // THEN: Se debe verificar que se intentó obtener los commits y que se guardó el nuevo estado de sincronización.
-        verify(githubCommitCollector, times(1)).getCommits(eq(OWNER), eq(REPO), any());
+        verify(githubCommitCollector, times(1)).streamCommits(eq(OWNER), eq(REPO), any(), any(), any(), anyInt(), any());
         verify(syncStatusRepository, times(1)).save(any());
         // Verificamos que no se intentó guardar commits, ya que la lista estaba vacía.
         verify(commitRepository, never()).saveAll(any());
@@ -135,10 +213,9 @@ class CommitSyncServiceTest {
         GithubCommitDto newCommitDto = new GithubCommitDto();
         newCommitDto.setSha("new-commit-sha");
 
-        when(githubCommitCollector.getCommits(eq(OWNER), eq(REPO), any())).thenReturn(List.of(newCommitDto));
+        givenGithubStreams(List.of(newCommitDto));
 
-        // Simulamos que este commit NO existe en la BD.
-        when(commitRepository.existsById("new-commit-sha")).thenReturn(false);
+        // Este commit NO existe en la BD (findAllById devuelve una lista vacía por defecto).
 
         // WHEN
         commitSyncService.syncCommits();
@@ -162,15 +239,48 @@ class CommitSyncServiceTest {
         RepositoryConfig validConfig = new RepositoryConfig(VALID_URL);
         when(repositoryConfigRepository.findAll()).thenReturn(List.of(validConfig));
 
-        when(githubCommitCollector.getCommits(anyString(), anyString(), any()))
+        when(githubCommitCollector.streamCommits(anyString(), anyString(), any(), any(), any(), anyInt(), any()))
                 .thenThrow(new RuntimeException("API de GitHub no disponible"));
 
         // WHEN
         commitSyncService.syncCommits();
 
-        // THEN: Verificamos que no se intentó guardar nada y que la sincronización no se actualizó.
+        // THEN: No se guardó nada, pero la ventana queda pendiente con su error para reintentarse con backoff,
+        // así que el SyncStatus puede avanzar sin perder ese rango.
         verify(commitRepository, never()).saveAll(any());
-        verify(syncStatusRepository, never()).save(any());
+        verify(syncStatusRepository, times(1)).save(any());
+        assertThat(syncTasks).hasSize(1);
+        SyncTask pending = syncTasks.get(0);
+        assertThat(pending.getStatus()).isEqualTo(SyncTaskStatus.PENDING);
+        assertThat(pending.getAttempts()).isEqualTo(1);
+        assertThat(pending.getNextAttemptAt()).isAfter(pending.getStartedAt());
+        assertThat(pending.getLastError()).contains("API de GitHub no disponible");
+    }
+
+    @Test
+    @DisplayName("Una ventana pendiente de un ciclo anterior debe ejecutarse antes que la nueva, sin repetir las completadas")
+    void syncCommits_whenEarlierWindowIsPending_shouldRunWindowsOldestFirst() {
+        // GIVEN: La primera sincronización falla y deja su ventana pendiente; la siguiente la reintenta.
+        RepositoryConfig validConfig = new RepositoryConfig(VALID_URL);
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(validConfig));
+        when(githubCommitCollector.streamCommits(anyString(), anyString(), any(), any(), any(), anyInt(), any()))
+                .thenThrow(new RuntimeException("502 Bad Gateway"))
+                .thenReturn(0);
+        commitSyncService.syncCommits();
+        syncTasks.get(0).retryAt(LocalDateTime.now().minusSeconds(1), "502 Bad Gateway");
+        when(syncStatusRepository.findById("COMMIT_SYNC_owner/repo"))
+                .thenReturn(Optional.of(new SyncStatus(
+                        "COMMIT_SYNC_owner/repo", LocalDateTime.now().minusHours(1))));
+
+        // WHEN
+        commitSyncService.syncCommits();
+
+        // THEN: Se reintentó la ventana de un año y luego se pidió la de la última hora.
+        ArgumentCaptor<LocalDateTime> sinceCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(githubCommitCollector, times(3)).streamCommits(eq(OWNER), eq(REPO), any(), sinceCaptor.capture(), any(), anyInt(), any());
+        assertThat(sinceCaptor.getAllValues().get(1)).isEqualTo(sinceCaptor.getAllValues().get(0));
+        assertThat(sinceCaptor.getAllValues().get(2)).isAfter(sinceCaptor.getAllValues().get(1));
+        assertThat(syncTasks).extracting(SyncTask::getStatus).containsOnly(SyncTaskStatus.SUCCEEDED);
     }
 
     @Test
@@ -188,12 +298,10 @@ class CommitSyncServiceTest {
         GithubCommitDto newCommitDto = new GithubCommitDto();
         newCommitDto.setSha("sha-nuevo");
 
-        when(githubCommitCollector.getCommits(anyString(), anyString(), any()))
-                .thenReturn(Arrays.asList(existingCommitDto, newCommitDto));
+        givenGithubStreams(Arrays.asList(existingCommitDto, newCommitDto));
 
-        // Simulamos la lógica de la base de datos.
-        when(commitRepository.existsById("sha-existente")).thenReturn(true);
-        when(commitRepository.existsById("sha-nuevo")).thenReturn(false);
+        // Simulamos la lógica de la base de datos: solo el primero está guardado.
+        givenStoredCommits(new Commit("sha-existente", null, null, null, validConfig));
 
         // WHEN
         commitSyncService.syncCommits();
@@ -225,7 +333,7 @@ class CommitSyncServiceTest {
 
         // 3. Assert
         // Verificamos que NUNCA se intentó obtener commits, ya que la configuración era inválida.
-        verify(githubCommitCollector, never()).getCommits(any(), any(), any());
+        verify(githubCommitCollector, never()).streamCommits(any(), any(), any(), any(), any(), anyInt(), any());
 
         // Verificamos que NUNCA se intentó guardar nada en los repositorios.
         verify(commitRepository, never()).saveAll(any());
@@ -250,12 +358,10 @@ class CommitSyncServiceTest {
         newCommitDto.setSha(newCommitSha);
         newCommitDto.setParents(List.of(parentDto));
 
-        when(githubCommitCollector.getCommits(eq(OWNER), eq(REPO), any())).thenReturn(List.of(newCommitDto));
+        givenGithubStreams(List.of(newCommitDto));
 
-        // Configuración completa del mock del repositorio para el flujo lógico.
-        when(commitRepository.existsById(newCommitSha)).thenReturn(false); // El commit es nuevo.
-        when(commitRepository.findById(existingParentSha)).thenReturn(Optional.of(new Commit())); // El padre ya existe.
-        when(commitRepository.findById(newCommitSha)).thenReturn(Optional.of(new Commit(newCommitDto, validConfig, userRepository))); // El commit hijo se encuentra después de ser guardado.
+        // El commit es nuevo; el padre ya existe en la BD.
+        givenStoredCommits(new Commit(existingParentSha, null, null, null, validConfig));
 
         // WHEN
         commitSyncService.syncCommits();
@@ -268,13 +374,20 @@ class CommitSyncServiceTest {
         assertThat(savedCommits).hasSize(1);
         assertThat(savedCommits.get(0).getSha()).isEqualTo(newCommitSha);
 
-        // Se debe buscar al padre para establecer la relación, lo que prueba que la lógica continuó.
-        verify(commitRepository, times(1)).findById(existingParentSha);
+        // Se debe enlazar el nuevo commit con el padre existente, buscándolo con una sola consulta masiva.
+        verify(commitRepository, times(1)).findAllById(Set.of(existingParentSha));
+        ArgumentCaptor<List<CommitParent>> parentCaptor = ArgumentCaptor.forClass(List.class);
+        verify(commitParentRepository, times(1)).saveAll(parentCaptor.capture());
+        assertThat(parentCaptor.getValue()).hasSize(1);
+        assertThat(parentCaptor.getValue().get(0).getCommit().getSha()).isEqualTo(newCommitSha);
+        assertThat(parentCaptor.getValue().get(0).getParent().getSha()).isEqualTo(existingParentSha);
+        // Un hijo recién creado no puede tener relaciones previas: no se consultan.
+        verify(commitParentRepository, never()).findEdgesByCommitShaIn(any());
     }
 
     @Test
-    @DisplayName("Dado un commit cuyo padre no se encuentra en la BD, debe omitir la relación")
-    void syncCommits_whenParentCommitIsNotFound_shouldSkipRelationship() {
+    @DisplayName("Dado un commit cuyo padre no se encuentra en la BD, debe dejar la relación pendiente")
+    void syncCommits_whenParentCommitIsNotFound_shouldStoreRelationshipAsPending() {
         // GIVEN
         RepositoryConfig validConfig = new RepositoryConfig(VALID_URL);
         when(repositoryConfigRepository.findAll()).thenReturn(List.of(validConfig));
@@ -289,21 +402,16 @@ class CommitSyncServiceTest {
         childDto.setSha(childSha);
         childDto.setParents(List.of(parentDto));
 
-        when(githubCommitCollector.getCommits(eq(OWNER), eq(REPO), any())).thenReturn(List.of(childDto));
+        givenGithubStreams(List.of(childDto));
 
-        // El commit hijo es nuevo y se guarda.
-        when(commitRepository.existsById(childSha)).thenReturn(false);
-        // El commit hijo se encuentra después de ser guardado.
-        when(commitRepository.findById(childSha)).thenReturn(Optional.of(new Commit(childDto, validConfig, userRepository)));
-        // El commit padre NO se encuentra en la BD.
-        when(commitRepository.findById(nonExistentParentSha)).thenReturn(Optional.empty());
+        // Ni el commit hijo ni el padre están en la BD (findAllById devuelve una lista vacía por defecto).
 
         // WHEN
         commitSyncService.syncCommits();
 
         // THEN
         // Verificamos que se buscó al padre.
-        verify(commitRepository).findById(nonExistentParentSha);
+        verify(commitRepository).findAllById(Set.of(nonExistentParentSha));
 
         // Verificamos que se guardó el commit hijo.
         ArgumentCaptor<List<Commit>> commitCaptor = ArgumentCaptor.forClass(List.class);
@@ -311,8 +419,13 @@ class CommitSyncServiceTest {
         assertThat(commitCaptor.getValue()).hasSize(1);
         assertThat(commitCaptor.getValue().get(0).getSha()).isEqualTo(childSha);
 
-        // La aserción clave: verificamos que NUNCA se intentó guardar ninguna relación de parentesco.
+        // La aserción clave: la relación no va a commit_parent, queda pendiente hasta que llegue el padre.
         verify(commitParentRepository, never()).saveAll(any());
+        ArgumentCaptor<List<PendingCommitParent>> pendingCaptor = ArgumentCaptor.forClass(List.class);
+        verify(pendingCommitParentRepository).saveAll(pendingCaptor.capture());
+        assertThat(pendingCaptor.getValue())
+                .extracting(PendingCommitParent::getCommitSha, PendingCommitParent::getParentSha)
+                .containsExactly(tuple(childSha, nonExistentParentSha));
     }
 
     @Test
@@ -332,19 +445,15 @@ class CommitSyncServiceTest {
         childDto.setSha(childSha);
         childDto.setParents(List.of(parentDto));
 
-        when(githubCommitCollector.getCommits(eq(OWNER), eq(REPO), any())).thenReturn(List.of(childDto));
-
-        // Simulamos que el commit hijo YA EXISTE y no necesita ser guardado.
-        when(commitRepository.existsById(childSha)).thenReturn(true);
+        givenGithubStreams(List.of(childDto));
 
-        // Simulamos que tanto el hijo como el padre existen en la BD y pueden ser recuperados.
+        // Simulamos que tanto el hijo como el padre YA EXISTEN en la BD.
         Commit childCommit = new Commit(childDto, validConfig, userRepository);
         Commit parentCommit = new Commit(parentSha, null, null, null, validConfig);
-        when(commitRepository.findById(childSha)).thenReturn(Optional.of(childCommit));
-        when(commitRepository.findById(parentSha)).thenReturn(Optional.of(parentCommit));
+        givenStoredCommits(childCommit, parentCommit);
 
         // Punto Clave: La relación de parentesco NO EXISTE todavía.
-        when(commitParentRepository.existsByCommitShaAndParentSha(childSha, parentSha)).thenReturn(false);
+        when(commitParentRepository.findEdgesByCommitShaIn(Set.of(childSha))).thenReturn(Collections.emptyList());
 
         // WHEN
         commitSyncService.syncCommits();
@@ -383,17 +492,13 @@ class CommitSyncServiceTest {
         childDto.setSha(childSha);
         childDto.setParents(List.of(parentDto));
 
-        when(githubCommitCollector.getCommits(eq(OWNER), eq(REPO), any())).thenReturn(List.of(childDto));
-
-        // Simulamos que el commit hijo YA EXISTE.
-        when(commitRepository.existsById(childSha)).thenReturn(true);
+        givenGithubStreams(List.of(childDto));
 
         // Simulamos que tanto el hijo como el padre existen en la BD.
-        when(commitRepository.findById(childSha)).thenReturn(Optional.of(new Commit(childDto, validConfig, userRepository)));
-        when(commitRepository.findById(parentSha)).thenReturn(Optional.of(new Commit(parentSha, null, null, null, validConfig)));
+        givenStoredCommits(new Commit(childDto, validConfig, userRepository), new Commit(parentSha, null, null, null, validConfig));
 
         // Punto Clave: La relación de parentesco YA EXISTE.
-        when(commitParentRepository.existsByCommitShaAndParentSha(childSha, parentSha)).thenReturn(true);
+        when(commitParentRepository.findEdgesByCommitShaIn(Set.of(childSha))).thenReturn(List.of(new CommitEdge(childSha, parentSha)));
 
         // WHEN
         commitSyncService.syncCommits();
@@ -417,8 +522,8 @@ class CommitSyncServiceTest {
         commitSyncService.syncCommits();
 
         // THEN
-        verify(githubCommitCollector, times(1)).getCommits(eq("owner1"), eq("repo1"), any());
-        verify(githubCommitCollector, times(1)).getCommits(eq("owner2"), eq("repo2"), any());
+        verify(githubCommitCollector, times(1)).streamCommits(eq("owner1"), eq("repo1"), any(), any(), any(), anyInt(), any());
+        verify(githubCommitCollector, times(1)).streamCommits(eq("owner2"), eq("repo2"), any(), any(), any(), anyInt(), any());
         verify(syncStatusRepository, times(2)).save(any());
     }
 
@@ -432,8 +537,7 @@ class CommitSyncServiceTest {
         GithubCommitDto newCommitDto = new GithubCommitDto();
         newCommitDto.setSha("new-commit-sha");
 
-        when(githubCommitCollector.getCommits(eq(OWNER), eq(REPO), any())).thenReturn(List.of(newCommitDto));
-        when(commitRepository.existsById("new-commit-sha")).thenReturn(false);
+        givenGithubStreams(List.of(newCommitDto));
 
         // WHEN
         commitSyncService.syncCommits();
@@ -450,4 +554,261 @@ class CommitSyncServiceTest {
         assertThat(savedCommit.getRepository()).isNotNull();
         assertThat(savedCommit.getRepository()).isEqualTo(validConfig);
     }
+
+    @Test
+    @DisplayName("Dado un commit cuyo padre llega en un lote posterior, debe crear la relación al recibir el padre")
+    void syncCommits_whenParentArrivesInLaterBatch_shouldLinkDeferredRelationship() {
+        // GIVEN
+        RepositoryConfig validConfig = new RepositoryConfig(VALID_URL);
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(validConfig));
+
+        String childSha = "child-sha";
+        String parentSha = "parent-sha";
+
+        GithubCommitDto.ParentDto parentRef = new GithubCommitDto.ParentDto();
+        parentRef.setSha(parentSha);
+        GithubCommitDto childDto = new GithubCommitDto();
+        childDto.setSha(childSha);
+        childDto.setParents(List.of(parentRef));
+        GithubCommitDto parentDto = new GithubCommitDto();
+        parentDto.setSha(parentSha);
+
+        // GitHub entrega primero el hijo (más reciente) y en la página siguiente el padre.
+        when(githubCommitCollector.streamCommits(anyString(), anyString(), any(), any(), any(), anyInt(), any())).thenAnswer(invocation -> {
+            Consumer<List<GithubCommitDto>> batchConsumer = invocation.getArgument(6);
+            batchConsumer.accept(List.of(childDto));
+            batchConsumer.accept(List.of(parentDto));
+            return 2;
+        });
+
+        List<List<Commit>> savedCommitBatches = new ArrayList<>();
+        when(commitRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Commit> batch = invocation.getArgument(0);
+            savedCommitBatches.add(new ArrayList<>(batch));
+            return batch;
+        });
+        // Aristas pendientes en memoria: el primer lote deja la del hijo, el segundo la resuelve
+        List<PendingCommitParent> pending = new ArrayList<>();
+        when(pendingCommitParentRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<PendingCommitParent> edges = invocation.getArgument(0);
+            pending.addAll(edges);
+            return edges;
+        });
+        when(pendingCommitParentRepository.findEdgesByParentShaIn(anySet())).thenAnswer(invocation -> {
+            Set<String> parentShas = invocation.getArgument(0);
+            return pending.stream()
+                    .filter(edge -> parentShas.contains(edge.getParentSha()))
+                    .map(edge -> new CommitEdge(edge.getCommitSha(), edge.getParentSha()))
+                    .collect(Collectors.toList());
+        });
+        when(commitRepository.getReferenceById(childSha))
+                .thenReturn(new Commit(childSha, null, null, null, validConfig));
+
+        // WHEN
+        commitSyncService.syncCommits();
+
+        // THEN
+        assertThat(savedCommitBatches).hasSize(2);
+        assertThat(savedCommitBatches.get(0)).extracting(Commit::getSha).containsExactly(childSha);
+        assertThat(savedCommitBatches.get(1)).extracting(Commit::getSha).containsExactly(parentSha);
+
+        ArgumentCaptor<List<CommitParent>> parentCaptor = ArgumentCaptor.forClass(List.class);
+        verify(commitParentRepository, times(1)).saveAll(parentCaptor.capture());
+        assertThat(parentCaptor.getValue()).hasSize(1);
+        assertThat(parentCaptor.getValue().get(0).getCommit().getSha()).isEqualTo(childSha);
+        assertThat(parentCaptor.getValue().get(0).getParent().getSha()).isEqualTo(parentSha);
+        verify(pendingCommitParentRepository).deleteByParentShaIn(Set.of(parentSha));
+    }
+
+    @Test
+    @DisplayName("Con cursor y el mismo head, no debe pedir commits ni planificar ventanas")
+    void syncRepository_whenHeadIsUnchanged_shouldNotFetchCommits() {
+        // GIVEN
+        RepositoryConfig validConfig = new RepositoryConfig(VALID_URL);
+        CommitSyncCursor cursor = new CommitSyncCursor(VALID_URL, CommitSyncService.DEFAULT_BRANCH, "head-sha",
+                LocalDateTime.now().minusHours(1));
+        when(githubCommitCollector.getHeadSha(OWNER, REPO, null)).thenReturn(Optional.of("head-sha"));
+        when(commitSyncCursorRepository.findByRepositoryUrlAndBranch(VALID_URL, CommitSyncService.DEFAULT_BRANCH))
+                .thenReturn(Optional.of(cursor));
+
+        // WHEN
+        boolean synced = commitSyncService.syncRepository(validConfig);
+
+        // THEN
+        assertThat(synced).isTrue();
+        verify(githubCommitCollector, never()).streamCommitsBetween(any(), any(), any(), any(), anyInt(), any());
+        verify(githubCommitCollector, never()).streamCommits(anyString(), anyString(), any(), any(), any(), anyInt(), any());
+        assertThat(syncTasks).isEmpty();
+        verify(syncStatusRepository).save(any());
+    }
+
+    @Test
+    @DisplayName("Si no se puede obtener el head, syncRepository debe informar el fallo sin avanzar el SyncStatus")
+    void syncRepository_whenHeadLookupFails_shouldReportFailure() {
+        // GIVEN
+        RepositoryConfig validConfig = new RepositoryConfig(VALID_URL);
+        when(githubCommitCollector.getHeadSha(OWNER, REPO, null)).thenThrow(new RuntimeException("502 Bad Gateway"));
+
+        // WHEN
+        boolean synced = commitSyncService.syncRepository(validConfig);
+
+        // THEN
+        assertThat(synced).isFalse();
+        verify(syncStatusRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Con cursor y un head que desciende de él, debe guardar solo los commits nuevos de la comparación")
+    void syncRepository_whenHeadIsAhead_shouldSyncComparedCommitsAndAdvanceCursor() {
+        // GIVEN: El commit nuevo tiene como padre al head anterior, que ya está en la BD.
+        RepositoryConfig validConfig = new RepositoryConfig(VALID_URL);
+        CommitSyncCursor cursor = new CommitSyncCursor(VALID_URL, CommitSyncService.DEFAULT_BRANCH, "old-head",
+                LocalDateTime.now().minusHours(1));
+        when(githubCommitCollector.getHeadSha(OWNER, REPO, null)).thenReturn(Optional.of("new-head"));
+        when(commitSyncCursorRepository.findByRepositoryUrlAndBranch(VALID_URL, CommitSyncService.DEFAULT_BRANCH))
+                .thenReturn(Optional.of(cursor));
+        givenStoredCommits(new Commit("old-head", "Author", "msg", null, validConfig));
+
+        GithubCommitDto.ParentDto parentRef = new GithubCommitDto.ParentDto();
+        parentRef.setSha("old-head");
+        GithubCommitDto newHead = new GithubCommitDto();
+        newHead.setSha("new-head");
+        newHead.setParents(List.of(parentRef));
+        when(githubCommitCollector.streamCommitsBetween(eq(OWNER), eq(REPO), eq("old-head"), eq("new-head"), anyInt(), any()))
+                .thenAnswer(invocation -> {
+                    Consumer<List<GithubCommitDto>> batchConsumer = invocation.getArgument(5);
+                    batchConsumer.accept(List.of(newHead));
+                    return new CommitComparison(CommitComparison.Status.AHEAD, 1);
+                });
+
+        // WHEN
+        commitSyncService.syncRepository(validConfig);
+
+        // THEN
+        ArgumentCaptor<List<CommitParent>> parentCaptor = ArgumentCaptor.forClass(List.class);
+        verify(commitParentRepository).saveAll(parentCaptor.capture());
+        assertThat(parentCaptor.getValue()).extracting(edge -> edge.getParent().getSha()).containsExactly("old-head");
+        verify(githubCommitCollector, never()).streamCommits(anyString(), anyString(), any(), any(), any(), anyInt(), any());
+        assertThat(syncTasks).isEmpty();
+        assertThat(cursor.getHeadSha()).isEqualTo("new-head");
+        verify(commitSyncCursorRepository).save(cursor);
+    }
+
+    @Test
+    @DisplayName("Si la historia fue reescrita, debe recurrir al escaneo por ventanas y mover el cursor al nuevo head")
+    void syncRepository_whenHistoryWasRewritten_shouldFallBackToWindowedScan() {
+        // GIVEN
+        RepositoryConfig validConfig = new RepositoryConfig(VALID_URL);
+        CommitSyncCursor cursor = new CommitSyncCursor(VALID_URL, CommitSyncService.DEFAULT_BRANCH, "old-head",
+                LocalDateTime.now().minusHours(1));
+        when(githubCommitCollector.getHeadSha(OWNER, REPO, null)).thenReturn(Optional.of("rewritten-head"));
+        when(commitSyncCursorRepository.findByRepositoryUrlAndBranch(VALID_URL, CommitSyncService.DEFAULT_BRANCH))
+                .thenReturn(Optional.of(cursor));
+        when(githubCommitCollector.streamCommitsBetween(any(), any(), any(), any(), anyInt(), any()))
+                .thenReturn(new CommitComparison(CommitComparison.Status.DIVERGED, 0));
+        givenGithubStreams(Collections.emptyList());
+
+        // WHEN
+        commitSyncService.syncRepository(validConfig);
+
+        // THEN
+        verify(githubCommitCollector).streamCommits(eq(OWNER), eq(REPO), any(), any(), any(), anyInt(), any());
+        assertThat(syncTasks).extracting(SyncTask::getStatus).containsOnly(SyncTaskStatus.SUCCEEDED);
+        assertThat(cursor.getHeadSha()).isEqualTo("rewritten-head");
+    }
+
+    @Test
+    @DisplayName("La primera sincronización debe escanear por ventanas y crear el cursor en el head actual")
+    void syncRepository_whenNoCursorExists_shouldScanWindowsAndCreateCursor() {
+        // GIVEN
+        RepositoryConfig validConfig = new RepositoryConfig(VALID_URL);
+        when(githubCommitCollector.getHeadSha(OWNER, REPO, null)).thenReturn(Optional.of("head-sha"));
+        givenGithubStreams(Collections.emptyList());
+
+        // WHEN
+        commitSyncService.syncRepository(validConfig);
+
+        // THEN
+        verify(githubCommitCollector, never()).streamCommitsBetween(any(), any(), any(), any(), anyInt(), any());
+        ArgumentCaptor<CommitSyncCursor> cursorCaptor = ArgumentCaptor.forClass(CommitSyncCursor.class);
+        verify(commitSyncCursorRepository).save(cursorCaptor.capture());
+        assertThat(cursorCaptor.getValue().getRepositoryUrl()).isEqualTo(VALID_URL);
+        assertThat(cursorCaptor.getValue().getBranch()).isEqualTo(CommitSyncService.DEFAULT_BRANCH);
+        assertThat(cursorCaptor.getValue().getHeadSha()).isEqualTo("head-sha");
+    }
+
+    @Test
+    @DisplayName("Un push desde el head del cursor debe guardar la comparación before...after sin pedir el head")
+    void ingestPush_whenCursorIsAtBefore_shouldSyncPushedRangeAndAdvanceCursor() {
+        // GIVEN
+        RepositoryConfig validConfig = new RepositoryConfig(VALID_URL);
+        CommitSyncCursor cursor = new CommitSyncCursor(VALID_URL, CommitSyncService.DEFAULT_BRANCH, "old-head",
+                LocalDateTime.now().minusHours(1));
+        when(commitSyncCursorRepository.findByRepositoryUrlAndBranch(VALID_URL, CommitSyncService.DEFAULT_BRANCH))
+                .thenReturn(Optional.of(cursor));
+        givenStoredCommits(new Commit("old-head", "Author", "msg", null, validConfig));
+
+        GithubCommitDto.ParentDto parentRef = new GithubCommitDto.ParentDto();
+        parentRef.setSha("old-head");
+        GithubCommitDto pushed = new GithubCommitDto();
+        pushed.setSha("new-head");
+        pushed.setParents(List.of(parentRef));
+        when(githubCommitCollector.streamCommitsBetween(eq(OWNER), eq(REPO), eq("old-head"), eq("new-head"), anyInt(), any()))
+                .thenAnswer(invocation -> {
+                    Consumer<List<GithubCommitDto>> batchConsumer = invocation.getArgument(5);
+                    batchConsumer.accept(List.of(pushed));
+                    return new CommitComparison(CommitComparison.Status.AHEAD, 1);
+                });
+
+        // WHEN
+        boolean synced = commitSyncService.ingestPush(validConfig, "old-head", "new-head");
+
+        // THEN
+        assertThat(synced).isTrue();
+        verify(githubCommitCollector, never()).getHeadSha(any(), any(), any());
+        verify(commitParentRepository).saveAll(anyList());
+        assertThat(cursor.getHeadSha()).isEqualTo("new-head");
+        verify(commitSyncCursorRepository).save(cursor);
+        assertThat(syncTasks).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Un push que no parte del head del cursor debe sincronizar el repositorio como el ciclo programado")
+    void ingestPush_whenCursorIsElsewhere_shouldFallBackToRepositorySync() {
+        // GIVEN
+        RepositoryConfig validConfig = new RepositoryConfig(VALID_URL);
+        CommitSyncCursor cursor = new CommitSyncCursor(VALID_URL, CommitSyncService.DEFAULT_BRANCH, "older-head",
+                LocalDateTime.now().minusHours(1));
+        when(commitSyncCursorRepository.findByRepositoryUrlAndBranch(VALID_URL, CommitSyncService.DEFAULT_BRANCH))
+                .thenReturn(Optional.of(cursor));
+        when(githubCommitCollector.getHeadSha(OWNER, REPO, null)).thenReturn(Optional.of("older-head"));
+
+        // WHEN
+        commitSyncService.ingestPush(validConfig, "old-head", "new-head");
+
+        // THEN
+        verify(githubCommitCollector).getHeadSha(OWNER, REPO, null);
+        verify(githubCommitCollector, never()).streamCommitsBetween(any(), any(), eq("old-head"), any(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Con una rama configurada, el escaneo por ventanas debe listar los commits de esa rama")
+    void syncRepository_withConfiguredBranch_shouldScanWindowsOfThatBranch() {
+        // GIVEN
+        commitSyncService = new CommitSyncService(commitRepository, commitParentRepository,
+                pendingCommitParentRepository, syncStatusRepository, repositoryConfigRepository, githubCommitCollector,
+                authorIdentityResolver, new SyncTaskService(syncTaskRepository, Duration.ofMinutes(1),
+                Duration.ofHours(6), 6, Duration.ofMinutes(30), Clock.systemDefaultZone()),
+                new CollectorMetrics(new SimpleMeterRegistry()), Duration.ofDays(400), commitSyncCursorRepository,
+                "release");
+        RepositoryConfig validConfig = new RepositoryConfig(VALID_URL);
+        when(githubCommitCollector.getHeadSha(OWNER, REPO, "release")).thenReturn(Optional.of("head-sha"));
+        givenGithubStreams(Collections.emptyList());
+
+        // WHEN
+        commitSyncService.syncRepository(validConfig);
+
+        // THEN
+        verify(githubCommitCollector).streamCommits(eq(OWNER), eq(REPO), eq("release"), any(), any(), anyInt(), any());
+    }
 }
@@ -0,0 +1,144 @@
+package org.grubhart.pucp.tesis.module_collector.service;
+
+import org.grubhart.pucp.tesis.module_domain.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeploymentFailureCorrelatorTest {
+
+    private static final LocalDateTime INCIDENT_START = LocalDateTime.of(2025, 3, 10, 14, 0);
+
+    @Mock
+    private DeploymentRepository deploymentRepository;
+
+    @Mock
+    private LeadTimeFactRepository leadTimeFactRepository;
+
+    @Mock
+    private IncidentRepository incidentRepository;
+
+    @InjectMocks
+    private DeploymentFailureCorrelator correlator;
+
+    private RepositoryConfig repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new RepositoryConfig("https://github.com/test/repo", "checkout");
+    }
+
+    @Test
+    @DisplayName("Debe buscar candidatos en las 48 horas previas al incidente y marcar los del mismo servicio")
+    void markFailedDeployments_shouldFlagDeploymentsOfSameService() {
+        // Arrange
+        Incident incident = incident("checkout");
+        Deployment sameService = deployment("checkout", INCIDENT_START.minusHours(3));
+        sameService.setId(10L);
+        Deployment otherService = deployment("payments", INCIDENT_START.minusHours(1));
+        when(deploymentRepository.findIncidentCorrelationCandidates(
+                INCIDENT_START.minusHours(48), INCIDENT_START, "checkout", null))
+                .thenReturn(List.of(sameService, otherService));
+
+        // Act
+        int marked = correlator.markFailedDeployments(incident);
+
+        // Assert
+        assertThat(marked).isEqualTo(1);
+        assertThat(sameService.isChangeFailure()).isTrue();
+        assertThat(otherService.isChangeFailure()).isFalse();
+        verify(deploymentRepository).saveAll(List.of(sameService));
+        verify(leadTimeFactRepository).markFailed(List.of(10L));
+    }
+
+    @Test
+    @DisplayName("Sin nombre de servicio en el deployment debe correlacionar por repositorio")
+    void markFailedDeployments_withoutServiceName_shouldFallBackToRepository() {
+        // Arrange
+        Incident incident = incident("checkout");
+        Deployment noServiceSameRepo = deployment(null, INCIDENT_START.minusHours(10));
+        when(deploymentRepository.findIncidentCorrelationCandidates(any(), any(), any(), any()))
+                .thenReturn(List.of(noServiceSameRepo));
+
+        // Act
+        int marked = correlator.markFailedDeployments(incident);
+
+        // Assert
+        assertThat(marked).isEqualTo(1);
+        assertThat(noServiceSameRepo.isChangeFailure()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Los deployments ya marcados no deben volver a guardarse")
+    void markFailedDeployments_whenAlreadyFlagged_shouldNotSave() {
+        // Arrange
+        Deployment flagged = deployment("checkout", INCIDENT_START.minusHours(2));
+        flagged.setChangeFailure(true);
+        when(deploymentRepository.findIncidentCorrelationCandidates(any(), any(), any(), any()))
+                .thenReturn(List.of(flagged));
+
+        // Act
+        int marked = correlator.markFailedDeployments(incident("checkout"));
+
+        // Assert
+        assertThat(marked).isZero();
+        verify(deploymentRepository, never()).saveAll(any());
+        verify(leadTimeFactRepository, never()).markFailed(any());
+    }
+
+    @Test
+    @DisplayName("Un deployment nuevo debe marcarse si un incidente ya guardado empezó dentro de sus 48 horas")
+    void markIfCausedIncident_shouldFlagNewDeploymentsOfKnownIncidents() {
+        // Arrange
+        Deployment earlier = deployment("checkout", INCIDENT_START.minusHours(5));
+        Deployment tooOld = deployment("checkout", INCIDENT_START.minusHours(60));
+        Deployment otherService = deployment("payments", INCIDENT_START.minusHours(1));
+        when(incidentRepository.findByStartTimeGreaterThanEqualAndStartTimeLessThan(
+                INCIDENT_START.minusHours(60), INCIDENT_START.minusHours(1).plusHours(48)))
+                .thenReturn(List.of(incident("checkout")));
+
+        // Act
+        int marked = correlator.markIfCausedIncident(List.of(earlier, tooOld, otherService));
+
+        // Assert
+        assertThat(marked).isEqualTo(1);
+        assertThat(earlier.isChangeFailure()).isTrue();
+        assertThat(tooOld.isChangeFailure()).isFalse();
+        assertThat(otherService.isChangeFailure()).isFalse();
+        // El llamador guarda los deployments; sus lead times todavía no existen
+        verifyNoInteractions(deploymentRepository, leadTimeFactRepository);
+    }
+
+    @Test
+    @DisplayName("Sin fecha de creación no debe buscar incidentes")
+    void markIfCausedIncident_withoutCreatedAt_shouldNotQueryIncidents() {
+        // Act
+        int marked = correlator.markIfCausedIncident(List.of(deployment("checkout", null)));
+
+        // Assert
+        assertThat(marked).isZero();
+        verifyNoInteractions(incidentRepository);
+    }
+
+    private Incident incident(String serviceName) {
+        return new Incident("inc-1", repository, "Outage", IncidentState.ACTIVE, IncidentSeverity.SEV2,
+                INCIDENT_START, null, null, serviceName, INCIDENT_START, INCIDENT_START);
+    }
+
+    private Deployment deployment(String serviceName, LocalDateTime createdAt) {
+        return new Deployment(1L, repository, "Deploy", "sha", "main", "production",
+                serviceName, "completed", "success", createdAt, createdAt);
+    }
+}
@@ -1,6 +1,8 @@
 package org.grubhart.pucp.tesis.module_collector.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.grubhart.pucp.tesis.module_collector.github.GithubClientImpl;
+import org.grubhart.pucp.tesis.module_collector.metrics.CollectorMetrics;
 import org.grubhart.pucp.tesis.module_domain.*;
 import org.grubhart.pucp.tesis.module_processor.LeadTimeCalculationService;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,11 +15,14 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -42,6 +47,9 @@ class DeploymentSyncServiceTest {
     @Mock
     private LeadTimeCalculationService leadTimeCalculationService;
 
+    @Mock
+    private DeploymentFailureCorrelator deploymentFailureCorrelator;
+
     @Captor
     private ArgumentCaptor<List<Deployment>> deploymentCaptor;
 
@@ -54,7 +62,12 @@ class DeploymentSyncServiceTest {
                 deploymentRepository,
                 syncStatusRepository,
                 repositoryConfigRepository,
-                leadTimeCalculationService
+                leadTimeCalculationService,
+                deploymentFailureCorrelator,
+                new CollectorMetrics(new SimpleMeterRegistry()),
+                "main",
+                "",
+                Duration.ofHours(6)
         );
     }
 
@@ -68,7 +81,7 @@ class DeploymentSyncServiceTest {
         deploymentSyncService.syncDeployments();
 
         // Then
-        verify(githubClient, never()).getWorkflowRuns(anyString(), anyString(), anyString(), any(LocalDateTime.class));
+        verify(githubClient, never()).streamWorkflowRuns(any(), any(), any(), any());
         verify(deploymentRepository, never()).save(any());
     }
 
@@ -86,7 +99,7 @@ class DeploymentSyncServiceTest {
         deploymentSyncService.syncDeployments();
 
         // Then
-        verify(githubClient, never()).getWorkflowRuns(any(), any(), any(), any());
+        verify(githubClient, never()).streamWorkflowRuns(any(), any(), any(), any());
     }
 
     @Test
@@ -103,7 +116,7 @@ class DeploymentSyncServiceTest {
         deploymentSyncService.syncDeployments();
 
         // Then
-        verify(githubClient, never()).getWorkflowRuns(any(), any(), any(), any());
+        verify(githubClient, never()).streamWorkflowRuns(any(), any(), any(), any());
     }
 
     @ParameterizedTest
@@ -119,7 +132,7 @@ class DeploymentSyncServiceTest {
         deploymentSyncService.syncDeployments();
 
         // Then
-        verify(githubClient, never()).getWorkflowRuns(any(), any(), any(), any());
+        verify(githubClient, never()).streamWorkflowRuns(any(), any(), any(), any());
     }
 
     @Test
@@ -134,7 +147,7 @@ class DeploymentSyncServiceTest {
         deploymentSyncService.syncDeployments();
 
         // Then
-        verify(githubClient, never()).getWorkflowRuns(any(), any(), any(), any());
+        verify(githubClient, never()).streamWorkflowRuns(any(), any(), any(), any());
     }
 
     @Test
@@ -155,7 +168,7 @@ class DeploymentSyncServiceTest {
 
         // Then
         // Verify it attempted to sync the good repo
-        verify(githubClient, times(1)).getWorkflowRuns(eq("owner"), eq("good-repo"), eq("deploy.yml"), any());
+        verify(githubClient, times(1)).streamWorkflowRuns(eq("owner"), eq("good-repo"), argThat(query -> "deploy.yml".equals(query.workflowFileName())), any());
     }
 
     @Test
@@ -170,20 +183,20 @@ class DeploymentSyncServiceTest {
         when(repositoryConfigRepository.findAll()).thenReturn(List.of(failingRepo, workingRepo));
 
         // Make the first repo sync fail with an unexpected exception
-        when(githubClient.getWorkflowRuns("owner", "failing-repo", "deploy.yml", null))
+        when(githubClient.streamWorkflowRuns(eq("owner"), eq("failing-repo"), any(), any()))
                 .thenThrow(new RuntimeException("Unexpected API error"));
 
         // Make the second repo sync succeed
-        when(githubClient.getWorkflowRuns("owner", "working-repo", "deploy.yml", null))
-                .thenReturn(Collections.emptyList());
+        when(githubClient.streamWorkflowRuns(eq("owner"), eq("working-repo"), any(), any()))
+                .thenReturn(0);
 
         // When
         deploymentSyncService.syncDeployments();
 
         // Then
         // Verify both were attempted
-        verify(githubClient, times(1)).getWorkflowRuns("owner", "failing-repo", "deploy.yml", null);
-        verify(githubClient, times(1)).getWorkflowRuns("owner", "working-repo", "deploy.yml", null);
+        verify(githubClient, times(1)).streamWorkflowRuns(eq("owner"), eq("failing-repo"), any(), any());
+        verify(githubClient, times(1)).streamWorkflowRuns(eq("owner"), eq("working-repo"), any(), any());
     }
 
     @Test
@@ -197,7 +210,7 @@ class DeploymentSyncServiceTest {
         GitHubWorkflowRunDto validRun = createWorkflowRun(1L, "sha1", "success", "main");
         GitHubWorkflowRunDto invalidRun = createWorkflowRun(2L, null, "success", "main"); // Null SHA
 
-        when(githubClient.getWorkflowRuns(any(), any(), any(), any())).thenReturn(List.of(validRun, invalidRun));
+        givenWorkflowRuns(List.of(validRun, invalidRun));
 
         // When
         deploymentSyncService.syncDeployments();
@@ -220,7 +233,7 @@ class DeploymentSyncServiceTest {
         GitHubWorkflowRunDto validRun = createWorkflowRun(1L, "sha1", "success", "main");
         GitHubWorkflowRunDto invalidRun = createWorkflowRun(2L, " ", "success", "main"); // Blank SHA
 
-        when(githubClient.getWorkflowRuns(any(), any(), any(), any())).thenReturn(List.of(validRun, invalidRun));
+        givenWorkflowRuns(List.of(validRun, invalidRun));
 
         // When
         deploymentSyncService.syncDeployments();
@@ -243,7 +256,7 @@ class DeploymentSyncServiceTest {
         List<GitHubWorkflowRunDto> workflowRuns = List.of(
                 createWorkflowRun(1L, "sha1", "success", "develop") // Non-main branch
         );
-        when(githubClient.getWorkflowRuns(any(), any(), any(), any())).thenReturn(workflowRuns);
+        givenWorkflowRuns(workflowRuns);
 
         // When
         deploymentSyncService.syncDeployments();
@@ -268,9 +281,8 @@ class DeploymentSyncServiceTest {
         List<GitHubWorkflowRunDto> workflowRuns = List.of(
                 createWorkflowRun(1L, "sha1", "success", "main")
         );
-        when(githubClient.getWorkflowRuns(eq("owner"), eq("repo"), eq("deploy.yml"), any())).thenReturn(workflowRuns);
+        givenWorkflowRuns("repo", workflowRuns);
 
-        when(deploymentRepository.existsById(1L)).thenReturn(false);
 
         // When
         deploymentSyncService.syncDeployments();
@@ -292,7 +304,7 @@ class DeploymentSyncServiceTest {
         List<GitHubWorkflowRunDto> workflowRuns = List.of(
                 createWorkflowRun(1L, "sha1", "failure", "main")
         );
-        when(githubClient.getWorkflowRuns(any(), any(), any(), any())).thenReturn(workflowRuns);
+        givenWorkflowRuns(workflowRuns);
 
         // When
         deploymentSyncService.syncDeployments();
@@ -313,9 +325,9 @@ class DeploymentSyncServiceTest {
         List<GitHubWorkflowRunDto> workflowRuns = List.of(
                 createWorkflowRun(1L, "sha1", "success", "main")
         );
-        when(githubClient.getWorkflowRuns(any(), any(), any(), any())).thenReturn(workflowRuns);
+        givenWorkflowRuns(workflowRuns);
 
-        when(deploymentRepository.existsById(1L)).thenReturn(true);
+        when(deploymentRepository.findExistingGithubIds(any())).thenReturn(List.of(1L));
 
         // When
         deploymentSyncService.syncDeployments();
@@ -339,19 +351,17 @@ class DeploymentSyncServiceTest {
         // Configure workflow runs for both repos
         GitHubWorkflowRunDto run1 = createWorkflowRun(1L, "sha1", "success", "main");
         GitHubWorkflowRunDto run2 = createWorkflowRun(2L, "sha2", "success", "main");
-        when(githubClient.getWorkflowRuns(eq("owner1"), eq("repo1"), eq("deploy1.yml"), any()))
-                .thenReturn(List.of(run1));
-        when(githubClient.getWorkflowRuns(eq("owner2"), eq("repo2"), eq("deploy2.yml"), any()))
-                .thenReturn(List.of(run2));
-        when(deploymentRepository.existsById(anyLong())).thenReturn(false);
+        givenWorkflowRuns("repo1", List.of(run1));
+        givenWorkflowRuns("repo2", List.of(run2));
 
         // WHEN
         deploymentSyncService.syncDeployments();
 
         // THEN
-        verify(githubClient, times(1)).getWorkflowRuns(eq("owner1"), eq("repo1"), eq("deploy1.yml"), any());
-        verify(githubClient, times(1)).getWorkflowRuns(eq("owner2"), eq("repo2"), eq("deploy2.yml"), any());
+        verify(githubClient, times(1)).streamWorkflowRuns(eq("owner1"), eq("repo1"), argThat(query -> "deploy1.yml".equals(query.workflowFileName())), any());
+        verify(githubClient, times(1)).streamWorkflowRuns(eq("owner2"), eq("repo2"), argThat(query -> "deploy2.yml".equals(query.workflowFileName())), any());
         verify(syncStatusRepository, times(2)).save(any()); // Should save for both repos since both have new deployments
+        verify(leadTimeCalculationService, times(1)).calculate(); // Lead time se recalcula una sola vez por ejecución
     }
 
     @Test
@@ -366,8 +376,7 @@ class DeploymentSyncServiceTest {
         List<GitHubWorkflowRunDto> workflowRuns = List.of(
                 createWorkflowRun(1L, "sha1", "success", "main")
         );
-        when(githubClient.getWorkflowRuns(eq("owner"), eq("repo"), eq("deploy.yml"), any())).thenReturn(workflowRuns);
-        when(deploymentRepository.existsById(1L)).thenReturn(false);
+        givenWorkflowRuns("repo", workflowRuns);
 
         // When
         deploymentSyncService.syncDeployments();
@@ -392,7 +401,7 @@ class DeploymentSyncServiceTest {
         when(repositoryConfigRepository.findAll()).thenReturn(List.of(repoConfig));
 
         // GitHub returns empty list (no workflow runs)
-        when(githubClient.getWorkflowRuns(any(), any(), any(), any())).thenReturn(Collections.emptyList());
+        givenWorkflowRuns(Collections.emptyList());
 
         // When
         deploymentSyncService.syncDeployments();
@@ -403,6 +412,112 @@ class DeploymentSyncServiceTest {
         verify(syncStatusRepository, never()).save(any(SyncStatus.class)); // Critical: should not update sync status
     }
 
+    @Test
+    @DisplayName("Debe pedir a GitHub solo ejecuciones exitosas de main creadas desde la última sincronización menos el margen")
+    void shouldQueryWorkflowRunsWithServerSideFilters() {
+        // Given
+        RepositoryConfig repoConfig = new RepositoryConfig("https://github.com/owner/repo");
+        repoConfig.setDeploymentWorkflowFileName("deploy.yml");
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(repoConfig));
+        LocalDateTime lastRun = LocalDateTime.of(2025, 3, 10, 12, 0);
+        when(syncStatusRepository.findById("DEPLOYMENT_SYNC_repo"))
+                .thenReturn(Optional.of(new SyncStatus("DEPLOYMENT_SYNC_repo", lastRun)));
+        givenWorkflowRuns("repo", Collections.emptyList());
+
+        // When
+        deploymentSyncService.syncDeployments();
+
+        // Then
+        ArgumentCaptor<WorkflowRunQuery> queryCaptor = ArgumentCaptor.forClass(WorkflowRunQuery.class);
+        verify(githubClient).streamWorkflowRuns(eq("owner"), eq("repo"), queryCaptor.capture(), any());
+        WorkflowRunQuery query = queryCaptor.getValue();
+        assertThat(query.workflowFileName()).isEqualTo("deploy.yml");
+        assertThat(query.branch()).isEqualTo("main");
+        assertThat(query.status()).isEqualTo("success");
+        assertThat(query.createdSince()).isEqualTo(lastRun.minusHours(6));
+    }
+
+    @Test
+    @DisplayName("Debe validar cada página contra los githubId guardados con una sola consulta")
+    void shouldCheckKnownRunsOncePerPage() {
+        // Given
+        RepositoryConfig repoConfig = new RepositoryConfig("https://github.com/owner/repo");
+        repoConfig.setDeploymentWorkflowFileName("deploy.yml");
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(repoConfig));
+        List<GitHubWorkflowRunDto> page = List.of(
+                createWorkflowRun(10L, "sha10", "success", "main"),
+                createWorkflowRun(11L, "sha11", "success", "main"),
+                createWorkflowRun(12L, "sha12", "success", "main"));
+        givenWorkflowRuns("repo", page);
+        when(deploymentRepository.findExistingGithubIds(any())).thenReturn(List.of(11L));
+
+        // When
+        deploymentSyncService.syncDeployments();
+
+        // Then
+        verify(deploymentRepository, times(1)).findExistingGithubIds(argThat(ids -> ids.containsAll(List.of(10L, 11L, 12L))));
+        verify(deploymentRepository).saveAll(deploymentCaptor.capture());
+        assertThat(deploymentCaptor.getValue()).extracting(Deployment::getGithubId).containsExactly(10L, 12L);
+    }
+
+    @Test
+    @DisplayName("GIVEN a webhook run of the deployment workflow WHEN ingesting THEN should save it without listing runs")
+    void ingestWorkflowRun_shouldSaveRunOfDeploymentWorkflow() {
+        // Given
+        RepositoryConfig repoConfig = new RepositoryConfig("https://github.com/owner/repo");
+        repoConfig.setDeploymentWorkflowFileName("deploy.yml");
+        GitHubWorkflowRunDto run = createWorkflowRun(1L, "sha1", "success", "main");
+        run.setPath(".github/workflows/deploy.yml");
+
+        // When
+        int saved = deploymentSyncService.ingestWorkflowRun(repoConfig, run);
+
+        // Then
+        assertThat(saved).isEqualTo(1);
+        verify(deploymentRepository).saveAll(deploymentCaptor.capture());
+        assertThat(deploymentCaptor.getValue()).extracting(Deployment::getGithubId).containsExactly(1L);
+        verify(deploymentFailureCorrelator).markIfCausedIncident(deploymentCaptor.getValue());
+        verify(githubClient, never()).streamWorkflowRuns(any(), any(), any(), any());
+        verify(syncStatusRepository, never()).save(any());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {".github/workflows/ci.yml", "other-branch"})
+    @DisplayName("GIVEN a webhook run of another workflow or branch WHEN ingesting THEN should ignore it")
+    void ingestWorkflowRun_shouldIgnoreRunsOutsideTheQuery(String mismatch) {
+        // Given
+        RepositoryConfig repoConfig = new RepositoryConfig("https://github.com/owner/repo");
+        repoConfig.setDeploymentWorkflowFileName("deploy.yml");
+        boolean otherWorkflow = mismatch.endsWith(".yml");
+        GitHubWorkflowRunDto run = createWorkflowRun(1L, "sha1", "success", otherWorkflow ? "main" : mismatch);
+        run.setPath(otherWorkflow ? mismatch : ".github/workflows/deploy.yml");
+
+        // When
+        int saved = deploymentSyncService.ingestWorkflowRun(repoConfig, run);
+
+        // Then
+        assertThat(saved).isZero();
+        verifyNoInteractions(deploymentRepository);
+    }
+
+    private void givenWorkflowRuns(List<GitHubWorkflowRunDto> runs) {
+        when(githubClient.streamWorkflowRuns(any(), any(), any(), any())).thenAnswer(deliverPage(runs));
+    }
+
+    private void givenWorkflowRuns(String repo, List<GitHubWorkflowRunDto> runs) {
+        when(githubClient.streamWorkflowRuns(anyString(), eq(repo), any(), any())).thenAnswer(deliverPage(runs));
+    }
+
+    private static Answer<Integer> deliverPage(List<GitHubWorkflowRunDto> runs) {
+        return invocation -> {
+            Consumer<List<GitHubWorkflowRunDto>> pageConsumer = invocation.getArgument(3);
+            if (!runs.isEmpty()) {
+                pageConsumer.accept(runs);
+            }
+            return runs.size();
+        };
+    }
+
     private GitHubWorkflowRunDto createWorkflowRun(Long id, String headSha, String conclusion, String branch) {
         GitHubWorkflowRunDto runDto = new GitHubWorkflowRunDto();
         runDto.setId(id);
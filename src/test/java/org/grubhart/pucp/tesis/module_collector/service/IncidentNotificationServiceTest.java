@@ -0,0 +1,155 @@
+package org.grubhart.pucp.tesis.module_collector.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.grubhart.pucp.tesis.module_collector.IncidentNotificationResult;
+import org.grubhart.pucp.tesis.module_collector.IncidentNotificationResult.Status;
+import org.grubhart.pucp.tesis.module_collector.datadog.DatadogIncidentClient;
+import org.grubhart.pucp.tesis.module_collector.metrics.CollectorMetrics;
+import org.grubhart.pucp.tesis.module_domain.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IncidentNotificationServiceTest {
+
+    private static final String SERVICE_NAME = "tesis-backend";
+    private static final String INCIDENT_ID = "b1f0c2d4-7f3e-5a1b-9c4d-2e6f8a0b1c3d";
+
+    @Mock
+    private DatadogIncidentClient datadogClient;
+    @Mock
+    private IncidentRepository incidentRepository;
+    @Mock
+    private SyncStatusRepository syncStatusRepository;
+    @Mock
+    private RepositoryConfigRepository repositoryConfigRepository;
+    @Mock
+    private DeploymentFailureCorrelator deploymentFailureCorrelator;
+    @Mock
+    private SyncLockService syncLockService;
+
+    private IncidentNotificationService service;
+    private RepositoryConfig repositoryConfig;
+
+    @BeforeEach
+    void setUp() {
+        IncidentSyncService incidentSyncService = new IncidentSyncService(datadogClient, incidentRepository,
+                syncStatusRepository, repositoryConfigRepository, deploymentFailureCorrelator, syncLockService,
+                new CollectorMetrics(new SimpleMeterRegistry()));
+        service = new IncidentNotificationService(incidentSyncService, incidentRepository, repositoryConfigRepository,
+                deploymentFailureCorrelator, new ObjectMapper().findAndRegisterModules());
+        repositoryConfig = new RepositoryConfig("https://github.com/test/repo", SERVICE_NAME);
+    }
+
+    @Test
+    @DisplayName("Un incidente nuevo debe guardarse y marcar los deployments correlacionados")
+    void receive_newIncident_shouldSaveAndMarkDeployments() throws IOException {
+        // Arrange
+        when(repositoryConfigRepository.findFirstByDatadogServiceName(SERVICE_NAME)).thenReturn(Optional.of(repositoryConfig));
+        when(incidentRepository.findByDatadogIncidentId(INCIDENT_ID)).thenReturn(Optional.empty());
+        when(incidentRepository.save(any(Incident.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(deploymentFailureCorrelator.markFailedDeployments(any(Incident.class))).thenReturn(2);
+
+        // Act
+        IncidentNotificationResult result = service.receive(recorded("datadog-incident-triggered.json"));
+
+        // Assert
+        assertThat(result.status()).isEqualTo(Status.CREATED);
+        assertThat(result.failedDeployments()).isEqualTo(2);
+
+        ArgumentCaptor<Incident> captor = ArgumentCaptor.forClass(Incident.class);
+        verify(incidentRepository).save(captor.capture());
+        Incident saved = captor.getValue();
+        assertThat(saved.getDatadogIncidentId()).isEqualTo(INCIDENT_ID);
+        assertThat(saved.getState()).isEqualTo(IncidentState.ACTIVE);
+        assertThat(saved.getSeverity()).isEqualTo(IncidentSeverity.SEV2);
+        assertThat(saved.getStartTime()).isEqualTo(LocalDateTime.of(2025, 3, 10, 14, 5));
+        assertThat(saved.getRepository()).isEqualTo(repositoryConfig);
+        verify(deploymentFailureCorrelator).markFailedDeployments(saved);
+    }
+
+    @Test
+    @DisplayName("La resolución de un incidente existente debe actualizar estado y duración sin volver a correlacionar")
+    void receive_resolvedIncident_shouldUpdateExisting() throws IOException {
+        // Arrange
+        Incident existing = new Incident(INCIDENT_ID, repositoryConfig, "Elevated 5xx rate on checkout",
+                IncidentState.ACTIVE, IncidentSeverity.SEV2, LocalDateTime.of(2025, 3, 10, 14, 5),
+                null, null, SERVICE_NAME, LocalDateTime.of(2025, 3, 10, 14, 5), LocalDateTime.of(2025, 3, 10, 14, 5));
+        when(repositoryConfigRepository.findFirstByDatadogServiceName(SERVICE_NAME)).thenReturn(Optional.of(repositoryConfig));
+        when(incidentRepository.findByDatadogIncidentId(INCIDENT_ID)).thenReturn(Optional.of(existing));
+
+        // Act
+        IncidentNotificationResult result = service.receive(recorded("datadog-incident-resolved.json"));
+
+        // Assert
+        assertThat(result.status()).isEqualTo(Status.UPDATED);
+        verify(incidentRepository).save(existing);
+        assertThat(existing.getState()).isEqualTo(IncidentState.RESOLVED);
+        assertThat(existing.getDurationSeconds()).isEqualTo(5100L); // 1h25m
+        verifyNoInteractions(deploymentFailureCorrelator);
+    }
+
+    @Test
+    @DisplayName("Una notificación repetida sin cambios no debe escribir nada")
+    void receive_duplicateNotification_shouldBeUnchanged() throws IOException {
+        // Arrange
+        Incident existing = new Incident(INCIDENT_ID, repositoryConfig, "Elevated 5xx rate on checkout",
+                IncidentState.ACTIVE, IncidentSeverity.SEV2, LocalDateTime.of(2025, 3, 10, 14, 5),
+                null, null, SERVICE_NAME, LocalDateTime.of(2025, 3, 10, 14, 5), LocalDateTime.of(2025, 3, 10, 14, 5));
+        when(repositoryConfigRepository.findFirstByDatadogServiceName(SERVICE_NAME)).thenReturn(Optional.of(repositoryConfig));
+        when(incidentRepository.findByDatadogIncidentId(INCIDENT_ID)).thenReturn(Optional.of(existing));
+
+        // Act
+        IncidentNotificationResult result = service.receive(recorded("datadog-incident-triggered.json"));
+
+        // Assert
+        assertThat(result.status()).isEqualTo(Status.UNCHANGED);
+        verify(incidentRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Un servicio sin repositorio configurado debe ignorarse")
+    void receive_unknownService_shouldBeIgnored() throws IOException {
+        // Arrange
+        when(repositoryConfigRepository.findFirstByDatadogServiceName(SERVICE_NAME)).thenReturn(Optional.empty());
+
+        // Act
+        IncidentNotificationResult result = service.receive(recorded("datadog-incident-triggered.json"));
+
+        // Assert
+        assertThat(result.status()).isEqualTo(Status.IGNORED);
+        verifyNoInteractions(incidentRepository, deploymentFailureCorrelator);
+    }
+
+    @Test
+    @DisplayName("Un payload sin incidente debe rechazarse")
+    void receive_payloadWithoutIncident_shouldThrow() {
+        byte[] payload = "{\"service\": \"tesis-backend\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(IllegalArgumentException.class, () -> service.receive(payload));
+    }
+
+    private static byte[] recorded(String name) throws IOException {
+        try (InputStream in = IncidentNotificationServiceTest.class.getResourceAsStream("/webhooks/" + name)) {
+            assertThat(in).as("recorded payload %s", name).isNotNull();
+            return in.readAllBytes();
+        }
+    }
+}
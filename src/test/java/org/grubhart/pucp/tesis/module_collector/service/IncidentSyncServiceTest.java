@@ -1,7 +1,9 @@
 package org.grubhart.pucp.tesis.module_collector.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.grubhart.pucp.tesis.module_collector.datadog.DatadogIncidentClient;
 import org.grubhart.pucp.tesis.module_collector.datadog.dto.*;
+import org.grubhart.pucp.tesis.module_collector.metrics.CollectorMetrics;
 import org.grubhart.pucp.tesis.module_domain.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -18,9 +20,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -41,12 +45,21 @@ class IncidentSyncServiceTest {
     @Mock
     private RepositoryConfigRepository repositoryConfigRepository;
 
+    @Mock
+    private DeploymentFailureCorrelator deploymentFailureCorrelator;
+
+    @Mock
+    private SyncLockService syncLockService;
+
     @InjectMocks
     private IncidentSyncService incidentSyncService;
 
     @Captor
     private ArgumentCaptor<Incident> incidentCaptor;
 
+    @Captor
+    private ArgumentCaptor<List<Incident>> incidentBatchCaptor;
+
     @Captor
     private ArgumentCaptor<SyncStatus> syncStatusCaptor;
 
@@ -59,10 +72,26 @@ class IncidentSyncServiceTest {
                 datadogClient,
                 incidentRepository,
                 syncStatusRepository,
-                repositoryConfigRepository
+                repositoryConfigRepository,
+                deploymentFailureCorrelator,
+                syncLockService,
+                new CollectorMetrics(new SimpleMeterRegistry())
         );
     }
 
+    @Test
+    @DisplayName("GIVEN another instance holds the incidents lock WHEN the scheduled sync fires THEN should not call Datadog")
+    void scheduledSync_whenLockIsHeldElsewhere_shouldSkip() {
+        // Given
+        when(syncLockService.runExclusively(eq(SyncLockService.INCIDENTS_LOCK), any())).thenReturn(false);
+
+        // When
+        incidentSyncService.scheduledSync();
+
+        // Then
+        verifyNoInteractions(datadogClient, repositoryConfigRepository);
+    }
+
     @Test
     @DisplayName("GIVEN no configured repositories WHEN syncing incidents THEN should do nothing and log a warning")
     void shouldDoNothingWhenNoRepositoriesConfigured() {
@@ -74,6 +103,7 @@ class IncidentSyncServiceTest {
 
         // Then
         verify(datadogClient, never()).getIncidents(any(), any());
+        verify(incidentRepository, never()).saveAll(any());
         verify(incidentRepository, never()).save(any());
         verify(syncStatusRepository, never()).save(any());
     }
@@ -94,7 +124,7 @@ class IncidentSyncServiceTest {
                 new DatadogMeta(new DatadogPagination(0, 1))
         );
         when(datadogClient.getIncidents(any(Instant.class), eq(SERVICE_NAME))).thenReturn(responseWithIncident);
-        when(incidentRepository.findByDatadogIncidentId(any())).thenReturn(Optional.empty());
+        when(incidentRepository.findByDatadogIncidentIdIn(anyCollection())).thenReturn(List.of());
 
         // When
         incidentSyncService.syncIncidents();
@@ -121,7 +151,7 @@ class IncidentSyncServiceTest {
                 new DatadogMeta(new DatadogPagination(0, 1))
         );
         when(datadogClient.getIncidents(any(Instant.class), eq(SERVICE_NAME))).thenReturn(responseWithIncident);
-        when(incidentRepository.findByDatadogIncidentId(any())).thenReturn(Optional.empty());
+        when(incidentRepository.findByDatadogIncidentIdIn(anyCollection())).thenReturn(List.of());
 
         // When
         incidentSyncService.syncIncidents();
@@ -153,7 +183,7 @@ class IncidentSyncServiceTest {
                 new DatadogMeta(new DatadogPagination(0, 1))
         );
         when(datadogClient.getIncidents(any(Instant.class), eq(workingService))).thenReturn(responseWithIncident);
-        when(incidentRepository.findByDatadogIncidentId(any())).thenReturn(Optional.empty());
+        when(incidentRepository.findByDatadogIncidentIdIn(anyCollection())).thenReturn(List.of());
 
         // When
         incidentSyncService.syncIncidents();
@@ -180,7 +210,7 @@ class IncidentSyncServiceTest {
                 new DatadogMeta(new DatadogPagination(0, 1))
         );
         when(datadogClient.getIncidents(any(Instant.class), anyString())).thenReturn(responseWithIncident);
-        when(incidentRepository.findByDatadogIncidentId(any())).thenReturn(Optional.empty());
+        when(incidentRepository.findByDatadogIncidentIdIn(anyCollection())).thenReturn(List.of());
 
         // WHEN
         incidentSyncService.syncIncidents();
@@ -208,7 +238,7 @@ class IncidentSyncServiceTest {
                 new DatadogMeta(new DatadogPagination(0, 1))
         );
         when(datadogClient.getIncidents(any(Instant.class), eq(SERVICE_NAME))).thenReturn(responseWithIncident);
-        when(incidentRepository.findByDatadogIncidentId(any())).thenReturn(Optional.empty());
+        when(incidentRepository.findByDatadogIncidentIdIn(anyCollection())).thenReturn(List.of());
 
         // When
         incidentSyncService.syncIncidents();
@@ -285,15 +315,15 @@ class IncidentSyncServiceTest {
         );
 
         when(datadogClient.getIncidents(any(Instant.class), eq(SERVICE_NAME))).thenReturn(response);
-        when(incidentRepository.findByDatadogIncidentId("incident-123")).thenReturn(Optional.empty());
+        when(incidentRepository.findByDatadogIncidentIdIn(Set.of("incident-123"))).thenReturn(List.of());
 
         // When
         incidentSyncService.syncIncidents();
 
         // Then
-        verify(incidentRepository).save(incidentCaptor.capture());
+        verify(incidentRepository).saveAll(incidentBatchCaptor.capture());
 
-        Incident savedIncident = incidentCaptor.getValue();
+        Incident savedIncident = incidentBatchCaptor.getValue().get(0);
         assertThat(savedIncident.getDatadogIncidentId()).isEqualTo("incident-123");
         assertThat(savedIncident.getTitle()).isEqualTo("Database connection timeout");
         assertThat(savedIncident.getState()).isEqualTo(IncidentState.RESOLVED);
@@ -352,21 +382,95 @@ class IncidentSyncServiceTest {
         );
 
         when(datadogClient.getIncidents(any(Instant.class), eq(SERVICE_NAME))).thenReturn(response);
-        when(incidentRepository.findByDatadogIncidentId("incident-123")).thenReturn(Optional.of(existingIncident));
+        when(incidentRepository.findByDatadogIncidentIdIn(Set.of("incident-123"))).thenReturn(List.of(existingIncident));
 
         // When
         incidentSyncService.syncIncidents();
 
         // Then
-        verify(incidentRepository).save(incidentCaptor.capture());
+        verify(incidentRepository).saveAll(incidentBatchCaptor.capture());
 
-        Incident updatedIncident = incidentCaptor.getValue();
+        Incident updatedIncident = incidentBatchCaptor.getValue().get(0);
         assertThat(updatedIncident.getId()).isEqualTo(1L); // Same ID - it's an update
         assertThat(updatedIncident.getState()).isEqualTo(IncidentState.RESOLVED); // Updated state
         assertThat(updatedIncident.getResolvedTime()).isNotNull(); // Now has resolved time
         assertThat(updatedIncident.getDurationSeconds()).isEqualTo(7200L); // Now has duration
     }
 
+    @Test
+    @DisplayName("GIVEN existing incident with same state and modification date WHEN syncing THEN should not rewrite it")
+    void shouldSkipUnchangedExistingIncident() {
+        // Given
+        RepositoryConfig repoConfig = new RepositoryConfig("https://github.com/test/repo", SERVICE_NAME);
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(repoConfig));
+        when(syncStatusRepository.findById(anyString())).thenReturn(Optional.empty());
+
+        Instant createdTime = Instant.parse("2025-01-01T12:00:00Z");
+        Instant modifiedTime = Instant.parse("2025-01-01T13:00:00Z");
+
+        Incident existingIncident = new Incident(
+                "incident-123",
+                repoConfig,
+                "Database connection timeout",
+                IncidentState.ACTIVE,
+                IncidentSeverity.SEV2,
+                LocalDateTime.ofInstant(createdTime, ZoneOffset.UTC),
+                null,
+                null,
+                SERVICE_NAME,
+                LocalDateTime.ofInstant(createdTime, ZoneOffset.UTC),
+                LocalDateTime.ofInstant(modifiedTime, ZoneOffset.UTC)
+        );
+        existingIncident.setId(1L);
+
+        DatadogIncidentResponse response = new DatadogIncidentResponse(
+                List.of(new DatadogIncidentData("incident-123", "incidents",
+                        new DatadogIncidentAttributes("Database connection timeout", "all", createdTime, modifiedTime,
+                                null, "active", "SEV-2", null))),
+                new DatadogMeta(new DatadogPagination(0, 1))
+        );
+
+        when(datadogClient.getIncidents(any(Instant.class), eq(SERVICE_NAME))).thenReturn(response);
+        when(incidentRepository.findByDatadogIncidentIdIn(Set.of("incident-123"))).thenReturn(List.of(existingIncident));
+
+        // When
+        incidentSyncService.syncIncidents();
+
+        // Then
+        verify(incidentRepository, never()).saveAll(any());
+        verify(incidentRepository, never()).save(any(Incident.class));
+        verify(syncStatusRepository).save(any(SyncStatus.class)); // The incident was still processed
+    }
+
+    @Test
+    @DisplayName("GIVEN more incidents than the batch size WHEN syncing THEN should look up and save once per batch")
+    void shouldLookUpAndSaveIncidentsOncePerBatch() {
+        // Given
+        RepositoryConfig repoConfig = new RepositoryConfig("https://github.com/test/repo", SERVICE_NAME);
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(repoConfig));
+        when(syncStatusRepository.findById(anyString())).thenReturn(Optional.empty());
+
+        Instant now = Instant.now();
+        int total = IncidentSyncService.INCIDENT_BATCH_SIZE + 1;
+        List<DatadogIncidentData> data = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            data.add(new DatadogIncidentData("inc-" + i, "incidents",
+                    new DatadogIncidentAttributes("Test " + i, "none", now, now, null, "active", "SEV-5", null)));
+        }
+        when(datadogClient.getIncidents(any(Instant.class), eq(SERVICE_NAME)))
+                .thenReturn(new DatadogIncidentResponse(data, new DatadogMeta(new DatadogPagination(0, total))));
+
+        // When
+        incidentSyncService.syncIncidents();
+
+        // Then
+        verify(incidentRepository, times(2)).findByDatadogIncidentIdIn(anyCollection());
+        verify(incidentRepository, times(2)).saveAll(incidentBatchCaptor.capture());
+        assertThat(incidentBatchCaptor.getAllValues().get(0)).hasSize(IncidentSyncService.INCIDENT_BATCH_SIZE);
+        assertThat(incidentBatchCaptor.getAllValues().get(1)).hasSize(1);
+        verify(incidentRepository, never()).save(any(Incident.class));
+    }
+
     @Test
     @DisplayName("GIVEN active incident with no resolution WHEN syncing THEN should save without duration")
     void shouldHandleActiveIncidentWithoutResolution() {
@@ -401,15 +505,15 @@ class IncidentSyncServiceTest {
         );
 
         when(datadogClient.getIncidents(any(Instant.class), eq(SERVICE_NAME))).thenReturn(response);
-        when(incidentRepository.findByDatadogIncidentId("incident-456")).thenReturn(Optional.empty());
+        when(incidentRepository.findByDatadogIncidentIdIn(Set.of("incident-456"))).thenReturn(List.of());
 
         // When
         incidentSyncService.syncIncidents();
 
         // Then
-        verify(incidentRepository).save(incidentCaptor.capture());
+        verify(incidentRepository).saveAll(incidentBatchCaptor.capture());
 
-        Incident savedIncident = incidentCaptor.getValue();
+        Incident savedIncident = incidentBatchCaptor.getValue().get(0);
         assertThat(savedIncident.getState()).isEqualTo(IncidentState.ACTIVE);
         assertThat(savedIncident.getResolvedTime()).isNull();
         assertThat(savedIncident.getDurationSeconds()).isNull();
@@ -431,7 +535,7 @@ class IncidentSyncServiceTest {
                 new DatadogMeta(new DatadogPagination(0, 1))
         );
         when(datadogClient.getIncidents(any(Instant.class), eq(SERVICE_NAME))).thenReturn(responseWithIncident);
-        when(incidentRepository.findByDatadogIncidentId(any())).thenReturn(Optional.empty());
+        when(incidentRepository.findByDatadogIncidentIdIn(anyCollection())).thenReturn(List.of());
 
         // When
         LocalDateTime beforeSync = LocalDateTime.now();
@@ -463,6 +567,7 @@ class IncidentSyncServiceTest {
         incidentSyncService.syncIncidents();
 
         // Then
+        verify(incidentRepository, never()).saveAll(any());
         verify(incidentRepository, never()).save(any(Incident.class));
         verify(syncStatusRepository, never()).save(any(SyncStatus.class)); // Should NOT update sync status when no incidents
     }
@@ -490,7 +595,9 @@ class IncidentSyncServiceTest {
         when(datadogClient.getIncidents(any(Instant.class), eq(SERVICE_NAME))).thenReturn(response);
         when(syncStatusRepository.findById(anyString())).thenReturn(Optional.empty());
 
-        // Make the first incident fail on save
+        // The batch insert fails, and so does the individual retry of the first incident
+        doThrow(new RuntimeException("Database constraint violation"))
+                .when(incidentRepository).saveAll(anyList());
         doThrow(new RuntimeException("Database constraint violation"))
                 .when(incidentRepository).save(argThat(incident -> incident.getDatadogIncidentId().equals("incident-1")));
 
@@ -498,7 +605,7 @@ class IncidentSyncServiceTest {
         incidentSyncService.syncIncidents();
 
         // Then
-        // Verify that save was attempted for both incidents
+        // Verify that save was retried individually for both incidents
         verify(incidentRepository, times(2)).save(incidentCaptor.capture());
 
         List<Incident> capturedIncidents = incidentCaptor.getAllValues();
@@ -589,14 +696,14 @@ class IncidentSyncServiceTest {
         );
 
         when(datadogClient.getIncidents(any(Instant.class), eq(SERVICE_NAME))).thenReturn(response);
-        when(incidentRepository.findByDatadogIncidentId("incident-123")).thenReturn(Optional.empty());
+        when(incidentRepository.findByDatadogIncidentIdIn(Set.of("incident-123"))).thenReturn(List.of());
 
         // When
         incidentSyncService.syncIncidents();
 
         // Then
-        verify(incidentRepository).save(incidentCaptor.capture());
-        Incident savedIncident = incidentCaptor.getValue();
+        verify(incidentRepository).saveAll(incidentBatchCaptor.capture());
+        Incident savedIncident = incidentBatchCaptor.getValue().get(0);
 
         assertThat(savedIncident.getRepository()).isNotNull();
         assertThat(savedIncident.getRepository()).isEqualTo(repoConfig);
@@ -17,6 +17,7 @@ import java.util.Set;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -179,6 +180,13 @@ class PullRequestSyncServiceTest {
         verify(syncStatusRepository, never()).save(any());
     }
 
+    @Test
+    void syncRepository_whenApiFails_shouldReportFailure() {
+        RepositoryConfig config = new RepositoryConfig("https://github.com/test-owner/test-repo");
+        when(githubClient.getPullRequests(anyString(), anyString(), any())).thenThrow(new RuntimeException("API Error"));
+        assertThat(pullRequestSyncService.syncRepository(config)).isFalse();
+    }
+
     @Test
     void shouldSyncForAllConfiguredRepositories() {
         // GIVEN
@@ -194,4 +202,47 @@ class PullRequestSyncServiceTest {
         verify(githubClient, times(1)).getPullRequests(eq("owner2"), eq("repo2"), any());
         verify(syncStatusRepository, times(2)).save(any());
     }
+
+    @Test
+    void ingestPullRequest_shouldUpdateStateAndMergeDateOfExistingPullRequest() {
+        RepositoryConfig config = new RepositoryConfig("https://github.com/test-owner/test-repo");
+        PullRequest existing = new PullRequest();
+        existing.setId(123L);
+        existing.setState("open");
+        existing.setFirstCommitSha("a94a8fe5ccb19ba61c4c0873d391e987982fbbd3");
+        when(pullRequestRepository.findById(123L)).thenReturn(Optional.of(existing));
+
+        GithubPullRequestDto merged = new GithubPullRequestDto();
+        merged.setId(123L);
+        merged.setState("closed");
+        merged.setMergedAt(LocalDateTime.of(2025, 1, 2, 10, 0));
+
+        pullRequestSyncService.ingestPullRequest(config, merged);
+
+        verify(pullRequestRepository).save(existing);
+        assertThat(existing.getState()).isEqualTo("closed");
+        assertThat(existing.getMergedAt()).isEqualTo(LocalDateTime.of(2025, 1, 2, 10, 0));
+        assertThat(existing.getFirstCommitSha()).isEqualTo("a94a8fe5ccb19ba61c4c0873d391e987982fbbd3");
+        verify(githubClient, never()).getFirstCommitShaForPr(anyString(), anyString(), anyInt());
+    }
+
+    @Test
+    void ingestPullRequest_shouldInsertNewPullRequestWithItsFirstCommit() {
+        RepositoryConfig config = new RepositoryConfig("https://github.com/test-owner/test-repo");
+        when(pullRequestRepository.findById(456L)).thenReturn(Optional.empty());
+        when(githubClient.getFirstCommitShaForPr("test-owner", "test-repo", 101)).thenReturn("sha-of-first-commit");
+
+        GithubPullRequestDto opened = new GithubPullRequestDto();
+        opened.setId(456L);
+        opened.setNumber(101);
+        opened.setState("open");
+
+        pullRequestSyncService.ingestPullRequest(config, opened);
+
+        ArgumentCaptor<List<PullRequest>> captor = ArgumentCaptor.forClass(List.class);
+        verify(pullRequestRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).singleElement()
+                .satisfies(pr -> assertThat(pr.getFirstCommitSha()).isEqualTo("sha-of-first-commit"));
+        verify(githubClient, never()).getPullRequests(anyString(), anyString(), any());
+    }
 }
@@ -0,0 +1,258 @@
+package org.grubhart.pucp.tesis.module_collector.service;
+
+import org.grubhart.pucp.tesis.module_collector.IngestionKind;
+import org.grubhart.pucp.tesis.module_domain.GitHubWorkflowRunDto;
+import org.grubhart.pucp.tesis.module_domain.GithubPullRequestDto;
+import org.grubhart.pucp.tesis.module_domain.RepositoryConfig;
+import org.grubhart.pucp.tesis.module_domain.RepositoryConfigRepository;
+import org.grubhart.pucp.tesis.module_processor.LeadTimeCalculationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RepositoryIngestionQueueTest {
+
+    @Mock
+    private RepositoryConfigRepository repositoryConfigRepository;
+    @Mock
+    private CommitSyncService commitSyncService;
+    @Mock
+    private PullRequestSyncService pullRequestSyncService;
+    @Mock
+    private DeploymentSyncService deploymentSyncService;
+    @Mock
+    private LeadTimeCalculationService leadTimeCalculationService;
+    @Mock
+    private SyncLockService syncLockService;
+    @Mock
+    private ScheduledExecutorService retryScheduler;
+
+    private final List<Runnable> submitted = new ArrayList<>();
+    private RepositoryIngestionQueue queue;
+    private RepositoryConfig config;
+
+    @BeforeEach
+    void setUp() {
+        queue = new RepositoryIngestionQueue(repositoryConfigRepository, commitSyncService,
+                pullRequestSyncService, deploymentSyncService, leadTimeCalculationService, syncLockService, submitted::add,
+                retryScheduler, Duration.ofMinutes(1));
+        config = new RepositoryConfig("https://github.com/Owner/Repo");
+        runTasksWhenLockIsFree();
+    }
+
+    @Test
+    @DisplayName("enqueue debe sincronizar solo el repositorio afectado con el servicio correspondiente")
+    void enqueue_shouldRunSyncForMatchingRepository() {
+        // Arrange
+        RepositoryConfig other = new RepositoryConfig("https://github.com/owner/other");
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(other, config));
+        when(deploymentSyncService.syncRepository(config)).thenReturn(1);
+
+        // Act
+        boolean accepted = queue.enqueue("owner", "repo", IngestionKind.DEPLOYMENTS);
+        submitted.forEach(Runnable::run);
+
+        // Assert
+        assertThat(accepted).isTrue();
+        verify(deploymentSyncService).syncRepository(config);
+        verify(syncLockService).runExclusively(eq(SyncLockService.LEAD_TIME_LOCK), any());
+        verify(leadTimeCalculationService).calculate();
+        verifyNoInteractions(commitSyncService, pullRequestSyncService);
+    }
+
+    @Test
+    @DisplayName("El cálculo de lead time debe tomar su lock y reintentarse si otra instancia lo tiene")
+    void enqueue_whenLeadTimeLockIsHeld_shouldRetryCalculationLater() {
+        // Arrange
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(config));
+        when(deploymentSyncService.syncRepository(config)).thenReturn(1);
+        doReturn(false).when(syncLockService).runExclusively(eq(SyncLockService.LEAD_TIME_LOCK), any());
+        ArgumentCaptor<Runnable> retry = ArgumentCaptor.forClass(Runnable.class);
+
+        // Act
+        queue.enqueue("owner", "repo", IngestionKind.DEPLOYMENTS);
+        submitted.forEach(Runnable::run);
+
+        // Assert
+        verify(deploymentSyncService).syncRepository(config);
+        verify(leadTimeCalculationService, never()).calculate();
+        verify(retryScheduler).schedule(retry.capture(), eq(60_000L), eq(TimeUnit.MILLISECONDS));
+
+        // El reintento calcula cuando el lock se libera
+        runTasksWhenLockIsFree();
+        retry.getValue().run();
+        verify(leadTimeCalculationService).calculate();
+    }
+
+    @Test
+    @DisplayName("enqueue debe combinar solicitudes repetidas mientras la primera sigue pendiente")
+    void enqueue_whenSameTaskIsPending_shouldCoalesce() {
+        // Arrange
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(config));
+
+        // Act
+        queue.enqueue("owner", "repo", IngestionKind.COMMITS);
+        queue.enqueue("owner", "repo", IngestionKind.COMMITS);
+        queue.enqueue("owner", "repo", IngestionKind.PULL_REQUESTS);
+        submitted.forEach(Runnable::run);
+
+        // Assert
+        assertThat(submitted).hasSize(2);
+        verify(commitSyncService, times(1)).syncRepository(config);
+        verify(pullRequestSyncService, times(1)).syncRepository(config);
+    }
+
+    @Test
+    @DisplayName("enqueue debe aceptar una nueva solicitud una vez que la anterior empezó a ejecutarse")
+    void enqueue_afterPendingTaskStarted_shouldScheduleAgain() {
+        // Arrange
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(config));
+
+        // Act
+        queue.enqueue("owner", "repo", IngestionKind.COMMITS);
+        submitted.get(0).run();
+        queue.enqueue("owner", "repo", IngestionKind.COMMITS);
+
+        // Assert
+        assertThat(submitted).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("enqueue debe descartar repositorios no configurados")
+    void enqueue_whenRepositoryIsUnknown_shouldReturnFalse() {
+        // Arrange
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(config));
+
+        // Act
+        boolean accepted = queue.enqueue("someone", "else", IngestionKind.COMMITS);
+
+        // Assert
+        assertThat(accepted).isFalse();
+        assertThat(submitted).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Un error en la sincronización no debe propagarse fuera del hilo de la cola")
+    void run_whenSyncFails_shouldNotPropagate() {
+        // Arrange
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(config));
+        doThrow(new RuntimeException("boom")).when(commitSyncService).syncRepository(any());
+
+        // Act
+        queue.enqueue("owner", "repo", IngestionKind.COMMITS);
+        submitted.forEach(Runnable::run);
+
+        // Assert
+        verify(commitSyncService).syncRepository(config);
+    }
+
+    @Test
+    @DisplayName("Si otra instancia tiene el lock del repositorio, la tarea debe reintentarse más tarde")
+    void run_whenRepositoryLockIsHeld_shouldScheduleRetry() {
+        // Arrange
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(config));
+        doReturn(false).when(syncLockService).runExclusively(eq("repository:https://github.com/Owner/Repo"), any());
+        ArgumentCaptor<Runnable> retry = ArgumentCaptor.forClass(Runnable.class);
+
+        // Act
+        queue.enqueue("owner", "repo", IngestionKind.COMMITS);
+        submitted.get(0).run();
+
+        // Assert
+        verifyNoInteractions(commitSyncService);
+        verify(retryScheduler).schedule(retry.capture(), eq(60_000L), eq(TimeUnit.MILLISECONDS));
+
+        // El reintento vuelve a encolar la tarea y sincroniza cuando el lock se libera
+        runTasksWhenLockIsFree();
+        retry.getValue().run();
+        assertThat(submitted).hasSize(2);
+        submitted.get(1).run();
+        verify(commitSyncService).syncRepository(config);
+    }
+
+    @Test
+    @DisplayName("ingestWorkflowRun debe guardar la ejecución del evento y recalcular el lead time si es nueva")
+    void ingestWorkflowRun_shouldSaveRunAndCalculateLeadTime() {
+        // Arrange
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(config));
+        GitHubWorkflowRunDto run = new GitHubWorkflowRunDto();
+        run.setId(99L);
+        when(deploymentSyncService.ingestWorkflowRun(config, run)).thenReturn(1);
+
+        // Act
+        boolean accepted = queue.ingestWorkflowRun("owner", "repo", run);
+        submitted.forEach(Runnable::run);
+
+        // Assert
+        assertThat(accepted).isTrue();
+        verify(leadTimeCalculationService).calculate();
+        verify(deploymentSyncService, never()).syncRepository(any());
+    }
+
+    @Test
+    @DisplayName("ingestPush debe guardar el rango del push sin sincronizar el repositorio completo")
+    void ingestPush_shouldSaveTheRangeOfThePush() {
+        // Arrange
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(config));
+
+        // Act
+        queue.ingestPush("owner", "repo", "abc000", "abc123");
+        submitted.forEach(Runnable::run);
+
+        // Assert
+        verify(commitSyncService).ingestPush(config, "abc000", "abc123");
+        verify(commitSyncService, never()).syncRepository(any());
+    }
+
+    @Test
+    @DisplayName("ingestPullRequest debe combinar el mismo evento repetido pero no dos estados distintos del PR")
+    void ingestPullRequest_shouldCoalesceOnlyIdenticalEvents() {
+        // Arrange
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(config));
+        GithubPullRequestDto opened = pullRequest(LocalDateTime.of(2025, 1, 1, 10, 0));
+        GithubPullRequestDto merged = pullRequest(LocalDateTime.of(2025, 1, 2, 10, 0));
+
+        // Act
+        queue.ingestPullRequest("owner", "repo", opened);
+        queue.ingestPullRequest("owner", "repo", opened);
+        queue.ingestPullRequest("owner", "repo", merged);
+        submitted.forEach(Runnable::run);
+
+        // Assert
+        assertThat(submitted).hasSize(2);
+        // El DTO se compara por id: se verifica la instancia de cada tarea
+        verify(pullRequestSyncService).ingestPullRequest(eq(config), same(opened));
+        verify(pullRequestSyncService).ingestPullRequest(eq(config), same(merged));
+    }
+
+    private static GithubPullRequestDto pullRequest(LocalDateTime updatedAt) {
+        GithubPullRequestDto dto = new GithubPullRequestDto();
+        dto.setId(42L);
+        dto.setUpdatedAt(updatedAt);
+        return dto;
+    }
+
+    private void runTasksWhenLockIsFree() {
+        lenient().when(syncLockService.runExclusively(anyString(), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        });
+    }
+}
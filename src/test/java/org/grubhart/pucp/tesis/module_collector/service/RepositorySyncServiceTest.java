@@ -1,7 +1,10 @@
 package org.grubhart.pucp.tesis.module_collector.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.grubhart.pucp.tesis.module_collector.metrics.CollectorMetrics;
 import org.grubhart.pucp.tesis.module_domain.GithubRepositoryCollector;
 import org.grubhart.pucp.tesis.module_domain.GithubRepositoryDto;
+import org.grubhart.pucp.tesis.module_domain.ReferenceDataCache;
 import org.grubhart.pucp.tesis.module_domain.RepositoryConfig;
 import org.grubhart.pucp.tesis.module_domain.RepositoryConfigRepository;
 import org.grubhart.pucp.tesis.module_domain.RepositorySyncResult;
@@ -30,6 +33,9 @@ class RepositorySyncServiceTest {
     @Mock
     private RepositoryConfigRepository repositoryConfigRepository;
 
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
     @Captor
     private ArgumentCaptor<List<RepositoryConfig>> repositoryListCaptor;
 
@@ -42,6 +48,8 @@ class RepositorySyncServiceTest {
         repositorySyncService = new RepositorySyncService(
                 githubRepositoryCollector,
                 repositoryConfigRepository,
+                referenceDataCache,
+                new CollectorMetrics(new SimpleMeterRegistry()),
                 ORG_NAME
         );
     }
@@ -71,6 +79,7 @@ class RepositorySyncServiceTest {
         assertThat(savedRepos.get(0).getDatadogServiceName()).isNull();
         assertThat(savedRepos.get(1).getRepositoryUrl()).isEqualTo("https://github.com/user/repo2");
         assertThat(savedRepos.get(1).getDatadogServiceName()).isNull();
+        verify(referenceDataCache).evictRepositories();
 
         assertThat(result.newRepositories()).isEqualTo(2);
         assertThat(result.totalRepositories()).isEqualTo(2);
@@ -96,6 +105,7 @@ class RepositorySyncServiceTest {
 
         // Then
         verify(repositoryConfigRepository, never()).saveAll(anyList());
+        verify(referenceDataCache, never()).evictRepositories();
 
         assertThat(result.newRepositories()).isEqualTo(0);
         assertThat(result.totalRepositories()).isEqualTo(1);
@@ -0,0 +1,163 @@
+package org.grubhart.pucp.tesis.module_collector.service;
+
+import org.grubhart.pucp.tesis.module_domain.SyncLock;
+import org.grubhart.pucp.tesis.module_domain.SyncLockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SyncLockServiceTest {
+
+    private static final String LOCK = "repository:https://github.com/owner/repo";
+    private static final String INSTANCE = "node-a";
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 12, 0);
+    private static final Duration LEASE = Duration.ofMinutes(5);
+
+    @Mock
+    private SyncLockRepository syncLockRepository;
+
+    private SyncLockService service;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        service = new SyncLockService(syncLockRepository, INSTANCE, LEASE, clock, null);
+    }
+
+    @Test
+    @DisplayName("runExclusively debe ejecutar la tarea y liberar el lock cuando el lease anterior venció")
+    void runExclusively_whenLeaseExpired_shouldRunAndRelease() {
+        // Arrange
+        when(syncLockRepository.acquireExpired(LOCK, INSTANCE, NOW, NOW.plus(LEASE))).thenReturn(1);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        // Act
+        boolean result = service.runExclusively(LOCK, () -> ran.set(true));
+
+        // Assert
+        assertThat(result).isTrue();
+        assertThat(ran).isTrue();
+        verify(syncLockRepository).release(LOCK, INSTANCE, NOW);
+        verify(syncLockRepository, never()).insertLock(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("runExclusively debe crear el lock la primera vez que se usa")
+    void runExclusively_whenLockDoesNotExist_shouldInsertIt() {
+        // Arrange
+        when(syncLockRepository.acquireExpired(any(), any(), any(), any())).thenReturn(0);
+        when(syncLockRepository.existsById(LOCK)).thenReturn(false);
+        when(syncLockRepository.insertLock(LOCK, INSTANCE, NOW, NOW.plus(LEASE))).thenReturn(1);
+
+        // Act
+        boolean result = service.runExclusively(LOCK, () -> { });
+
+        // Assert
+        assertThat(result).isTrue();
+    }
+
+    @Test
+    @DisplayName("runExclusively no debe ejecutar la tarea si otra instancia tiene el lock vigente")
+    void runExclusively_whenHeldElsewhere_shouldSkip() {
+        // Arrange
+        when(syncLockRepository.acquireExpired(any(), any(), any(), any())).thenReturn(0);
+        when(syncLockRepository.existsById(LOCK)).thenReturn(true);
+        Runnable task = mock(Runnable.class);
+
+        // Act
+        boolean result = service.runExclusively(LOCK, task);
+
+        // Assert
+        assertThat(result).isFalse();
+        verifyNoInteractions(task);
+        verify(syncLockRepository, never()).release(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Si otra instancia inserta el lock en paralelo, esta debe perderlo sin error")
+    void tryAcquire_whenInsertRaces_shouldReturnFalse() {
+        // Arrange
+        when(syncLockRepository.acquireExpired(any(), any(), any(), any())).thenReturn(0);
+        when(syncLockRepository.existsById(LOCK)).thenReturn(false);
+        when(syncLockRepository.insertLock(any(), any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+
+        // Act & Assert
+        assertThat(service.tryAcquire(LOCK)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Dentro de la misma instancia, un lock tomado no debe poder tomarse de nuevo")
+    void tryAcquire_whenAlreadyHeldLocally_shouldReturnFalseWithoutQuerying() {
+        // Arrange
+        when(syncLockRepository.acquireExpired(any(), any(), any(), any())).thenReturn(1);
+        service.tryAcquire(LOCK);
+
+        // Act & Assert
+        assertThat(service.tryAcquire(LOCK)).isFalse();
+        verify(syncLockRepository, times(1)).acquireExpired(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("runExclusively debe liberar el lock aunque la tarea falle")
+    void runExclusively_whenTaskFails_shouldStillRelease() {
+        // Arrange
+        when(syncLockRepository.acquireExpired(any(), any(), any(), any())).thenReturn(1);
+
+        // Act
+        assertThrows(IllegalStateException.class,
+                () -> service.runExclusively(LOCK, () -> { throw new IllegalStateException("boom"); }));
+
+        // Assert
+        verify(syncLockRepository).release(LOCK, INSTANCE, NOW);
+        assertThat(service.tryAcquire(LOCK)).isTrue();
+    }
+
+    @Test
+    @DisplayName("renewHeldLocks debe extender el lease solo de los locks que tiene esta instancia")
+    void renewHeldLocks_shouldExtendLeaseOfHeldLocks() {
+        // Arrange
+        when(syncLockRepository.acquireExpired(any(), any(), any(), any())).thenReturn(1);
+        when(syncLockRepository.renew(LOCK, INSTANCE, NOW, NOW.plus(LEASE))).thenReturn(1);
+        service.tryAcquire(LOCK);
+
+        // Act
+        service.renewHeldLocks();
+
+        // Assert
+        verify(syncLockRepository).renew(LOCK, INSTANCE, NOW, NOW.plus(LEASE));
+    }
+
+    @Test
+    @DisplayName("describeLocks debe indicar qué locks están vigentes y cuáles son de esta instancia")
+    void describeLocks_shouldReportOwnershipAndExpiry() {
+        // Arrange
+        when(syncLockRepository.findAll()).thenReturn(List.of(
+                new SyncLock("sync:discovery", INSTANCE, NOW.minusMinutes(1), NOW.plusMinutes(4)),
+                new SyncLock(LOCK, "node-b", NOW.minusMinutes(10), NOW.minusMinutes(5))));
+
+        // Act
+        List<SyncLockService.LockView> locks = service.describeLocks();
+
+        // Assert
+        assertThat(locks).extracting(SyncLockService.LockView::active).containsExactly(true, false);
+        assertThat(locks).extracting(SyncLockService.LockView::heldByThisInstance).containsExactly(true, false);
+    }
+}
@@ -0,0 +1,244 @@
+package org.grubhart.pucp.tesis.module_collector.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.grubhart.pucp.tesis.module_collector.SyncCycleCompletedEvent;
+import org.grubhart.pucp.tesis.module_collector.metrics.CollectorMetrics;
+import org.grubhart.pucp.tesis.module_domain.RepositoryConfig;
+import org.grubhart.pucp.tesis.module_domain.RepositoryConfigRepository;
+import org.grubhart.pucp.tesis.module_processor.LeadTimeCalculationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SyncPipelineOrchestratorTest {
+
+    @Mock
+    private RepositorySyncService repositorySyncService;
+    @Mock
+    private UserSyncService userSyncService;
+    @Mock
+    private AuthorIdentityResolver authorIdentityResolver;
+    @Mock
+    private CommitSyncService commitSyncService;
+    @Mock
+    private PullRequestSyncService pullRequestSyncService;
+    @Mock
+    private DeploymentSyncService deploymentSyncService;
+    @Mock
+    private LeadTimeCalculationService leadTimeCalculationService;
+    @Mock
+    private RepositoryConfigRepository repositoryConfigRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private SyncLockService syncLockService;
+
+    private SyncPipelineOrchestrator orchestrator;
+    private RepositoryConfig repo1;
+    private RepositoryConfig repo2;
+
+    @BeforeEach
+    void setUp() {
+        // Executor directo: las cadenas por repositorio se ejecutan en el hilo del test
+        orchestrator = new SyncPipelineOrchestrator(repositorySyncService, userSyncService, authorIdentityResolver,
+                commitSyncService, pullRequestSyncService, deploymentSyncService, leadTimeCalculationService,
+                repositoryConfigRepository, eventPublisher, syncLockService,
+                new CollectorMetrics(new SimpleMeterRegistry()), Runnable::run);
+        repo1 = new RepositoryConfig("https://github.com/owner/repo1");
+        repo2 = new RepositoryConfig("https://github.com/owner/repo2");
+        runTasksWhenLockIsFree();
+        lenient().when(commitSyncService.syncRepository(any())).thenReturn(true);
+        lenient().when(pullRequestSyncService.syncRepository(any())).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("runCycle debe respetar el orden repositorios → usuarios → commits → PRs → deployments → lead time")
+    void runCycle_shouldRunStagesInDependencyOrder() {
+        // Arrange
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(repo1));
+        when(deploymentSyncService.syncRepository(repo1)).thenReturn(3);
+
+        // Act
+        orchestrator.runCycle();
+
+        // Assert
+        InOrder inOrder = inOrder(repositorySyncService, userSyncService, commitSyncService,
+                pullRequestSyncService, deploymentSyncService, leadTimeCalculationService, eventPublisher);
+        inOrder.verify(repositorySyncService).synchronizeRepositories();
+        inOrder.verify(userSyncService).scheduledSync();
+        inOrder.verify(commitSyncService).syncRepository(repo1);
+        inOrder.verify(pullRequestSyncService).syncRepository(repo1);
+        inOrder.verify(deploymentSyncService).syncRepository(repo1);
+        inOrder.verify(leadTimeCalculationService).calculate();
+        inOrder.verify(eventPublisher).publishEvent(any(SyncCycleCompletedEvent.class));
+    }
+
+    @Test
+    @DisplayName("runCycle debe calcular lead time una sola vez por ciclo y publicar el resumen")
+    void runCycle_shouldCalculateLeadTimeOncePerCycle() {
+        // Arrange
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(repo1, repo2));
+        when(deploymentSyncService.syncRepository(repo1)).thenReturn(2);
+        when(deploymentSyncService.syncRepository(repo2)).thenReturn(1);
+
+        // Act
+        orchestrator.runCycle();
+
+        // Assert
+        verify(leadTimeCalculationService, times(1)).calculate();
+        ArgumentCaptor<SyncCycleCompletedEvent> captor = ArgumentCaptor.forClass(SyncCycleCompletedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertThat(captor.getValue().repositories()).isEqualTo(2);
+        assertThat(captor.getValue().newDeployments()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("runCycle no debe calcular lead time si no hubo deployments nuevos")
+    void runCycle_withoutNewDeployments_shouldSkipLeadTime() {
+        // Arrange
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(repo1));
+
+        // Act
+        orchestrator.runCycle();
+
+        // Assert
+        verify(leadTimeCalculationService, never()).calculate();
+        verify(eventPublisher).publishEvent(any(SyncCycleCompletedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Si la etapa de commits informa un fallo no deben sincronizarse los PRs ni los deployments")
+    void runCycle_whenCommitStageReportsFailure_shouldSkipLaterStagesOfThatRepository() {
+        // Arrange
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(repo1, repo2));
+        when(commitSyncService.syncRepository(repo1)).thenReturn(false);
+        when(deploymentSyncService.syncRepository(repo2)).thenReturn(1);
+
+        // Act
+        orchestrator.runCycle();
+
+        // Assert
+        verify(pullRequestSyncService, never()).syncRepository(repo1);
+        verify(deploymentSyncService, never()).syncRepository(repo1);
+        verify(deploymentSyncService).syncRepository(repo2);
+    }
+
+    @Test
+    @DisplayName("Si la etapa de pull requests informa un fallo no deben sincronizarse los deployments")
+    void runCycle_whenPullRequestStageReportsFailure_shouldSkipDeployments() {
+        // Arrange
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(repo1));
+        when(pullRequestSyncService.syncRepository(repo1)).thenReturn(false);
+
+        // Act
+        orchestrator.runCycle();
+
+        // Assert
+        verify(deploymentSyncService, never()).syncRepository(repo1);
+        verify(leadTimeCalculationService, never()).calculate();
+    }
+
+    @Test
+    @DisplayName("Un fallo en un repositorio debe cortar solo su cadena y no la de los demás")
+    void runCycle_whenOneRepositoryFails_shouldContinueWithOthers() {
+        // Arrange
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(repo1, repo2));
+        doThrow(new RuntimeException("boom")).when(commitSyncService).syncRepository(repo1);
+        when(deploymentSyncService.syncRepository(repo2)).thenReturn(1);
+
+        // Act
+        orchestrator.runCycle();
+
+        // Assert
+        verify(pullRequestSyncService, never()).syncRepository(repo1);
+        verify(deploymentSyncService, never()).syncRepository(repo1);
+        verify(pullRequestSyncService).syncRepository(repo2);
+        verify(deploymentSyncService).syncRepository(repo2);
+        verify(leadTimeCalculationService).calculate();
+    }
+
+    @Test
+    @DisplayName("Un fallo en una etapa global no debe impedir la sincronización por repositorio")
+    void runCycle_whenRepositoryDiscoveryFails_shouldStillSyncConfiguredRepositories() {
+        // Arrange
+        when(repositorySyncService.synchronizeRepositories()).thenThrow(new IllegalStateException("GitHub caído"));
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(repo1));
+
+        // Act
+        orchestrator.runCycle();
+
+        // Assert
+        verify(userSyncService).scheduledSync();
+        verify(commitSyncService).syncRepository(repo1);
+    }
+
+    @Test
+    @DisplayName("Con varias instancias, los repositorios bloqueados por otra deben omitirse sin frenar el resto")
+    void runCycle_whenRepositoryLockIsHeldElsewhere_shouldSkipOnlyThatRepository() {
+        // Arrange
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(repo1, repo2));
+        doReturn(false).when(syncLockService).runExclusively(eq("repository:https://github.com/owner/repo1"), any());
+        when(deploymentSyncService.syncRepository(repo2)).thenReturn(1);
+
+        // Act
+        orchestrator.runCycle();
+
+        // Assert
+        verify(commitSyncService, never()).syncRepository(repo1);
+        verify(commitSyncService).syncRepository(repo2);
+        ArgumentCaptor<SyncCycleCompletedEvent> captor = ArgumentCaptor.forClass(SyncCycleCompletedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertThat(captor.getValue().newDeployments()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Si otra instancia descubre repositorios y usuarios, esta debe saltar esas etapas")
+    void runCycle_whenDiscoveryLockIsHeldElsewhere_shouldSkipGlobalStages() {
+        // Arrange
+        doReturn(false).when(syncLockService).runExclusively(eq(SyncLockService.DISCOVERY_LOCK), any());
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(repo1));
+
+        // Act
+        orchestrator.runCycle();
+
+        // Assert
+        verifyNoInteractions(repositorySyncService, userSyncService);
+        verify(commitSyncService).syncRepository(repo1);
+    }
+
+    @Test
+    @DisplayName("Cada ciclo debe recargar el índice de identidades antes de sincronizar commits, aunque no descubra usuarios")
+    void runCycle_shouldRefreshAuthorIdentitiesBeforeCommitStage() {
+        // Arrange
+        doReturn(false).when(syncLockService).runExclusively(eq(SyncLockService.DISCOVERY_LOCK), any());
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(repo1));
+
+        // Act
+        orchestrator.runCycle();
+
+        // Assert
+        InOrder inOrder = inOrder(authorIdentityResolver, commitSyncService);
+        inOrder.verify(authorIdentityResolver).refresh();
+        inOrder.verify(commitSyncService).syncRepository(repo1);
+    }
+
+    private void runTasksWhenLockIsFree() {
+        lenient().when(syncLockService.runExclusively(anyString(), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        });
+    }
+}
@@ -0,0 +1,182 @@
+package org.grubhart.pucp.tesis.module_collector.service;
+
+import org.grubhart.pucp.tesis.module_collector.github.GithubRateLimitException;
+import org.grubhart.pucp.tesis.module_domain.SyncStage;
+import org.grubhart.pucp.tesis.module_domain.SyncTask;
+import org.grubhart.pucp.tesis.module_domain.SyncTaskRepository;
+import org.grubhart.pucp.tesis.module_domain.SyncTaskStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SyncTaskServiceTest {
+
+    private static final String REPO_URL = "https://github.com/owner/repo";
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+    @Mock
+    private SyncTaskRepository syncTaskRepository;
+
+    private SyncTaskService service;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        service = new SyncTaskService(syncTaskRepository, Duration.ofMinutes(1), Duration.ofMinutes(10), 3,
+                Duration.ofMinutes(30), clock);
+    }
+
+    @Test
+    @DisplayName("planWindows debe dividir el rango en ventanas consecutivas y omitir las ya registradas")
+    void planWindows_shouldSplitRangeAndSkipExistingWindows() {
+        // Arrange
+        LocalDateTime from = NOW.minusDays(70);
+        when(syncTaskRepository.existsByRepositoryUrlAndStageAndWindowStartAndWindowEnd(
+                REPO_URL, SyncStage.COMMITS, from, from.plusDays(30))).thenReturn(true);
+
+        // Act
+        int planned = service.planWindows(REPO_URL, SyncStage.COMMITS, from, NOW, Duration.ofDays(30));
+
+        // Assert
+        assertThat(planned).isEqualTo(2);
+        ArgumentCaptor<SyncTask> captor = ArgumentCaptor.forClass(SyncTask.class);
+        verify(syncTaskRepository, times(2)).save(captor.capture());
+        assertThat(captor.getAllValues()).extracting(SyncTask::getWindowStart)
+                .containsExactly(from.plusDays(30), from.plusDays(60));
+        assertThat(captor.getAllValues()).extracting(SyncTask::getWindowEnd)
+                .containsExactly(from.plusDays(60), NOW);
+    }
+
+    @Test
+    @DisplayName("Un fallo debe reprogramar la tarea con backoff exponencial acotado")
+    void execute_whenHandlerFails_shouldRetryWithExponentialBackoff() {
+        // Arrange
+        SyncTask task = new SyncTask(REPO_URL, SyncStage.COMMITS, NOW.minusDays(1), NOW, NOW);
+        task.start(NOW);
+
+        // Act
+        boolean succeeded = service.execute(task, t -> { throw new IllegalStateException("502"); });
+
+        // Assert
+        assertThat(succeeded).isFalse();
+        assertThat(task.getStatus()).isEqualTo(SyncTaskStatus.PENDING);
+        assertThat(task.getAttempts()).isEqualTo(2);
+        assertThat(task.getNextAttemptAt()).isEqualTo(NOW.plusMinutes(2));
+        assertThat(service.backoffFor(1)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(service.backoffFor(4)).isEqualTo(Duration.ofMinutes(8));
+        assertThat(service.backoffFor(10)).isEqualTo(Duration.ofMinutes(10));
+    }
+
+    @Test
+    @DisplayName("Tras agotar los intentos la tarea debe quedar en cuarentena")
+    void execute_whenAttemptsAreExhausted_shouldQuarantine() {
+        // Arrange
+        SyncTask task = new SyncTask(REPO_URL, SyncStage.COMMITS, NOW.minusDays(1), NOW, NOW);
+        task.start(NOW);
+        task.start(NOW);
+
+        // Act
+        service.execute(task, t -> { throw new IllegalStateException("404 Not Found"); });
+
+        // Assert
+        assertThat(task.getStatus()).isEqualTo(SyncTaskStatus.QUARANTINED);
+        assertThat(task.getLastError()).contains("404 Not Found");
+    }
+
+    @Test
+    @DisplayName("Un límite de tasa de GitHub debe reintentarse cuando se renueva la cuota, sin cuarentena")
+    void execute_whenRateLimited_shouldRetryAfterResetInsteadOfQuarantine() {
+        // Arrange
+        SyncTask task = new SyncTask(REPO_URL, SyncStage.COMMITS, NOW.minusDays(1), NOW, NOW);
+        task.start(NOW);
+        task.start(NOW);
+        RuntimeException rateLimit = new RuntimeException("wrapped",
+                new GithubRateLimitException("403 rate limit exceeded", Duration.ofMinutes(45), null));
+
+        // Act
+        boolean succeeded = service.execute(task, t -> { throw rateLimit; });
+
+        // Assert
+        assertThat(succeeded).isFalse();
+        assertThat(task.getStatus()).isEqualTo(SyncTaskStatus.PENDING);
+        assertThat(task.getNextAttemptAt()).isEqualTo(NOW.plusMinutes(45));
+    }
+
+    @Test
+    @DisplayName("runDueTasks debe ejecutar las ventanas en orden y detenerse en la primera que falla")
+    void runDueTasks_shouldStopAtFirstFailure() {
+        // Arrange
+        SyncTask oldest = new SyncTask(REPO_URL, SyncStage.COMMITS, NOW.minusDays(3), NOW.minusDays(2), NOW);
+        SyncTask failing = new SyncTask(REPO_URL, SyncStage.COMMITS, NOW.minusDays(2), NOW.minusDays(1), NOW);
+        SyncTask newest = new SyncTask(REPO_URL, SyncStage.COMMITS, NOW.minusDays(1), NOW, NOW);
+        when(syncTaskRepository.findOpenForRepository(REPO_URL, SyncStage.COMMITS))
+                .thenReturn(List.of(oldest, failing, newest));
+        List<SyncTask> handled = new ArrayList<>();
+
+        // Act
+        int succeeded = service.runDueTasks(REPO_URL, SyncStage.COMMITS, task -> {
+            handled.add(task);
+            if (task == failing) {
+                throw new IllegalStateException("timeout");
+            }
+        });
+
+        // Assert
+        assertThat(succeeded).isEqualTo(1);
+        assertThat(handled).containsExactly(oldest, failing);
+        assertThat(newest.getStatus()).isEqualTo(SyncTaskStatus.PENDING);
+        assertThat(newest.getAttempts()).isZero();
+    }
+
+    @Test
+    @DisplayName("runDueTasks no debe adelantar ventanas mientras una anterior espera su backoff")
+    void runDueTasks_whenOlderWindowIsBackingOff_shouldWait() {
+        // Arrange
+        SyncTask backingOff = new SyncTask(REPO_URL, SyncStage.COMMITS, NOW.minusDays(2), NOW.minusDays(1), NOW);
+        backingOff.retryAt(NOW.plusMinutes(5), "502");
+        SyncTask newest = new SyncTask(REPO_URL, SyncStage.COMMITS, NOW.minusDays(1), NOW, NOW);
+        when(syncTaskRepository.findOpenForRepository(REPO_URL, SyncStage.COMMITS))
+                .thenReturn(List.of(backingOff, newest));
+
+        // Act
+        int succeeded = service.runDueTasks(REPO_URL, SyncStage.COMMITS, task -> { });
+
+        // Assert
+        assertThat(succeeded).isZero();
+        verify(syncTaskRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("requeue solo debe reactivar tareas en cuarentena")
+    void requeue_shouldOnlyReactivateQuarantinedTasks() {
+        // Arrange
+        SyncTask quarantined = new SyncTask(REPO_URL, SyncStage.COMMITS, NOW.minusDays(1), NOW, NOW);
+        quarantined.quarantine(NOW, "404");
+        SyncTask pending = new SyncTask(REPO_URL, SyncStage.COMMITS, NOW.minusDays(2), NOW.minusDays(1), NOW);
+        when(syncTaskRepository.findById(1L)).thenReturn(Optional.of(quarantined));
+        when(syncTaskRepository.findById(2L)).thenReturn(Optional.of(pending));
+
+        // Act & Assert
+        assertThat(service.requeue(1L)).isTrue();
+        assertThat(quarantined.getStatus()).isEqualTo(SyncTaskStatus.PENDING);
+        assertThat(quarantined.getAttempts()).isZero();
+        assertThat(service.requeue(2L)).isFalse();
+    }
+}
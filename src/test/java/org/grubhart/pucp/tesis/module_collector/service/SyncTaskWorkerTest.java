@@ -0,0 +1,84 @@
+package org.grubhart.pucp.tesis.module_collector.service;
+
+import org.grubhart.pucp.tesis.module_domain.RepositoryConfig;
+import org.grubhart.pucp.tesis.module_domain.RepositoryConfigRepository;
+import org.grubhart.pucp.tesis.module_domain.SyncStage;
+import org.grubhart.pucp.tesis.module_domain.SyncTask;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SyncTaskWorkerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+    @Mock
+    private SyncTaskService syncTaskService;
+    @Mock
+    private SyncLockService syncLockService;
+    @Mock
+    private RepositoryConfigRepository repositoryConfigRepository;
+    @Mock
+    private CommitSyncService commitSyncService;
+
+    private SyncTaskWorker worker;
+    private RepositoryConfig config;
+
+    @BeforeEach
+    void setUp() {
+        worker = new SyncTaskWorker(syncTaskService, syncLockService, repositoryConfigRepository, commitSyncService, 50);
+        config = new RepositoryConfig("https://github.com/owner/repo");
+    }
+
+    @Test
+    @DisplayName("processDueTasks debe ejecutar una vez por repositorio y etapa, bajo el lock del repositorio")
+    void processDueTasks_shouldRunEachGroupOnceUnderRepositoryLock() {
+        // Arrange
+        SyncTask first = new SyncTask(config.getRepositoryUrl(), SyncStage.COMMITS, NOW.minusDays(2), NOW.minusDays(1), NOW);
+        SyncTask second = new SyncTask(config.getRepositoryUrl(), SyncStage.COMMITS, NOW.minusDays(1), NOW, NOW);
+        when(syncTaskService.findDueTasks(50)).thenReturn(List.of(first, second));
+        when(repositoryConfigRepository.findAll()).thenReturn(List.of(config));
+        when(syncLockService.runExclusively(anyString(), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        });
+        when(syncTaskService.runDueTasks(eq(config.getRepositoryUrl()), eq(SyncStage.COMMITS), any()))
+                .thenAnswer(invocation -> {
+                    invocation.<Consumer<SyncTask>>getArgument(2).accept(first);
+                    return 1;
+                });
+
+        // Act
+        worker.processDueTasks();
+
+        // Assert
+        verify(syncLockService).runExclusively(eq("repository:https://github.com/owner/repo"), any());
+        verify(syncTaskService, times(1)).runDueTasks(eq(config.getRepositoryUrl()), eq(SyncStage.COMMITS), any());
+        verify(commitSyncService).syncWindow(config, first);
+    }
+
+    @Test
+    @DisplayName("Sin tareas listas no debe consultar la configuración ni tomar locks")
+    void processDueTasks_withoutDueTasks_shouldDoNothing() {
+        // Arrange
+        when(syncTaskService.findDueTasks(50)).thenReturn(List.of());
+
+        // Act
+        worker.processDueTasks();
+
+        // Assert
+        verifyNoInteractions(repositoryConfigRepository, syncLockService, commitSyncService);
+    }
+}
@@ -1,5 +1,7 @@
 package org.grubhart.pucp.tesis.module_collector.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.grubhart.pucp.tesis.module_collector.metrics.CollectorMetrics;
 import org.grubhart.pucp.tesis.module_domain.OrganizationMember;
 import org.grubhart.pucp.tesis.module_domain.Role;
 import org.grubhart.pucp.tesis.module_domain.RoleName;
@@ -37,6 +39,9 @@ class UserSyncServiceTest {
     @Mock
     private RoleRepository roleRepository;
 
+    @Mock
+    private AuthorIdentityResolver authorIdentityResolver;
+
     private UserSyncService userSyncService;
 
     @Captor
@@ -44,7 +49,8 @@ class UserSyncServiceTest {
 
     @BeforeEach
     void setUp() {
-        userSyncService = new UserSyncService(githubUserCollector, userRepository, roleRepository, "test-org");
+        userSyncService = new UserSyncService(githubUserCollector, userRepository, roleRepository, authorIdentityResolver,
+                new CollectorMetrics(new SimpleMeterRegistry()), "test-org");
     }
 
     @Test
@@ -72,6 +78,9 @@ class UserSyncServiceTest {
         assertEquals(githubMember.login(), savedUser.getGithubUsername());
         assertEquals(githubMember.avatarUrl(), savedUser.getAvatarUrl());
         assertTrue(savedUser.isActive());
+
+        // El índice de autores usado por la ingesta de commits debe recargarse tras los cambios
+        verify(authorIdentityResolver, times(1)).refresh();
     }
 
     @Test
@@ -153,6 +162,7 @@ class UserSyncServiceTest {
 
         // THEN
         verify(userRepository, never()).saveAll(userListCaptor.capture());
+        verify(authorIdentityResolver, never()).refresh();
     }
 
     @Test
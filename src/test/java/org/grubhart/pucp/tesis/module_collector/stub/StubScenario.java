@@ -0,0 +1,98 @@
+package org.grubhart.pucp.tesis.module_collector.stub;
+
+import java.time.Duration;
+
+/**
+ * Tamaño de la organización sintética y comportamiento del servidor que la sirve.
+ *
+ * @param organization           login de la organización en GitHub
+ * @param repositories           repositorios de la organización
+ * @param commitsPerRepository   commits de la rama principal (incluye commits de merge y de ramas laterales)
+ * @param pullRequestsPerRepository pull requests por repositorio
+ * @param workflowRunsPerRepository ejecuciones del workflow de deployment por repositorio
+ * @param members                miembros de la organización (autores de los commits)
+ * @param incidentsPerRepository incidentes de Datadog por servicio (uno por repositorio)
+ * @param latency                demora antes de responder cada request
+ * @param rateLimit              requests permitidas por API antes de responder 403; 0 = sin límite
+ * @param errorRate              fracción de requests que responden 502
+ * @param seed                   semilla de los datos y de la inyección de errores
+ */
+public record StubScenario(
+        String organization,
+        int repositories,
+        int commitsPerRepository,
+        int pullRequestsPerRepository,
+        int workflowRunsPerRepository,
+        int members,
+        int incidentsPerRepository,
+        Duration latency,
+        int rateLimit,
+        double errorRate,
+        long seed
+) {
+
+    public static final String WORKFLOW_FILE_NAME = "deploy.yml";
+    private static final String PROPERTY_PREFIX = "stub.";
+
+    public StubScenario {
+        if (errorRate < 0 || errorRate >= 1) {
+            throw new IllegalArgumentException("errorRate debe estar en [0, 1): " + errorRate);
+        }
+    }
+
+    /** Organización pequeña, sin latencia ni errores: suficiente para las pruebas de integración. */
+    public static StubScenario small() {
+        return new StubScenario("stub-org", 2, 250, 20, 30, 5, 4, Duration.ZERO, 0, 0.0, 42L);
+    }
+
+    /**
+     * Parte de {@code defaults} y reemplaza los valores indicados como propiedades del sistema
+     * ({@code -Dstub.repositories=50}, {@code -Dstub.latency=80ms}, ...), para las pruebas de carga.
+     */
+    public static StubScenario fromSystemProperties(StubScenario defaults) {
+        return new StubScenario(
+                System.getProperty(PROPERTY_PREFIX + "organization", defaults.organization()),
+                intProperty("repositories", defaults.repositories()),
+                intProperty("commits", defaults.commitsPerRepository()),
+                intProperty("pull-requests", defaults.pullRequestsPerRepository()),
+                intProperty("workflow-runs", defaults.workflowRunsPerRepository()),
+                intProperty("members", defaults.members()),
+                intProperty("incidents", defaults.incidentsPerRepository()),
+                durationProperty("latency", defaults.latency()),
+                intProperty("rate-limit", defaults.rateLimit()),
+                Double.parseDouble(System.getProperty(PROPERTY_PREFIX + "error-rate", String.valueOf(defaults.errorRate()))),
+                Long.parseLong(System.getProperty(PROPERTY_PREFIX + "seed", String.valueOf(defaults.seed()))));
+    }
+
+    public StubScenario withLatency(Duration latency) {
+        return new StubScenario(organization, repositories, commitsPerRepository, pullRequestsPerRepository,
+                workflowRunsPerRepository, members, incidentsPerRepository, latency, rateLimit, errorRate, seed);
+    }
+
+    public StubScenario withRateLimit(int rateLimit) {
+        return new StubScenario(organization, repositories, commitsPerRepository, pullRequestsPerRepository,
+                workflowRunsPerRepository, members, incidentsPerRepository, latency, rateLimit, errorRate, seed);
+    }
+
+    public StubScenario withErrorRate(double errorRate) {
+        return new StubScenario(organization, repositories, commitsPerRepository, pullRequestsPerRepository,
+                workflowRunsPerRepository, members, incidentsPerRepository, latency, rateLimit, errorRate, seed);
+    }
+
+    private static int intProperty(String name, int defaultValue) {
+        return Integer.parseInt(System.getProperty(PROPERTY_PREFIX + name, String.valueOf(defaultValue)));
+    }
+
+    private static Duration durationProperty(String name, Duration defaultValue) {
+        String value = System.getProperty(PROPERTY_PREFIX + name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        // Acepta milisegundos ("80ms", "80") o el formato ISO-8601 ("PT0.08S")
+        String trimmed = value.trim();
+        if (trimmed.startsWith("P") || trimmed.startsWith("p")) {
+            return Duration.parse(trimmed);
+        }
+        return Duration.ofMillis(Long.parseLong(trimmed.endsWith("ms") ? trimmed.substring(0, trimmed.length() - 2) : trimmed));
+    }
+}
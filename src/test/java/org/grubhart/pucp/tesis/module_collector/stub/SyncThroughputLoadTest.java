@@ -0,0 +1,126 @@
+package org.grubhart.pucp.tesis.module_collector.stub;
+
+import org.grubhart.pucp.tesis.module_collector.service.IncidentSyncService;
+import org.grubhart.pucp.tesis.module_collector.service.SyncPipelineOrchestrator;
+import org.grubhart.pucp.tesis.module_collector.stub.SyntheticOrganization.SyntheticRepository;
+import org.grubhart.pucp.tesis.module_domain.CommitRepository;
+import org.grubhart.pucp.tesis.module_domain.DeploymentRepository;
+import org.grubhart.pucp.tesis.module_domain.IncidentRepository;
+import org.grubhart.pucp.tesis.module_domain.PullRequestRepository;
+import org.grubhart.pucp.tesis.module_domain.RepositoryConfig;
+import org.grubhart.pucp.tesis.module_domain.RepositoryConfigRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mide la ingesta de punta a punta (discovery, commits, pull requests, deployments e incidentes) contra
+ * {@link UpstreamStubServer}. No corre con {@code ./gradlew test}: se ejecuta con {@code ./gradlew loadTest} y el
+ * tamaño de la organización se ajusta con {@code -Pstub.repositories=50 -Pstub.commits=5000 -Pstub.latency=50ms ...}
+ * (ver {@link StubScenario#fromSystemProperties}).
+ */
+@Tag("load")
+@SpringBootTest
+class SyncThroughputLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncThroughputLoadTest.class);
+
+    private static final StubScenario SCENARIO = StubScenario.fromSystemProperties(
+            new StubScenario("load-org", 20, 2_000, 200, 300, 50, 20, Duration.ofMillis(20), 0, 0.0, 42L));
+    private static final UpstreamStubServer STUB = UpstreamStubServer.start(SCENARIO);
+
+    @Autowired
+    private SyncPipelineOrchestrator syncPipelineOrchestrator;
+    @Autowired
+    private IncidentSyncService incidentSyncService;
+    @Autowired
+    private RepositoryConfigRepository repositoryConfigRepository;
+    @Autowired
+    private CommitRepository commitRepository;
+    @Autowired
+    private PullRequestRepository pullRequestRepository;
+    @Autowired
+    private DeploymentRepository deploymentRepository;
+    @Autowired
+    private IncidentRepository incidentRepository;
+
+    @DynamicPropertySource
+    static void upstreamProperties(DynamicPropertyRegistry registry) {
+        registry.add("dora.github.api-url", STUB::url);
+        registry.add("datadog.base-url", STUB::url);
+        registry.add("dora.github.organization-name", SCENARIO::organization);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Test
+    @DisplayName("Carga inicial e incremental de una organización sintética")
+    void initialAndIncrementalIngest() {
+        // Arrange: discovery no conoce el workflow ni el servicio de Datadog, se registran como lo haría un admin
+        SyntheticOrganization organization = STUB.organization();
+        List<RepositoryConfig> configs = organization.repositoryNames().stream()
+                .map(name -> {
+                    RepositoryConfig config = new RepositoryConfig(organization.htmlUrl(name), organization.serviceName(name));
+                    config.setDeploymentWorkflowFileName(StubScenario.WORKFLOW_FILE_NAME);
+                    return config;
+                })
+                .toList();
+        repositoryConfigRepository.saveAll(configs);
+
+        // Act: carga inicial
+        long started = System.nanoTime();
+        syncPipelineOrchestrator.runCycle();
+        incidentSyncService.syncIncidents();
+        Duration initial = Duration.ofNanos(System.nanoTime() - started);
+        int initialRequests = STUB.githubRequestCount() + STUB.datadogRequestCount();
+        long commits = commitRepository.count();
+        long items = commits + pullRequestRepository.count() + deploymentRepository.count() + incidentRepository.count();
+        report("inicial", initial, initialRequests, items);
+
+        // Act: ciclo incremental sin cambios en la organización
+        started = System.nanoTime();
+        syncPipelineOrchestrator.runCycle();
+        incidentSyncService.syncIncidents();
+        Duration incremental = Duration.ofNanos(System.nanoTime() - started);
+        report("incremental", incremental,
+                STUB.githubRequestCount() + STUB.datadogRequestCount() - initialRequests, 0);
+
+        // Assert: con errores inyectados las ventanas fallidas quedan en la cola de reintentos y los conteos varían
+        if (SCENARIO.errorRate() == 0 && SCENARIO.rateLimit() == 0) {
+            List<SyntheticRepository> repositories = organization.repositoryNames().stream()
+                    .map(organization::repository)
+                    .toList();
+            assertThat(commits).isEqualTo(repositories.stream().mapToLong(repository -> repository.commits().size()).sum());
+            assertThat(deploymentRepository.count()).isEqualTo(repositories.stream()
+                    .flatMap(repository -> repository.workflowRuns().stream())
+                    .filter(run -> "main".equals(run.headBranch()) && "success".equals(run.conclusion()))
+                    .count());
+            assertThat(incidentRepository.count())
+                    .isEqualTo((long) SCENARIO.repositories() * SCENARIO.incidentsPerRepository());
+            assertThat(commitRepository.count()).as("el ciclo incremental no debe duplicar commits").isEqualTo(commits);
+        }
+    }
+
+    private void report(String phase, Duration elapsed, int requests, long items) {
+        double seconds = Math.max(elapsed.toMillis(), 1) / 1000.0;
+        log.info("Ingesta {} ({} repositorios, latencia {} ms, errores inyectados {}): {} s, {} requests ({} req/s), {} ítems ({} ítems/s)",
+                phase, SCENARIO.repositories(), SCENARIO.latency().toMillis(), STUB.injectedErrorCount(),
+                String.format("%.2f", seconds), requests, String.format("%.1f", requests / seconds),
+                items, String.format("%.1f", items / seconds));
+    }
+}
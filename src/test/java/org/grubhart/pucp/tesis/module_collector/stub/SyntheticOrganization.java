@@ -0,0 +1,243 @@
+package org.grubhart.pucp.tesis.module_collector.stub;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Datos sintéticos pero con la forma de los reales: una historia de commits con ramas laterales y merges,
+ * pull requests, ejecuciones del workflow de deployment sobre commits de la rama principal, miembros que
+ * son los autores de los commits e incidentes por servicio.
+ *
+ * Todo se deriva de la semilla del escenario, así que dos servidores con el mismo escenario sirven los mismos
+ * SHAs e ids. Los repositorios se generan al pedirlos por primera vez.
+ */
+public final class SyntheticOrganization {
+
+    /** Historia distribuida a lo largo de este período, dentro del año que la sincronización inicial pide. */
+    private static final Duration HISTORY = Duration.ofDays(300);
+    /** Los incidentes caen dentro de los 30 días que la primera sincronización de incidentes pide. */
+    private static final Duration INCIDENT_HISTORY = Duration.ofDays(28);
+    /** Cada bloque de commits tiene un commit en una rama lateral que se integra con un merge en el siguiente. */
+    private static final int BLOCK = 5;
+    private static final int SIDE_OFFSET = 3;
+    private static final int MERGE_OFFSET = 4;
+
+    private final StubScenario scenario;
+    private final Instant now;
+    private final Instant historyStart;
+    private final List<String> repositoryNames;
+    private final Map<String, SyntheticRepository> repositoriesByName = new ConcurrentHashMap<>();
+
+    public SyntheticOrganization(StubScenario scenario, Instant now) {
+        this.scenario = scenario;
+        this.now = now;
+        this.historyStart = now.minus(HISTORY);
+        List<String> names = new ArrayList<>(scenario.repositories());
+        for (int i = 0; i < scenario.repositories(); i++) {
+            names.add(repositoryName(i));
+        }
+        this.repositoryNames = List.copyOf(names);
+    }
+
+    public StubScenario scenario() {
+        return scenario;
+    }
+
+    public List<String> repositoryNames() {
+        return repositoryNames;
+    }
+
+    public List<String> memberLogins() {
+        List<String> logins = new ArrayList<>(scenario.members());
+        for (int i = 0; i < scenario.members(); i++) {
+            logins.add(memberLogin(i));
+        }
+        return logins;
+    }
+
+    public String htmlUrl(String repositoryName) {
+        return "https://github.com/" + scenario.organization() + "/" + repositoryName;
+    }
+
+    /** Nombre del servicio de Datadog de un repositorio: el mismo nombre del repositorio. */
+    public String serviceName(String repositoryName) {
+        return repositoryName;
+    }
+
+    /** Repositorio por nombre, o {@code null} si no pertenece a la organización. */
+    public SyntheticRepository repository(String name) {
+        int index = repositoryNames.indexOf(name);
+        if (index < 0) {
+            return null;
+        }
+        return repositoriesByName.computeIfAbsent(name, ignored -> generate(index, name));
+    }
+
+    /** Repositorio cuyo servicio de Datadog es {@code serviceName}, o {@code null}. */
+    public SyntheticRepository repositoryForService(String serviceName) {
+        return repository(serviceName);
+    }
+
+    static String repositoryName(int index) {
+        return String.format("repo-%03d", index);
+    }
+
+    static String memberLogin(int index) {
+        return String.format("dev-%03d", index);
+    }
+
+    private SyntheticRepository generate(int index, String name) {
+        SplittableRandom random = new SplittableRandom(scenario.seed() * 31 + index);
+        List<SyntheticCommit> commits = generateCommits(index, name, random);
+        List<SyntheticCommit> mainline = commits.stream().filter(commit -> !commit.sideBranch()).toList();
+        return new SyntheticRepository(index, name, commits,
+                generatePullRequests(index, commits, random),
+                generateRuns(index, mainline, random),
+                generateIncidents(name, random));
+    }
+
+    /**
+     * Commits del más antiguo al más nuevo. En cada bloque de {@value #BLOCK} el commit {@value #SIDE_OFFSET}
+     * sale de la rama principal y el {@value #MERGE_OFFSET} es el merge que lo integra, con dos padres.
+     * El último commit siempre es de la rama principal: es el head.
+     */
+    private List<SyntheticCommit> generateCommits(int repositoryIndex, String name, SplittableRandom random) {
+        int count = scenario.commitsPerRepository();
+        if (count > 0 && (count - 1) % BLOCK == SIDE_OFFSET) {
+            count--;
+        }
+        Duration step = count > 0 ? HISTORY.dividedBy(count + 1L) : HISTORY;
+        List<SyntheticCommit> commits = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int position = i % BLOCK;
+            List<String> parents;
+            if (i == 0) {
+                parents = List.of();
+            } else if (position == MERGE_OFFSET) {
+                parents = List.of(commits.get(i - 2).sha(), commits.get(i - 1).sha());
+            } else {
+                parents = List.of(commits.get(i - 1).sha());
+            }
+            String author = scenario.members() > 0 ? memberLogin(random.nextInt(scenario.members())) : "ghost";
+            String message = position == MERGE_OFFSET
+                    ? "Merge branch 'feature/" + name + "-" + (i / BLOCK) + "'"
+                    : "Change " + i + " in " + name;
+            commits.add(new SyntheticCommit(sha(repositoryIndex + "/" + i), parents,
+                    historyStart.plus(step.multipliedBy(i + 1L)), author, message, position == SIDE_OFFSET));
+        }
+        return commits;
+    }
+
+    private List<SyntheticPullRequest> generatePullRequests(int repositoryIndex, List<SyntheticCommit> commits,
+                                                            SplittableRandom random) {
+        int count = scenario.pullRequestsPerRepository();
+        List<SyntheticPullRequest> pullRequests = new ArrayList<>(count);
+        if (commits.isEmpty()) {
+            return pullRequests;
+        }
+        for (int number = 1; number <= count; number++) {
+            SyntheticCommit first = commits.get((int) ((long) (number - 1) * commits.size() / count));
+            Instant createdAt = first.date().plus(Duration.ofMinutes(random.nextInt(30, 240)));
+            // La mayoría se integra; las últimas pueden seguir abiertas
+            boolean merged = number < count || random.nextInt(4) > 0;
+            Instant mergedAt = merged ? createdAt.plus(Duration.ofHours(random.nextInt(1, 72))) : null;
+            Instant updatedAt = mergedAt != null ? mergedAt : createdAt;
+            if (updatedAt.isAfter(now)) {
+                updatedAt = now;
+                mergedAt = merged ? now : null;
+            }
+            pullRequests.add(new SyntheticPullRequest(repositoryIndex * 1_000_000L + number, number,
+                    merged ? "closed" : "open", createdAt, updatedAt, mergedAt, first.sha()));
+        }
+        return pullRequests;
+    }
+
+    private List<SyntheticWorkflowRun> generateRuns(int repositoryIndex, List<SyntheticCommit> mainline,
+                                                    SplittableRandom random) {
+        int count = scenario.workflowRunsPerRepository();
+        List<SyntheticWorkflowRun> runs = new ArrayList<>(count);
+        if (mainline.isEmpty()) {
+            return runs;
+        }
+        for (int k = 0; k < count; k++) {
+            SyntheticCommit head = mainline.get((int) ((long) (k + 1) * mainline.size() / (count + 1)));
+            // Algunas ejecuciones son de ramas de feature y algunas fallan, como en un repositorio real
+            String branch = random.nextInt(10) == 0 ? "feature/run-" + k : "main";
+            String conclusion = random.nextInt(8) == 0 ? "failure" : "success";
+            Instant createdAt = head.date().plus(Duration.ofMinutes(random.nextInt(1, 30)));
+            runs.add(new SyntheticWorkflowRun(repositoryIndex * 1_000_000L + k + 1, head.sha(), branch,
+                    conclusion, createdAt, createdAt.plus(Duration.ofMinutes(random.nextInt(2, 20)))));
+        }
+        return runs;
+    }
+
+    private List<SyntheticIncident> generateIncidents(String name, SplittableRandom random) {
+        int count = scenario.incidentsPerRepository();
+        List<SyntheticIncident> incidents = new ArrayList<>(count);
+        Duration step = INCIDENT_HISTORY.dividedBy(count + 1L);
+        for (int k = 0; k < count; k++) {
+            Instant created = now.minus(INCIDENT_HISTORY).plus(step.multipliedBy(k + 1L));
+            boolean resolved = k < count - 1 || random.nextBoolean();
+            incidents.add(new SyntheticIncident(
+                    UUID.nameUUIDFromBytes((scenario.seed() + "/" + name + "/" + k).getBytes(StandardCharsets.UTF_8)).toString(),
+                    serviceName(name), "Synthetic incident " + k + " on " + name, created,
+                    resolved ? created.plus(Duration.ofMinutes(random.nextInt(10, 600))) : null,
+                    resolved ? "resolved" : "active", "SEV-" + random.nextInt(1, 4)));
+        }
+        return incidents;
+    }
+
+    private String sha(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            return HexFormat.of().formatHex(digest.digest((scenario.seed() + "/" + key).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record SyntheticRepository(int index, String name, List<SyntheticCommit> commits,
+                                      List<SyntheticPullRequest> pullRequests, List<SyntheticWorkflowRun> workflowRuns,
+                                      List<SyntheticIncident> incidents) {
+
+        public SyntheticCommit head() {
+            return commits.isEmpty() ? null : commits.get(commits.size() - 1);
+        }
+
+        /** Posición de un commit en la historia, o -1 si no existe. */
+        public int indexOf(String sha) {
+            for (int i = 0; i < commits.size(); i++) {
+                if (commits.get(i).sha().equals(sha)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    public record SyntheticCommit(String sha, List<String> parents, Instant date, String authorLogin, String message,
+                                  boolean sideBranch) {
+    }
+
+    public record SyntheticPullRequest(long id, int number, String state, Instant createdAt, Instant updatedAt,
+                                       Instant mergedAt, String firstCommitSha) {
+    }
+
+    public record SyntheticWorkflowRun(long id, String headSha, String headBranch, String conclusion,
+                                       Instant createdAt, Instant updatedAt) {
+    }
+
+    public record SyntheticIncident(String id, String service, String title, Instant created, Instant resolved,
+                                    String state, String severity) {
+    }
+}
@@ -0,0 +1,476 @@
+package org.grubhart.pucp.tesis.module_collector.stub;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.grubhart.pucp.tesis.module_collector.stub.SyntheticOrganization.SyntheticCommit;
+import org.grubhart.pucp.tesis.module_collector.stub.SyntheticOrganization.SyntheticIncident;
+import org.grubhart.pucp.tesis.module_collector.stub.SyntheticOrganization.SyntheticPullRequest;
+import org.grubhart.pucp.tesis.module_collector.stub.SyntheticOrganization.SyntheticRepository;
+import org.grubhart.pucp.tesis.module_collector.stub.SyntheticOrganization.SyntheticWorkflowRun;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Servidor local que reemplaza a las APIs de GitHub y Datadog en pruebas de integración y de carga. Sirve una
+ * {@link SyntheticOrganization} con la paginación, los filtros y las cabeceras de las APIs reales, sobre
+ * {@link MockWebServer}; ambas APIs comparten el servidor ({@link #url()} sirve como URL base de las dos).
+ *
+ * El escenario controla además la latencia de cada respuesta, un límite de requests por API que se anuncia con
+ * las cabeceras {@code X-RateLimit-*} y se hace cumplir con 403, y una fracción de respuestas 502 inyectadas.
+ */
+public final class UpstreamStubServer implements AutoCloseable {
+
+    private static final Pattern ORG_REPOS = Pattern.compile("/orgs/([^/]+)/repos");
+    private static final Pattern ORG_MEMBERS = Pattern.compile("/orgs/([^/]+)/members");
+    private static final Pattern ORG_MEMBER = Pattern.compile("/orgs/([^/]+)/members/([^/]+)");
+    private static final Pattern COMMITS = Pattern.compile("/repos/([^/]+)/([^/]+)/commits");
+    private static final Pattern COMPARE = Pattern.compile("/repos/([^/]+)/([^/]+)/compare/([0-9a-f]+)\\.\\.\\.([^/]+)");
+    private static final Pattern PULLS = Pattern.compile("/repos/([^/]+)/([^/]+)/pulls");
+    private static final Pattern PULL_COMMITS = Pattern.compile("/repos/([^/]+)/([^/]+)/pulls/(\\d+)/commits");
+    private static final Pattern WORKFLOW_RUNS = Pattern.compile("/repos/([^/]+)/([^/]+)/actions/workflows/([^/]+)/runs");
+    private static final String INCIDENTS = "/api/v2/incidents";
+    private static final String SERVICE_DEPENDENCIES = "/api/v1/service_dependencies";
+    private static final String SERVICE_FILTER_PREFIX = "service:";
+    private static final int DEFAULT_PER_PAGE = 30;
+    private static final int MAX_PER_PAGE = 100;
+
+    private final SyntheticOrganization organization;
+    private final StubScenario scenario;
+    private final MockWebServer server = new MockWebServer();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SplittableRandom errorRandom;
+    private final long rateLimitReset;
+    private final AtomicInteger githubRequests = new AtomicInteger();
+    private final AtomicInteger datadogRequests = new AtomicInteger();
+    private final AtomicInteger injectedErrors = new AtomicInteger();
+
+    private UpstreamStubServer(StubScenario scenario) {
+        this.scenario = scenario;
+        this.organization = new SyntheticOrganization(scenario, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+        this.errorRandom = new SplittableRandom(scenario.seed());
+        this.rateLimitReset = Instant.now().plus(1, ChronoUnit.HOURS).getEpochSecond();
+        server.setDispatcher(new StubDispatcher());
+    }
+
+    public static UpstreamStubServer start(StubScenario scenario) {
+        UpstreamStubServer stub = new UpstreamStubServer(scenario);
+        try {
+            stub.server.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo iniciar el servidor de APIs simuladas", e);
+        }
+        return stub;
+    }
+
+    /** URL base para {@code dora.github.api-url} y {@code datadog.base-url}, sin barra final. */
+    public String url() {
+        String url = server.url("/").toString();
+        return url.substring(0, url.length() - 1);
+    }
+
+    public SyntheticOrganization organization() {
+        return organization;
+    }
+
+    public int githubRequestCount() {
+        return githubRequests.get();
+    }
+
+    public int datadogRequestCount() {
+        return datadogRequests.get();
+    }
+
+    public int injectedErrorCount() {
+        return injectedErrors.get();
+    }
+
+    @Override
+    public void close() {
+        try {
+            server.shutdown();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private final class StubDispatcher extends Dispatcher {
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            HttpUrl url = request.getRequestUrl();
+            if (url == null) {
+                return new MockResponse().setResponseCode(400);
+            }
+            boolean datadog = url.encodedPath().startsWith("/api/");
+            int used = (datadog ? datadogRequests : githubRequests).incrementAndGet();
+
+            MockResponse response;
+            if (scenario.rateLimit() > 0 && used > scenario.rateLimit()) {
+                response = json(403, Map.of("message", "API rate limit exceeded"));
+            } else if (scenario.errorRate() > 0 && nextErrorDraw() < scenario.errorRate()) {
+                injectedErrors.incrementAndGet();
+                response = json(502, Map.of("message", "Server Error"));
+            } else {
+                response = datadog ? dispatchDatadog(url) : dispatchGithub(url);
+            }
+
+            if (scenario.rateLimit() > 0) {
+                response.addHeader("X-RateLimit-Limit", scenario.rateLimit())
+                        .addHeader("X-RateLimit-Remaining", Math.max(0, scenario.rateLimit() - used))
+                        .addHeader("X-RateLimit-Reset", rateLimitReset);
+            }
+            if (!scenario.latency().isZero()) {
+                response.setHeadersDelay(scenario.latency().toMillis(), TimeUnit.MILLISECONDS);
+            }
+            return response;
+        }
+
+        private MockResponse dispatchGithub(HttpUrl url) {
+            String path = url.encodedPath();
+            Matcher matcher;
+            if ((matcher = ORG_MEMBER.matcher(path)).matches()) {
+                return organizationMatches(matcher.group(1)) && organization.memberLogins().contains(matcher.group(2))
+                        ? new MockResponse().setResponseCode(204)
+                        : notFound();
+            }
+            if ((matcher = ORG_MEMBERS.matcher(path)).matches()) {
+                return organizationMatches(matcher.group(1)) ? page(url, members()) : notFound();
+            }
+            if ((matcher = ORG_REPOS.matcher(path)).matches()) {
+                return organizationMatches(matcher.group(1)) ? page(url, repositories()) : notFound();
+            }
+            if ((matcher = COMMITS.matcher(path)).matches()) {
+                SyntheticRepository repository = repository(matcher);
+                return repository != null ? commits(url, repository) : notFound();
+            }
+            if ((matcher = COMPARE.matcher(path)).matches()) {
+                SyntheticRepository repository = repository(matcher);
+                return repository != null ? compare(url, repository, matcher.group(3), matcher.group(4)) : notFound();
+            }
+            if ((matcher = PULL_COMMITS.matcher(path)).matches()) {
+                SyntheticRepository repository = repository(matcher);
+                return repository != null ? pullRequestCommits(repository, Integer.parseInt(matcher.group(3))) : notFound();
+            }
+            if ((matcher = PULLS.matcher(path)).matches()) {
+                SyntheticRepository repository = repository(matcher);
+                return repository != null ? pullRequests(url, repository) : notFound();
+            }
+            if ((matcher = WORKFLOW_RUNS.matcher(path)).matches()) {
+                SyntheticRepository repository = repository(matcher);
+                return repository != null && StubScenario.WORKFLOW_FILE_NAME.equals(matcher.group(3))
+                        ? workflowRuns(url, repository)
+                        : notFound();
+            }
+            return notFound();
+        }
+
+        private MockResponse dispatchDatadog(HttpUrl url) {
+            String path = url.encodedPath();
+            if (INCIDENTS.equals(path)) {
+                return incidents(url);
+            }
+            if (SERVICE_DEPENDENCIES.equals(path)) {
+                Map<String, Object> services = new LinkedHashMap<>();
+                organization.repositoryNames().forEach(name ->
+                        services.put(organization.serviceName(name), Map.of("calls", List.of())));
+                return json(200, services);
+            }
+            return notFound();
+        }
+
+        private MockResponse commits(HttpUrl url, SyntheticRepository repository) {
+            String sha = url.queryParameter("sha");
+            if (sha != null && !"HEAD".equals(sha) && !"main".equals(sha)) {
+                return notFound();
+            }
+            Instant since = parseInstant(url.queryParameter("since"));
+            Instant until = parseInstant(url.queryParameter("until"));
+            // GitHub lista del más nuevo al más antiguo
+            List<Object> matching = new ArrayList<>();
+            for (SyntheticCommit commit : repository.commits().reversed()) {
+                if ((since == null || !commit.date().isBefore(since)) && (until == null || !commit.date().isAfter(until))) {
+                    matching.add(commitJson(commit));
+                }
+            }
+            return page(url, matching);
+        }
+
+        private MockResponse compare(HttpUrl url, SyntheticRepository repository, String base, String head) {
+            int baseIndex = repository.indexOf(base);
+            int headIndex = "HEAD".equals(head) || "main".equals(head)
+                    ? repository.commits().size() - 1
+                    : repository.indexOf(head);
+            if (baseIndex < 0 || headIndex < 0) {
+                return notFound();
+            }
+            // La historia es lineal salvo por ramas que se integran antes del siguiente commit de la rama
+            // principal, así que lo alcanzable desde head y no desde base es el tramo (base, head]
+            List<Object> commits = new ArrayList<>();
+            for (int i = baseIndex + 1; i <= headIndex; i++) {
+                commits.add(commitJson(repository.commits().get(i)));
+            }
+            String status = headIndex == baseIndex ? "identical" : headIndex > baseIndex ? "ahead" : "behind";
+            int perPage = perPage(url);
+            int page = pageNumber(url);
+            int from = Math.min((page - 1) * perPage, commits.size());
+            int to = Math.min(from + perPage, commits.size());
+
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("status", status);
+            body.put("ahead_by", Math.max(0, headIndex - baseIndex));
+            body.put("behind_by", Math.max(0, baseIndex - headIndex));
+            body.put("total_commits", commits.size());
+            body.put("commits", commits.subList(from, to));
+            return withNextLink(json(200, body), url, page, to < commits.size());
+        }
+
+        private MockResponse pullRequests(HttpUrl url, SyntheticRepository repository) {
+            List<Object> pulls = repository.pullRequests().stream()
+                    .sorted((a, b) -> b.updatedAt().compareTo(a.updatedAt()))
+                    .map(this::pullRequestJson)
+                    .map(Object.class::cast)
+                    .toList();
+            return page(url, pulls);
+        }
+
+        private MockResponse pullRequestCommits(SyntheticRepository repository, int number) {
+            return repository.pullRequests().stream()
+                    .filter(pull -> pull.number() == number)
+                    .findFirst()
+                    .map(pull -> json(200, List.of(Map.of("sha", pull.firstCommitSha()))))
+                    .orElseGet(this::notFound);
+        }
+
+        private MockResponse workflowRuns(HttpUrl url, SyntheticRepository repository) {
+            String branch = url.queryParameter("branch");
+            String status = url.queryParameter("status");
+            String created = url.queryParameter("created");
+            Instant createdSince = created != null && created.startsWith(">=") ? parseInstant(created.substring(2)) : null;
+            Predicate<SyntheticWorkflowRun> filter = run ->
+                    (branch == null || branch.equals(run.headBranch()))
+                            // status acepta tanto estados ("completed") como conclusiones ("success")
+                            && (status == null || "completed".equals(status) || status.equals(run.conclusion()))
+                            && (createdSince == null || !run.createdAt().isBefore(createdSince));
+
+            List<Object> runs = repository.workflowRuns().reversed().stream()
+                    .filter(filter)
+                    .map(this::workflowRunJson)
+                    .map(Object.class::cast)
+                    .toList();
+            int perPage = perPage(url);
+            int page = pageNumber(url);
+            int from = Math.min((page - 1) * perPage, runs.size());
+            int to = Math.min(from + perPage, runs.size());
+
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("total_count", runs.size());
+            body.put("workflow_runs", runs.subList(from, to));
+            return withNextLink(json(200, body), url, page, to < runs.size());
+        }
+
+        private MockResponse incidents(HttpUrl url) {
+            String query = url.queryParameter("filter[query]");
+            Instant since = parseInstant(url.queryParameter("filter[since]"));
+            List<SyntheticIncident> incidents = new ArrayList<>();
+            for (String name : organization.repositoryNames()) {
+                String service = organization.serviceName(name);
+                if (query == null || query.equals(SERVICE_FILTER_PREFIX + service)) {
+                    incidents.addAll(organization.repositoryForService(service).incidents());
+                }
+            }
+            List<Object> data = incidents.stream()
+                    .filter(incident -> since == null || !incident.created().isBefore(since))
+                    .map(this::incidentJson)
+                    .map(Object.class::cast)
+                    .toList();
+            // Paginación por offset, como la API de incidentes de Datadog
+            int offset = intParameter(url, "page[offset]", 0);
+            int size = intParameter(url, "page[size]", 10);
+            int from = Math.min(offset, data.size());
+            int to = Math.min(from + size, data.size());
+
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("data", data.subList(from, to));
+            body.put("meta", Map.of("pagination", Map.of("offset", offset, "size", size, "total", data.size())));
+            return json(200, body);
+        }
+
+        private List<Object> repositories() {
+            List<Object> repositories = new ArrayList<>();
+            List<String> names = organization.repositoryNames();
+            for (int i = 0; i < names.size(); i++) {
+                Map<String, Object> repository = new LinkedHashMap<>();
+                repository.put("id", 10_000L + i);
+                repository.put("name", names.get(i));
+                repository.put("full_name", scenario.organization() + "/" + names.get(i));
+                repository.put("html_url", organization.htmlUrl(names.get(i)));
+                repository.put("private", false);
+                repository.put("owner", Map.of("login", scenario.organization()));
+                repositories.add(repository);
+            }
+            return repositories;
+        }
+
+        private List<Object> members() {
+            List<Object> members = new ArrayList<>();
+            List<String> logins = organization.memberLogins();
+            for (int i = 0; i < logins.size(); i++) {
+                members.add(Map.of("id", 20_000L + i, "login", logins.get(i),
+                        "avatar_url", "https://avatars.githubusercontent.com/u/" + (20_000 + i)));
+            }
+            return members;
+        }
+
+        private Map<String, Object> commitJson(SyntheticCommit commit) {
+            String date = commit.date().toString();
+            Map<String, Object> author = new LinkedHashMap<>();
+            author.put("name", commit.authorLogin());
+            author.put("email", commit.authorLogin() + "@users.noreply.github.com");
+            author.put("date", date);
+
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("sha", commit.sha());
+            json.put("commit", Map.of("author", author, "message", commit.message()));
+            json.put("author", Map.of("login", commit.authorLogin()));
+            json.put("parents", commit.parents().stream().map(parent -> Map.of("sha", parent)).toList());
+            return json;
+        }
+
+        private Map<String, Object> pullRequestJson(SyntheticPullRequest pull) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("id", pull.id());
+            json.put("number", pull.number());
+            json.put("state", pull.state());
+            json.put("created_at", pull.createdAt().toString());
+            json.put("updated_at", pull.updatedAt().toString());
+            json.put("merged_at", pull.mergedAt() != null ? pull.mergedAt().toString() : null);
+            return json;
+        }
+
+        private Map<String, Object> workflowRunJson(SyntheticWorkflowRun run) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("id", run.id());
+            json.put("name", "Deploy");
+            json.put("head_branch", run.headBranch());
+            json.put("head_sha", run.headSha());
+            json.put("event", "push");
+            json.put("status", "completed");
+            json.put("conclusion", run.conclusion());
+            json.put("created_at", run.createdAt().toString());
+            json.put("updated_at", run.updatedAt().toString());
+            return json;
+        }
+
+        private Map<String, Object> incidentJson(SyntheticIncident incident) {
+            Map<String, Object> attributes = new LinkedHashMap<>();
+            attributes.put("title", incident.title());
+            attributes.put("customer_impact_scope", null);
+            attributes.put("created", incident.created().toString());
+            attributes.put("modified", (incident.resolved() != null ? incident.resolved() : incident.created()).toString());
+            attributes.put("resolved", incident.resolved() != null ? incident.resolved().toString() : null);
+            attributes.put("state", incident.state());
+            attributes.put("severity", incident.severity());
+            attributes.put("fields", Map.of(
+                    "state", Map.of("type", "dropdown", "value", incident.state()),
+                    "severity", Map.of("type", "dropdown", "value", incident.severity()),
+                    "services", Map.of("type", "autocomplete", "value", List.of(incident.service()))));
+
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("id", incident.id());
+            json.put("type", "incidents");
+            json.put("attributes", attributes);
+            return json;
+        }
+
+        /** Página de un listado de GitHub con {@code per_page}/{@code page} y la cabecera {@code Link}. */
+        private MockResponse page(HttpUrl url, List<Object> items) {
+            int perPage = perPage(url);
+            int page = pageNumber(url);
+            int from = Math.min((page - 1) * perPage, items.size());
+            int to = Math.min(from + perPage, items.size());
+            return withNextLink(json(200, items.subList(from, to)), url, page, to < items.size());
+        }
+
+        private MockResponse withNextLink(MockResponse response, HttpUrl url, int page, boolean hasNext) {
+            if (hasNext) {
+                HttpUrl next = url.newBuilder().setQueryParameter("page", String.valueOf(page + 1)).build();
+                response.addHeader("Link", "<" + next + ">; rel=\"next\"");
+            }
+            return response;
+        }
+
+        private SyntheticRepository repository(Matcher matcher) {
+            return organizationMatches(matcher.group(1)) ? organization.repository(matcher.group(2)) : null;
+        }
+
+        private boolean organizationMatches(String login) {
+            return scenario.organization().equalsIgnoreCase(login);
+        }
+
+        private int perPage(HttpUrl url) {
+            return Math.clamp(intParameter(url, "per_page", DEFAULT_PER_PAGE), 1, MAX_PER_PAGE);
+        }
+
+        private int pageNumber(HttpUrl url) {
+            return Math.max(1, intParameter(url, "page", 1));
+        }
+
+        private int intParameter(HttpUrl url, String name, int defaultValue) {
+            String value = url.queryParameter(name);
+            return value != null ? Integer.parseInt(value) : defaultValue;
+        }
+
+        private MockResponse notFound() {
+            return json(404, Map.of("message", "Not Found"));
+        }
+
+        private MockResponse json(int status, Object body) {
+            try {
+                return new MockResponse()
+                        .setResponseCode(status)
+                        .setHeader("Content-Type", "application/json")
+                        .setBody(objectMapper.writeValueAsString(body));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private synchronized double nextErrorDraw() {
+        return errorRandom.nextDouble();
+    }
+
+    /** Acepta fechas con zona ({@code ...Z}) y fechas locales, que el collector envía en UTC. */
+    private static Instant parseInstant(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(value).toInstant();
+        } catch (DateTimeParseException e) {
+            return LocalDateTime.parse(value).toInstant(ZoneOffset.UTC);
+        }
+    }
+}
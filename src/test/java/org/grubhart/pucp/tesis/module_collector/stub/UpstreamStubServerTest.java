@@ -0,0 +1,165 @@
+package org.grubhart.pucp.tesis.module_collector.stub;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.grubhart.pucp.tesis.module_collector.datadog.DatadogIncidentClient;
+import org.grubhart.pucp.tesis.module_collector.datadog.dto.DatadogIncidentResponse;
+import org.grubhart.pucp.tesis.module_collector.github.GithubClientImpl;
+import org.grubhart.pucp.tesis.module_collector.metrics.CollectorMetrics;
+import org.grubhart.pucp.tesis.module_collector.stub.SyntheticOrganization.SyntheticRepository;
+import org.grubhart.pucp.tesis.module_collector.stub.SyntheticOrganization.SyntheticWorkflowRun;
+import org.grubhart.pucp.tesis.module_domain.CommitComparison;
+import org.grubhart.pucp.tesis.module_domain.GithubCommitDto;
+import org.grubhart.pucp.tesis.module_domain.WorkflowRunQuery;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UpstreamStubServerTest {
+
+    private UpstreamStubServer stub;
+    private GithubClientImpl githubClient;
+    private String organization;
+
+    @BeforeEach
+    void setUp() {
+        start(StubScenario.small());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("El collector debe recorrer todas las páginas de repositorios, miembros y commits de la organización")
+    void githubClient_shouldPageThroughSyntheticOrganization() {
+        // Arrange
+        SyntheticRepository repository = stub.organization().repository("repo-000");
+        List<GithubCommitDto> commits = new ArrayList<>();
+
+        // Act
+        int delivered = githubClient.streamCommits(organization, "repo-000", LocalDateTime.now().minusYears(1), 100,
+                commits::addAll);
+
+        // Assert
+        assertThat(githubClient.getOrgRepositories(organization)).hasSize(stub.organization().scenario().repositories());
+        assertThat(githubClient.getOrganizationMembers(organization)).hasSize(stub.organization().scenario().members());
+        assertThat(delivered).isEqualTo(repository.commits().size());
+        assertThat(commits.get(0).getSha()).isEqualTo(repository.head().sha());
+        assertThat(commits).anySatisfy(commit -> assertThat(commit.getParents()).hasSize(2));
+    }
+
+    @Test
+    @DisplayName("La comparación desde un head anterior debe devolver solo los commits nuevos")
+    void githubClient_compareFromOlderHead_shouldDeliverNewCommits() {
+        // Arrange
+        SyntheticRepository repository = stub.organization().repository("repo-001");
+        String olderHead = repository.commits().get(repository.commits().size() - 11).sha();
+        List<String> received = new ArrayList<>();
+
+        // Act
+        CommitComparison comparison = githubClient.streamCommitsBetween(organization, "repo-001", olderHead,
+                repository.head().sha(), 100, batch -> batch.forEach(commit -> received.add(commit.getSha())));
+
+        // Assert
+        assertThat(comparison.status()).isEqualTo(CommitComparison.Status.AHEAD);
+        assertThat(received).hasSize(10).last().isEqualTo(repository.head().sha());
+        assertThat(githubClient.getHeadSha(organization, "repo-001", null)).contains(repository.head().sha());
+    }
+
+    @Test
+    @DisplayName("Las ejecuciones del workflow deben filtrarse por rama y conclusión en el servidor")
+    void githubClient_workflowRuns_shouldBeFilteredByServer() {
+        // Arrange
+        SyntheticRepository repository = stub.organization().repository("repo-000");
+        long expected = repository.workflowRuns().stream()
+                .filter(run -> "main".equals(run.headBranch()) && "success".equals(run.conclusion()))
+                .count();
+        List<Long> received = new ArrayList<>();
+
+        // Act
+        githubClient.streamWorkflowRuns(organization, "repo-000",
+                new WorkflowRunQuery(StubScenario.WORKFLOW_FILE_NAME, "main", "success", null, null),
+                page -> page.forEach(run -> received.add(run.getId())));
+
+        // Assert
+        assertThat(received).hasSize((int) expected)
+                .doesNotContainAnyElementsOf(repository.workflowRuns().stream()
+                        .filter(run -> !"success".equals(run.conclusion()))
+                        .map(SyntheticWorkflowRun::id)
+                        .toList());
+    }
+
+    @Test
+    @DisplayName("Los incidentes de Datadog deben filtrarse por servicio")
+    void datadogClient_shouldReturnIncidentsOfService() {
+        // Arrange
+        DatadogIncidentClient datadogClient = new DatadogIncidentClient(WebClient.builder(), stub.url(), "key", "app-key",
+                new CollectorMetrics(new SimpleMeterRegistry()));
+
+        // Act
+        DatadogIncidentResponse response = datadogClient.getIncidents(Instant.EPOCH, "repo-001");
+
+        // Assert
+        assertThat(response.data()).hasSize(stub.organization().scenario().incidentsPerRepository());
+        assertThat(stub.datadogRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Al agotar el límite de requests el servidor debe anunciarlo en las cabeceras y responder 403")
+    void rateLimit_whenExhausted_shouldRespondForbidden() {
+        // Arrange
+        stub.close();
+        start(StubScenario.small().withRateLimit(2));
+        WebClient client = WebClient.create(stub.url());
+
+        // Act
+        ResponseEntity<Void> first = client.get().uri("/orgs/{org}/members", organization).retrieve().toBodilessEntity().block();
+        client.get().uri("/orgs/{org}/members", organization).retrieve().toBodilessEntity().block();
+
+        // Assert
+        assertThat(first.getHeaders().getFirst("X-RateLimit-Remaining")).isEqualTo("1");
+        assertThatThrownBy(() -> client.get().uri("/orgs/{org}/members", organization).retrieve().toBodilessEntity().block())
+                .isInstanceOf(WebClientResponseException.Forbidden.class);
+    }
+
+    @Test
+    @DisplayName("La inyección de errores debe responder 502 en una fracción de las requests")
+    void errorInjection_shouldFailSomeRequests() {
+        // Arrange
+        stub.close();
+        start(StubScenario.small().withErrorRate(0.5));
+        WebClient client = WebClient.create(stub.url());
+        int failures = 0;
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            try {
+                client.get().uri("/orgs/{org}/members", organization).retrieve().toBodilessEntity().block();
+            } catch (WebClientResponseException.BadGateway e) {
+                failures++;
+            }
+        }
+
+        // Assert
+        assertThat(failures).isEqualTo(stub.injectedErrorCount()).isBetween(1, 19);
+    }
+
+    private void start(StubScenario scenario) {
+        stub = UpstreamStubServer.start(scenario);
+        githubClient = new GithubClientImpl(WebClient.builder(), stub.url(), "dummy-token", new CollectorMetrics(new SimpleMeterRegistry()));
+        organization = scenario.organization();
+    }
+}
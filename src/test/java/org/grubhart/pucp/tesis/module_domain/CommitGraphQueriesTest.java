@@ -0,0 +1,98 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Las consultas recursivas de {@link CommitRepository} son nativas y convierten los SHA con {@code unhex()}, que
+ * H2 no tiene; por eso corren sobre un MySQL real con el esquema de las migraciones, donde los SHA son
+ * {@code varbinary(20)}. Requiere Docker; sin Docker se omite.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@TestPropertySource(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+class CommitGraphQueriesTest {
+
+    @Container
+    @ServiceConnection
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    private static final String ROOT = "a94a8fe5ccb19ba61c4c0873d391e987982fbbd3";
+    private static final String SECOND = "b5c3e2f0a1d4c6b8e9f0a1b2c3d4e5f6a7b8c9d0";
+    private static final String THIRD = "c0ffee00c0ffee00c0ffee00c0ffee00c0ffee00";
+    private static final String HEAD = "d41d8cd98f00b204e9800998ecf8427e00000000";
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private CommitRepository commitRepository;
+
+    @BeforeEach
+    void setUp() {
+        // Cadena lineal ROOT <- SECOND <- THIRD <- HEAD
+        RepositoryConfig repository = entityManager.persist(new RepositoryConfig("https://github.com/test/repo"));
+        Commit root = commit(ROOT, repository, 1);
+        Commit second = commit(SECOND, repository, 2);
+        Commit third = commit(THIRD, repository, 3);
+        Commit head = commit(HEAD, repository, 4);
+        entityManager.persist(new CommitParent(second, root));
+        entityManager.persist(new CommitParent(third, second));
+        entityManager.persist(new CommitParent(head, third));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("findCommitsBetween debe recorrer el grafo binario desde el fin hasta el inicio, sin incluirlo")
+    void findCommitsBetween_shouldWalkParentsUntilStartSha() {
+        // Act
+        List<Commit> commits = commitRepository.findCommitsBetween(SECOND, HEAD);
+
+        // Assert
+        assertThat(commits).extracting(Commit::getSha).containsExactlyInAnyOrder(THIRD, HEAD);
+    }
+
+    @Test
+    @DisplayName("findAllParentsOf debe devolver el commit y todos sus ancestros con el SHA en hex")
+    void findAllParentsOf_shouldReturnCommitAndAncestors() {
+        // Act
+        List<Commit> commits = commitRepository.findAllParentsOf(THIRD);
+
+        // Assert
+        assertThat(commits).extracting(Commit::getSha).containsExactlyInAnyOrder(ROOT, SECOND, THIRD);
+    }
+
+    @Test
+    @DisplayName("Un SHA que no existe no debe devolver commits")
+    void findAllParentsOf_withUnknownSha_shouldReturnEmpty() {
+        // Act
+        List<Commit> commits = commitRepository.findAllParentsOf("ffffffffffffffffffffffffffffffffffffffff");
+
+        // Assert
+        assertThat(commits).isEmpty();
+    }
+
+    private Commit commit(String sha, RepositoryConfig repository, int day) {
+        return entityManager.persist(new Commit(sha, "dev", "commit " + day, LocalDateTime.of(2024, 1, day, 10, 0),
+                repository));
+    }
+}
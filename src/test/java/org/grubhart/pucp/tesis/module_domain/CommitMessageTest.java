@@ -0,0 +1,53 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommitMessageTest {
+
+    @Test
+    @DisplayName("El mensaje se guarda comprimido y se recupera igual")
+    void setText_shouldRoundTripThroughCompression() {
+        // Given
+        String text = "feat: agrega métricas de lead time\n\n" + "Detalle del cambio. ".repeat(200);
+
+        // When
+        CommitMessage message = new CommitMessage("abc123", text);
+
+        // Then
+        assertThat(message.getText()).isEqualTo(text);
+        assertThat(CommitMessage.compress(text).length).isLessThan(text.getBytes(StandardCharsets.UTF_8).length / 10);
+    }
+
+    @Test
+    @DisplayName("Un texto vacío o nulo se conserva tal cual")
+    void setText_withEmptyOrNullText_shouldBePreserved() {
+        // When & Then
+        assertThat(new CommitMessage("abc123", "").getText()).isEmpty();
+        assertThat(new CommitMessage("abc123", null).getText()).isNull();
+    }
+
+    @Test
+    @DisplayName("Debe leer el formato de COMPRESS() de MySQL usado por la migración")
+    void decompress_shouldReadMysqlCompressFormat() throws Exception {
+        // Given: largo en 4 bytes little-endian seguido del stream zlib, como lo genera COMPRESS()
+        byte[] raw = "Merge pull request #7 from org/feature".getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(new byte[]{(byte) raw.length, 0, 0, 0});
+        try (DeflaterOutputStream zlib = new DeflaterOutputStream(out)) {
+            zlib.write(raw);
+        }
+
+        // When
+        String text = CommitMessage.decompress(out.toByteArray());
+
+        // Then
+        assertThat(text).isEqualTo("Merge pull request #7 from org/feature");
+    }
+}
@@ -6,7 +6,9 @@ import org.junit.jupiter.api.Test;
 import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Test para la entidad Commit.
@@ -58,4 +60,40 @@ class CommitTest {
         assertEquals(message, commit.getMessage());
         assertEquals(now, commit.getDate());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Solo un commit construido desde GitHub es nuevo, hasta que se inserta")
+    void isNew_shouldBeTrueOnlyForCommitsBuiltFromGithubUntilPersisted() {
+        // Given
+        GithubCommitDto dto = new GithubCommitDto();
+        dto.setSha("abc123");
+        Commit fromGithub = new Commit(dto, null, (UserRepository) null);
+
+        // When
+        boolean newBeforePersist = fromGithub.isNew();
+        fromGithub.markNotNew();
+
+        // Then
+        assertTrue(newBeforePersist, "Un commit recién llegado de GitHub debe insertarse sin SELECT previo.");
+        assertFalse(fromGithub.isNew(), "Tras insertarse debe volver al comportamiento de merge.");
+        assertFalse(new Commit("fedcba9876", "author", "message", LocalDateTime.now(), null).isNew());
+        assertEquals("abc123", fromGithub.getId());
+    }
+
+    @Test
+    @DisplayName("El indicador de mensaje de merge se calcula al asignar el mensaje")
+    void setMessage_shouldPrecomputeMergeMessageFlag() {
+        // Given
+        Commit merge = new Commit("abc123", "author", "Merge pull request #42 from org/feature", LocalDateTime.now(), null);
+        Commit regular = new Commit("def456", "author", "feat: merge sort", LocalDateTime.now(), null);
+
+        // When
+        regular.setMessage("Merge branch 'main' into feature");
+        merge.setMessage("fix: typo");
+
+        // Then
+        assertTrue(regular.hasMergeMessage());
+        assertFalse(merge.hasMergeMessage());
+        assertFalse(new Commit("0a1b2c", "author", null, LocalDateTime.now(), null).hasMergeMessage());
+    }
+}
@@ -0,0 +1,53 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * El resto de las pruebas genera el esquema con Hibernate sobre H2. Esta aplica las migraciones de db/migration
+ * sobre un MySQL real y levanta JPA con {@code ddl-auto=validate}, como en producción: si una entidad y las
+ * migraciones dejan de coincidir, el contexto no arranca. Requiere Docker; sin Docker se omite.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@TestPropertySource(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+class FlywayMigrationsTest {
+
+    @Container
+    @ServiceConnection
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private Flyway flyway;
+    @Autowired
+    private RepositoryConfigRepository repositoryConfigRepository;
+
+    @Test
+    @DisplayName("Las migraciones deben aplicarse completas y producir el esquema que Hibernate valida")
+    void migrations_shouldProduceSchemaValidatedByHibernate() {
+        // Assert
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(flyway.info().applied()).extracting(MigrationInfo::getState)
+                .allMatch(state -> state.isApplied() && !state.isFailed());
+
+        // Una escritura y lectura por JPA sobre el esquema migrado
+        RepositoryConfig saved = repositoryConfigRepository.save(new RepositoryConfig("https://github.com/test/repo"));
+        assertThat(repositoryConfigRepository.findById(saved.getId())).isPresent();
+    }
+}
@@ -0,0 +1,196 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mide filas/segundo de cada ruta de ingesta (commits, aristas del grafo, pull requests, deployments, incidentes
+ * y lead times) en dos modos:
+ * <ul>
+ *     <li>antes: sin lotes JDBC (batch size 1) y, para commits y PRs, entidades que {@code saveAll} guarda con
+ *     merge, es decir con un SELECT por fila, como antes de que esas entidades implementaran
+ *     {@link org.springframework.data.domain.Persistable};</li>
+ *     <li>después: la configuración de la aplicación (lotes de {@code hibernate.jdbc.batch_size}, inserts
+ *     ordenados) y las entidades tal como las construye la sincronización.</li>
+ * </ul>
+ * Corre sobre H2, así que mide sobre todo el trabajo que se ahorra Hibernate (SELECTs y sentencias sueltas); contra
+ * MySQL con {@code rewriteBatchedStatements} la diferencia es mayor por los round trips. No corre con
+ * {@code ./gradlew test}: se ejecuta con {@code ./gradlew loadTest -Pbenchmark.rows=20000}.
+ */
+@Tag("load")
+@DataJpaTest
+class IngestBatchingBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestBatchingBenchmarkTest.class);
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 5_000);
+    /** Filas por saveAll, como un lote de la sincronización; tras cada uno se hace flush y se limpia el contexto. */
+    private static final int CHUNK = 500;
+    private static final UserIdentityLookup NO_USERS = new UserIdentityLookup() {
+        @Override
+        public Optional<String> findUsernameByGithubId(Long githubId) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<String> findUsernameByGithubUsername(String githubUsername) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<String> findUsernameByEmail(String email) {
+            return Optional.empty();
+        }
+    };
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private RepositoryConfigRepository repositoryConfigRepository;
+    @Autowired
+    private CommitRepository commitRepository;
+    @Autowired
+    private CommitParentRepository commitParentRepository;
+    @Autowired
+    private PullRequestRepository pullRequestRepository;
+    @Autowired
+    private DeploymentRepository deploymentRepository;
+    @Autowired
+    private IncidentRepository incidentRepository;
+    @Autowired
+    private ChangeLeadTimeRepository changeLeadTimeRepository;
+
+    private RepositoryConfig config;
+
+    @Test
+    @DisplayName("Filas por segundo de cada ruta de ingesta, sin lotes (antes) y con lotes JDBC (después)")
+    void ingestThroughput_beforeAndAfterBatching() {
+        // Arrange
+        config = repositoryConfigRepository.save(new RepositoryConfig("https://github.com/bench/repo", "bench"));
+        entityManager.flush();
+
+        // Act
+        run(false);
+        run(true);
+
+        // Assert
+        assertThat(commitRepository.count()).isEqualTo(2L * ROWS);
+        assertThat(commitParentRepository.count()).isEqualTo(2L * (ROWS - 1));
+        assertThat(pullRequestRepository.count()).isEqualTo(2L * ROWS);
+        assertThat(deploymentRepository.count()).isEqualTo(2L * ROWS);
+        assertThat(incidentRepository.count()).isEqualTo(2L * ROWS);
+        assertThat(changeLeadTimeRepository.count()).isEqualTo(2L * ROWS);
+    }
+
+    private void run(boolean batched) {
+        String mode = batched ? "after" : "before";
+        // null vuelve al batch_size de la configuración; 1 desactiva los lotes
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batched ? null : 1);
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+        List<Commit> commits = measure(mode, "commits", commitRepository::saveAll,
+                i -> batched ? newCommitFromGithub(mode, i, base) : detachedCommit(mode, i, base));
+        measure(mode, "commit_parent", commitParentRepository::saveAll,
+                i -> new CommitParent(commits.get(i + 1), commits.get(i)), ROWS - 1);
+        measure(mode, "pull_requests", pullRequestRepository::saveAll,
+                i -> batched ? newPullRequestFromGithub(mode, i, base) : detachedPullRequest(mode, i, base));
+        List<Deployment> deployments = measure(mode, "deployment", deploymentRepository::saveAll,
+                i -> new Deployment(githubId(mode, i), config, "deploy", commits.get(i).getSha(), "main",
+                        "production", "success", "success", base.plusMinutes(i), base.plusMinutes(i + 5L)));
+        measure(mode, "incidents", incidentRepository::saveAll,
+                i -> new Incident(mode + "-" + i, config, "Incident " + i, IncidentState.RESOLVED, IncidentSeverity.SEV3,
+                        base.plusMinutes(i), base.plusMinutes(i + 30L), 1800L, "bench", base.plusMinutes(i),
+                        base.plusMinutes(i + 30L)));
+        measure(mode, "change_lead_time", changeLeadTimeRepository::saveAll,
+                i -> new ChangeLeadTime(commits.get(i), deployments.get(i), 300L));
+
+        entityManager.unwrap(Session.class).setJdbcBatchSize(null);
+    }
+
+    private <T> List<T> measure(String mode, String table, Function<List<T>, List<T>> saveAll, IntFunction<T> factory) {
+        return measure(mode, table, saveAll, factory, ROWS);
+    }
+
+    private <T> List<T> measure(String mode, String table, Function<List<T>, List<T>> saveAll, IntFunction<T> factory,
+                                int rows) {
+        List<T> saved = new ArrayList<>(rows);
+        long started = System.nanoTime();
+        for (int from = 0; from < rows; from += CHUNK) {
+            List<T> chunk = new ArrayList<>(CHUNK);
+            for (int i = from; i < Math.min(from + CHUNK, rows); i++) {
+                chunk.add(factory.apply(i));
+            }
+            saved.addAll(saveAll.apply(chunk));
+            entityManager.flush();
+            entityManager.clear();
+        }
+        double seconds = Math.max(System.nanoTime() - started, 1) / 1_000_000_000.0;
+        log.info("Ingesta {} [{}]: {} filas en {} s ({} filas/s)", table, mode, rows,
+                String.format("%.2f", seconds), String.format("%.0f", rows / seconds));
+        return saved;
+    }
+
+    private Commit newCommitFromGithub(String mode, int i, LocalDateTime base) {
+        GithubCommitDto.CommitAuthor author = new GithubCommitDto.CommitAuthor();
+        author.setName("dev-" + (i % 50));
+        author.setEmail("dev-" + (i % 50) + "@example.com");
+        author.setDate(Date.from(base.plusMinutes(i).atZone(ZoneId.systemDefault()).toInstant()));
+        GithubCommitDto.Commit commit = new GithubCommitDto.Commit();
+        commit.setAuthor(author);
+        commit.setMessage("Change " + i);
+        GithubCommitDto dto = new GithubCommitDto();
+        dto.setSha(sha(mode, i));
+        dto.setCommit(commit);
+        return new Commit(dto, config, NO_USERS);
+    }
+
+    private Commit detachedCommit(String mode, int i, LocalDateTime base) {
+        return new Commit(sha(mode, i), "dev-" + (i % 50), "Change " + i, base.plusMinutes(i), config);
+    }
+
+    private PullRequest newPullRequestFromGithub(String mode, int i, LocalDateTime base) {
+        GithubPullRequestDto dto = new GithubPullRequestDto();
+        dto.setId(githubId(mode, i));
+        dto.setNumber(i + 1);
+        dto.setState("closed");
+        dto.setCreatedAt(base.plusMinutes(i));
+        dto.setMergedAt(base.plusMinutes(i + 60L));
+        return new PullRequest(dto, config);
+    }
+
+    private PullRequest detachedPullRequest(String mode, int i, LocalDateTime base) {
+        PullRequest pullRequest = new PullRequest();
+        pullRequest.setId(githubId(mode, i));
+        pullRequest.setRepository(config);
+        pullRequest.setState("closed");
+        pullRequest.setCreatedAt(base.plusMinutes(i));
+        pullRequest.setMergedAt(base.plusMinutes(i + 60L));
+        return pullRequest;
+    }
+
+    private static String sha(String mode, int i) {
+        return String.format("%s%034x", mode.equals("after") ? "af" : "be", i) + "0000";
+    }
+
+    private static long githubId(String mode, int i) {
+        return (mode.equals("after") ? 2_000_000L : 1_000_000L) + i;
+    }
+}
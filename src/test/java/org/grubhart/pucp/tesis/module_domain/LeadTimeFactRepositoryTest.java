@@ -0,0 +1,104 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class LeadTimeFactRepositoryTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 3, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2025, 4, 1, 0, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private LeadTimeFactRepository repository;
+
+    private RepositoryConfig repositoryConfig;
+    private RepositoryConfig otherRepositoryConfig;
+
+    @BeforeEach
+    void setUp() {
+        repositoryConfig = entityManager.persist(new RepositoryConfig("https://github.com/test/repo", "checkout"));
+        otherRepositoryConfig = entityManager.persist(new RepositoryConfig("https://github.com/test/other", "payments"));
+    }
+
+    @Test
+    @DisplayName("Debe devolver los lead times de los autores en el rango, sin merges y sin importar mayúsculas")
+    void findByAuthorsDeployedBetween_shouldReturnNonMergeFactsOfAuthorsInRange() {
+        // Arrange
+        Deployment inRange = deployment(1L, repositoryConfig, LocalDateTime.of(2025, 3, 10, 12, 0));
+        Deployment beforeRange = deployment(2L, repositoryConfig, LocalDateTime.of(2025, 2, 28, 23, 0));
+        fact("01".repeat(20), "Alice", "Add feature", inRange);
+        fact("02".repeat(20), "alice", "Merge pull request #7 from org/feature", inRange);
+        fact("03".repeat(20), "bob", "Fix bug", inRange);
+        fact("04".repeat(20), "alice", "Old change", beforeRange);
+
+        // Act
+        List<LeadTimeFact> facts = repository.findByAuthorsDeployedBetween(Set.of("alice"), FROM, TO);
+
+        // Assert
+        assertThat(facts).extracting(LeadTimeFact::getCommitSha).containsExactly("01".repeat(20));
+        assertThat(facts.get(0).getAuthorKey()).isEqualTo("alice");
+        assertThat(facts.get(0).getRepositoryId()).isEqualTo(repositoryConfig.getId());
+    }
+
+    @Test
+    @DisplayName("Con repositorios debe devolver solo los lead times de esos repositorios")
+    void findByAuthorsDeployedBetweenInRepositories_shouldFilterByRepository() {
+        // Arrange
+        fact("01".repeat(20), "alice", "Change", deployment(1L, repositoryConfig, LocalDateTime.of(2025, 3, 10, 12, 0)));
+        fact("02".repeat(20), "alice", "Change", deployment(2L, otherRepositoryConfig, LocalDateTime.of(2025, 3, 11, 12, 0)));
+
+        // Act
+        List<LeadTimeFact> facts = repository.findByAuthorsDeployedBetweenInRepositories(Set.of("alice"), FROM, TO,
+                List.of(otherRepositoryConfig.getId()));
+
+        // Assert
+        assertThat(facts).extracting(LeadTimeFact::getCommitSha).containsExactly("02".repeat(20));
+    }
+
+    @Test
+    @DisplayName("markFailed debe marcar todos los lead times del deployment fallido")
+    void markFailed_shouldFlagEveryFactOfTheDeployment() {
+        // Arrange
+        Deployment failed = deployment(1L, repositoryConfig, LocalDateTime.of(2025, 3, 10, 12, 0));
+        Deployment healthy = deployment(2L, repositoryConfig, LocalDateTime.of(2025, 3, 11, 12, 0));
+        fact("01".repeat(20), "alice", "Change", failed);
+        fact("02".repeat(20), "bob", "Change", failed);
+        fact("03".repeat(20), "alice", "Change", healthy);
+
+        // Act
+        int updated = repository.markFailed(List.of(failed.getId()));
+        entityManager.clear();
+
+        // Assert
+        assertThat(updated).isEqualTo(2);
+        assertThat(repository.findAll())
+                .filteredOn(LeadTimeFact::isFailed)
+                .extracting(LeadTimeFact::getDeploymentId)
+                .containsOnly(failed.getId());
+    }
+
+    private Deployment deployment(Long githubId, RepositoryConfig repository, LocalDateTime createdAt) {
+        return entityManager.persist(new Deployment(githubId, repository, "deploy", "sha-" + githubId, "main",
+                "production", repository.getDatadogServiceName(), "completed", "success", createdAt, createdAt));
+    }
+
+    private void fact(String sha, String author, String message, Deployment deployment) {
+        Commit commit = entityManager.persist(new Commit(sha, author, message, deployment.getCreatedAt().minusHours(2),
+                deployment.getRepository()));
+        ChangeLeadTime changeLeadTime = entityManager.persist(new ChangeLeadTime(commit, deployment, 7200L));
+        entityManager.persistAndFlush(new LeadTimeFact(changeLeadTime, null));
+    }
+}
@@ -81,4 +81,21 @@ class PullRequestTest {
         assertEquals(dto.getMergedAt(), pr.getMergedAt());
         assertEquals(repoConfig, pr.getRepository());
     }
+
+    @Test
+    void testIsNew_onlyForPullRequestsBuiltFromDtoUntilPersisted() {
+        // Arrange
+        GithubPullRequestDto dto = new GithubPullRequestDto();
+        dto.setId(789L);
+        PullRequest fromDto = new PullRequest(dto, new RepositoryConfig("https://github.com/test/repo"));
+
+        // Act
+        boolean newBeforePersist = fromDto.isNew();
+        fromDto.markNotNew();
+
+        // Assert
+        assertTrue(newBeforePersist, "Un PR construido desde GitHub debe insertarse sin SELECT previo.");
+        assertFalse(fromDto.isNew(), "Tras insertarse debe volver al comportamiento de merge.");
+        assertFalse(new PullRequest().isNew(), "Un PR construido a mano conserva el comportamiento de merge.");
+    }
 }
@@ -0,0 +1,105 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sin la transacción de cada test de {@code @DataJpaTest}: el cache de segundo nivel solo se llena con lo que se
+ * confirma, así que cada llamada a un repositorio confirma su propia transacción.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReferenceDataCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private RepositoryConfigRepository repositoryConfigRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ReferenceDataCache referenceDataCache;
+    private org.hibernate.Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        referenceDataCache = new ReferenceDataCache(entityManagerFactory);
+        cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictAllRegions();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repositoryConfigRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Un repositorio leído queda en el cache y la siguiente lectura no va a la base")
+    void findById_shouldBeServedFromSecondLevelCache() {
+        // Arrange
+        Long id = repositoryConfigRepository.save(new RepositoryConfig("https://github.com/test/cached", "svc")).getId();
+        cache.evictAllRegions();
+
+        // Act
+        repositoryConfigRepository.findById(id);
+        repositoryConfigRepository.findById(id);
+
+        // Assert
+        assertThat(cache.containsEntity(RepositoryConfig.class, id)).isTrue();
+        ReferenceDataCache.RegionView region = region(ReferenceDataCache.REPOSITORY_CONFIG_REGION);
+        assertThat(region.misses()).isGreaterThanOrEqualTo(1);
+        assertThat(region.hits()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Fuera de una transacción evictRepositories descarta la región de inmediato")
+    void evictRepositories_withoutTransaction_shouldEvictImmediately() {
+        // Arrange
+        Long id = repositoryConfigRepository.save(new RepositoryConfig("https://github.com/test/evict", "svc")).getId();
+        repositoryConfigRepository.findById(id);
+        assertThat(cache.containsEntity(RepositoryConfig.class, id)).isTrue();
+
+        // Act
+        referenceDataCache.evictRepositories();
+
+        // Assert
+        assertThat(cache.containsEntity(RepositoryConfig.class, id)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Dentro de una transacción el descarte espera a que termine")
+    void evictRepositories_insideTransaction_shouldEvictOnCompletion() {
+        // Arrange
+        Long id = repositoryConfigRepository.save(new RepositoryConfig("https://github.com/test/deferred", "svc")).getId();
+        repositoryConfigRepository.findById(id);
+
+        // Act
+        Boolean cachedBeforeCompletion = new TransactionTemplate(transactionManager).execute(status -> {
+            referenceDataCache.evictRepositories();
+            return cache.containsEntity(RepositoryConfig.class, id);
+        });
+
+        // Assert
+        assertThat(cachedBeforeCompletion).isTrue();
+        assertThat(cache.containsEntity(RepositoryConfig.class, id)).isFalse();
+    }
+
+    private ReferenceDataCache.RegionView region(String name) {
+        return referenceDataCache.describe().regions().stream()
+                .filter(region -> region.region().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+}
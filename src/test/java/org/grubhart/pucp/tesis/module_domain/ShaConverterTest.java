@@ -0,0 +1,44 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShaConverterTest {
+
+    private static final String SHA = "c2a38519939553376756202026824180e8396469";
+
+    private final ShaConverter converter = new ShaConverter();
+
+    @Test
+    @DisplayName("Un SHA se guarda como sus 20 bytes y se recupera en hex")
+    void convert_shouldRoundTripThroughTwentyBytes() {
+        // When
+        byte[] stored = converter.convertToDatabaseColumn(SHA);
+
+        // Then
+        assertThat(stored).hasSize(ShaConverter.BINARY_LENGTH);
+        assertThat(stored[0]).isEqualTo((byte) 0xc2);
+        assertThat(converter.convertToEntityAttribute(stored)).isEqualTo(SHA);
+    }
+
+    @Test
+    @DisplayName("Los nulos se conservan")
+    void convert_withNull_shouldReturnNull() {
+        // When & Then
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("Debe rechazar lo que no es un SHA-1 completo en hex")
+    void convertToDatabaseColumn_withInvalidSha_shouldThrow() {
+        // When & Then
+        assertThatThrownBy(() -> converter.convertToDatabaseColumn("c2a3851"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> converter.convertToDatabaseColumn("z".repeat(40)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,101 @@
+package org.grubhart.pucp.tesis.module_domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class UserRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Test
+    @DisplayName("countMembersByTeam debe contar miembros y tech leads de cada equipo en una sola consulta")
+    void countMembersByTeam_shouldGroupMembersAndRoleByTeam() {
+        // Arrange
+        Role developer = entityManager.persist(new Role(RoleName.DEVELOPER));
+        Role techLead = entityManager.persist(new Role(RoleName.TECH_LEAD));
+        Team checkout = entityManager.persist(new Team("checkout"));
+        Team payments = entityManager.persist(new Team("payments"));
+        Team empty = entityManager.persist(new Team("empty"));
+        user(1L, "alice", checkout, developer, techLead);
+        user(2L, "bob", checkout, developer);
+        user(3L, "carol", checkout, developer);
+        user(4L, "dave", payments, developer);
+        entityManager.flush();
+
+        // Act
+        List<TeamMemberCount> counts = userRepository.countMembersByTeam(
+                List.of(checkout.getId(), payments.getId(), empty.getId()), RoleName.TECH_LEAD);
+
+        // Assert
+        assertThat(counts).containsExactlyInAnyOrder(
+                new TeamMemberCount(checkout.getId(), 3L, 1L),
+                new TeamMemberCount(payments.getId(), 1L, 0L));
+    }
+
+    @Test
+    @DisplayName("La página de usuarios activos debe empezar después del cursor y respetar el límite")
+    void findByActiveTrueAndIdGreaterThan_shouldReturnActiveUsersAfterCursor() {
+        // Arrange
+        Role developer = entityManager.persist(new Role(RoleName.DEVELOPER));
+        User first = user(1L, "alice", null, developer);
+        User inactive = user(2L, "bob", null, developer);
+        inactive.setActive(false);
+        User second = user(3L, "carol", null, developer);
+        User third = user(4L, "dave", null, developer);
+        entityManager.flush();
+
+        // Act
+        List<User> page = userRepository.findByActiveTrueAndIdGreaterThanOrderByIdAsc(first.getId(), Limit.of(2));
+
+        // Assert
+        assertThat(page).extracting(User::getId).containsExactly(second.getId(), third.getId());
+    }
+
+    @Test
+    @DisplayName("countRepositoriesByTeam debe contar los repositorios de cada equipo, incluidos los que no tienen")
+    void countRepositoriesByTeam_shouldCountRepositoriesPerTeam() {
+        // Arrange
+        RepositoryConfig repo1 = entityManager.persist(new RepositoryConfig("https://github.com/test/repo1"));
+        RepositoryConfig repo2 = entityManager.persist(new RepositoryConfig("https://github.com/test/repo2"));
+        Team checkout = new Team("checkout");
+        checkout.addRepository(repo1);
+        checkout.addRepository(repo2);
+        checkout = entityManager.persist(checkout);
+        Team empty = entityManager.persist(new Team("empty"));
+        entityManager.flush();
+
+        // Act
+        List<TeamRepositoryCount> counts = teamRepository.countRepositoriesByTeam(
+                List.of(checkout.getId(), empty.getId()));
+
+        // Assert
+        assertThat(counts).containsExactlyInAnyOrder(
+                new TeamRepositoryCount(checkout.getId(), 2L),
+                new TeamRepositoryCount(empty.getId(), 0L));
+    }
+
+    private User user(Long githubId, String username, Team team, Role... roles) {
+        User user = new User(githubId, username, username + "@example.com");
+        user.setRoles(new HashSet<>(Set.of(roles)));
+        if (team != null) {
+            user.setTeamId(team.getId());
+        }
+        return entityManager.persist(user);
+    }
+}
@@ -0,0 +1,72 @@
+package org.grubhart.pucp.tesis.module_domain.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.grubhart.pucp.tesis.module_domain.SqlActivity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Una base H2 en memoria detrás del DataSource observado; las sentencias pasan por los proxies reales del driver.
+ */
+class ObservedDataSourceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private DriverManagerDataSource target;
+
+    @BeforeEach
+    void setUp() {
+        target = new DriverManagerDataSource("jdbc:h2:mem:observed-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "sa", "");
+        new JdbcTemplate(target).execute("create table item (id bigint primary key, name varchar(50))");
+    }
+
+    @Test
+    @DisplayName("Debe contar las sentencias ejecutadas dentro de la unidad de trabajo en curso")
+    void statements_shouldBeCountedInCurrentScope() {
+        // Arrange
+        JdbcTemplate jdbc = new JdbcTemplate(new ObservedDataSource(target, new SlowQueryLog(Duration.ofHours(1), 10)));
+
+        // Act
+        SqlActivity.Scope scope = SqlActivity.open(registry, SqlActivity.KIND_ENDPOINT, "GET /api/items");
+        try (scope) {
+            jdbc.update("insert into item values (?, ?)", 1L, "a");
+            jdbc.queryForList("select name from item where id = ?", String.class, 1L);
+            jdbc.batchUpdate("insert into item values (?, ?)", List.of(new Object[]{2L, "b"}, new Object[]{3L, "c"}));
+        }
+
+        // Assert
+        assertThat(scope.statements()).isEqualTo(3);
+        assertThat(SqlActivity.currentDescription()).isEmpty();
+        assertThat(registry.get(SqlActivity.STATEMENTS).tags("kind", "endpoint", "name", "GET /api/items")
+                .summary().totalAmount()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("Una sentencia lenta debe registrarse con su SQL resumido y el tipo de sus parámetros")
+    void slowStatement_shouldRecordShapeAndParameterTypes() {
+        // Arrange
+        SlowQueryLog slowQueryLog = new SlowQueryLog(Duration.ZERO, 10);
+        JdbcTemplate jdbc = new JdbcTemplate(new ObservedDataSource(target, slowQueryLog));
+
+        // Act
+        SqlActivity.track(registry, SqlActivity.KIND_JOB, "commits", () ->
+                jdbc.queryForList("select name from item where id in (?, ?, ?, ?, ?) and name <> ?", String.class,
+                        1L, 2L, 3L, 4L, 5L, "x"));
+
+        // Assert
+        List<SlowQueryLog.SlowStatement> recent = slowQueryLog.recent();
+        assertThat(recent).hasSize(1);
+        assertThat(recent.get(0).sql()).isEqualTo("select name from item where id in (?... x5) and name <> ?");
+        assertThat(recent.get(0).parameters()).isEqualTo("?1:Long, ?2:Long, ?3:Long, ?4:Long, ?5:Long, ?6:String");
+        assertThat(recent.get(0).context()).isEqualTo("job commits");
+    }
+}
@@ -0,0 +1,165 @@
+package org.grubhart.pucp.tesis.module_domain.config;
+
+import org.grubhart.pucp.tesis.module_domain.ReadFromReplica;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dos bases H2 en memoria hacen de primario y réplica; cada una guarda su propio nombre en {@code origin}, así que
+ * la consulta revela a cuál llegó. La réplica expone su retraso simulado en {@code replica_lag}. Las lecturas que
+ * piden la réplica pasan por un bean {@link ReadFromReplica} con el advisor que registra
+ * {@link ReadReplicaDataSourceConfig}.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private static final String LAG_QUERY = "SELECT seconds_behind FROM replica_lag";
+
+    private DataSource primary;
+    private DataSource replica;
+
+    @BeforeEach
+    void setUp() {
+        String id = UUID.randomUUID().toString();
+        primary = database("primary-" + id);
+        replica = database("replica-" + id);
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.execute("create table replica_lag (seconds_behind bigint)");
+        replicaJdbc.update("insert into replica_lag values (0)");
+    }
+
+    @Test
+    @DisplayName("Las transacciones de solo lectura marcadas con @ReadFromReplica deben leer de la réplica")
+    void markedReadOnlyTransactions_shouldBeRoutedToReplica() {
+        // Arrange
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, LAG_QUERY, Duration.ofSeconds(30), Duration.ofSeconds(10));
+        Routing routing = new Routing(monitor);
+        monitor.refresh();
+
+        // Act & Assert
+        assertThat(routing.readOnlyFromReplica()).isEqualTo("replica");
+        assertThat(routing.readWrite()).isEqualTo("primary");
+        assertThat(routing.jdbc.queryForObject("select name from origin", String.class)).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Sin @ReadFromReplica las lecturas de solo lectura (las de la sincronización) deben ir al primario")
+    void unmarkedReadOnlyTransactions_shouldStayOnPrimary() {
+        // Arrange
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, LAG_QUERY, Duration.ofSeconds(30), Duration.ofSeconds(10));
+        Routing routing = new Routing(monitor);
+        monitor.refresh();
+
+        // Act
+        String beforeMarkedRead = routing.readOnly();
+        String markedRead = routing.readOnlyFromReplica();
+        String afterMarkedRead = routing.readOnly();
+
+        // Assert
+        assertThat(monitor.isReplicaUsable()).isTrue();
+        assertThat(markedRead).isEqualTo("replica");
+        assertThat(beforeMarkedRead).isEqualTo("primary");
+        assertThat(afterMarkedRead).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Si la réplica supera el retraso tolerado las lecturas deben volver al primario")
+    void readOnlyTransactions_whenReplicaLags_shouldFallBackToPrimary() {
+        // Arrange
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, LAG_QUERY, Duration.ofSeconds(30), Duration.ofSeconds(10));
+        Routing routing = new Routing(monitor);
+        monitor.refresh();
+        String beforeLag = routing.readOnlyFromReplica();
+
+        // Act
+        new JdbcTemplate(replica).update("update replica_lag set seconds_behind = 120");
+        monitor.refresh();
+
+        // Assert
+        assertThat(beforeLag).isEqualTo("replica");
+        assertThat(routing.readOnlyFromReplica()).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Si la réplica no está disponible las lecturas deben ir al primario")
+    void readOnlyTransactions_whenReplicaIsDown_shouldFallBackToPrimary() {
+        // Arrange
+        DataSource missing = new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/missing");
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(missing, LAG_QUERY, Duration.ofSeconds(30), Duration.ofSeconds(10));
+        Routing routing = new Routing(missing, monitor);
+        monitor.refresh();
+
+        // Act & Assert
+        assertThat(routing.readOnlyFromReplica()).isEqualTo("primary");
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table origin (name varchar(20))");
+        jdbc.update("insert into origin values (?)", name.substring(0, name.indexOf('-')));
+        return dataSource;
+    }
+
+    /** El DataSource tal como lo arma {@link ReadReplicaDataSourceConfig}, con su transaction manager. */
+    private final class Routing {
+
+        private final JdbcTemplate jdbc;
+        private final TransactionTemplate readOnlyTransaction;
+        private final TransactionTemplate readWriteTransaction;
+        private final Supplier<String> dashboardReader;
+
+        Routing(ReplicaLagMonitor monitor) {
+            this(replica, monitor);
+        }
+
+        @SuppressWarnings("unchecked")
+        Routing(DataSource replicaTarget, ReplicaLagMonitor monitor) {
+            DataSource dataSource = new LazyConnectionDataSourceProxy(
+                    new ReadWriteRoutingDataSource(primary, replicaTarget, monitor));
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+            this.jdbc = new JdbcTemplate(dataSource);
+            this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+            this.readOnlyTransaction.setReadOnly(true);
+            this.readWriteTransaction = new TransactionTemplate(transactionManager);
+            ProxyFactory proxyFactory = new ProxyFactory(new DashboardReader(this::readOnly));
+            proxyFactory.addAdvisor(ReplicaReadInterceptor.advisor());
+            this.dashboardReader = (Supplier<String>) proxyFactory.getProxy();
+        }
+
+        String readOnly() {
+            return readOnlyTransaction.execute(status -> jdbc.queryForObject("select name from origin", String.class));
+        }
+
+        String readWrite() {
+            return readWriteTransaction.execute(status -> jdbc.queryForObject("select name from origin", String.class));
+        }
+
+        /** La misma lectura de solo lectura, hecha desde un bean marcado como los dashboards. */
+        String readOnlyFromReplica() {
+            return dashboardReader.get();
+        }
+    }
+
+    @ReadFromReplica
+    private record DashboardReader(Supplier<String> read) implements Supplier<String> {
+
+        @Override
+        public String get() {
+            return read.get();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.grubhart.pucp.tesis.module_domain.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaLagMonitorTest {
+
+    private static final String LAG_QUERY = "SHOW REPLICA STATUS";
+
+    @Mock
+    private DataSource replica;
+    @Mock
+    private Connection connection;
+    @Mock
+    private Statement statement;
+    @Mock
+    private ResultSet resultSet;
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    private ReplicaLagMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        monitor = new ReplicaLagMonitor(replica, LAG_QUERY, Duration.ofSeconds(30), Duration.ofSeconds(10), scheduler);
+    }
+
+    @Test
+    @DisplayName("La réplica se usa mientras su retraso esté dentro de la tolerancia")
+    void isReplicaUsable_whenLagWithinTolerance_shouldBeTrue() throws SQLException {
+        // Arrange
+        replicaReportsLag(5);
+
+        // Act
+        monitor.refresh();
+
+        // Assert
+        assertThat(monitor.isReplicaUsable()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Con un retraso mayor a la tolerancia las lecturas deben ir al primario")
+    void isReplicaUsable_whenLagAboveTolerance_shouldBeFalse() throws SQLException {
+        // Arrange
+        replicaReportsLag(120);
+
+        // Act
+        monitor.refresh();
+
+        // Assert
+        assertThat(monitor.isReplicaUsable()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Con la replicación detenida (retraso NULL) la réplica no debe usarse")
+    void isReplicaUsable_whenLagIsNull_shouldBeFalse() throws SQLException {
+        // Arrange
+        replicaReportsLag(0);
+        when(resultSet.wasNull()).thenReturn(true);
+
+        // Act
+        monitor.refresh();
+
+        // Assert
+        assertThat(monitor.isReplicaUsable()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Si la consulta de estado no devuelve filas la base no es una réplica")
+    void isReplicaUsable_whenStatusHasNoRows_shouldBeFalse() throws SQLException {
+        // Arrange
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(LAG_QUERY)).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(false);
+
+        // Act
+        monitor.refresh();
+
+        // Assert
+        assertThat(monitor.isReplicaUsable()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Si la réplica no acepta conexiones las lecturas deben ir al primario")
+    void isReplicaUsable_whenReplicaIsDown_shouldBeFalse() throws SQLException {
+        // Arrange
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        // Act
+        monitor.refresh();
+
+        // Assert
+        assertThat(monitor.isReplicaUsable()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Sin consulta de retraso solo se comprueba la conexión")
+    void isReplicaUsable_withBlankLagQuery_shouldOnlyValidateConnection() throws SQLException {
+        // Arrange
+        monitor = new ReplicaLagMonitor(replica, " ", Duration.ofSeconds(30), Duration.ofSeconds(10), scheduler);
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.isValid(2)).thenReturn(true);
+
+        // Act
+        monitor.refresh();
+
+        // Assert
+        assertThat(monitor.isReplicaUsable()).isTrue();
+    }
+
+    @Test
+    @DisplayName("start debe programar el chequeo en segundo plano cada intervalo, empezando de inmediato")
+    void start_shouldScheduleChecksEveryInterval() {
+        // Act
+        monitor.start();
+
+        // Assert
+        verify(scheduler).scheduleWithFixedDelay(any(Runnable.class), eq(0L), eq(10_000L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("isReplicaUsable debe devolver el último resultado sin consultar la réplica")
+    void isReplicaUsable_shouldNotQueryReplica() {
+        // Act & Assert
+        assertThat(monitor.isReplicaUsable()).isFalse();
+        verifyNoInteractions(replica);
+    }
+
+    private void replicaReportsLag(long seconds) throws SQLException {
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(LAG_QUERY)).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.findColumn(ReplicaLagMonitor.SECONDS_BEHIND_COLUMN)).thenReturn(11);
+        when(resultSet.getLong(11)).thenReturn(seconds);
+    }
+}
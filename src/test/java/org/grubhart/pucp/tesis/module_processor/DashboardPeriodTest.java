@@ -0,0 +1,28 @@
+package org.grubhart.pucp.tesis.module_processor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DashboardPeriodTest {
+
+    @Test
+    @DisplayName("Con fechas el rango debe ir del inicio del primer día al inicio del día siguiente al último")
+    void fromAndTo_withDates_shouldBuildHalfOpenRange() {
+        // Act & Assert
+        assertThat(DashboardPeriod.from(LocalDate.of(2024, 1, 1))).isEqualTo(LocalDateTime.of(2024, 1, 1, 0, 0));
+        assertThat(DashboardPeriod.to(LocalDate.of(2024, 1, 31))).isEqualTo(LocalDateTime.of(2024, 2, 1, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Sin fechas el rango no debe salir de lo que cabe en un DATETIME de MySQL")
+    void fromAndTo_withoutDates_shouldStayWithinDatetimeRange() {
+        // Act & Assert
+        assertThat(DashboardPeriod.from(null)).isEqualTo(LocalDateTime.of(1970, 1, 1, 0, 0));
+        assertThat(DashboardPeriod.to(null)).isEqualTo(LocalDateTime.of(9999, 12, 31, 0, 0));
+    }
+}
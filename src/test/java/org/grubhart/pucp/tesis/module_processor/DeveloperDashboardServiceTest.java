@@ -1,12 +1,11 @@
 package org.grubhart.pucp.tesis.module_processor;
 
 import org.grubhart.pucp.tesis.module_domain.ChangeLeadTime;
-import org.grubhart.pucp.tesis.module_domain.ChangeLeadTimeRepository;
 import org.grubhart.pucp.tesis.module_domain.Commit;
-import org.grubhart.pucp.tesis.module_domain.CommitParentRepository;
 import org.grubhart.pucp.tesis.module_domain.CommitRepository;
 import org.grubhart.pucp.tesis.module_domain.Deployment;
-import org.grubhart.pucp.tesis.module_domain.IncidentRepository;
+import org.grubhart.pucp.tesis.module_domain.LeadTimeFact;
+import org.grubhart.pucp.tesis.module_domain.LeadTimeFactRepository;
 import org.grubhart.pucp.tesis.module_domain.PullRequestRepository;
 import org.grubhart.pucp.tesis.module_domain.RepositoryConfig;
 import org.junit.jupiter.api.Test;
@@ -19,8 +18,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,17 +31,11 @@ class DeveloperDashboardServiceTest {
     private CommitRepository commitRepository;
 
     @Mock
-    private ChangeLeadTimeRepository changeLeadTimeRepository;
-
-    @Mock
-    private IncidentRepository incidentRepository;
+    private LeadTimeFactRepository leadTimeFactRepository;
 
     @Mock
     private PullRequestRepository pullRequestRepository;
 
-    @Mock
-    private CommitParentRepository commitParentRepository;
-
     @InjectMocks
     private DeveloperDashboardService developerDashboardService;
 
@@ -58,14 +53,13 @@ class DeveloperDashboardServiceTest {
         List<Commit> mockCommits = List.of(
                 new Commit("sha1", "john_doe", "Commit 1", now, repo1),
                 new Commit("sha2", "john_doe", "Commit 2", yesterday, repo1),
-                new Commit("sha3", "john_doe", "Commit 3", now, repo2),
-                new Commit("sha4", "other_user", "Commit 4", now, repo1) // Este no debe incluirse
+                new Commit("sha3", "john_doe", "Commit 3", now, repo2)
         );
 
-        when(commitRepository.findAll()).thenReturn(mockCommits);
-        when(changeLeadTimeRepository.findAll()).thenReturn(Collections.emptyList());
-        when(pullRequestRepository.findAll()).thenReturn(Collections.emptyList());
-        when(commitParentRepository.findAll()).thenReturn(Collections.emptyList());
+        // Los commits se piden solo para el autor, en minúsculas
+        when(commitRepository.findNonMergeByAuthorKeys(Set.of("john_doe"))).thenReturn(mockCommits);
+        when(leadTimeFactRepository.findByAuthorsDeployedBetween(any(), any(), any())).thenReturn(Collections.emptyList());
+        when(pullRequestRepository.findByFirstCommitAuthorKeys(Set.of("john_doe"))).thenReturn(Collections.emptyList());
 
         // WHEN: Se solicitan las métricas sin filtros
         DeveloperMetricsResponse response = developerDashboardService.getDeveloperMetrics(githubUsername, null, null, null);
@@ -102,7 +96,7 @@ class DeveloperDashboardServiceTest {
         // GIVEN: Un developer sin commits
         String githubUsername = "new_developer";
 
-        when(commitRepository.findAll()).thenReturn(Collections.emptyList());
+        when(commitRepository.findNonMergeByAuthorKeys(Set.of("new_developer"))).thenReturn(Collections.emptyList());
 
         // WHEN: Se solicitan las métricas sin filtros
         DeveloperMetricsResponse response = developerDashboardService.getDeveloperMetrics(githubUsername, null, null, null);
@@ -140,10 +134,9 @@ class DeveloperDashboardServiceTest {
                 new Commit("sha3", "John_Doe", "Commit 3", now, repo)
         );
 
-        when(commitRepository.findAll()).thenReturn(mockCommits);
-        when(changeLeadTimeRepository.findAll()).thenReturn(Collections.emptyList());
-        when(pullRequestRepository.findAll()).thenReturn(Collections.emptyList());
-        when(commitParentRepository.findAll()).thenReturn(Collections.emptyList());
+        when(commitRepository.findNonMergeByAuthorKeys(Set.of("john_doe"))).thenReturn(mockCommits);
+        when(leadTimeFactRepository.findByAuthorsDeployedBetween(any(), any(), any())).thenReturn(Collections.emptyList());
+        when(pullRequestRepository.findByFirstCommitAuthorKeys(Set.of("john_doe"))).thenReturn(Collections.emptyList());
 
         // WHEN: Se solicitan las métricas sin filtros
         DeveloperMetricsResponse response = developerDashboardService.getDeveloperMetrics(githubUsername, null, null, null);
@@ -178,6 +171,8 @@ class DeveloperDashboardServiceTest {
         // Crear deployments para simular que los commits fueron deployados
         Deployment deployment1 = new Deployment(null, repo1, "test-deployment", "sha1", "main", "production", "service1", "completed", "success", now, now);
         deployment1.setId(1L);
+        // Ya correlacionado con un incidente: el dashboard usa el flag del hecho, sin volver a leer incidentes
+        deployment1.setChangeFailure(true);
         Deployment deployment2 = new Deployment(null, repo1, "test-deployment", "sha2", "main", "production", "service1", "completed", "success", now, now);
         deployment2.setId(2L);
         Deployment deployment3 = new Deployment(null, repo2, "test-deployment", "sha3", "main", "production", "service2", "completed", "success", now, now);
@@ -187,11 +182,12 @@ class DeveloperDashboardServiceTest {
         ChangeLeadTime lt2 = new ChangeLeadTime(commit2, deployment2, 3600L);
         ChangeLeadTime lt3 = new ChangeLeadTime(commit3, deployment3, 3600L);
 
-        when(commitRepository.findAll()).thenReturn(mockCommits);
-        when(changeLeadTimeRepository.findAll()).thenReturn(List.of(lt1, lt2, lt3));
-        when(incidentRepository.findAll()).thenReturn(Collections.emptyList());
-        when(pullRequestRepository.findAll()).thenReturn(Collections.emptyList());
-        when(commitParentRepository.findAll()).thenReturn(Collections.emptyList());
+        when(commitRepository.findNonMergeByAuthorKeys(Set.of("john_doe"))).thenReturn(mockCommits);
+        // El filtro de repositorio se aplica en la consulta: solo vuelven los lead times de repo1
+        when(leadTimeFactRepository.findByAuthorsDeployedBetweenInRepositories(Set.of("john_doe"),
+                DashboardPeriod.from(null), DashboardPeriod.to(null), List.of(1L)))
+                .thenReturn(List.of(new LeadTimeFact(lt1, null), new LeadTimeFact(lt2, null)));
+        when(pullRequestRepository.findByFirstCommitAuthorKeys(Set.of("john_doe"))).thenReturn(Collections.emptyList());
 
         // WHEN: Se solicitan las métricas filtrando por repo1
         DeveloperMetricsResponse response = developerDashboardService.getDeveloperMetrics(
@@ -205,6 +201,9 @@ class DeveloperDashboardServiceTest {
         // Verificar que commitStats también está filtrado
         assertEquals(2L, response.commitStats().totalCommits());
         assertEquals(1L, response.commitStats().repositoryCount());
+        // CFR a partir de LeadTimeFact.failed
+        assertEquals(1L, response.doraMetrics().failedDeploymentCount());
+        assertEquals(50.0, response.doraMetrics().changeFailureRate());
     }
 
     @Test
@@ -240,11 +239,12 @@ class DeveloperDashboardServiceTest {
         ChangeLeadTime lt2 = new ChangeLeadTime(commit2, deployment2, 7200L); // 2 horas
         ChangeLeadTime lt3 = new ChangeLeadTime(commit3, deployment3, 10800L); // 3 horas
 
-        when(commitRepository.findAll()).thenReturn(mockCommits);
-        when(changeLeadTimeRepository.findAll()).thenReturn(List.of(lt1, lt2, lt3));
-        when(incidentRepository.findAll()).thenReturn(Collections.emptyList());
-        when(pullRequestRepository.findAll()).thenReturn(Collections.emptyList());
-        when(commitParentRepository.findAll()).thenReturn(Collections.emptyList());
+        // Con fechas los lead times se consultan por rango, no con findAll
+        when(commitRepository.findNonMergeByAuthorKeys(Set.of("john_doe"))).thenReturn(mockCommits);
+        when(leadTimeFactRepository.findByAuthorsDeployedBetween(Set.of("john_doe"),
+                LocalDate.of(2025, 11, 2).atStartOfDay(), LocalDate.of(2025, 11, 3).atStartOfDay()))
+                .thenReturn(List.of(new LeadTimeFact(lt2, null)));
+        when(pullRequestRepository.findByFirstCommitAuthorKeys(Set.of("john_doe"))).thenReturn(Collections.emptyList());
 
         // WHEN: Se solicitan las métricas filtrando por rango de fechas (solo Nov 2)
         LocalDate startDate = LocalDate.of(2025, 11, 2);
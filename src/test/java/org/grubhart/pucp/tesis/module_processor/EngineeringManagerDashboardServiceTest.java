@@ -29,7 +29,7 @@ class EngineeringManagerDashboardServiceTest {
     private CommitRepository commitRepository;
 
     @Mock
-    private ChangeLeadTimeRepository changeLeadTimeRepository;
+    private LeadTimeFactRepository leadTimeFactRepository;
 
     @Mock
     private IncidentRepository incidentRepository;
@@ -37,9 +37,6 @@ class EngineeringManagerDashboardServiceTest {
     @Mock
     private PullRequestRepository pullRequestRepository;
 
-    @Mock
-    private CommitParentRepository commitParentRepository;
-
     @InjectMocks
     private EngineeringManagerDashboardService engineeringManagerDashboardService;
 
@@ -106,15 +103,11 @@ class EngineeringManagerDashboardServiceTest {
                     if (teamId.equals(200L)) return team2Members;
                     return Collections.emptyList();
                 });
-        lenient().when(commitRepository.findAll())
+        lenient().when(commitRepository.findNonMergeByAuthorKeys(anySet()))
                 .thenReturn(commits);
-        lenient().when(changeLeadTimeRepository.findAll())
-                .thenReturn(Collections.emptyList());
-        lenient().when(pullRequestRepository.findAll())
-                .thenReturn(Collections.emptyList());
-        lenient().when(commitParentRepository.findAll())
+        lenient().when(leadTimeFactRepository.findByAuthorsDeployedBetween(any(), any(), any()))
                 .thenReturn(Collections.emptyList());
-        lenient().when(incidentRepository.findAll())
+        lenient().when(pullRequestRepository.findByFirstCommitAuthorKeys(anySet()))
                 .thenReturn(Collections.emptyList());
 
         // When
@@ -148,19 +141,15 @@ class EngineeringManagerDashboardServiceTest {
         // Given
         when(userRepository.findByGithubUsernameIgnoreCase("em_user"))
                 .thenReturn(Optional.of(engineeringManager));
-        when(teamRepository.findAll())
+        when(teamRepository.findAllById(Set.of(100L)))
                 .thenReturn(Collections.singletonList(team1)); // Solo team1 porque filtramos por team1
         lenient().when(userRepository.findByTeamId(100L))
                 .thenReturn(team1Members);
-        lenient().when(commitRepository.findAll())
+        lenient().when(commitRepository.findNonMergeByAuthorKeys(anySet()))
                 .thenReturn(commits);
-        lenient().when(changeLeadTimeRepository.findAll())
-                .thenReturn(Collections.emptyList());
-        lenient().when(pullRequestRepository.findAll())
-                .thenReturn(Collections.emptyList());
-        lenient().when(commitParentRepository.findAll())
+        lenient().when(leadTimeFactRepository.findByAuthorsDeployedBetween(any(), any(), any()))
                 .thenReturn(Collections.emptyList());
-        lenient().when(incidentRepository.findAll())
+        lenient().when(pullRequestRepository.findByFirstCommitAuthorKeys(anySet()))
                 .thenReturn(Collections.emptyList());
 
         List<Long> teamFilter = Collections.singletonList(100L); // Solo Backend Team
@@ -188,15 +177,11 @@ class EngineeringManagerDashboardServiceTest {
                 .thenReturn(team1Members);
         lenient().when(userRepository.findByTeamId(200L))
                 .thenReturn(team2Members);
-        lenient().when(commitRepository.findAll())
+        lenient().when(commitRepository.findNonMergeByAuthorKeys(anySet()))
                 .thenReturn(commits);
-        lenient().when(changeLeadTimeRepository.findAll())
+        lenient().when(leadTimeFactRepository.findByAuthorsDeployedBetween(any(), any(), any()))
                 .thenReturn(Collections.emptyList());
-        lenient().when(pullRequestRepository.findAll())
-                .thenReturn(Collections.emptyList());
-        lenient().when(commitParentRepository.findAll())
-                .thenReturn(Collections.emptyList());
-        lenient().when(incidentRepository.findAll())
+        lenient().when(pullRequestRepository.findByFirstCommitAuthorKeys(anySet()))
                 .thenReturn(Collections.emptyList());
 
         List<Long> memberFilter = Arrays.asList(2L, 3L); // Solo team1 members
@@ -236,7 +221,7 @@ class EngineeringManagerDashboardServiceTest {
         // Given
         when(userRepository.findByGithubUsernameIgnoreCase("em_user"))
                 .thenReturn(Optional.of(engineeringManager));
-        when(teamRepository.findAll())
+        when(teamRepository.findAllById(Set.of(100L)))
                 .thenReturn(Arrays.asList(team1, team2));
         when(userRepository.findByTeamId(100L))
                 .thenReturn(team1Members); // Members 2, 3
@@ -300,21 +285,17 @@ class EngineeringManagerDashboardServiceTest {
         // Given
         when(userRepository.findByGithubUsernameIgnoreCase("em_user"))
                 .thenReturn(Optional.of(engineeringManager));
-        when(teamRepository.findAll())
+        when(teamRepository.findAllById(Set.of(100L, 200L)))
                 .thenReturn(Arrays.asList(team1, team2));
         lenient().when(userRepository.findByTeamId(100L))
                 .thenReturn(team1Members);
         lenient().when(userRepository.findByTeamId(200L))
                 .thenReturn(team2Members);
-        lenient().when(commitRepository.findAll())
+        lenient().when(commitRepository.findNonMergeByAuthorKeys(anySet()))
                 .thenReturn(commits);
-        lenient().when(changeLeadTimeRepository.findAll())
-                .thenReturn(Collections.emptyList());
-        lenient().when(pullRequestRepository.findAll())
-                .thenReturn(Collections.emptyList());
-        lenient().when(commitParentRepository.findAll())
+        lenient().when(leadTimeFactRepository.findByAuthorsDeployedBetween(any(), any(), any()))
                 .thenReturn(Collections.emptyList());
-        lenient().when(incidentRepository.findAll())
+        lenient().when(pullRequestRepository.findByFirstCommitAuthorKeys(anySet()))
                 .thenReturn(Collections.emptyList());
 
         List<Long> teamFilter = Arrays.asList(100L, 200L); // Ambos equipos
@@ -16,6 +16,7 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -32,14 +33,24 @@ class LeadTimeCalculationServiceTest {
     @Mock
     private ChangeLeadTimeRepository changeLeadTimeRepository;
 
+    @Mock
+    private LeadTimeFactRepository leadTimeFactRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
     @Captor
     private ArgumentCaptor<List<ChangeLeadTime>> changeLeadTimeCaptor;
 
+    @Captor
+    private ArgumentCaptor<List<LeadTimeFact>> leadTimeFactCaptor;
+
     private LeadTimeCalculationService service;
 
     @BeforeEach
     void setUp() {
-        service = new LeadTimeCalculationService(deploymentRepository, commitRepository, changeLeadTimeRepository);
+        service = new LeadTimeCalculationService(deploymentRepository, commitRepository, changeLeadTimeRepository,
+                leadTimeFactRepository, userRepository);
     }
 
     @Test
@@ -94,6 +105,9 @@ class LeadTimeCalculationServiceTest {
             String sha = invocation.getArgument(1);
             return Optional.ofNullable(commitMap.get(sha));
         });
+        User author = new User();
+        author.setTeamId(7L);
+        when(userRepository.findByGithubUsernameIgnoreCase("author")).thenReturn(Optional.of(author));
 
         // Act
         service.calculate();
@@ -114,7 +128,18 @@ class LeadTimeCalculationServiceTest {
         assertThat(processedCommitShas).doesNotContain("sha-prev-deploy", "sha-ancient");
         assertThat(savedLeadTimes).hasSize(4);
 
-        // 2. Verify deployment is marked as processed
+        // 2. Verify the denormalized facts: one per lead time, with the author's team and the merge commit flagged
+        verify(leadTimeFactRepository).saveAll(leadTimeFactCaptor.capture());
+        assertThat(leadTimeFactCaptor.getValue())
+                .extracting(LeadTimeFact::getCommitSha, LeadTimeFact::getTeamId, LeadTimeFact::isMergeCommit)
+                .containsExactlyInAnyOrder(
+                        tuple("sha-current-deploy", 7L, true),
+                        tuple("sha-main", 7L, false),
+                        tuple("sha-feature-B", 7L, false),
+                        tuple("sha-feature-A", 7L, false));
+        verify(userRepository, times(1)).findByGithubUsernameIgnoreCase("author");
+
+        // 3. Verify deployment is marked as processed
         ArgumentCaptor<List<Deployment>> processedDeploymentsCaptor = ArgumentCaptor.forClass(List.class);
         verify(deploymentRepository).saveAll(processedDeploymentsCaptor.capture());
         assertThat(processedDeploymentsCaptor.getValue().get(0).isLeadTimeProcessed()).isTrue();
@@ -161,6 +186,33 @@ class LeadTimeCalculationServiceTest {
         assertThat(savedDeployments.get(0).getSha()).isEqualTo("sha-non-existent");
     }
 
+    @Test
+    void calculate_whenDeploymentHasNoCreatedAt_shouldSkipItAndMarkAsProcessed() {
+        // GIVEN
+        Deployment undatedDeployment = new Deployment();
+        undatedDeployment.setSha("sha-undated");
+        undatedDeployment.setLeadTimeProcessed(false);
+        undatedDeployment.setRepository(mock(RepositoryConfig.class));
+
+        when(deploymentRepository.findByLeadTimeProcessedFalseAndEnvironment(eq("production"), any(Sort.class)))
+                .thenReturn(Collections.singletonList(undatedDeployment));
+
+        // WHEN
+        service.calculate();
+
+        // THEN
+        // 1. No lead times or facts are built for a deployment without a date
+        verify(commitRepository, never()).findByRepositoryIdAndSha(any(), any());
+        verify(changeLeadTimeRepository, never()).saveAll(any());
+        verify(leadTimeFactRepository, never()).saveAll(any());
+
+        // 2. It is marked as processed so it is not read again on every run
+        ArgumentCaptor<List<Deployment>> processedDeploymentsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(deploymentRepository).saveAll(processedDeploymentsCaptor.capture());
+        assertThat(processedDeploymentsCaptor.getValue()).containsExactly(undatedDeployment);
+        assertThat(undatedDeployment.isLeadTimeProcessed()).isTrue();
+    }
+
     @Test
     void calculate_whenNoPreviousProcessedDeployments_shouldProcessFromBeginning() {
         // Arrange: A simple commit history
@@ -236,6 +288,7 @@ class LeadTimeCalculationServiceTest {
         verify(deploymentRepository, never()).saveAll(any());
         // No attempt should be made to save any lead times
         verify(changeLeadTimeRepository, never()).saveAll(any());
+        verify(leadTimeFactRepository, never()).saveAll(any());
     }
 
     @Test
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.util.*;
 
@@ -27,6 +28,9 @@ class TeamManagementServiceTest {
     @Mock
     private RepositoryConfigRepository repositoryConfigRepository;
 
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
     @InjectMocks
     private TeamManagementService teamManagementService;
 
@@ -183,6 +187,7 @@ class TeamManagementServiceTest {
         // THEN
         assertEquals(1L, testDeveloper.getTeamId());
         verify(userRepository).save(testDeveloper);
+        verify(referenceDataCache).evictUsers();
     }
 
     @Test
@@ -264,6 +269,7 @@ class TeamManagementServiceTest {
         // THEN
         assertTrue(testTeam.getRepositories().contains(testRepository));
         verify(teamRepository).save(testTeam);
+        verify(referenceDataCache).evictTeams();
     }
 
     @Test
@@ -296,19 +302,71 @@ class TeamManagementServiceTest {
     }
 
     @Test
-    void testGetAllTeams_returnsAllTeams() {
+    void testGetTeams_buildsCountsFromGroupedQueries() {
+        // GIVEN
+        Team team2 = new Team("Team 2");
+        team2.setId(2L);
+        testTechLead.setTeamId(1L);
+        when(teamRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(101))).thenReturn(List.of(testTeam, team2));
+        when(userRepository.countMembersByTeam(List.of(1L, 2L), RoleName.TECH_LEAD))
+                .thenReturn(List.of(new TeamMemberCount(1L, 3L, 1L)));
+        when(teamRepository.countRepositoriesByTeam(List.of(1L, 2L)))
+                .thenReturn(List.of(new TeamRepositoryCount(1L, 2L), new TeamRepositoryCount(2L, 0L)));
+        when(userRepository.findByTeamIdInAndRoles_Name(List.of(1L, 2L), RoleName.TECH_LEAD))
+                .thenReturn(List.of(testTechLead));
+
+        // WHEN
+        KeysetPage<TeamResponse> page = teamManagementService.getTeams(null, 100);
+
+        // THEN
+        assertEquals(2, page.items().size());
+        assertNull(page.nextAfter());
+        TeamResponse first = page.items().get(0);
+        assertEquals(3, first.getMemberCount());
+        assertEquals(1, first.getTechLeadCount());
+        assertEquals(2, first.getRepositoryCount());
+        assertEquals(List.of(20L), first.getTechLeadIds());
+        TeamResponse second = page.items().get(1);
+        assertEquals(0, second.getMemberCount());
+        assertEquals(0, second.getTechLeadCount());
+        assertEquals(List.of(), second.getTechLeadIds());
+        verify(userRepository, never()).countByTeamId(anyLong());
+    }
+
+    @Test
+    void testGetTeams_whenMoreTeamsExist_returnsCursorOfLastTeam() {
+        // GIVEN
+        Team team2 = new Team("Team 2");
+        team2.setId(2L);
+        when(teamRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2))).thenReturn(List.of(testTeam, team2));
+        when(userRepository.countMembersByTeam(List.of(1L), RoleName.TECH_LEAD)).thenReturn(List.of());
+        when(teamRepository.countRepositoriesByTeam(List.of(1L))).thenReturn(List.of());
+        when(userRepository.findByTeamIdInAndRoles_Name(List.of(1L), RoleName.TECH_LEAD)).thenReturn(List.of());
+
+        // WHEN
+        KeysetPage<TeamResponse> page = teamManagementService.getTeams(null, 1);
+
+        // THEN
+        assertEquals(1, page.items().size());
+        assertEquals(1L, page.nextAfter());
+    }
+
+    @Test
+    void testGetTeams_withoutCursorOrLimit_readsCappedFirstPage() {
         // GIVEN
         Team team2 = new Team("Team 2");
         team2.setId(2L);
-        when(teamRepository.findAll()).thenReturn(List.of(testTeam, team2));
-        when(userRepository.countByTeamId(anyLong())).thenReturn(0L);
-        when(userRepository.countByTeamIdAndRoles_Name(anyLong(), any(RoleName.class))).thenReturn(0L);
-        when(userRepository.findByTeamIdAndRoles_Name(anyLong(), any(RoleName.class))).thenReturn(Collections.emptyList());
+        when(teamRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(KeysetPage.MAX_SIZE + 1)))
+                .thenReturn(List.of(testTeam, team2));
+        when(userRepository.countMembersByTeam(List.of(1L, 2L), RoleName.TECH_LEAD)).thenReturn(List.of());
+        when(teamRepository.countRepositoriesByTeam(List.of(1L, 2L))).thenReturn(List.of());
+        when(userRepository.findByTeamIdInAndRoles_Name(List.of(1L, 2L), RoleName.TECH_LEAD)).thenReturn(List.of());
 
         // WHEN
-        List<TeamResponse> teams = teamManagementService.getAllTeams();
+        KeysetPage<TeamResponse> page = teamManagementService.getTeams(null, null);
 
         // THEN
-        assertEquals(2, teams.size());
+        assertEquals(2, page.items().size());
+        assertNull(page.nextAfter());
     }
 }
@@ -13,6 +13,7 @@ import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -29,7 +30,7 @@ class TechLeadDashboardServiceTest {
     private CommitRepository commitRepository;
 
     @Mock
-    private ChangeLeadTimeRepository changeLeadTimeRepository;
+    private LeadTimeFactRepository leadTimeFactRepository;
 
     @Mock
     private IncidentRepository incidentRepository;
@@ -37,9 +38,6 @@ class TechLeadDashboardServiceTest {
     @Mock
     private PullRequestRepository pullRequestRepository;
 
-    @Mock
-    private CommitParentRepository commitParentRepository;
-
     @InjectMocks
     private TechLeadDashboardService techLeadDashboardService;
 
@@ -89,13 +87,11 @@ class TechLeadDashboardServiceTest {
                 .thenReturn(Optional.of(team));
         when(userRepository.findByTeamId(100L))
                 .thenReturn(teamMembers);
-        when(commitRepository.findAll())
+        when(commitRepository.findNonMergeByAuthorKeys(Set.of("techlead", "developer1", "developer2")))
                 .thenReturn(commits);
-        when(changeLeadTimeRepository.findAll())
+        when(leadTimeFactRepository.findByAuthorsDeployedBetween(any(), any(), any()))
                 .thenReturn(Collections.emptyList());
-        when(pullRequestRepository.findAll())
-                .thenReturn(Collections.emptyList());
-        when(commitParentRepository.findAll())
+        when(pullRequestRepository.findByFirstCommitAuthorKeys(Set.of("techlead", "developer1", "developer2")))
                 .thenReturn(Collections.emptyList());
 
         // When
@@ -147,13 +143,11 @@ class TechLeadDashboardServiceTest {
                 .thenReturn(Optional.of(team));
         when(userRepository.findByTeamId(100L))
                 .thenReturn(teamMembers);
-        when(commitRepository.findAll())
+        when(commitRepository.findNonMergeByAuthorKeys(Set.of("developer1", "developer2")))
                 .thenReturn(commits);
-        when(changeLeadTimeRepository.findAll())
-                .thenReturn(Collections.emptyList());
-        when(pullRequestRepository.findAll())
+        when(leadTimeFactRepository.findByAuthorsDeployedBetween(any(), any(), any()))
                 .thenReturn(Collections.emptyList());
-        when(commitParentRepository.findAll())
+        when(pullRequestRepository.findByFirstCommitAuthorKeys(Set.of("developer1", "developer2")))
                 .thenReturn(Collections.emptyList());
 
         List<Long> memberFilter = Arrays.asList(2L, 3L); // Solo developers, sin tech lead
@@ -201,9 +195,10 @@ class TechLeadDashboardServiceTest {
                 .thenReturn(Optional.of(team));
         when(userRepository.findByTeamId(100L))
                 .thenReturn(teamMembers);
-        when(commitRepository.findAll())
+        when(commitRepository.findNonMergeByAuthorKeys(Set.of("techlead", "developer1", "developer2")))
                 .thenReturn(commits);
-        when(changeLeadTimeRepository.findAll())
+        when(leadTimeFactRepository.findByAuthorsDeployedBetween(Set.of("developer1", "developer2"),
+                startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay()))
                 .thenReturn(Collections.emptyList());
 
         // When
@@ -212,7 +207,9 @@ class TechLeadDashboardServiceTest {
 
         // Then
         assertNotNull(response);
-        verify(changeLeadTimeRepository).findAll();
+        verify(leadTimeFactRepository, atLeastOnce()).findByAuthorsDeployedBetween(Set.of("developer1", "developer2"),
+                startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+        verify(leadTimeFactRepository, never()).findAll();
     }
 
     @Test
@@ -226,9 +223,10 @@ class TechLeadDashboardServiceTest {
                 .thenReturn(Optional.of(team));
         when(userRepository.findByTeamId(100L))
                 .thenReturn(teamMembers);
-        when(commitRepository.findAll())
+        when(commitRepository.findNonMergeByAuthorKeys(Set.of("techlead", "developer1", "developer2")))
                 .thenReturn(commits);
-        when(changeLeadTimeRepository.findAll())
+        when(leadTimeFactRepository.findByAuthorsDeployedBetweenInRepositories(Set.of("developer1", "developer2"),
+                DashboardPeriod.from(null), DashboardPeriod.to(null), repositoryIds))
                 .thenReturn(Collections.emptyList());
 
         // When
@@ -237,6 +235,8 @@ class TechLeadDashboardServiceTest {
 
         // Then
         assertNotNull(response);
-        verify(changeLeadTimeRepository).findAll();
+        verify(leadTimeFactRepository).findByAuthorsDeployedBetweenInRepositories(Set.of("developer1", "developer2"),
+                DashboardPeriod.from(null), DashboardPeriod.to(null), repositoryIds);
+        verify(leadTimeFactRepository, never()).findByAuthorsDeployedBetween(any(), any(), any());
     }
 }
@@ -139,6 +139,14 @@ resource "aws_elastic_beanstalk_environment" "tesis_env" {
     name      = "JDBC_DATABASE_PASSWORD"
     value     = var.db_password
   }
+  dynamic "setting" {
+    for_each = aws_db_instance.tesis_db_replica
+    content {
+      namespace = "aws:elasticbeanstalk:application:environment"
+      name      = "DORA_DATASOURCE_REPLICA_URL"
+      value     = "jdbc:mysql://${setting.value.address}:${setting.value.port}/${aws_db_instance.tesis_db.db_name}"
+    }
+  }
   setting {
     namespace = "aws:elasticbeanstalk:application:environment"
     name      = "SPRING_SECURITY_OAUTH2_CLIENT_REGISTRATION_GITHUB_CLIENT_ID"
@@ -16,4 +16,17 @@ resource "aws_db_instance" "tesis_db" {
   db_subnet_group_name = aws_db_subnet_group.rds_subnet_group.name # <-- AÑADIDO: Coloca la BD en subredes privadas
   vpc_security_group_ids = [aws_security_group.db_sg.id]
   skip_final_snapshot  = true
+
+  # RDS solo crea réplicas de instancias con backups automáticos
+  backup_retention_period = var.enable_read_replica ? 1 : null
+}
+
+# Réplica de lectura para los dashboards (opcional). La aplicación la usa si recibe DORA_DATASOURCE_REPLICA_URL.
+resource "aws_db_instance" "tesis_db_replica" {
+  count                  = var.enable_read_replica ? 1 : 0
+  identifier             = "tesis-database-replica"
+  replicate_source_db    = aws_db_instance.tesis_db.identifier
+  instance_class         = "db.t3.micro"
+  vpc_security_group_ids = [aws_security_group.db_sg.id]
+  skip_final_snapshot    = true
 }
@@ -72,3 +72,9 @@ variable "datadog_application_key" {
   type        = string
   sensitive   = true
 }
+
+variable "enable_read_replica" {
+  description = "Crea una réplica de lectura de RDS para las consultas de los dashboards."
+  type        = bool
+  default     = false
+}